@@ -0,0 +1,196 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.io.stream;
+
+import org.elasticsearch.benchmark.util.AccessLogGenerator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the primitives of the transport protocol, {@link BytesStreamOutput} on the sending side and the
+ * {@link StreamInput} of a {@link BytesReference} on the receiving side. Variable-length integers are mostly small, as
+ * doc counts, sizes and ids are, variable-length longs are timestamps and strings are URLs with some non-ASCII words mixed in.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class StreamBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int OPERATIONS = 4096;
+
+    private int[] ints;
+    private long[] longs;
+    private String[] strings;
+    private byte[][] byteArrays;
+
+    private BytesStreamOutput out;
+
+    private BytesReference serializedInts;
+    private BytesReference serializedLongs;
+    private BytesReference serializedStrings;
+    private BytesReference serializedByteArrays;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        AccessLogGenerator generator = new AccessLogGenerator(42);
+        ints = new int[OPERATIONS];
+        longs = new long[OPERATIONS];
+        strings = new String[OPERATIONS];
+        byteArrays = new byte[OPERATIONS][];
+        long timestamp = 1466003280000L;
+        for (int i = 0; i < OPERATIONS; i++) {
+            // mostly values that fit in one or two bytes, sometimes large ones
+            ints[i] = random.nextInt(10) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(1 << 14);
+            timestamp += random.nextInt(1000);
+            longs[i] = timestamp;
+            strings[i] = random.nextInt(10) == 0 ? "gr\u00f6\u00dfe-" + generator.nextWord() + "-\u5927\u5c0f" : generator.nextUrl();
+            byteArrays[i] = new byte[random.nextInt(1024)];
+            random.nextBytes(byteArrays[i]);
+        }
+        out = new BytesStreamOutput();
+
+        BytesStreamOutput serialized = new BytesStreamOutput();
+        for (int value : ints) {
+            serialized.writeVInt(value);
+        }
+        serializedInts = serialized.bytes();
+        serialized = new BytesStreamOutput();
+        for (long value : longs) {
+            serialized.writeVLong(value);
+        }
+        serializedLongs = serialized.bytes();
+        serialized = new BytesStreamOutput();
+        for (String value : strings) {
+            serialized.writeString(value);
+        }
+        serializedStrings = serialized.bytes();
+        serialized = new BytesStreamOutput();
+        for (byte[] value : byteArrays) {
+            serialized.writeByteArray(value);
+        }
+        serializedByteArrays = serialized.bytes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int writeVInt() throws IOException {
+        out.reset();
+        for (int value : ints) {
+            out.writeVInt(value);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long readVInt() throws IOException {
+        StreamInput in = serializedInts.streamInput();
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += in.readVInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int writeVLong() throws IOException {
+        out.reset();
+        for (long value : longs) {
+            out.writeVLong(value);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long readVLong() throws IOException {
+        StreamInput in = serializedLongs.streamInput();
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += in.readVLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int writeString() throws IOException {
+        out.reset();
+        for (String value : strings) {
+            out.writeString(value);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long readString() throws IOException {
+        StreamInput in = serializedStrings.streamInput();
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += in.readString().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int writeByteArray() throws IOException {
+        out.reset();
+        for (byte[] value : byteArrays) {
+            out.writeByteArray(value);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long readByteArray() throws IOException {
+        StreamInput in = serializedByteArrays.streamInput();
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += in.readByteArray().length;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.util;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.benchmark.util.AccessLogGenerator;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link BytesRefHash} assigns ids to terms, which is what terms aggregations on fields without global ordinals
+ * and significant terms aggregations do for every collected value. The terms are URLs of an access log so that their lengths
+ * and their frequencies are realistic.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class BytesRefHashBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int OPERATIONS = 65536;
+
+    @Param({"100", "10000", "1000000"})
+    public int uniqueTerms = 10000;
+
+    private BytesRef[] terms;
+    private BytesRefHash filledHash;
+
+    @Setup
+    public void setUp() {
+        AccessLogGenerator generator = new AccessLogGenerator(42, 1, uniqueTerms, 1);
+        terms = new BytesRef[OPERATIONS];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new BytesRef(generator.nextUrl());
+        }
+        filledHash = new BytesRefHash(1, BigArrays.NON_RECYCLING_INSTANCE);
+        for (BytesRef term : terms) {
+            filledHash.add(term);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        filledHash.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long add() {
+        // start from a small hash as aggregators do, so that the cost of growing the hash is included
+        try (BytesRefHash hash = new BytesRefHash(1, BigArrays.NON_RECYCLING_INSTANCE)) {
+            long sum = 0;
+            for (BytesRef term : terms) {
+                sum += hash.add(term);
+            }
+            return sum;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long find() {
+        long sum = 0;
+        for (BytesRef term : terms) {
+            sum += filledHash.find(term);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.util;
+
+import org.elasticsearch.benchmark.util.Zipf;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.LongHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link LongHash} assigns ids to keys, which is what terms aggregations on numeric fields, histograms and
+ * terms aggregations that use a hash over global ordinals do for every collected value. <code>sequential</code> keys model
+ * histogram buckets and ordinals, <code>random</code> keys model numeric values spread over the whole <code>long</code> range.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class LongHashBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int OPERATIONS = 65536;
+
+    @Param({"100", "10000", "1000000"})
+    public int uniqueKeys = 10000;
+
+    @Param({"sequential", "random"})
+    public String keys = "random";
+
+    private long[] values;
+    private LongHash filledHash;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long[] distinctKeys = new long[uniqueKeys];
+        for (int i = 0; i < distinctKeys.length; i++) {
+            distinctKeys[i] = "sequential".equals(keys) ? i : random.nextLong();
+        }
+        Zipf distribution = new Zipf(uniqueKeys, 1.0d, random);
+        values = new long[OPERATIONS];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = distinctKeys[distribution.next()];
+        }
+        filledHash = new LongHash(1, BigArrays.NON_RECYCLING_INSTANCE);
+        for (long value : values) {
+            filledHash.add(value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        filledHash.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long add() {
+        // start from a small hash as aggregators do, so that the cost of growing the hash is included
+        try (LongHash hash = new LongHash(1, BigArrays.NON_RECYCLING_INSTANCE)) {
+            long sum = 0;
+            for (long value : values) {
+                sum += hash.add(value);
+            }
+            return sum;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long find() {
+        long sum = 0;
+        for (long value : values) {
+            sum += filledHash.find(value);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.xcontent;
+
+import org.elasticsearch.benchmark.util.AccessLogGenerator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link XContentBuilder} renders access log documents in the different content types, either from a
+ * map, as it happens when rendering a modified <code>_source</code> or the result of a script, or by copying the structure of
+ * a JSON document, as it happens when converting the <code>_source</code> to the content type that was requested.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class XContentBuilderBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int DOCUMENTS = 256;
+
+    @Param({"JSON", "SMILE", "CBOR", "YAML"})
+    public String type = "JSON";
+
+    private XContentType xContentType;
+    private BytesReference[] sources;
+    private Map<String, Object>[] maps;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        xContentType = XContentType.valueOf(type);
+        AccessLogGenerator generator = new AccessLogGenerator(42);
+        sources = new BytesReference[DOCUMENTS];
+        maps = new Map[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            sources[i] = generator.nextDocument();
+            maps[i] = XContentHelper.convertToMap(sources[i], true).v2();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public long buildFromMap() throws IOException {
+        long size = 0;
+        for (Map<String, Object> map : maps) {
+            XContentBuilder builder = XContentFactory.contentBuilder(xContentType);
+            builder.map(map);
+            size += builder.bytes().length();
+        }
+        return size;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public long copyFromJson() throws IOException {
+        long size = 0;
+        for (BytesReference source : sources) {
+            try (XContentParser parser = XContentType.JSON.xContent().createParser(source)) {
+                parser.nextToken();
+                XContentBuilder builder = XContentFactory.contentBuilder(xContentType);
+                builder.copyCurrentStructure(parser);
+                size += builder.bytes().length();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.index.mapper;
+
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.Version;
+import org.elasticsearch.benchmark.util.AccessLogGenerator;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.analysis.AnalysisService;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.Mapping;
+import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.index.similarity.SimilarityService;
+import org.elasticsearch.indices.IndicesModule;
+import org.elasticsearch.indices.analysis.AnalysisModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast access log documents are turned into Lucene documents by the {@link DocumentMapper}. With an
+ * <code>explicit</code> mapping the fields are mapped upfront, with a <code>dynamic</code> mapping the mapping is the one that
+ * dynamic mapping creates for the first document, e.g. strings are mapped as <code>text</code> with a <code>keyword</code>
+ * sub-field. In both cases all fields are mapped when the benchmark runs, as it is the case for all but the first documents
+ * of an index.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class DocumentParserBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final String INDEX = "benchmark";
+    private static final String TYPE = "logs";
+    private static final int DOCUMENTS = 256;
+
+    @Param({"explicit", "dynamic"})
+    public String mapping = "explicit";
+
+    private Path home;
+    private AnalysisService analysisService;
+    private DocumentMapper documentMapper;
+    private BytesReference[] sources;
+
+    @Setup
+    public void setUp() throws IOException {
+        home = Files.createTempDirectory("document-parser-benchmark");
+        Settings nodeSettings = Settings.builder().put(Environment.PATH_HOME_SETTING.getKey(), home.toString()).build();
+        Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
+        IndexMetaData metaData = IndexMetaData.builder(INDEX).settings(settings).numberOfShards(1).numberOfReplicas(0).build();
+        IndexSettings indexSettings = new IndexSettings(metaData, nodeSettings);
+        analysisService = new AnalysisModule(new Environment(nodeSettings), Collections.emptyList()).getAnalysisRegistry()
+            .build(indexSettings);
+        SimilarityService similarityService = new SimilarityService(indexSettings, Collections.emptyMap());
+        MapperService mapperService = new MapperService(indexSettings, analysisService, similarityService,
+            new IndicesModule(new NamedWriteableRegistry(), Collections.emptyList()).getMapperRegistry(), () -> null);
+
+        AccessLogGenerator generator = new AccessLogGenerator(42);
+        sources = new BytesReference[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            sources[i] = generator.nextDocument();
+        }
+
+        if ("explicit".equals(mapping)) {
+            String typeMapping = "{\"" + TYPE + "\":" + AccessLogGenerator.MAPPING + "}";
+            documentMapper = mapperService.merge(TYPE, new CompressedXContent(typeMapping), MapperService.MergeReason.MAPPING_UPDATE,
+                false);
+        } else {
+            documentMapper = mapperService.merge(TYPE, new CompressedXContent("{\"" + TYPE + "\":{}}"),
+                MapperService.MergeReason.MAPPING_UPDATE, false);
+            for (BytesReference source : sources) {
+                Mapping update = documentMapper.parse(SourceToParse.source(INDEX, TYPE, "0", source)).dynamicMappingsUpdate();
+                if (update != null) {
+                    documentMapper = mapperService.merge(TYPE, new CompressedXContent(update.toString()),
+                        MapperService.MergeReason.MAPPING_UPDATE, false);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        analysisService.close();
+        IOUtils.rm(home);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public long parse() {
+        long numFields = 0;
+        for (int i = 0; i < sources.length; i++) {
+            ParsedDocument doc = documentMapper.parse(SourceToParse.source(INDEX, TYPE, Integer.toString(i), sources[i]));
+            numFields += doc.rootDoc().getFields().size();
+        }
+        return numFields;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.index.translog;
+
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.logging.ESLoggerFactory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.AsyncIOProcessor;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.index.translog.TranslogConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Measures the throughput of indexing operations that need to be fsynced before they are acknowledged, as it happens with
+ * <code>index.translog.durability=request</code>, depending on the number of concurrent writers. In <code>blocking</code> mode
+ * each writer waits for its own fsync, in <code>group_commit</code> mode the locations are batched and writers are notified
+ * asynchronously once a single fsync covered them.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class TranslogSyncBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int OPERATIONS = 4096;
+
+    @Param({"1", "4", "16", "64"})
+    public int concurrency = 1;
+
+    @Param({"blocking", "group_commit"})
+    public String mode = "group_commit";
+
+    @Param({"512"})
+    public int sourceSize = 512;
+
+    private Path translogPath;
+    private Translog translog;
+    private AsyncIOProcessor<Translog.Location> syncProcessor;
+    private ExecutorService executor;
+    private byte[] source;
+
+    @Setup
+    public void setUp() throws IOException {
+        translogPath = Files.createTempDirectory("translog-sync-benchmark");
+        Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
+        IndexMetaData metaData = IndexMetaData.builder("benchmark").settings(settings).numberOfShards(1).numberOfReplicas(0).build();
+        IndexSettings indexSettings = new IndexSettings(metaData, Settings.EMPTY);
+        TranslogConfig config = new TranslogConfig(new ShardId(metaData.getIndex(), 0), translogPath, indexSettings,
+            BigArrays.NON_RECYCLING_INSTANCE);
+        translog = new Translog(config, null);
+        syncProcessor = new AsyncIOProcessor<Translog.Location>(ESLoggerFactory.getLogger("benchmark"), 1024) {
+            @Override
+            protected void write(List<Tuple<Translog.Location, Consumer<Throwable>>> candidates) throws IOException {
+                translog.ensureSynced(candidates.stream().map(Tuple::v1));
+            }
+        };
+        executor = Executors.newFixedThreadPool(concurrency);
+        source = new byte[sourceSize];
+    }
+
+    @TearDown(Level.Iteration)
+    public void trimTranslog() throws IOException {
+        // roll and drop the generations that were written so far so that the translog does not grow across iterations
+        translog.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        translog.close();
+        IOUtils.rm(translogPath);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void indexAndSync() throws Exception {
+        final boolean groupCommit = "group_commit".equals(mode);
+        final CountDownLatch synced = new CountDownLatch(OPERATIONS);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int writer = 0; writer < concurrency; writer++) {
+            final int firstOp = writer;
+            executor.execute(() -> {
+                for (int op = firstOp; op < OPERATIONS; op += concurrency) {
+                    try {
+                        Translog.Location location = translog.add(new Translog.Index("type", Integer.toString(op), source));
+                        if (groupCommit) {
+                            syncProcessor.put(location, ex -> {
+                                if (ex != null) {
+                                    failure.set(ex);
+                                }
+                                synced.countDown();
+                            });
+                        } else {
+                            translog.ensureSynced(location);
+                            synced.countDown();
+                        }
+                    } catch (Throwable t) {
+                        failure.set(t);
+                        synced.countDown();
+                    }
+                }
+            });
+        }
+        synced.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("failed to index and sync", failure.get());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.search.aggregations.bucket.terms;
+
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.benchmark.util.AccessLogGenerator;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.index.MergePolicyConfig;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
+
+/**
+ * Measures a <code>terms</code> aggregation on a <code>keyword</code> field, which is executed by
+ * {@code GlobalOrdinalsStringTermsAggregator}. The aggregation runs through the regular search and aggregation framework of a
+ * local single node with a single shard whose index has the configured number of segments. With the <code>global_ordinals</code>
+ * execution hint the global ordinal is the bucket ordinal, with the <code>global_ordinals_hash</code> execution hint, which is the
+ * default for sub-aggregations, the bucket ordinals are assigned by a hash table.
+ * <p>
+ * {@link #terms()} runs against global ordinals that are cached by the field data cache, {@link #termsColdGlobalOrdinals(ColdCache)}
+ * clears the cache before each invocation and so also measures building the global ordinals.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class GlobalOrdinalsTermsBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final String INDEX = "benchmark";
+    private static final String TYPE = "doc";
+    private static final String FIELD = "request.url";
+    private static final int BULK_SIZE = 5000;
+
+    @Param({"500000"})
+    public int numDocs = 500000;
+
+    @Param({"1000", "100000"})
+    public int uniqueTerms = 1000;
+
+    @Param({"1", "20"})
+    public int segments = 20;
+
+    @Param({"global_ordinals", "global_ordinals_hash"})
+    public String executionHint = "global_ordinals";
+
+    private Path home;
+    private Node node;
+    private Client client;
+
+    @Setup
+    public void setUp() throws Exception {
+        home = Files.createTempDirectory("benchmark");
+        node = new Node(Settings.builder()
+            .put(Environment.PATH_HOME_SETTING.getKey(), home.toString())
+            .put(Node.NODE_LOCAL_SETTING.getKey(), true)
+            .put("cluster.name", "benchmark")
+            .put("node.name", "benchmark")
+            .put("http.enabled", false)
+            .build());
+        node.start();
+        client = node.client();
+        client.admin().indices().prepareCreate(INDEX)
+            .setSettings(Settings.builder()
+                .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+                .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+                // no background merges, every refresh below creates one segment
+                .put(MergePolicyConfig.INDEX_MERGE_POLICY_SEGMENTS_PER_TIER_SETTING.getKey(), 100)
+                .put("index.refresh_interval", -1))
+            .addMapping(TYPE, AccessLogGenerator.MAPPING)
+            .get();
+        client.admin().cluster().prepareHealth(INDEX).setWaitForGreenStatus().get();
+
+        AccessLogGenerator generator = new AccessLogGenerator(42, 1, uniqueTerms, 1);
+        int docsPerSegment = (numDocs + segments - 1) / segments;
+        BulkRequestBuilder bulk = client.prepareBulk();
+        for (int i = 0; i < numDocs; i++) {
+            bulk.add(client.prepareIndex(INDEX, TYPE).setSource(jsonBuilder().startObject()
+                .startObject("request").field("url", generator.nextUrl()).endObject()
+                .endObject()));
+            if (bulk.numberOfActions() == BULK_SIZE || (i + 1) % docsPerSegment == 0 || i + 1 == numDocs) {
+                if (bulk.get().hasFailures()) {
+                    throw new IllegalStateException("failed to index benchmark documents");
+                }
+                bulk = client.prepareBulk();
+            }
+            if ((i + 1) % docsPerSegment == 0) {
+                client.admin().indices().prepareRefresh(INDEX).get();
+            }
+        }
+        client.admin().indices().prepareForceMerge(INDEX).setMaxNumSegments(segments).get();
+        client.admin().indices().prepareRefresh(INDEX).get();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        node.close();
+        IOUtils.rm(home);
+    }
+
+    @Benchmark
+    public long terms() {
+        return search();
+    }
+
+    @Benchmark
+    public long termsColdGlobalOrdinals(ColdCache coldCache) {
+        return search();
+    }
+
+    private long search() {
+        SearchResponse response = client.prepareSearch(INDEX)
+            .setSize(0)
+            .setRequestCache(false)
+            .addAggregation(AggregationBuilders.terms("urls").field(FIELD).executionHint(executionHint))
+            .get();
+        Terms terms = response.getAggregations().get("urls");
+        return terms.getSumOfOtherDocCounts();
+    }
+
+    /**
+     * Clears the field data cache, and with it the global ordinals of the benchmark index, before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clearFieldDataCache(GlobalOrdinalsTermsBenchmark benchmark) {
+            benchmark.client.admin().indices().prepareClearCache(INDEX).setFieldDataCache(true).get();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.util;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates HTTP access log documents, the most common kind of data that is indexed and aggregated on. Client addresses, URLs
+ * and message words follow a Zipf distribution and the generator is seeded so that every benchmark run sees the same data.
+ * <p>
+ * The documents are in the following shape:
+ * <pre>
+ * {
+ *   "@timestamp": 1466003280000,
+ *   "clientip": "10.12.3.200",
+ *   "request": { "method": "GET", "url": "/products/42/reviews?page=3", "http_version": "1.1" },
+ *   "status": 200,
+ *   "size": 5122,
+ *   "useragent": "Mozilla/5.0 ...",
+ *   "geo": { "country_iso_code": "DE", "city_name": "city-12" },
+ *   "message": "..."
+ * }
+ * </pre>
+ */
+public final class AccessLogGenerator {
+    /**
+     * Mapping that matches the generated documents.
+     */
+    public static final String MAPPING = "{\"properties\":{" +
+        "\"@timestamp\":{\"type\":\"date\"}," +
+        "\"clientip\":{\"type\":\"ip\"}," +
+        "\"request\":{\"properties\":{" +
+            "\"method\":{\"type\":\"keyword\"}," +
+            "\"url\":{\"type\":\"keyword\"}," +
+            "\"http_version\":{\"type\":\"keyword\"}}}," +
+        "\"status\":{\"type\":\"integer\"}," +
+        "\"size\":{\"type\":\"long\"}," +
+        "\"useragent\":{\"type\":\"text\"}," +
+        "\"geo\":{\"properties\":{" +
+            "\"country_iso_code\":{\"type\":\"keyword\"}," +
+            "\"city_name\":{\"type\":\"keyword\"}}}," +
+        "\"message\":{\"type\":\"text\"}}}";
+
+    private static final String[] METHODS = {"GET", "GET", "GET", "GET", "GET", "GET", "POST", "POST", "PUT", "DELETE", "HEAD"};
+    private static final String[] SECTIONS = {"products", "users", "orders", "search", "static", "images", "api/v1", "api/v2"};
+    private static final String[] COUNTRIES = {"US", "CN", "DE", "IN", "JP", "GB", "FR", "BR", "RU", "CA", "IT", "ES", "AU", "NL"};
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/51.0.2704.103 Safari/537.36",
+        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_11_5) AppleWebKit/601.6.17 (KHTML, like Gecko) Version/9.1.1 Safari/601.6.17",
+        "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:47.0) Gecko/20100101 Firefox/47.0",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 9_3_2 like Mac OS X) AppleWebKit/601.1.46 (KHTML, like Gecko) Mobile/13F69",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+        "curl/7.47.0"
+    };
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "ta", "zo", "be", "fi", "gu", "ha", "jo", "pe", "si"};
+
+    private final Random random;
+    private final String[] clientIps;
+    private final String[] urls;
+    private final String[] words;
+    private final Zipf clientIpDistribution;
+    private final Zipf urlDistribution;
+    private final Zipf wordDistribution;
+    private final Zipf cityDistribution;
+    private long timestamp = 1466003280000L;
+
+    public AccessLogGenerator(long seed) {
+        this(seed, 10000, 2000, 5000);
+    }
+
+    /**
+     * @param seed          the seed of all random decisions
+     * @param numClientIps  the number of distinct client addresses
+     * @param numUrls       the number of distinct URLs
+     * @param numWords      the size of the vocabulary of the <code>message</code> field
+     */
+    public AccessLogGenerator(long seed, int numClientIps, int numUrls, int numWords) {
+        this.random = new Random(seed);
+        this.clientIps = new String[numClientIps];
+        for (int i = 0; i < numClientIps; i++) {
+            clientIps[i] = "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+        }
+        this.urls = new String[numUrls];
+        for (int i = 0; i < numUrls; i++) {
+            String url = "/" + SECTIONS[random.nextInt(SECTIONS.length)] + "/" + random.nextInt(100000);
+            if (random.nextBoolean()) {
+                url += "/" + randomWord(random);
+            }
+            if (random.nextInt(4) == 0) {
+                url += "?page=" + random.nextInt(20);
+            }
+            urls[i] = url;
+        }
+        this.words = new String[numWords];
+        for (int i = 0; i < numWords; i++) {
+            words[i] = randomWord(random);
+        }
+        this.clientIpDistribution = new Zipf(numClientIps, 1.0d, random);
+        this.urlDistribution = new Zipf(numUrls, 1.0d, random);
+        this.wordDistribution = new Zipf(numWords, 1.0d, random);
+        this.cityDistribution = new Zipf(1000, 1.2d, random);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int numSyllables = 1 + random.nextInt(4);
+        for (int i = 0; i < numSyllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    /**
+     * Returns a random URL, frequent URLs being returned more often than rare ones.
+     */
+    public String nextUrl() {
+        return urls[urlDistribution.next()];
+    }
+
+    /**
+     * Returns a random client address, frequent addresses being returned more often than rare ones.
+     */
+    public String nextClientIp() {
+        return clientIps[clientIpDistribution.next()];
+    }
+
+    /**
+     * Returns a random word of the <code>message</code> vocabulary.
+     */
+    public String nextWord() {
+        return words[wordDistribution.next()];
+    }
+
+    /**
+     * Writes the next document to the given builder.
+     */
+    public void nextDocument(XContentBuilder builder) throws IOException {
+        timestamp += random.nextInt(1000);
+        builder.startObject();
+        builder.field("@timestamp", timestamp);
+        builder.field("clientip", nextClientIp());
+        builder.startObject("request");
+        builder.field("method", METHODS[random.nextInt(METHODS.length)]);
+        builder.field("url", nextUrl());
+        builder.field("http_version", random.nextInt(10) == 0 ? "1.0" : "1.1");
+        builder.endObject();
+        builder.field("status", nextStatus());
+        builder.field("size", (long) (Math.abs(random.nextGaussian()) * 20000));
+        builder.field("useragent", USER_AGENTS[random.nextInt(USER_AGENTS.length)]);
+        builder.startObject("geo");
+        builder.field("country_iso_code", COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        builder.field("city_name", String.format(Locale.ROOT, "city-%d", cityDistribution.next()));
+        builder.endObject();
+        StringBuilder message = new StringBuilder();
+        int numWords = 5 + random.nextInt(20);
+        for (int i = 0; i < numWords; i++) {
+            if (i > 0) {
+                message.append(' ');
+            }
+            message.append(nextWord());
+        }
+        builder.field("message", message.toString());
+        builder.endObject();
+    }
+
+    /**
+     * Returns the next document as JSON.
+     */
+    public BytesReference nextDocument() throws IOException {
+        return nextDocument(XContentType.JSON);
+    }
+
+    /**
+     * Returns the next document in the given content type.
+     */
+    public BytesReference nextDocument(XContentType type) throws IOException {
+        XContentBuilder builder = XContentFactory.contentBuilder(type);
+        nextDocument(builder);
+        return builder.bytes();
+    }
+
+    private int nextStatus() {
+        int value = random.nextInt(100);
+        if (value < 85) {
+            return 200;
+        } else if (value < 92) {
+            return 304;
+        } else if (value < 97) {
+            return 404;
+        } else if (value < 99) {
+            return 500;
+        } else {
+            return 503;
+        }
+    }
+}
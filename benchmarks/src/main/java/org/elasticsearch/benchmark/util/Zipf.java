@@ -0,0 +1,58 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks in <code>[0, n)</code> following a Zipf distribution so that a few values are very frequent and most values are
+ * rare, which is how terms, client addresses or URLs are typically distributed in real-world data.
+ */
+public final class Zipf {
+    private final double[] cumulativeProbabilities;
+    private final Random random;
+
+    public Zipf(int n, double exponent, Random random) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than 0 but was [" + n + "]");
+        }
+        this.random = random;
+        this.cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0d / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    /**
+     * Returns the next rank, <code>0</code> being the most frequent one.
+     */
+    public int next() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulativeProbabilities.length - 1);
+    }
+}
@@ -22,6 +22,7 @@ package org.elasticsearch.client;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.RequestLine;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -31,17 +32,19 @@ import java.io.IOException;
 import java.util.Objects;
 
 /**
- * Holds an elasticsearch response. It wraps the {@link CloseableHttpResponse} response and associates it with
+ * Holds an elasticsearch response. It wraps the {@link HttpResponse} response and associates it with
  * its corresponding {@link RequestLine} and {@link HttpHost}.
  * It must be closed to free any resource held by it, as well as the corresponding connection in the connection pool.
+ * Responses returned by the async methods of {@link RestClient} have their body already buffered in memory, and don't
+ * hold any connection.
  */
 public class Response implements Closeable {
 
     private final RequestLine requestLine;
     private final HttpHost host;
-    private final CloseableHttpResponse response;
+    private final HttpResponse response;
 
-    Response(RequestLine requestLine, HttpHost host, CloseableHttpResponse response) {
+    Response(RequestLine requestLine, HttpHost host, HttpResponse response) {
         Objects.requireNonNull(requestLine, "requestLine cannot be null");
         Objects.requireNonNull(host, "node cannot be null");
         Objects.requireNonNull(response, "response cannot be null");
@@ -110,6 +113,8 @@ public class Response implements Closeable {
 
     @Override
     public void close() throws IOException {
-        this.response.close();
+        if (response instanceof CloseableHttpResponse) {
+            ((CloseableHttpResponse) response).close();
+        }
     }
 }
@@ -25,6 +25,7 @@ import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -37,12 +38,15 @@ import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpTrace;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.config.Registry;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.util.EntityUtils;
 
 import java.io.Closeable;
@@ -53,6 +57,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -60,6 +65,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -73,6 +80,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * retried after a certain amount of time (minimum 1 minute, maximum 30 minutes), depending on how many times they previously
  * failed (the more failures, the later they will be retried). In case of failures all of the alive nodes (or dead nodes that
  * deserve a retry) are retried till one responds or none of them does, in which case an {@link IOException} will be thrown.
+ * The method {@link #performRequestAsync(String, String, Map, HttpEntity, ResponseListener, Header...)} sends the same request
+ * without blocking the calling thread, through a non-blocking http client, and notifies the provided {@link ResponseListener}
+ * once the request succeeded or definitively failed.
  *
  * Requests can be traced by enabling trace logging for "tracer". The trace logger outputs requests and responses in curl format.
  */
@@ -82,6 +92,11 @@ public final class RestClient implements Closeable {
     public static ContentType JSON_CONTENT_TYPE = ContentType.create("application/json", Consts.UTF_8);
 
     private final CloseableHttpClient client;
+    //the non-blocking client used for async requests, created lazily unless provided through the builder
+    private volatile CloseableHttpAsyncClient asyncClient;
+    private final int maxInFlightRequestsPerHost;
+    private final ConcurrentMap<HttpHost, Semaphore> inFlightRequests = new ConcurrentHashMap<>();
+    private boolean closed = false;
     //we don't rely on default headers supported by HttpClient as those cannot be replaced, plus it would get hairy
     //when we create the HttpClient instance on our own as there would be two different ways to set the default headers.
     private final Header[] defaultHeaders;
@@ -91,9 +106,11 @@ public final class RestClient implements Closeable {
     private final ConcurrentMap<HttpHost, DeadHostState> blacklist = new ConcurrentHashMap<>();
     private final FailureListener failureListener;
 
-    private RestClient(CloseableHttpClient client, long maxRetryTimeoutMillis, Header[] defaultHeaders,
-                       HttpHost[] hosts, FailureListener failureListener) {
+    private RestClient(CloseableHttpClient client, CloseableHttpAsyncClient asyncClient, int maxInFlightRequestsPerHost,
+                       long maxRetryTimeoutMillis, Header[] defaultHeaders, HttpHost[] hosts, FailureListener failureListener) {
         this.client = client;
+        this.asyncClient = asyncClient;
+        this.maxInFlightRequestsPerHost = maxInFlightRequestsPerHost;
         this.maxRetryTimeoutMillis = maxRetryTimeoutMillis;
         this.defaultHeaders = defaultHeaders;
         this.failureListener = failureListener;
@@ -115,6 +132,8 @@ public final class RestClient implements Closeable {
         }
         this.hosts = Collections.unmodifiableSet(httpHosts);
         this.blacklist.clear();
+        //requests that are still in flight against removed hosts release permits that are not tracked anymore, which is harmless
+        this.inFlightRequests.keySet().retainAll(httpHosts);
     }
 
     /**
@@ -139,8 +158,7 @@ public final class RestClient implements Closeable {
         URI uri = buildUri(endpoint, params);
         HttpRequestBase request = createHttpRequest(method, uri, entity);
         setHeaders(request, headers);
-        //we apply a soft margin so that e.g. if a request took 59 seconds and timeout is set to 60 we don't do another attempt
-        long retryTimeoutMillis = Math.round(this.maxRetryTimeoutMillis / (float)100 * 98);
+        long retryTimeoutMillis = retryTimeoutMillis();
         IOException lastSeenException = null;
         long startTime = System.nanoTime();
         for (HttpHost host : nextHost()) {
@@ -169,7 +187,7 @@ public final class RestClient implements Closeable {
             }
             Response response = new Response(request.getRequestLine(), host, httpResponse);
             int statusCode = response.getStatusLine().getStatusCode();
-            if (statusCode < 300 || (request.getMethod().equals(HttpHead.METHOD_NAME) && statusCode == 404) ) {
+            if (isSuccessfulResponse(request.getMethod(), statusCode)) {
                 RequestLogger.logResponse(logger, request, host, httpResponse);
                 onResponse(host);
                 return response;
@@ -186,17 +204,13 @@ public final class RestClient implements Closeable {
                 response.close();
             }
             lastSeenException = addSuppressedException(lastSeenException, new ResponseException(response, responseBody));
-            switch(statusCode) {
-                case 502:
-                case 503:
-                case 504:
-                    //mark host dead and retry against next one
-                    onFailure(host);
-                    break;
-                default:
-                    //mark host alive and don't retry, as the error should be a request problem
-                    onResponse(host);
-                    throw lastSeenException;
+            if (isRetryStatus(statusCode)) {
+                //mark host dead and retry against next one
+                onFailure(host);
+            } else {
+                //mark host alive and don't retry, as the error should be a request problem
+                onResponse(host);
+                throw lastSeenException;
             }
         }
         //we get here only when we tried all nodes and they all failed
@@ -204,6 +218,209 @@ public final class RestClient implements Closeable {
         throw lastSeenException;
     }
 
+    /**
+     * Sends a request to the elasticsearch cluster that the current client points to, without blocking the calling thread.
+     * The request is executed by a non-blocking http client, and the provided {@link ResponseListener} gets notified upon
+     * request completion or failure. Hosts are selected and retried exactly like {@link #performRequest(String, String, Map,
+     * HttpEntity, Header...)} does, with the same max retry timeout. Hosts that already have the maximum number of in-flight
+     * requests (see {@link Builder#setMaxInFlightRequestsPerHost(int)}) are skipped; if all of them are busy the request fails
+     * straight-away without marking any host dead.
+     *
+     * @param method the http method
+     * @param endpoint the path of the request (without host and port)
+     * @param params the query_string parameters
+     * @param entity the body of the request, null if not applicable
+     * @param responseListener the {@link ResponseListener} to notify when the request is completed or fails
+     * @param headers the optional request headers
+     */
+    public void performRequestAsync(String method, String endpoint, Map<String, String> params,
+                                    HttpEntity entity, ResponseListener responseListener, Header... headers) {
+        Objects.requireNonNull(responseListener, "response listener must not be null");
+        URI uri = buildUri(endpoint, params);
+        HttpRequestBase request = createHttpRequest(method, uri, entity);
+        setHeaders(request, headers);
+        FailureTrackingResponseListener failureTrackingResponseListener = new FailureTrackingResponseListener(responseListener);
+        long startTime = System.nanoTime();
+        performRequestAsync(startTime, nextHost().iterator(), request, failureTrackingResponseListener);
+    }
+
+    private void performRequestAsync(final long startTime, final Iterator<HttpHost> hosts, final HttpRequestBase request,
+                                     final FailureTrackingResponseListener listener) {
+        HttpHost selectedHost = null;
+        Semaphore selectedHostPermits = null;
+        while (hosts.hasNext()) {
+            HttpHost host = hosts.next();
+            Semaphore permits = inFlightRequests(host);
+            if (permits.tryAcquire()) {
+                selectedHost = host;
+                selectedHostPermits = permits;
+                break;
+            }
+            logger.debug("skipping host [" + host + "], it reached the max number of in-flight requests [" +
+                    maxInFlightRequestsPerHost + "]");
+        }
+        if (selectedHost == null) {
+            listener.onDefinitiveFailure(new IOException("all the hosts that could be tried reached the max number of in-flight requests ["
+                    + maxInFlightRequestsPerHost + "]"));
+            return;
+        }
+        final HttpHost host = selectedHost;
+        final Semaphore permits = selectedHostPermits;
+        final CloseableHttpAsyncClient asyncClient;
+        try {
+            asyncClient = asyncClient();
+        } catch (RuntimeException e) {
+            permits.release();
+            listener.onDefinitiveFailure(e);
+            return;
+        }
+        asyncClient.execute(host, request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse httpResponse) {
+                permits.release();
+                final int statusCode;
+                final Response response;
+                final ResponseException responseException;
+                try {
+                    RequestLogger.logResponse(logger, request, host, httpResponse);
+                    statusCode = httpResponse.getStatusLine().getStatusCode();
+                    response = new Response(request.getRequestLine(), host, httpResponse);
+                    if (isSuccessfulResponse(request.getMethod(), statusCode)) {
+                        responseException = null;
+                    } else {
+                        String responseBody = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity());
+                        responseException = new ResponseException(response, responseBody);
+                    }
+                } catch (Exception e) {
+                    listener.onDefinitiveFailure(e);
+                    return;
+                }
+                //the listener is notified outside of the try block, so that it isn't notified again if it throws
+                if (responseException == null) {
+                    onResponse(host);
+                    listener.onSuccess(response);
+                } else if (isRetryStatus(statusCode)) {
+                    //mark host dead and retry against next one
+                    if (markDead()) {
+                        retryIfPossible(responseException);
+                    }
+                } else {
+                    //mark host alive and don't retry, as the error should be a request problem
+                    onResponse(host);
+                    listener.onDefinitiveFailure(responseException);
+                }
+            }
+
+            @Override
+            public void failed(Exception failure) {
+                permits.release();
+                try {
+                    RequestLogger.logFailedRequest(logger, request, host, failure);
+                } catch (Exception e) {
+                    listener.onDefinitiveFailure(e);
+                    return;
+                }
+                if (markDead()) {
+                    retryIfPossible(failure);
+                }
+            }
+
+            /**
+             * Marks the host dead. Returns false if the failure listener threw, in which case the listener has been notified.
+             */
+            private boolean markDead() {
+                try {
+                    onFailure(host);
+                    return true;
+                } catch (Exception e) {
+                    listener.onDefinitiveFailure(e);
+                    return false;
+                }
+            }
+
+            private void retryIfPossible(Exception exception) {
+                if (hosts.hasNext()) {
+                    listener.trackFailure(exception);
+                    //in case we are retrying, check whether maxRetryTimeout has been reached
+                    long retryTimeoutMillis = retryTimeoutMillis();
+                    long timeElapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    if (retryTimeoutMillis - timeElapsedMillis <= 0) {
+                        IOException retryTimeoutException = new IOException(
+                                "request retries exceeded max retry timeout [" + retryTimeoutMillis + "]");
+                        listener.onDefinitiveFailure(retryTimeoutException);
+                    } else {
+                        //also reset the request to make it reusable for the next attempt
+                        request.reset();
+                        performRequestAsync(startTime, hosts, request, listener);
+                    }
+                } else {
+                    listener.onDefinitiveFailure(exception);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                permits.release();
+                listener.onDefinitiveFailure(new ExecutionException("request was cancelled", null));
+            }
+        });
+    }
+
+    private long retryTimeoutMillis() {
+        //we apply a soft margin so that e.g. if a request took 59 seconds and timeout is set to 60 we don't do another attempt
+        return Math.round(this.maxRetryTimeoutMillis / (float)100 * 98);
+    }
+
+    private static boolean isSuccessfulResponse(String method, int statusCode) {
+        return statusCode < 300 || (HttpHead.METHOD_NAME.equals(method) && statusCode == 404);
+    }
+
+    private static boolean isRetryStatus(int statusCode) {
+        switch(statusCode) {
+            case 502:
+            case 503:
+            case 504:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the semaphore that tracks the in-flight async requests against the given host
+     */
+    private Semaphore inFlightRequests(HttpHost host) {
+        Semaphore permits = inFlightRequests.get(host);
+        if (permits == null) {
+            Semaphore newPermits = new Semaphore(maxInFlightRequestsPerHost);
+            permits = inFlightRequests.putIfAbsent(host, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Returns the non-blocking http client, creating and starting the default one on first use if none was provided
+     */
+    private CloseableHttpAsyncClient asyncClient() {
+        CloseableHttpAsyncClient asyncClient = this.asyncClient;
+        if (asyncClient == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("rest client is closed");
+                }
+                asyncClient = this.asyncClient;
+                if (asyncClient == null) {
+                    asyncClient = Builder.createDefaultHttpAsyncClient();
+                    asyncClient.start();
+                    this.asyncClient = asyncClient;
+                }
+            }
+        }
+        return asyncClient;
+    }
+
     private void setHeaders(HttpRequest httpRequest, Header[] requestHeaders) {
         Objects.requireNonNull(requestHeaders, "request headers must not be null");
         for (Header defaultHeader : defaultHeaders) {
@@ -282,10 +499,21 @@ public final class RestClient implements Closeable {
 
     @Override
     public void close() throws IOException {
-        client.close();
+        CloseableHttpAsyncClient asyncClient;
+        synchronized (this) {
+            closed = true;
+            asyncClient = this.asyncClient;
+        }
+        try {
+            client.close();
+        } finally {
+            if (asyncClient != null) {
+                asyncClient.close();
+            }
+        }
     }
 
-    private static IOException addSuppressedException(IOException suppressedException, IOException currentException) {
+    private static <E extends Exception> E addSuppressedException(Exception suppressedException, E currentException) {
         if (suppressedException != null) {
             currentException.addSuppressed(suppressedException);
         }
@@ -356,11 +584,16 @@ public final class RestClient implements Closeable {
         public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 10000;
         public static final int DEFAULT_MAX_RETRY_TIMEOUT_MILLIS = DEFAULT_SOCKET_TIMEOUT_MILLIS;
         public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = 500;
+        public static final int DEFAULT_MAX_CONN_PER_ROUTE = 10;
+        public static final int DEFAULT_MAX_CONN_TOTAL = 30;
+        public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_HOST = Integer.MAX_VALUE;
 
         private static final Header[] EMPTY_HEADERS = new Header[0];
 
         private final HttpHost[] hosts;
         private CloseableHttpClient httpClient;
+        private CloseableHttpAsyncClient httpAsyncClient;
+        private int maxInFlightRequestsPerHost = DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_HOST;
         private int maxRetryTimeout = DEFAULT_MAX_RETRY_TIMEOUT_MILLIS;
         private Header[] defaultHeaders = EMPTY_HEADERS;
         private FailureListener failureListener;
@@ -386,6 +619,33 @@ public final class RestClient implements Closeable {
             return this;
         }
 
+        /**
+         * Sets the non-blocking http client used by the async methods. A new default one will be created and started on
+         * first use if not specified, by calling {@link #createDefaultHttpAsyncClient()}. The client is started if needed
+         * and it gets closed together with the {@link RestClient}.
+         *
+         * @see CloseableHttpAsyncClient
+         */
+        public Builder setHttpAsyncClient(CloseableHttpAsyncClient httpAsyncClient) {
+            this.httpAsyncClient = httpAsyncClient;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of async requests that can be in flight against the same host at any given time.
+         * Hosts that reached it are skipped when sending async requests, which fail if all of the hosts reached it.
+         * {@link #DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_HOST} (unbounded) if not specified.
+         *
+         * @throws IllegalArgumentException if maxInFlightRequestsPerHost is not greater than 0
+         */
+        public Builder setMaxInFlightRequestsPerHost(int maxInFlightRequestsPerHost) {
+            if (maxInFlightRequestsPerHost <= 0) {
+                throw new IllegalArgumentException("maxInFlightRequestsPerHost must be greater than 0");
+            }
+            this.maxInFlightRequestsPerHost = maxInFlightRequestsPerHost;
+            return this;
+        }
+
         /**
          * Sets the maximum timeout (in milliseconds) to honour in case of multiple retries of the same request.
          * {@link #DEFAULT_MAX_RETRY_TIMEOUT_MILLIS} if not specified.
@@ -433,7 +693,11 @@ public final class RestClient implements Closeable {
             if (failureListener == null) {
                 failureListener = new FailureListener();
             }
-            return new RestClient(httpClient, maxRetryTimeout, defaultHeaders, hosts, failureListener);
+            if (httpAsyncClient != null && httpAsyncClient.isRunning() == false) {
+                httpAsyncClient.start();
+            }
+            return new RestClient(httpClient, httpAsyncClient, maxInFlightRequestsPerHost, maxRetryTimeout, defaultHeaders, hosts,
+                    failureListener);
         }
 
         /**
@@ -449,8 +713,8 @@ public final class RestClient implements Closeable {
                 connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
             }
             //default settings may be too constraining
-            connectionManager.setDefaultMaxPerRoute(10);
-            connectionManager.setMaxTotal(30);
+            connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_CONN_PER_ROUTE);
+            connectionManager.setMaxTotal(DEFAULT_MAX_CONN_TOTAL);
 
             //default timeouts are all infinite
             RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(DEFAULT_CONNECT_TIMEOUT_MILLIS)
@@ -458,6 +722,57 @@ public final class RestClient implements Closeable {
                     .setConnectionRequestTimeout(DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS).build();
             return HttpClientBuilder.create().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build();
         }
+
+        /**
+         * Creates a {@link CloseableHttpAsyncClient} with default settings. Used when the async http client instance is not provided.
+         * In contrast to the blocking client, no connection request timeout is set: requests that wait for a pooled connection are
+         * not failed (which would mark the host dead), the number of waiting requests is bounded through
+         * {@link #setMaxInFlightRequestsPerHost(int)} instead.
+         *
+         * @see CloseableHttpAsyncClient
+         */
+        public static CloseableHttpAsyncClient createDefaultHttpAsyncClient() {
+            //default timeouts are all infinite
+            RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(DEFAULT_CONNECT_TIMEOUT_MILLIS)
+                    .setSocketTimeout(DEFAULT_SOCKET_TIMEOUT_MILLIS).build();
+            return HttpAsyncClientBuilder.create().setDefaultRequestConfig(requestConfig)
+                    .setMaxConnPerRoute(DEFAULT_MAX_CONN_PER_ROUTE).setMaxConnTotal(DEFAULT_MAX_CONN_TOTAL).build();
+        }
+    }
+
+    /**
+     * Wraps the {@link ResponseListener} provided to an async request and keeps track of the failures of the previous attempts,
+     * which get added as suppressed exceptions to the definitive failure.
+     */
+    static class FailureTrackingResponseListener {
+        private final ResponseListener responseListener;
+        private volatile Exception exception;
+
+        FailureTrackingResponseListener(ResponseListener responseListener) {
+            this.responseListener = responseListener;
+        }
+
+        /**
+         * Notifies the caller of a response through the wrapped listener
+         */
+        void onSuccess(Response response) {
+            responseListener.onSuccess(response);
+        }
+
+        /**
+         * Tracks one last definitive failure and returns to the caller by notifying the wrapped listener
+         */
+        void onDefinitiveFailure(Exception exception) {
+            trackFailure(exception);
+            responseListener.onFailure(this.exception);
+        }
+
+        /**
+         * Tracks an exception, which caused a retry hence we should not return yet to the caller
+         */
+        void trackFailure(Exception exception) {
+            this.exception = addSuppressedException(this.exception, exception);
+        }
     }
 
     /**
@@ -23,6 +23,7 @@ import com.carrotsearch.randomizedtesting.generators.RandomInts;
 import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.message.BasicHeader;
 
 import java.io.IOException;
@@ -63,6 +64,14 @@ public class RestClientBuilderTests extends RestClientTestCase {
             assertEquals("maxRetryTimeoutMillis must be greater than 0", e.getMessage());
         }
 
+        try {
+            RestClient.builder(new HttpHost("localhost", 9200))
+                    .setMaxInFlightRequestsPerHost(RandomInts.randomIntBetween(getRandom(), Integer.MIN_VALUE, 0));
+            fail("should have failed");
+        } catch(IllegalArgumentException e) {
+            assertEquals("maxInFlightRequestsPerHost must be greater than 0", e.getMessage());
+        }
+
         try {
             RestClient.builder(new HttpHost("localhost", 9200)).setDefaultHeaders(null);
             fail("should have failed");
@@ -101,6 +110,12 @@ public class RestClientBuilderTests extends RestClientTestCase {
             }
             builder.setDefaultHeaders(headers);
         }
+        if (getRandom().nextBoolean()) {
+            builder.setHttpAsyncClient(HttpAsyncClientBuilder.create().build());
+        }
+        if (getRandom().nextBoolean()) {
+            builder.setMaxInFlightRequestsPerHost(RandomInts.randomIntBetween(getRandom(), 1, Integer.MAX_VALUE));
+        }
         if (getRandom().nextBoolean()) {
             builder.setMaxRetryTimeoutMillis(RandomInts.randomIntBetween(getRandom(), 1, Integer.MAX_VALUE));
         }
@@ -47,6 +47,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.elasticsearch.client.RestClientTestUtil.getAllStatusCodes;
 import static org.elasticsearch.client.RestClientTestUtil.getHttpMethods;
@@ -56,6 +61,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Integration test to check interaction between {@link RestClient} and {@link org.apache.http.client.HttpClient}.
@@ -66,17 +72,35 @@ import static org.junit.Assert.assertTrue;
 public class RestClientIntegTests extends RestClientTestCase {
 
     private static HttpServer httpServer;
+    private static ExecutorService httpServerExecutor;
     private static RestClient restClient;
     private static Header[] defaultHeaders;
+    private static volatile CountDownLatch blockingHandlerLatch = new CountDownLatch(0);
 
     @BeforeClass
     public static void startHttpServer() throws Exception {
         httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        //the blocking handler must not hold the only thread that serves the other requests
+        httpServerExecutor = Executors.newCachedThreadPool();
+        httpServer.setExecutor(httpServerExecutor);
         httpServer.start();
         //returns a different status code depending on the path
         for (int statusCode : getAllStatusCodes()) {
             createStatusCodeContext(httpServer, statusCode);
         }
+        //holds the response until the test releases it
+        httpServer.createContext("/blocking", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                try {
+                    blockingHandlerLatch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                httpExchange.sendResponseHeaders(200, -1);
+                httpExchange.close();
+            }
+        });
         int numHeaders = RandomInts.randomIntBetween(getRandom(), 0, 3);
         defaultHeaders = new Header[numHeaders];
         for (int i = 0; i < numHeaders; i++) {
@@ -128,11 +152,14 @@ public class RestClientIntegTests extends RestClientTestCase {
     }
 
     @AfterClass
-    public static void stopHttpServers() throws IOException {
+    public static void stopHttpServers() throws Exception {
         restClient.close();
         restClient = null;
         httpServer.stop(0);
         httpServer = null;
+        httpServerExecutor.shutdown();
+        httpServerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        httpServerExecutor = null;
     }
 
     /**
@@ -218,4 +245,117 @@ public class RestClientIntegTests extends RestClientTestCase {
         assertEquals(statusCode, esResponse.getStatusLine().getStatusCode());
         assertEquals(requestBody, responseBody);
     }
+
+    /**
+     * End to end test for async requests, sent concurrently against the test http server.
+     */
+    public void testAsyncRequests() throws Exception {
+        int numRequests = RandomInts.randomIntBetween(getRandom(), 5, 20);
+        final CountDownLatch latch = new CountDownLatch(numRequests);
+        final List<TestResponse> responses = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < numRequests; i++) {
+            final String method = RestClientTestUtil.randomHttpMethod(getRandom());
+            final int statusCode = randomStatusCode(getRandom());
+            restClient.performRequestAsync(method, "/" + statusCode, Collections.<String, String>emptyMap(), null,
+                    new ResponseListener() {
+                        @Override
+                        public void onSuccess(Response response) {
+                            responses.add(new TestResponse(method, statusCode, response));
+                            latch.countDown();
+                        }
+
+                        @Override
+                        public void onFailure(Exception exception) {
+                            responses.add(new TestResponse(method, statusCode, exception));
+                            latch.countDown();
+                        }
+                    });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(numRequests, responses.size());
+        for (TestResponse testResponse : responses) {
+            Response response = testResponse.getResponse();
+            assertEquals(testResponse.method, response.getRequestLine().getMethod());
+            assertEquals(testResponse.statusCode, response.getStatusLine().getStatusCode());
+        }
+    }
+
+    /**
+     * Verifies that async requests fail straight-away when the only host reached the max number of in-flight requests,
+     * and that the host can be used again once the in-flight request completed.
+     */
+    public void testMaxInFlightRequestsPerHost() throws Exception {
+        blockingHandlerLatch = new CountDownLatch(1);
+        HttpHost host = new HttpHost(httpServer.getAddress().getHostString(), httpServer.getAddress().getPort());
+        try (RestClient client = RestClient.builder(host).setMaxInFlightRequestsPerHost(1).build()) {
+            SyncResponseListener blockedListener = new SyncResponseListener();
+            client.performRequestAsync("GET", "/blocking", Collections.<String, String>emptyMap(), null, blockedListener);
+
+            SyncResponseListener rejectedListener = new SyncResponseListener();
+            client.performRequestAsync("GET", "/200", Collections.<String, String>emptyMap(), null, rejectedListener);
+            try {
+                rejectedListener.get();
+                fail("request should have been rejected");
+            } catch(IOException e) {
+                assertEquals("all the hosts that could be tried reached the max number of in-flight requests [1]", e.getMessage());
+            }
+
+            blockingHandlerLatch.countDown();
+            assertEquals(200, blockedListener.get().getStatusLine().getStatusCode());
+
+            SyncResponseListener listener = new SyncResponseListener();
+            client.performRequestAsync("GET", "/200", Collections.<String, String>emptyMap(), null, listener);
+            assertEquals(200, listener.get().getStatusLine().getStatusCode());
+        } finally {
+            blockingHandlerLatch.countDown();
+        }
+    }
+
+    private static class SyncResponseListener implements ResponseListener {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Response response;
+        private volatile Exception exception;
+
+        @Override
+        public void onSuccess(Response response) {
+            this.response = response;
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Exception exception) {
+            this.exception = exception;
+            latch.countDown();
+        }
+
+        Response get() throws Exception {
+            assertTrue("listener was not notified in time", latch.await(10, TimeUnit.SECONDS));
+            if (exception != null) {
+                throw exception;
+            }
+            return response;
+        }
+    }
+
+    private static class TestResponse {
+        private final String method;
+        private final int statusCode;
+        private final Object response;
+
+        TestResponse(String method, int statusCode, Object response) {
+            this.method = method;
+            this.statusCode = statusCode;
+            this.response = response;
+        }
+
+        Response getResponse() {
+            if (response instanceof Response) {
+                return (Response) response;
+            }
+            if (response instanceof ResponseException) {
+                return ((ResponseException) response).getResponse();
+            }
+            throw new AssertionError("unexpected response " + response.getClass());
+        }
+    }
 }
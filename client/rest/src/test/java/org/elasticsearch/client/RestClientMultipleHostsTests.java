@@ -23,12 +23,16 @@ import com.carrotsearch.randomizedtesting.RandomizedTest;
 import com.carrotsearch.randomizedtesting.generators.RandomInts;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
 import org.apache.http.ProtocolVersion;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 import org.junit.Before;
 import org.mockito.invocation.InvocationOnMock;
@@ -39,6 +43,8 @@ import java.net.SocketTimeoutException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.elasticsearch.client.RestClientTestUtil.randomErrorNoRetryStatusCode;
 import static org.elasticsearch.client.RestClientTestUtil.randomErrorRetryStatusCode;
@@ -47,6 +53,8 @@ import static org.elasticsearch.client.RestClientTestUtil.randomOkStatusCode;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -86,13 +94,39 @@ public class RestClientMultipleHostsTests extends RestClientTestCase {
             }
         });
 
+        CloseableHttpAsyncClient httpAsyncClient = mock(CloseableHttpAsyncClient.class);
+        when(httpAsyncClient.execute(any(HttpHost.class), any(HttpRequest.class), any(FutureCallback.class))).thenAnswer(
+                new Answer<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                HttpHost httpHost = (HttpHost) invocationOnMock.getArguments()[0];
+                HttpUriRequest request = (HttpUriRequest) invocationOnMock.getArguments()[1];
+                FutureCallback<HttpResponse> callback = (FutureCallback<HttpResponse>) invocationOnMock.getArguments()[2];
+                //notify the desired status code or exception depending on the path, from the calling thread
+                if (request.getURI().getPath().equals("/soe")) {
+                    callback.failed(new SocketTimeoutException(httpHost.toString()));
+                } else if (request.getURI().getPath().equals("/coe")) {
+                    callback.failed(new ConnectTimeoutException(httpHost.toString()));
+                } else if (request.getURI().getPath().equals("/ioe")) {
+                    callback.failed(new IOException(httpHost.toString()));
+                } else {
+                    int statusCode = Integer.parseInt(request.getURI().getPath().substring(1));
+                    StatusLine statusLine = new BasicStatusLine(new ProtocolVersion("http", 1, 1), statusCode, "");
+                    callback.completed(new BasicHttpResponse(statusLine));
+                }
+                return null;
+            }
+        });
+
         int numHosts = RandomInts.randomIntBetween(getRandom(), 2, 5);
         httpHosts = new HttpHost[numHosts];
         for (int i = 0; i < numHosts; i++) {
             httpHosts[i] = new HttpHost("localhost", 9200 + i);
         }
         failureListener = new TrackingFailureListener();
-        restClient = RestClient.builder(httpHosts).setHttpClient(httpClient).setFailureListener(failureListener).build();
+        restClient = RestClient.builder(httpHosts).setHttpClient(httpClient).setHttpAsyncClient(httpAsyncClient)
+                .setFailureListener(failureListener).build();
     }
 
     public void testRoundRobinOkStatusCodes() throws Exception {
@@ -263,6 +297,132 @@ public class RestClientMultipleHostsTests extends RestClientTestCase {
         }
     }
 
+    public void testAsyncRoundRobinOkStatusCodes() throws Exception {
+        int numIters = RandomInts.randomIntBetween(getRandom(), 1, 5);
+        for (int i = 0; i < numIters; i++) {
+            Set<HttpHost> hostsSet = new HashSet<>();
+            Collections.addAll(hostsSet, httpHosts);
+            for (int j = 0; j < httpHosts.length; j++) {
+                int statusCode = randomOkStatusCode(getRandom());
+                Response response = performRequestAsync(randomHttpMethod(getRandom()), "/" + statusCode);
+                assertThat(response.getStatusLine().getStatusCode(), equalTo(statusCode));
+                assertTrue("host not found: " + response.getHost(), hostsSet.remove(response.getHost()));
+            }
+            assertEquals("every host should have been used but some weren't: " + hostsSet, 0, hostsSet.size());
+        }
+        failureListener.assertNotCalled();
+    }
+
+    public void testAsyncRoundRobinRetryErrors() throws Exception {
+        String retryEndpoint = randomErrorRetryEndpoint();
+        try {
+            performRequestAsync(randomHttpMethod(getRandom()), retryEndpoint);
+            fail("request should have failed");
+        } catch(IOException e) {
+            Set<HttpHost> hostsSet = new HashSet<>();
+            Collections.addAll(hostsSet, httpHosts);
+            //first request causes all the hosts to be blacklisted, the returned exception holds one suppressed exception each
+            failureListener.assertCalled(httpHosts);
+            Throwable current = e;
+            do {
+                HttpHost httpHost;
+                if (current instanceof ResponseException) {
+                    Response response = ((ResponseException) current).getResponse();
+                    assertThat(response.getStatusLine().getStatusCode(), equalTo(Integer.parseInt(retryEndpoint.substring(1))));
+                    httpHost = response.getHost();
+                } else {
+                    httpHost = HttpHost.create(current.getMessage());
+                }
+                assertTrue("host [" + httpHost + "] not found, most likely used multiple times", hostsSet.remove(httpHost));
+                if (current.getSuppressed().length > 0) {
+                    assertEquals(1, current.getSuppressed().length);
+                    current = current.getSuppressed()[0];
+                    assertThat(current, instanceOf(IOException.class));
+                } else {
+                    current = null;
+                }
+            } while(current != null);
+            assertEquals("every host should have been used but some weren't: " + hostsSet, 0, hostsSet.size());
+        }
+
+        //after the first request all hosts are blacklisted, a single one gets resurrected at each new attempt
+        Set<HttpHost> hostsSet = new HashSet<>();
+        Collections.addAll(hostsSet, httpHosts);
+        for (int j = 0; j < httpHosts.length; j++) {
+            retryEndpoint = randomErrorRetryEndpoint();
+            try {
+                performRequestAsync(randomHttpMethod(getRandom()), retryEndpoint);
+                fail("request should have failed");
+            } catch(ResponseException e) {
+                Response response = e.getResponse();
+                assertTrue("host [" + response.getHost() + "] not found, most likely used multiple times",
+                        hostsSet.remove(response.getHost()));
+                failureListener.assertCalled(response.getHost());
+                assertEquals(0, e.getSuppressed().length);
+            } catch(IOException e) {
+                HttpHost httpHost = HttpHost.create(e.getMessage());
+                assertTrue("host [" + httpHost + "] not found, most likely used multiple times", hostsSet.remove(httpHost));
+                failureListener.assertCalled(httpHost);
+                assertEquals(0, e.getSuppressed().length);
+            }
+        }
+        assertEquals("every host should have been used but some weren't: " + hostsSet, 0, hostsSet.size());
+    }
+
+    public void testAsyncListenerThatThrowsIsNotifiedOnce() throws Exception {
+        final boolean success = RandomizedTest.randomBoolean();
+        final int statusCode = success ? randomOkStatusCode(getRandom()) : randomErrorNoRetryStatusCode(getRandom());
+        final AtomicInteger successes = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final RuntimeException listenerException = new RuntimeException("listener failed");
+        try {
+            restClient.performRequestAsync(randomHttpMethod(getRandom()), "/" + statusCode, Collections.<String, String>emptyMap(),
+                    null, new ResponseListener() {
+                        @Override
+                        public void onSuccess(Response response) {
+                            successes.incrementAndGet();
+                            throw listenerException;
+                        }
+
+                        @Override
+                        public void onFailure(Exception exception) {
+                            failures.incrementAndGet();
+                            throw listenerException;
+                        }
+                    });
+            fail("the listener should have thrown");
+        } catch (RuntimeException e) {
+            //the mocked async client notifies the listener from the calling thread, so what the listener throws ends up here
+            assertSame(listenerException, e);
+        }
+        assertEquals(success ? 1 : 0, successes.get());
+        assertEquals(success ? 0 : 1, failures.get());
+    }
+
+    /**
+     * Sends an async request through the mocked async client, which notifies the listener from the calling thread
+     */
+    private Response performRequestAsync(String method, String endpoint) throws Exception {
+        final AtomicReference<Response> response = new AtomicReference<>();
+        final AtomicReference<Exception> exception = new AtomicReference<>();
+        restClient.performRequestAsync(method, endpoint, Collections.<String, String>emptyMap(), null, new ResponseListener() {
+            @Override
+            public void onSuccess(Response r) {
+                response.set(r);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                exception.set(e);
+            }
+        });
+        if (exception.get() != null) {
+            throw exception.get();
+        }
+        assertNotNull("listener was not notified", response.get());
+        return response.get();
+    }
+
     private static String randomErrorRetryEndpoint() {
         switch(RandomInts.randomIntBetween(getRandom(), 0, 3)) {
             case 0:
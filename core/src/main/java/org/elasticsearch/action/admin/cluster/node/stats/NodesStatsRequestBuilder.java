@@ -145,4 +145,12 @@ public class NodesStatsRequestBuilder extends NodesOperationRequestBuilder<Nodes
         request.ingest(ingest);
         return this;
     }
+
+    /**
+     * Should the timing statistics of cluster state update tasks be returned.
+     */
+    public NodesStatsRequestBuilder setClusterStateTasks(boolean clusterStateTasks) {
+        request.clusterStateTasks(clusterStateTasks);
+        return this;
+    }
 }
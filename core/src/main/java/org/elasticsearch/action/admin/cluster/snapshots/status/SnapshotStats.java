@@ -97,6 +97,16 @@ public class SnapshotStats implements Streamable, ToXContent {
         return processedSize;
     }
 
+    /**
+     * Returns the average number of bytes of files in the snapshot that were processed per second so far
+     */
+    public long getThroughput() {
+        if (time <= 0) {
+            return 0;
+        }
+        return processedSize * 1000 / time;
+    }
+
 
     public static SnapshotStats readSnapshotStats(StreamInput in) throws IOException {
         SnapshotStats stats = new SnapshotStats();
@@ -136,6 +146,7 @@ public class SnapshotStats implements Streamable, ToXContent {
         static final String TOTAL_SIZE = "total_size";
         static final String PROCESSED_SIZE_IN_BYTES = "processed_size_in_bytes";
         static final String PROCESSED_SIZE = "processed_size";
+        static final String THROUGHPUT_IN_BYTES_PER_SEC = "throughput_in_bytes_per_sec";
         static final String START_TIME_IN_MILLIS = "start_time_in_millis";
         static final String TIME_IN_MILLIS = "time_in_millis";
         static final String TIME = "time";
@@ -148,6 +159,7 @@ public class SnapshotStats implements Streamable, ToXContent {
         builder.field(Fields.PROCESSED_FILES, getProcessedFiles());
         builder.byteSizeField(Fields.TOTAL_SIZE_IN_BYTES, Fields.TOTAL_SIZE, getTotalSize());
         builder.byteSizeField(Fields.PROCESSED_SIZE_IN_BYTES, Fields.PROCESSED_SIZE, getProcessedSize());
+        builder.field(Fields.THROUGHPUT_IN_BYTES_PER_SEC, getThroughput());
         builder.field(Fields.START_TIME_IN_MILLIS, getStartTime());
         builder.timeValueField(Fields.TIME_IN_MILLIS, Fields.TIME, getTime());
         builder.endObject();
@@ -270,10 +270,9 @@ public class BulkRequest extends ActionRequest<BulkRequest> implements Composite
         XContent xContent = XContentFactory.xContent(data);
         int line = 0;
         int from = 0;
-        int length = data.length();
         byte marker = xContent.streamSeparator();
         while (true) {
-            int nextMarker = findNextMarker(marker, from, data, length);
+            int nextMarker = data.indexOf(marker, from);
             if (nextMarker == -1) {
                 break;
             }
@@ -374,7 +373,7 @@ public class BulkRequest extends ActionRequest<BulkRequest> implements Composite
                 if ("delete".equals(action)) {
                     add(new DeleteRequest(index, type, id).routing(routing).parent(parent).version(version).versionType(versionType), payload);
                 } else {
-                    nextMarker = findNextMarker(marker, from, data, length);
+                    nextMarker = data.indexOf(marker, from);
                     if (nextMarker == -1) {
                         break;
                     }
@@ -473,15 +472,6 @@ public class BulkRequest extends ActionRequest<BulkRequest> implements Composite
         return timeout;
     }
 
-    private int findNextMarker(byte marker, int from, BytesReference data, int length) {
-        for (int i = from; i < length; i++) {
-            if (data.get(i) == marker) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     /**
      * @return Whether this bulk request contains index request with an ingest pipeline enabled.
      */
@@ -44,7 +44,10 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.IndexService;
@@ -62,6 +65,8 @@ import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportService;
 
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.action.support.replication.ReplicationOperation.ignoreReplicaException;
 import static org.elasticsearch.action.support.replication.ReplicationOperation.isConflictException;
@@ -76,9 +81,18 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
 
     public static final String ACTION_NAME = BulkAction.NAME + "[s]";
 
+    /**
+     * The number of threads that parse the documents of a shard bulk request on the primary. Parsing is the dominant cost of indexing
+     * and doesn't depend on the other items, so with more than one thread the documents are parsed ahead of time while the
+     * operations are still executed against the shard one at a time, in the order of the request.
+     */
+    public static final Setting<Integer> PARSING_THREADS_SETTING =
+            Setting.intSetting("action.bulk.shard.parsing_threads", 1, 1, Property.Dynamic, Property.NodeScope);
+
     private final UpdateHelper updateHelper;
     private final boolean allowIdGeneration;
     private final MappingUpdatedAction mappingUpdatedAction;
+    private volatile int parsingThreads;
 
     @Inject
     public TransportShardBulkAction(Settings settings, TransportService transportService, ClusterService clusterService,
@@ -90,6 +104,12 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         this.updateHelper = updateHelper;
         this.allowIdGeneration = settings.getAsBoolean("action.allow_id_generation", true);
         this.mappingUpdatedAction = mappingUpdatedAction;
+        this.parsingThreads = PARSING_THREADS_SETTING.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(PARSING_THREADS_SETTING, this::setParsingThreads);
+    }
+
+    private void setParsingThreads(int parsingThreads) {
+        this.parsingThreads = parsingThreads;
     }
 
     @Override
@@ -115,10 +135,13 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
 
         long[] preVersions = new long[request.items().length];
         VersionType[] preVersionTypes = new VersionType[request.items().length];
+        Engine.Index[] preparedOperations = prepareIndexOperations(request, indexShard);
         Translog.Location location = null;
         for (int requestIndex = 0; requestIndex < request.items().length; requestIndex++) {
             BulkItemRequest item = request.items()[requestIndex];
-            location = handleItem(metaData, request, indexShard, preVersions, preVersionTypes, location, requestIndex, item);
+            Engine.Index preparedOperation = preparedOperations == null ? null : preparedOperations[requestIndex];
+            location = handleItem(metaData, request, indexShard, preVersions, preVersionTypes, location, requestIndex, item,
+                    preparedOperation);
         }
 
         BulkItemResponse[] responses = new BulkItemResponse[request.items().length];
@@ -130,9 +153,68 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         return new WriteResult<>(response, location);
     }
 
-    private Translog.Location handleItem(IndexMetaData metaData, BulkShardRequest request, IndexShard indexShard, long[] preVersions, VersionType[] preVersionTypes, Translog.Location location, int requestIndex, BulkItemRequest item) {
+    /**
+     * Parses the documents of the index requests of the bulk request with {@link #PARSING_THREADS_SETTING} threads, the current thread
+     * being one of them. Parsing doesn't touch the engine, so the returned operations still have to be executed in order.
+     *
+     * @return the prepared operations by item position, with <code>null</code> for items that weren't prepared, or <code>null</code>
+     *         if the documents shouldn't be parsed ahead of time
+     */
+    private Engine.Index[] prepareIndexOperations(BulkShardRequest request, IndexShard indexShard) throws InterruptedException {
+        final int parsingThreads = this.parsingThreads;
+        final BulkItemRequest[] items = request.items();
+        if (parsingThreads <= 1 || items.length <= 1) {
+            return null;
+        }
+        final Engine.Index[] operations = new Engine.Index[items.length];
+        final AtomicInteger nextItem = new AtomicInteger();
+        final CountDownLatch parsed = new CountDownLatch(items.length);
+        final Runnable parseItems = () -> {
+            int requestIndex;
+            while ((requestIndex = nextItem.getAndIncrement()) < items.length) {
+                try {
+                    if (items[requestIndex].request() instanceof IndexRequest) {
+                        IndexRequest indexRequest = (IndexRequest) items[requestIndex].request();
+                        Engine.Index operation = TransportIndexAction.prepareIndexOperationOnPrimary(indexRequest, indexShard);
+                        // documents that introduce new fields have to be parsed against the mapping that the items before them
+                        // leave behind, so we only keep the operations that didn't need a mapping update
+                        if (operation.parsedDoc().dynamicMappingsUpdate() == null) {
+                            operations[requestIndex] = operation;
+                        }
+                    }
+                } catch (Throwable t) {
+                    // the item gets parsed again when it is executed, which reports the failure the same way as without parsing ahead
+                    logger.trace("failed to parse bulk item [{}] ahead of time", t, requestIndex);
+                } finally {
+                    parsed.countDown();
+                }
+            }
+        };
+        final int helpers = Math.min(parsingThreads, items.length) - 1;
+        for (int i = 0; i < helpers; i++) {
+            threadPool.executor(ThreadPool.Names.GENERIC).execute(new AbstractRunnable() {
+                @Override
+                public void onFailure(Throwable t) {
+                    // a helper that can't run leaves its items to the other threads
+                    logger.debug("failed to parse bulk items in parallel", t);
+                }
+
+                @Override
+                protected void doRun() throws Exception {
+                    parseItems.run();
+                }
+            });
+        }
+        // the current thread claims items until there are none left so that we never wait on helpers that haven't started yet
+        parseItems.run();
+        parsed.await();
+        return operations;
+    }
+
+    private Translog.Location handleItem(IndexMetaData metaData, BulkShardRequest request, IndexShard indexShard, long[] preVersions, VersionType[] preVersionTypes, Translog.Location location, int requestIndex, BulkItemRequest item,
+                                         Engine.Index preparedOperation) {
         if (item.request() instanceof IndexRequest) {
-            location = index(metaData, request, indexShard, preVersions, preVersionTypes, location, requestIndex, item);
+            location = index(metaData, request, indexShard, preVersions, preVersionTypes, location, requestIndex, item, preparedOperation);
         } else if (item.request() instanceof DeleteRequest) {
             location = delete(request, indexShard, preVersions, preVersionTypes, location, requestIndex, item);
         } else if (item.request() instanceof UpdateRequest) {
@@ -148,12 +230,13 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         return location;
     }
 
-    private Translog.Location index(IndexMetaData metaData, BulkShardRequest request, IndexShard indexShard, long[] preVersions, VersionType[] preVersionTypes, Translog.Location location, int requestIndex, BulkItemRequest item) {
+    private Translog.Location index(IndexMetaData metaData, BulkShardRequest request, IndexShard indexShard, long[] preVersions, VersionType[] preVersionTypes, Translog.Location location, int requestIndex, BulkItemRequest item,
+                                    Engine.Index preparedOperation) {
         IndexRequest indexRequest = (IndexRequest) item.request();
         preVersions[requestIndex] = indexRequest.version();
         preVersionTypes[requestIndex] = indexRequest.versionType();
         try {
-            WriteResult<IndexResponse> result = shardIndexOperation(request, indexRequest, metaData, indexShard, true);
+            WriteResult<IndexResponse> result = shardIndexOperation(request, indexRequest, metaData, indexShard, true, preparedOperation);
             location = locationToSync(location, result.getLocation());
             // add the response
             IndexResponse indexResponse = result.getResponse();
@@ -335,13 +418,13 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
     }
 
     private WriteResult<IndexResponse> shardIndexOperation(BulkShardRequest request, IndexRequest indexRequest, IndexMetaData metaData,
-            IndexShard indexShard, boolean processed) throws Throwable {
+            IndexShard indexShard, boolean processed, Engine.Index preparedOperation) throws Throwable {
 
         MappingMetaData mappingMd = metaData.mappingOrDefault(indexRequest.type());
         if (!processed) {
             indexRequest.process(mappingMd, allowIdGeneration, request.index());
         }
-        return TransportIndexAction.executeIndexRequestOnPrimary(indexRequest, indexShard, mappingUpdatedAction);
+        return TransportIndexAction.executeIndexRequestOnPrimary(indexRequest, indexShard, mappingUpdatedAction, preparedOperation);
     }
 
     static class UpdateResult {
@@ -404,7 +487,7 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             case INDEX:
                 IndexRequest indexRequest = translate.action();
                 try {
-                    WriteResult result = shardIndexOperation(bulkShardRequest, indexRequest, metaData, indexShard, false);
+                    WriteResult result = shardIndexOperation(bulkShardRequest, indexRequest, metaData, indexShard, false, null);
                     return new UpdateResult(translate, indexRequest, result);
                 } catch (Throwable t) {
                     t = ExceptionsHelper.unwrapCause(t);
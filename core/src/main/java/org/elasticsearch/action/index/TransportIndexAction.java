@@ -36,6 +36,7 @@ import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.engine.Engine;
@@ -175,7 +176,18 @@ public class TransportIndexAction extends TransportWriteAction<IndexRequest, Ind
 
     public static WriteResult<IndexResponse> executeIndexRequestOnPrimary(IndexRequest request, IndexShard indexShard,
             MappingUpdatedAction mappingUpdatedAction) throws Exception {
-        Engine.Index operation = prepareIndexOperationOnPrimary(request, indexShard);
+        return executeIndexRequestOnPrimary(request, indexShard, mappingUpdatedAction, null);
+    }
+
+    /**
+     * Executes the index request on the primary shard.
+     *
+     * @param preparedOperation the operation for the request if it was already prepared via
+     *                          {@link #prepareIndexOperationOnPrimary(IndexRequest, IndexShard)}, or <code>null</code> to prepare it here
+     */
+    public static WriteResult<IndexResponse> executeIndexRequestOnPrimary(IndexRequest request, IndexShard indexShard,
+            MappingUpdatedAction mappingUpdatedAction, @Nullable Engine.Index preparedOperation) throws Exception {
+        Engine.Index operation = preparedOperation != null ? preparedOperation : prepareIndexOperationOnPrimary(request, indexShard);
         Mapping update = operation.parsedDoc().dynamicMappingsUpdate();
         final ShardId shardId = indexShard.shardId();
         if (update != null) {
@@ -49,6 +49,7 @@ class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<DfsSe
     final AtomicArray<QuerySearchResult> queryResults;
     final AtomicArray<FetchSearchResult> fetchResults;
     final AtomicArray<IntArrayList> docIdsToLoad;
+    final SearchPhaseController.QueryPhaseResultConsumer queryResultConsumer;
 
     SearchDfsQueryThenFetchAsyncAction(ESLogger logger, SearchTransportService searchTransportService,
                                                ClusterService clusterService, IndexNameExpressionResolver indexNameExpressionResolver,
@@ -59,6 +60,7 @@ class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<DfsSe
         queryResults = new AtomicArray<>(firstResults.length());
         fetchResults = new AtomicArray<>(firstResults.length());
         docIdsToLoad = new AtomicArray<>(firstResults.length());
+        queryResultConsumer = searchPhaseController.newQueryPhaseResultConsumer(request, firstResults.length());
     }
 
     @Override
@@ -91,6 +93,9 @@ class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<DfsSe
             public void onResponse(QuerySearchResult result) {
                 result.shardTarget(dfsResult.shardTarget());
                 queryResults.set(shardIndex, result);
+                if (queryResultConsumer != null) {
+                    queryResultConsumer.consume(shardIndex, result);
+                }
                 if (counter.decrementAndGet() == 0) {
                     executeFetchPhase();
                 }
@@ -197,7 +202,7 @@ class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<DfsSe
             @Override
             public void doRun() throws IOException {
                 final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryResults,
-                    fetchResults);
+                    fetchResults, queryResultConsumer);
                 String scrollId = null;
                 if (request.scroll() != null) {
                     scrollId = TransportSearchHelper.buildScrollId(request.searchType(), firstResults);
@@ -45,6 +45,7 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
 
     final AtomicArray<FetchSearchResult> fetchResults;
     final AtomicArray<IntArrayList> docIdsToLoad;
+    final SearchPhaseController.QueryPhaseResultConsumer queryResultConsumer;
 
     SearchQueryThenFetchAsyncAction(ESLogger logger, SearchTransportService searchService,
                                             ClusterService clusterService, IndexNameExpressionResolver indexNameExpressionResolver,
@@ -53,6 +54,7 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
         super(logger, searchService, clusterService, indexNameExpressionResolver, searchPhaseController, threadPool, request, listener);
         fetchResults = new AtomicArray<>(firstResults.length());
         docIdsToLoad = new AtomicArray<>(firstResults.length());
+        queryResultConsumer = searchPhaseController.newQueryPhaseResultConsumer(request, firstResults.length());
     }
 
     @Override
@@ -66,6 +68,13 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
         searchTransportService.sendExecuteQuery(node, request, listener);
     }
 
+    @Override
+    protected void consumeFirstPhaseResult(int shardIndex, QuerySearchResultProvider result) {
+        if (queryResultConsumer != null) {
+            queryResultConsumer.consume(shardIndex, result);
+        }
+    }
+
     @Override
     protected void moveToSecondPhase() throws Exception {
         boolean useScroll = request.scroll() != null;
@@ -130,7 +139,7 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
             @Override
             public void doRun() throws IOException {
                 final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, firstResults,
-                    fetchResults);
+                    fetchResults, queryResultConsumer);
                 String scrollId = null;
                 if (request.scroll() != null) {
                     scrollId = TransportSearchHelper.buildScrollId(request.searchType(), firstResults);
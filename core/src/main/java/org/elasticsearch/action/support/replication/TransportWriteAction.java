@@ -19,6 +19,7 @@
 
 package org.elasticsearch.action.support.replication;
 
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.WriteRequest;
@@ -39,6 +40,9 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -118,6 +122,7 @@ public abstract class TransportWriteAction<
      */
     class WritePrimaryResult extends PrimaryResult implements RespondingWriteResult {
         boolean finishedAsyncActions;
+        Throwable failure;
         ActionListener<Response> listener = null;
 
         public WritePrimaryResult(Request request, Response finalResponse,
@@ -142,7 +147,11 @@ public abstract class TransportWriteAction<
          */
         protected void respondIfPossible() {
             if (finishedAsyncActions && listener != null) {
-                super.respond(listener);
+                if (failure == null) {
+                    super.respond(listener);
+                } else {
+                    listener.onFailure(failure);
+                }
             }
         }
 
@@ -152,6 +161,13 @@ public abstract class TransportWriteAction<
             finishedAsyncActions = true;
             respondIfPossible();
         }
+
+        @Override
+        public synchronized void failAfterAsyncAction(Throwable failure) {
+            this.failure = failure;
+            finishedAsyncActions = true;
+            respondIfPossible();
+        }
     }
 
     /**
@@ -159,6 +175,7 @@ public abstract class TransportWriteAction<
      */
     class WriteReplicaResult extends ReplicaResult implements RespondingWriteResult {
         boolean finishedAsyncActions;
+        Throwable failure;
         private ActionListener<TransportResponse.Empty> listener;
 
         public WriteReplicaResult(IndexShard indexShard, ReplicatedWriteRequest<?> request, Translog.Location location) {
@@ -166,7 +183,7 @@ public abstract class TransportWriteAction<
         }
 
         @Override
-        public void respond(ActionListener<TransportResponse.Empty> listener) {
+        public synchronized void respond(ActionListener<TransportResponse.Empty> listener) {
             this.listener = listener;
             respondIfPossible();
         }
@@ -176,7 +193,11 @@ public abstract class TransportWriteAction<
          */
         protected void respondIfPossible() {
             if (finishedAsyncActions && listener != null) {
-                super.respond(listener);
+                if (failure == null) {
+                    super.respond(listener);
+                } else {
+                    listener.onFailure(failure);
+                }
             }
         }
 
@@ -185,10 +206,19 @@ public abstract class TransportWriteAction<
             finishedAsyncActions = true;
             respondIfPossible();
         }
+
+        @Override
+        public synchronized void failAfterAsyncAction(Throwable failure) {
+            this.failure = failure;
+            finishedAsyncActions = true;
+            respondIfPossible();
+        }
     }
 
     private interface RespondingWriteResult {
         void respondAfterAsyncAction(boolean forcedRefresh);
+
+        void failAfterAsyncAction(Throwable failure);
     }
 
     static void postWriteActions(final IndexShard indexShard,
@@ -196,19 +226,31 @@ public abstract class TransportWriteAction<
                                  @Nullable final Translog.Location location,
                                  final RespondingWriteResult respond,
                                  final ESLogger logger) {
-        boolean pendingOps = false;
-        boolean immediateRefresh = false;
+        // one for this method, one for each pending refresh or fsync
+        final AtomicInteger pendingOps = new AtomicInteger(1);
+        final AtomicBoolean refreshed = new AtomicBoolean(false);
+        final AtomicReference<Throwable> syncFailure = new AtomicReference<>();
+        final Runnable maybeFinish = () -> {
+            if (pendingOps.decrementAndGet() == 0) {
+                if (syncFailure.get() != null) {
+                    respond.failAfterAsyncAction(new ElasticsearchException("failed to sync translog", syncFailure.get()));
+                } else {
+                    respond.respondAfterAsyncAction(refreshed.get());
+                }
+            }
+        };
         switch (request.getRefreshPolicy()) {
             case IMMEDIATE:
                 indexShard.refresh("refresh_flag_index");
-                immediateRefresh = true;
+                refreshed.set(true);
                 break;
             case WAIT_UNTIL:
                 if (location != null) {
-                    pendingOps = true;
+                    pendingOps.incrementAndGet();
                     indexShard.addRefreshListener(location, forcedRefresh -> {
                         logger.warn("block_until_refresh request ran out of slots and forced a refresh: [{}]", request);
-                        respond.respondAfterAsyncAction(forcedRefresh);
+                        refreshed.set(forcedRefresh);
+                        maybeFinish.run();
                     });
                 }
                 break;
@@ -217,11 +259,16 @@ public abstract class TransportWriteAction<
         }
         boolean fsyncTranslog = indexShard.getTranslogDurability() == Translog.Durability.REQUEST && location != null;
         if (fsyncTranslog) {
-            indexShard.sync(location);
+            // the fsync is batched with the ones of concurrent requests, we don't wait for it here but respond once it is done
+            pendingOps.incrementAndGet();
+            indexShard.sync(location, ex -> {
+                if (ex != null) {
+                    syncFailure.set(ex);
+                }
+                maybeFinish.run();
+            });
         }
         indexShard.maybeFlush();
-        if (pendingOps == false) {
-            respond.respondAfterAsyncAction(immediateRefresh);
-        }
+        maybeFinish.run();
     }
 }
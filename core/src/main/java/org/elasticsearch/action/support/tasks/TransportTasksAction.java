@@ -224,7 +224,9 @@ public abstract class TransportTasksAction<
                 if (request.getTimeout() != null) {
                     builder.withTimeout(request.getTimeout());
                 }
-                builder.withCompress(transportCompress());
+                if (transportCompress()) {
+                    builder.withCompress(true);
+                }
                 for (int i = 0; i < nodesIds.length; i++) {
                     final String nodeId = nodesIds[i];
                     final int idx = i;
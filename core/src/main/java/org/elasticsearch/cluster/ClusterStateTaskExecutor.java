@@ -46,6 +46,16 @@ public interface ClusterStateTaskExecutor<T> {
     default void clusterStatePublished(ClusterChangedEvent clusterChangedEvent) {
     }
 
+    /**
+     * The name under which the batches of this executor are reported in the cluster state task statistics. Defaults to the name of
+     * the class of the executor, or, for lambdas, whose generated class names differ from run to run, of the class that defines them.
+     */
+    default String statsName() {
+        final String className = getClass().getName();
+        final int lambdaIndex = className.indexOf("$$Lambda$");
+        return lambdaIndex >= 0 ? className.substring(0, lambdaIndex) : className;
+    }
+
     /**
      * Represents the result of a batched execution of cluster state update tasks
      * @param <T> the type of the cluster state update task
@@ -46,6 +46,8 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -115,6 +117,7 @@ public class ClusterService extends AbstractLifecycleComponent {
     private final Collection<ClusterStateListener> clusterStateListeners = new CopyOnWriteArrayList<>();
     private final Collection<ClusterStateListener> lastClusterStateListeners = new CopyOnWriteArrayList<>();
     private final Map<ClusterStateTaskExecutor, List<UpdateTask>> updateTasksPerExecutor = new HashMap<>();
+    private final Map<String, ExecutorMetrics> executorMetrics = ConcurrentCollections.newConcurrentMap();
     // TODO this is rather frequently changing I guess a Synced Set would be better here and a dedicated remove API
     private final Collection<ClusterStateListener> postAppliedListeners = new CopyOnWriteArrayList<>();
     private final Iterable<ClusterStateListener> preAppliedListeners = Iterables.concat(priorityClusterStateListeners,
@@ -559,6 +562,8 @@ public class ClusterService extends AbstractLifecycleComponent {
                     .failures(toExecute.stream().map(updateTask -> updateTask.task)::iterator, e)
                     .build(previousClusterState);
         }
+        final ExecutorMetrics metrics = executorMetrics.computeIfAbsent(executor.statsName(), k -> new ExecutorMetrics());
+        metrics.compute.inc(currentTimeInNanos() - startTimeNS);
 
         assert batchResult.executionResults != null;
         assert batchResult.executionResults.size() == toExecute.size()
@@ -662,14 +667,18 @@ public class ClusterService extends AbstractLifecycleComponent {
             // we don't want to notify
             if (newClusterState.nodes().isLocalNodeElectedMaster()) {
                 logger.debug("publishing cluster state version [{}]", newClusterState.version());
+                final long publishStartTimeNS = currentTimeInNanos();
                 try {
                     clusterStatePublisher.accept(clusterChangedEvent, ackListener);
                 } catch (Discovery.FailedToCommitClusterStateException t) {
                     logger.warn("failing [{}]: failed to commit cluster state version [{}]", t, source, newClusterState.version());
                     proccessedListeners.forEach(task -> task.listener.onFailure(task.source, t));
                     return;
+                } finally {
+                    metrics.publish.inc(currentTimeInNanos() - publishStartTimeNS);
                 }
             }
+            final long applyStartTimeNS = currentTimeInNanos();
 
             // update the current cluster state
             clusterState = newClusterState;
@@ -721,6 +730,7 @@ public class ClusterService extends AbstractLifecycleComponent {
             } catch (Exception e) {
                 logger.error("exception thrown while notifying executor of new cluster state publication [{}]", e, source);
             }
+            metrics.apply.inc(currentTimeInNanos() - applyStartTimeNS);
 
             TimeValue executionTime = TimeValue.timeValueMillis(Math.max(0, TimeValue.nsecToMSec(currentTimeInNanos() - startTimeNS)));
             logger.debug("processing [{}]: took [{}] done applying updated cluster_state (version: {}, uuid: {})", source, executionTime,
@@ -738,6 +748,57 @@ public class ClusterService extends AbstractLifecycleComponent {
     // this one is overridden in tests so we can control time
     protected long currentTimeInNanos() {return System.nanoTime();}
 
+    /**
+     * Returns the time that batches of cluster state update tasks took on this node, per task executor.
+     */
+    public ClusterStateTaskStats stats() {
+        Map<String, ClusterStateTaskStats.ExecutorStats> statsPerExecutor = new HashMap<>();
+        for (Map.Entry<String, ExecutorMetrics> entry : executorMetrics.entrySet()) {
+            statsPerExecutor.put(entry.getKey(), entry.getValue().stats());
+        }
+        return new ClusterStateTaskStats(statsPerExecutor);
+    }
+
+    private static class ExecutorMetrics {
+        final TimingMetric compute = new TimingMetric();
+        final TimingMetric publish = new TimingMetric();
+        final TimingMetric apply = new TimingMetric();
+
+        ClusterStateTaskStats.ExecutorStats stats() {
+            return new ClusterStateTaskStats.ExecutorStats(compute.stats(), publish.stats(), apply.stats());
+        }
+    }
+
+    private static class TimingMetric {
+        final MeanMetric time = new MeanMetric();
+        final CounterMetric[] histogram = new CounterMetric[ClusterStateTaskStats.TimingStats.HISTOGRAM_BOUNDS_IN_MILLIS.length + 1];
+        // only updated by the cluster state update thread
+        volatile long maxTimeInMillis;
+
+        TimingMetric() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new CounterMetric();
+            }
+        }
+
+        void inc(long timeInNanos) {
+            final long timeInMillis = Math.max(0, TimeValue.nsecToMSec(timeInNanos));
+            time.inc(timeInMillis);
+            histogram[ClusterStateTaskStats.TimingStats.bucket(timeInMillis)].inc();
+            if (timeInMillis > maxTimeInMillis) {
+                maxTimeInMillis = timeInMillis;
+            }
+        }
+
+        ClusterStateTaskStats.TimingStats stats() {
+            long[] counts = new long[histogram.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram[i].count();
+            }
+            return new ClusterStateTaskStats.TimingStats(time.count(), time.sum(), maxTimeInMillis, counts);
+        }
+    }
+
     private static SafeClusterStateTaskListener safe(ClusterStateTaskListener listener, ESLogger logger) {
         if (listener instanceof AckedClusterStateTaskListener) {
             return new SafeAckedClusterStateTaskListener((AckedClusterStateTaskListener) listener, logger);
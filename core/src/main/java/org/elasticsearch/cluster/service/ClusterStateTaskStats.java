@@ -0,0 +1,259 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.service;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics about the time that the batches of cluster state update tasks took on a node, per task executor. The time of each batch
+ * is split in the time it took to compute the new cluster state, to publish it to the other nodes and to apply it locally.
+ */
+public class ClusterStateTaskStats implements Writeable, ToXContent {
+
+    private final Map<String, ExecutorStats> statsPerExecutor;
+
+    public ClusterStateTaskStats(Map<String, ExecutorStats> statsPerExecutor) {
+        this.statsPerExecutor = Collections.unmodifiableMap(new TreeMap<>(statsPerExecutor));
+    }
+
+    /**
+     * Read from a stream.
+     */
+    public ClusterStateTaskStats(StreamInput in) throws IOException {
+        int size = in.readVInt();
+        Map<String, ExecutorStats> statsPerExecutor = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            statsPerExecutor.put(in.readString(), new ExecutorStats(in));
+        }
+        this.statsPerExecutor = Collections.unmodifiableMap(statsPerExecutor);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(statsPerExecutor.size());
+        for (Map.Entry<String, ExecutorStats> entry : statsPerExecutor.entrySet()) {
+            out.writeString(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * @return The stats per task executor, keyed by the class name of the executor
+     */
+    public Map<String, ExecutorStats> getStatsPerExecutor() {
+        return statsPerExecutor;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("cluster_state_tasks");
+        builder.startObject("executors");
+        for (Map.Entry<String, ExecutorStats> entry : statsPerExecutor.entrySet()) {
+            builder.startObject(entry.getKey());
+            entry.getValue().toXContent(builder, params);
+            builder.endObject();
+        }
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    public static class ExecutorStats implements Writeable, ToXContent {
+
+        private final TimingStats compute;
+        private final TimingStats publish;
+        private final TimingStats apply;
+
+        public ExecutorStats(TimingStats compute, TimingStats publish, TimingStats apply) {
+            this.compute = compute;
+            this.publish = publish;
+            this.apply = apply;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public ExecutorStats(StreamInput in) throws IOException {
+            compute = new TimingStats(in);
+            publish = new TimingStats(in);
+            apply = new TimingStats(in);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            compute.writeTo(out);
+            publish.writeTo(out);
+            apply.writeTo(out);
+        }
+
+        /**
+         * @return The time spent executing the tasks to compute new cluster states
+         */
+        public TimingStats getCompute() {
+            return compute;
+        }
+
+        /**
+         * @return The time spent publishing new cluster states to the other nodes, only the elected master publishes
+         */
+        public TimingStats getPublish() {
+            return publish;
+        }
+
+        /**
+         * @return The time spent applying new cluster states locally and notifying the cluster state listeners
+         */
+        public TimingStats getApply() {
+            return apply;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject("compute");
+            compute.toXContent(builder, params);
+            builder.endObject();
+            builder.startObject("publish");
+            publish.toXContent(builder, params);
+            builder.endObject();
+            builder.startObject("apply");
+            apply.toXContent(builder, params);
+            builder.endObject();
+            return builder;
+        }
+    }
+
+    /**
+     * The number of timed operations, their total and maximum time and a histogram of their times.
+     */
+    public static class TimingStats implements Writeable, ToXContent {
+
+        /**
+         * The exclusive upper bounds of the histogram buckets in milliseconds, the last bucket holds all operations that took longer
+         * than the last bound.
+         */
+        public static final long[] HISTOGRAM_BOUNDS_IN_MILLIS = new long[] { 10, 100, 1000, 10000, 30000 };
+
+        private final long count;
+        private final long timeInMillis;
+        private final long maxTimeInMillis;
+        private final long[] histogram;
+
+        public TimingStats(long count, long timeInMillis, long maxTimeInMillis, long[] histogram) {
+            assert histogram.length == HISTOGRAM_BOUNDS_IN_MILLIS.length + 1;
+            this.count = count;
+            this.timeInMillis = timeInMillis;
+            this.maxTimeInMillis = maxTimeInMillis;
+            this.histogram = histogram;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public TimingStats(StreamInput in) throws IOException {
+            count = in.readVLong();
+            timeInMillis = in.readVLong();
+            maxTimeInMillis = in.readVLong();
+            histogram = new long[HISTOGRAM_BOUNDS_IN_MILLIS.length + 1];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = in.readVLong();
+            }
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(timeInMillis);
+            out.writeVLong(maxTimeInMillis);
+            for (long bucket : histogram) {
+                out.writeVLong(bucket);
+            }
+        }
+
+        /**
+         * Returns the index of the histogram bucket that counts operations that took the given time.
+         */
+        public static int bucket(long timeInMillis) {
+            int bucket = 0;
+            while (bucket < HISTOGRAM_BOUNDS_IN_MILLIS.length && timeInMillis >= HISTOGRAM_BOUNDS_IN_MILLIS[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        /**
+         * @return The number of timed operations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The total time of the timed operations in millis
+         */
+        public long getTimeInMillis() {
+            return timeInMillis;
+        }
+
+        /**
+         * @return The time of the slowest operation in millis
+         */
+        public long getMaxTimeInMillis() {
+            return maxTimeInMillis;
+        }
+
+        /**
+         * @return The number of operations per bucket of {@link #HISTOGRAM_BOUNDS_IN_MILLIS}
+         */
+        public long[] getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field("count", count);
+            builder.timeValueField("time_in_millis", "time", timeInMillis, TimeUnit.MILLISECONDS);
+            builder.timeValueField("max_time_in_millis", "max_time", maxTimeInMillis, TimeUnit.MILLISECONDS);
+            builder.startArray("histogram");
+            for (int i = 0; i < histogram.length; i++) {
+                builder.startObject();
+                if (i < HISTOGRAM_BOUNDS_IN_MILLIS.length) {
+                    builder.field("lt", TimeValue.timeValueMillis(HISTOGRAM_BOUNDS_IN_MILLIS[i]).toString());
+                } else {
+                    builder.field("gte", TimeValue.timeValueMillis(HISTOGRAM_BOUNDS_IN_MILLIS[i - 1]).toString());
+                }
+                builder.field("count", histogram[i]);
+                builder.endObject();
+            }
+            builder.endArray();
+            return builder;
+        }
+    }
+}
@@ -49,6 +49,22 @@ public abstract class BytesReference implements Accountable, Comparable<BytesRef
      */
     public abstract BytesReference slice(int from, int length);
 
+    /**
+     * Finds the index of the first occurrence of the given marker at or after the given index.
+     * @param marker the byte to search for
+     * @param from the index to start the search at (inclusive)
+     * @return the index of the first occurrence of the marker, or <code>-1</code> if it can't be found
+     */
+    public int indexOf(byte marker, int from) {
+        final int to = length();
+        for (int i = from; i < to; i++) {
+            if (get(i) == marker) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * A stream input of the bytes.
      */
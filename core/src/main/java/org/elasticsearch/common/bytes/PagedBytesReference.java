@@ -74,6 +74,25 @@ public class PagedBytesReference extends BytesReference {
         return new PagedBytesReference(bigarrays, bytearray, offset + from, length);
     }
 
+    @Override
+    public int indexOf(byte marker, int from) {
+        // scan page by page so we never have to materialize the pages or go through the paging logic for every single byte
+        final BytesRef page = new BytesRef();
+        int position = from;
+        while (position < length) {
+            final int fragmentSize = Math.min(length - position, PAGE_SIZE - ((offset + position) % PAGE_SIZE));
+            final boolean materialized = bytearray.get(offset + position, fragmentSize, page);
+            assert materialized == false : "fragment should be within a single page but array got materialized";
+            for (int i = 0; i < fragmentSize; i++) {
+                if (page.bytes[page.offset + i] == marker) {
+                    return position + i;
+                }
+            }
+            position += fragmentSize;
+        }
+        return -1;
+    }
+
     @Override
     public StreamInput streamInput() {
         return new PagedBytesReferenceStreamInput(bytearray, offset, length);
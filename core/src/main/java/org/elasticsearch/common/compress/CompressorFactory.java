@@ -35,6 +35,9 @@ public class CompressorFactory {
 
     public static final Compressor COMPRESSOR = new DeflateCompressor();
 
+    /** A compressor that trades compression ratio for speed, it is only used to compress transport messages. */
+    public static final Compressor LZ4_COMPRESSOR = new LZ4Compressor();
+
     public static boolean isCompressed(BytesReference bytes) {
         return compressor(bytes) != null;
     }
@@ -48,6 +51,10 @@ public class CompressorFactory {
                 assert XContentFactory.xContentType(bytes) == null;
                 return COMPRESSOR;
             }
+            if (LZ4_COMPRESSOR.isCompressed(bytes)) {
+                assert XContentFactory.xContentType(bytes) == null;
+                return LZ4_COMPRESSOR;
+            }
 
         XContentType contentType = XContentFactory.xContentType(bytes);
         if (contentType == null) {
@@ -0,0 +1,280 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.compress;
+
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.codecs.compressing.Decompressor;
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link Compressor} implementation based on the LZ4 compression algorithm. It compresses much faster than {@link DeflateCompressor}
+ * at the cost of a lower compression ratio, which makes it a better fit for data that is sent over fast networks.
+ *
+ * The stream is made of blocks of up to {@value #BLOCK_SIZE} uncompressed bytes, each of them prefixed with its uncompressed length as
+ * a vInt, and is terminated by an empty block.
+ */
+public class LZ4Compressor implements Compressor {
+
+    // An arbitrary header that we use to identify compressed streams
+    // It needs to be different from other compressors and to not be specific
+    // enough so that no stream starting with these bytes could be detected as
+    // a XContent
+    private static final byte[] HEADER = new byte[] { 'L', 'Z', '4', '\0' };
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    @Override
+    public boolean isCompressed(BytesReference bytes) {
+        if (bytes.length() < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; ++i) {
+            if (bytes.get(i) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public StreamInput streamInput(StreamInput in) throws IOException {
+        final byte[] headerBytes = new byte[HEADER.length];
+        int len = 0;
+        while (len < headerBytes.length) {
+            final int read = in.read(headerBytes, len, headerBytes.length - len);
+            if (read == -1) {
+                break;
+            }
+            len += read;
+        }
+        if (len != HEADER.length || Arrays.equals(headerBytes, HEADER) == false) {
+            throw new IllegalArgumentException("Input stream is not compressed with LZ4!");
+        }
+        return new LZ4StreamInput(in);
+    }
+
+    @Override
+    public StreamOutput streamOutput(StreamOutput out) throws IOException {
+        out.writeBytes(HEADER);
+        return new LZ4StreamOutput(out);
+    }
+
+    private static final class LZ4StreamOutput extends StreamOutput {
+
+        private final StreamOutput out;
+        private final org.apache.lucene.codecs.compressing.Compressor compressor = CompressionMode.FAST.newCompressor();
+        private final DataOutput dataOutput;
+        // grows up to BLOCK_SIZE so that small messages don't need to allocate a full block
+        private byte[] buffer = new byte[1024];
+        private int length;
+        private boolean closed;
+
+        LZ4StreamOutput(StreamOutput out) {
+            this.out = out;
+            this.dataOutput = new DataOutput() {
+                @Override
+                public void writeByte(byte b) throws IOException {
+                    out.writeByte(b);
+                }
+
+                @Override
+                public void writeBytes(byte[] b, int offset, int length) throws IOException {
+                    out.writeBytes(b, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public void writeByte(byte b) throws IOException {
+            ensureCapacity();
+            buffer[length++] = b;
+        }
+
+        @Override
+        public void writeBytes(byte[] b, int offset, int len) throws IOException {
+            while (len > 0) {
+                ensureCapacity();
+                final int chunk = Math.min(len, buffer.length - length);
+                System.arraycopy(b, offset, buffer, length, chunk);
+                length += chunk;
+                offset += chunk;
+                len -= chunk;
+            }
+        }
+
+        /** Makes room for at least one more byte in the buffer, growing it or compressing the current block. */
+        private void ensureCapacity() throws IOException {
+            if (length == buffer.length) {
+                if (buffer.length < BLOCK_SIZE) {
+                    buffer = Arrays.copyOf(buffer, Math.min(BLOCK_SIZE, ArrayUtil.oversize(length + 1, 1)));
+                } else {
+                    compressBlock();
+                }
+            }
+        }
+
+        private void compressBlock() throws IOException {
+            if (length > 0) {
+                out.writeVInt(length);
+                compressor.compress(buffer, 0, length, dataOutput);
+                length = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            compressBlock();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed == false) {
+                closed = true;
+                compressBlock();
+                // the empty block marks the end of the stream
+                out.writeVInt(0);
+                out.close();
+            }
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class LZ4StreamInput extends StreamInput {
+
+        private final StreamInput in;
+        private final Decompressor decompressor = CompressionMode.FAST.newDecompressor();
+        private final DataInput dataInput;
+        private final BytesRef block = new BytesRef();
+        private int position;
+        private boolean eof;
+
+        LZ4StreamInput(StreamInput in) {
+            this.in = in;
+            this.dataInput = new DataInput() {
+                @Override
+                public byte readByte() throws IOException {
+                    return in.readByte();
+                }
+
+                @Override
+                public void readBytes(byte[] b, int offset, int len) throws IOException {
+                    in.readBytes(b, offset, len);
+                }
+            };
+        }
+
+        /** Decompresses the next block if the current one is fully read, returns <code>false</code> at the end of the stream. */
+        private boolean ensureAvailable() throws IOException {
+            if (position < block.length) {
+                return true;
+            }
+            if (eof) {
+                return false;
+            }
+            final int length = in.readVInt();
+            if (length == 0) {
+                eof = true;
+                return false;
+            }
+            if (length < 0 || length > BLOCK_SIZE) {
+                throw new IOException("Invalid LZ4 block length [" + length + "]");
+            }
+            decompressor.decompress(dataInput, length, 0, length, block);
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            if (ensureAvailable() == false) {
+                throw new EOFException();
+            }
+            return block.bytes[block.offset + position++];
+        }
+
+        @Override
+        public void readBytes(byte[] b, int offset, int len) throws IOException {
+            if (len < 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            while (len > 0) {
+                if (ensureAvailable() == false) {
+                    throw new EOFException();
+                }
+                final int chunk = Math.min(len, block.length - position);
+                System.arraycopy(block.bytes, block.offset + position, b, offset, chunk);
+                position += chunk;
+                offset += chunk;
+                len -= chunk;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (ensureAvailable() == false) {
+                return -1;
+            }
+            return block.bytes[block.offset + position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (ensureAvailable() == false) {
+                return -1;
+            }
+            final int chunk = Math.min(len, block.length - position);
+            System.arraycopy(block.bytes, block.offset + position, b, off, chunk);
+            position += chunk;
+            return chunk;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return block.length - position;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
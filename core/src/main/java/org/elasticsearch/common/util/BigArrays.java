@@ -29,16 +29,26 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 
 import java.util.Arrays;
+import java.util.Locale;
 
 /** Utility class to work with arrays. */
 public class BigArrays implements Releasable {
 
     public static final BigArrays NON_RECYCLING_INSTANCE = new BigArrays(null, null, false);
 
+    /**
+     * Where the arrays of the {@link #withCircuitBreaking() circuit breaking instance}, which is the one that search requests use,
+     * are stored. Other arrays are always stored on heap since transport and translog buffers rely on zero-copy access to pages.
+     */
+    public static final Setting<Storage> SEARCH_STORAGE_SETTING =
+        new Setting<>("search.big_arrays.storage", Storage.HEAP.name(), Storage::parse, Property.NodeScope);
+
     /** Page size in bytes: 16KB */
     public static final int PAGE_SIZE_IN_BYTES = 1 << 14;
     public static final int BYTE_PAGE_SIZE = BigArrays.PAGE_SIZE_IN_BYTES;
@@ -368,24 +378,50 @@ public class BigArrays implements Releasable {
 
     }
 
+    /**
+     * The storage of the pages of arrays that are larger than half a page.
+     */
+    public enum Storage {
+        /** Pages are java arrays. */
+        HEAP,
+        /** Pages are direct {@link java.nio.ByteBuffer}s, which are neither scanned nor copied by the garbage collector. */
+        DIRECT;
+
+        public static Storage parse(String storage) {
+            try {
+                return Storage.valueOf(storage.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("no storage support [" + storage + "]");
+            }
+        }
+    }
+
     final PageCacheRecycler recycler;
     final CircuitBreakerService breakerService;
     final boolean checkBreaker;
+    final Storage storage;
     private final BigArrays circuitBreakingInstance;
 
     public BigArrays(Settings settings, @Nullable final CircuitBreakerService breakerService) {
         // Checking the breaker is disabled if not specified
-        this(new PageCacheRecycler(settings), breakerService, false);
+        this(new PageCacheRecycler(settings), breakerService, false, SEARCH_STORAGE_SETTING.get(settings));
     }
     // public for tests
     public BigArrays(PageCacheRecycler recycler, @Nullable final CircuitBreakerService breakerService, boolean checkBreaker) {
+        this(recycler, breakerService, checkBreaker, Storage.HEAP);
+    }
+    // public for tests
+    public BigArrays(PageCacheRecycler recycler, @Nullable final CircuitBreakerService breakerService, boolean checkBreaker,
+                     Storage searchStorage) {
         this.checkBreaker = checkBreaker;
         this.recycler = recycler;
         this.breakerService = breakerService;
         if (checkBreaker) {
+            this.storage = searchStorage;
             this.circuitBreakingInstance = this;
         } else {
-            this.circuitBreakingInstance = new BigArrays(recycler, breakerService, true);
+            this.storage = Storage.HEAP;
+            this.circuitBreakingInstance = new BigArrays(recycler, breakerService, true, searchStorage);
         }
     }
 
@@ -429,9 +465,9 @@ public class BigArrays implements Releasable {
         return this.circuitBreakingInstance;
     }
 
-    private <T extends AbstractBigArray> T resizeInPlace(T array, long newSize) {
+    private <T extends BigArray> T resizeInPlace(T array, long newSize) {
         final long oldMemSize = array.ramBytesUsed();
-        array.resize(newSize);
+        ((AbstractBigArray) array).resize(newSize);
         adjustBreaker(array.ramBytesUsed() - oldMemSize);
         return array;
     }
@@ -456,7 +492,9 @@ public class BigArrays implements Releasable {
      */
     public ByteArray newByteArray(long size, boolean clearOnResize) {
         final ByteArray array;
-        if (size > BYTE_PAGE_SIZE) {
+        if (storage == Storage.DIRECT && size >= BYTE_PAGE_SIZE / 2) {
+            array = new DirectBigByteArray(size, this, clearOnResize);
+        } else if (size > BYTE_PAGE_SIZE) {
             array = new BigByteArray(size, this, clearOnResize);
         } else if (size >= BYTE_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<byte[]> page = recycler.bytePage(clearOnResize);
@@ -477,8 +515,8 @@ public class BigArrays implements Releasable {
 
     /** Resize the array to the exact provided size. */
     public ByteArray resize(ByteArray array, long size) {
-        if (array instanceof BigByteArray) {
-            return resizeInPlace((BigByteArray) array, size);
+        if (array instanceof AbstractBigArray) {
+            return resizeInPlace(array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final ByteArray newArray = newByteArray(size, arr.clearOnResize);
@@ -538,7 +576,9 @@ public class BigArrays implements Releasable {
      */
     public IntArray newIntArray(long size, boolean clearOnResize) {
         final IntArray array;
-        if (size > INT_PAGE_SIZE) {
+        if (storage == Storage.DIRECT && size >= INT_PAGE_SIZE / 2) {
+            array = new DirectBigIntArray(size, this, clearOnResize);
+        } else if (size > INT_PAGE_SIZE) {
             array = new BigIntArray(size, this, clearOnResize);
         } else if (size >= INT_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<int[]> page = recycler.intPage(clearOnResize);
@@ -559,8 +599,8 @@ public class BigArrays implements Releasable {
 
     /** Resize the array to the exact provided size. */
     public IntArray resize(IntArray array, long size) {
-        if (array instanceof BigIntArray) {
-            return resizeInPlace((BigIntArray) array, size);
+        if (array instanceof AbstractBigArray) {
+            return resizeInPlace(array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final IntArray newArray = newIntArray(size, arr.clearOnResize);
@@ -588,7 +628,9 @@ public class BigArrays implements Releasable {
      */
     public LongArray newLongArray(long size, boolean clearOnResize) {
         final LongArray array;
-        if (size > LONG_PAGE_SIZE) {
+        if (storage == Storage.DIRECT && size >= LONG_PAGE_SIZE / 2) {
+            array = new DirectBigLongArray(size, this, clearOnResize);
+        } else if (size > LONG_PAGE_SIZE) {
             array = new BigLongArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<long[]> page = recycler.longPage(clearOnResize);
@@ -609,8 +651,8 @@ public class BigArrays implements Releasable {
 
     /** Resize the array to the exact provided size. */
     public LongArray resize(LongArray array, long size) {
-        if (array instanceof BigLongArray) {
-            return resizeInPlace((BigLongArray) array, size);
+        if (array instanceof AbstractBigArray) {
+            return resizeInPlace(array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final LongArray newArray = newLongArray(size, arr.clearOnResize);
@@ -638,7 +680,9 @@ public class BigArrays implements Releasable {
      */
     public DoubleArray newDoubleArray(long size, boolean clearOnResize) {
         final DoubleArray arr;
-        if (size > LONG_PAGE_SIZE) {
+        if (storage == Storage.DIRECT && size >= LONG_PAGE_SIZE / 2) {
+            arr = new DirectBigDoubleArray(size, this, clearOnResize);
+        } else if (size > LONG_PAGE_SIZE) {
             arr = new BigDoubleArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<long[]> page = recycler.longPage(clearOnResize);
@@ -656,8 +700,8 @@ public class BigArrays implements Releasable {
 
     /** Resize the array to the exact provided size. */
     public DoubleArray resize(DoubleArray array, long size) {
-        if (array instanceof BigDoubleArray) {
-            return resizeInPlace((BigDoubleArray) array, size);
+        if (array instanceof AbstractBigArray) {
+            return resizeInPlace(array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final DoubleArray newArray = newDoubleArray(size, arr.clearOnResize);
@@ -685,7 +729,9 @@ public class BigArrays implements Releasable {
      */
     public FloatArray newFloatArray(long size, boolean clearOnResize) {
         final FloatArray array;
-        if (size > INT_PAGE_SIZE) {
+        if (storage == Storage.DIRECT && size >= INT_PAGE_SIZE / 2) {
+            array = new DirectBigFloatArray(size, this, clearOnResize);
+        } else if (size > INT_PAGE_SIZE) {
             array = new BigFloatArray(size, this, clearOnResize);
         } else if (size >= INT_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<int[]> page = recycler.intPage(clearOnResize);
@@ -703,8 +749,8 @@ public class BigArrays implements Releasable {
 
     /** Resize the array to the exact provided size. */
     public FloatArray resize(FloatArray array, long size) {
-        if (array instanceof BigFloatArray) {
-            return resizeInPlace((BigFloatArray) array, size);
+        if (array instanceof AbstractBigArray) {
+            return resizeInPlace(array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final FloatArray newArray = newFloatArray(size, arr.clearOnResize);
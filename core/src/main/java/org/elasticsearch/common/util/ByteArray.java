@@ -37,7 +37,8 @@ public interface ByteArray extends BigArray {
     byte set(long index, byte value);
 
     /**
-     * Get a reference to a slice.
+     * Get a reference to a slice. Implementations may materialize the slice into the existing {@link BytesRef#bytes} of
+     * <code>ref</code>, so it must not point to bytes that are still in use elsewhere.
      *
      * @return <code>true</code> when a byte[] was materialized, <code>false</code> otherwise.
      */
@@ -108,7 +108,12 @@ public final class BytesRefHash extends AbstractHash {
     private void append(long id, BytesRef key, int code) {
         assert size == id;
         final long startOffset = startOffsets.get(size);
+        final ByteArray previousBytes = bytes;
         bytes = bigArrays.grow(bytes, startOffset + key.length);
+        if (bytes != previousBytes) {
+            // the spare might point to a page of the released array, don't let the new array materialize slices into it
+            spare.bytes = BytesRef.EMPTY_BYTES;
+        }
         bytes.set(startOffset, key.bytes, key.offset, key.length);
         startOffsets = bigArrays.grow(startOffsets, size + 2);
         startOffsets.set(size + 1, startOffset + key.length);
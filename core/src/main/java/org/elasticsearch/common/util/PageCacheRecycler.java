@@ -32,6 +32,8 @@ import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -47,6 +49,9 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         new Setting<>("cache.recycler.page.type", Type.CONCURRENT.name(), Type::parse, Property.NodeScope);
     public static final Setting<ByteSizeValue> LIMIT_HEAP_SETTING  =
         Setting.byteSizeSetting("cache.recycler.page.limit.heap", "10%", Property.NodeScope);
+    /** Maximum amount of off-heap memory that is retained for reuse by direct pages. */
+    public static final Setting<ByteSizeValue> LIMIT_DIRECT_SETTING  =
+        Setting.byteSizeSetting("cache.recycler.page.limit.direct", "10%", Property.NodeScope);
     public static final Setting<Double> WEIGHT_BYTES_SETTING  =
         Setting.doubleSetting("cache.recycler.page.weight.bytes", 1d, 0d, Property.NodeScope);
     public static final Setting<Double> WEIGHT_LONG_SETTING  =
@@ -61,10 +66,11 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
     private final Recycler<int[]> intPage;
     private final Recycler<long[]> longPage;
     private final Recycler<Object[]> objectPage;
+    private final Recycler<ByteBuffer> directPage;
 
     @Override
     public void close() {
-        Releasables.close(true, bytePage, intPage, longPage, objectPage);
+        Releasables.close(true, bytePage, intPage, longPage, objectPage, directPage);
     }
 
     protected PageCacheRecycler(Settings settings) {
@@ -143,6 +149,21 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         });
 
         assert BigArrays.PAGE_SIZE_IN_BYTES * (maxBytePageCount + maxIntPageCount + maxLongPageCount + maxObjectPageCount) <= limit;
+
+        // direct pages are not taken from the heap budget, they are only used by big arrays that are configured to store data
+        // off-heap and can be interpreted as any primitive type
+        final long directLimit = LIMIT_DIRECT_SETTING.get(settings).bytes();
+        final int maxDirectPageCount = (int) Math.min(Integer.MAX_VALUE, directLimit / BigArrays.PAGE_SIZE_IN_BYTES);
+        directPage = build(type, maxDirectPageCount, availableProcessors, new AbstractRecyclerC<ByteBuffer>() {
+            @Override
+            public ByteBuffer newInstance(int sizing) {
+                return ByteBuffer.allocateDirect(BigArrays.PAGE_SIZE_IN_BYTES).order(ByteOrder.nativeOrder());
+            }
+            @Override
+            public void recycle(ByteBuffer value) {
+                // nothing to do
+            }
+        });
     }
 
     public Recycler.V<byte[]> bytePage(boolean clear) {
@@ -169,6 +190,21 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         return v;
     }
 
+    /**
+     * Return a direct {@link ByteBuffer} of {@link BigArrays#PAGE_SIZE_IN_BYTES} bytes in native order. Data must be accessed with
+     * absolute get and put methods.
+     */
+    public Recycler.V<ByteBuffer> directPage(boolean clear) {
+        final Recycler.V<ByteBuffer> v = directPage.obtain();
+        if (v.isRecycled() && clear) {
+            final ByteBuffer page = v.v();
+            for (int i = 0; i < BigArrays.PAGE_SIZE_IN_BYTES; i += Long.BYTES) {
+                page.putLong(i, 0L);
+            }
+        }
+        return v;
+    }
+
     public Recycler.V<Object[]> objectPage() {
         // object pages are cleared on release anyway
         return objectPage.obtain();
@@ -37,6 +37,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.discovery.AckClusterStatePublishResponseHandler;
 import org.elasticsearch.discovery.BlockingClusterStatePublishResponseHandler;
 import org.elasticsearch.discovery.Discovery;
@@ -57,10 +58,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
@@ -213,27 +218,61 @@ public class PublishClusterStateAction extends AbstractComponent {
 
     private void buildDiffAndSerializeStates(ClusterState clusterState, ClusterState previousState, Set<DiscoveryNode> nodesToPublishTo,
                                              boolean sendFullVersion, Map<Version, BytesReference> serializedStates, Map<Version, BytesReference> serializedDiffs) {
-        Diff<ClusterState> diff = null;
+        final Set<Version> fullStateVersions = new HashSet<>();
+        final Set<Version> diffVersions = new HashSet<>();
         for (final DiscoveryNode node : nodesToPublishTo) {
+            if (sendFullVersion || !previousState.nodes().nodeExists(node.getId())) {
+                // will send a full reference
+                fullStateVersions.add(node.getVersion());
+            } else {
+                // will send a diff
+                diffVersions.add(node.getVersion());
+            }
+        }
+        final Diff<ClusterState> diff = diffVersions.isEmpty() ? null : clusterState.diff(previousState);
+        // serializing (and compressing) large cluster states is expensive, so each version of the full state and the diff is
+        // serialized by its own thread if several of them are needed, e.g. when new nodes join or in mixed-version clusters
+        final Map<Version, BytesReference> states = ConcurrentCollections.newConcurrentMap();
+        final Map<Version, BytesReference> diffs = ConcurrentCollections.newConcurrentMap();
+        final List<Callable<Version>> serializations = new ArrayList<>();
+        for (final Version version : fullStateVersions) {
+            serializations.add(() -> {
+                states.put(version, serializeFullClusterState(clusterState, version));
+                return version;
+            });
+        }
+        for (final Version version : diffVersions) {
+            serializations.add(() -> {
+                diffs.put(version, serializeDiffClusterState(diff, version));
+                return version;
+            });
+        }
+        if (serializations.size() == 1) {
             try {
-                if (sendFullVersion || !previousState.nodes().nodeExists(node.getId())) {
-                    // will send a full reference
-                    if (serializedStates.containsKey(node.getVersion()) == false) {
-                        serializedStates.put(node.getVersion(), serializeFullClusterState(clusterState, node.getVersion()));
-                    }
-                } else {
-                    // will send a diff
-                    if (diff == null) {
-                        diff = clusterState.diff(previousState);
-                    }
-                    if (serializedDiffs.containsKey(node.getVersion()) == false) {
-                        serializedDiffs.put(node.getVersion(), serializeDiffClusterState(diff, node.getVersion()));
-                    }
+                serializations.get(0).call();
+            } catch (Exception e) {
+                throw new ElasticsearchException("failed to serialize cluster_state for publishing", e);
+            }
+        } else if (serializations.isEmpty() == false) {
+            final List<FutureTask<Version>> futures = new ArrayList<>(serializations.size());
+            for (Callable<Version> serialization : serializations) {
+                final FutureTask<Version> future = new FutureTask<>(serialization);
+                transportService.getThreadPool().generic().execute(future);
+                futures.add(future);
+            }
+            try {
+                for (FutureTask<Version> future : futures) {
+                    future.get();
                 }
-            } catch (IOException e) {
-                throw new ElasticsearchException("failed to serialize cluster_state for publishing to node {}", e, node);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ElasticsearchException("interrupted while serializing cluster_state for publishing", e);
+            } catch (ExecutionException e) {
+                throw new ElasticsearchException("failed to serialize cluster_state for publishing", e.getCause());
             }
         }
+        serializedStates.putAll(states);
+        serializedDiffs.putAll(diffs);
     }
 
     private void sendFullClusterState(ClusterState clusterState, Map<Version, BytesReference> serializedStates,
@@ -395,6 +395,7 @@ public class IndexService extends AbstractIndexComponent implements IndicesClust
                         // ignore
                     }
                 }
+                indexFieldData.removeShard(sId);
                 // call this before we close the store, so we can release resources for it
                 listener.afterIndexShardClosed(sId, indexShard, indexSettings);
             }
@@ -561,6 +562,16 @@ public class IndexService extends AbstractIndexComponent implements IndicesClust
                 }
             }
         }
+
+        @Override
+        public void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, Accountable ramUsage) {
+            if (shardId != null) {
+                final IndexShard shard = indexService.getShardOrNull(shardId.id());
+                if (shard != null) {
+                    shard.fieldData().onRemoval(shardId, fieldName, wasEvicted, ramUsage);
+                }
+            }
+        }
     }
 
     /**
@@ -0,0 +1,249 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.index.translog.Translog;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps _uid values to their version information. Unlike a {@link java.util.Map} of {@link BytesRef} to {@link VersionValue}, which
+ * needs several objects per entry, entries are packed into a few primitive arrays per stripe, so that the map is cheap to fill, cheap
+ * to collect for the garbage collector and its memory usage is known exactly.
+ *
+ * Entries can be added and replaced but never removed: the {@link LiveVersionMap} drops the whole map once all its entries are
+ * visible in a refreshed reader. The map is split into stripes by hash of the uid, and each stripe is guarded by its own monitor
+ * which is only held while probing or copying a few values.
+ */
+final class CompactVersionMap implements Accountable {
+
+    private static final int NUM_STRIPES = 16;
+    private static final int STRIPE_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(NUM_STRIPES);
+
+    // the version information of an entry is stored in VALUES_PER_ENTRY consecutive slots of Stripe.values
+    private static final int VERSION = 0;
+    private static final int DELETE_TIME = 1;
+    private static final int TRANSLOG_GENERATION = 2;
+    private static final int TRANSLOG_LOCATION = 3;
+    private static final int TRANSLOG_SIZE = 4;
+    private static final int VALUES_PER_ENTRY = 5;
+
+    /** Marker for {@link #DELETE_TIME} of entries that are not deletes, and for {@link #TRANSLOG_GENERATION} without a location */
+    private static final long NONE = -1;
+
+    private final Stripe[] stripes = new Stripe[NUM_STRIPES];
+    private final AtomicLong ramBytesUsed = new AtomicLong();
+
+    CompactVersionMap() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private Stripe stripe(int hash) {
+        // the lower bits of the hash are used to find the slot in the stripe
+        return stripes[hash >>> STRIPE_SHIFT];
+    }
+
+    /** Returns the version information of the given uid, or <code>null</code> if it is not in this map. */
+    VersionValue get(BytesRef uid) {
+        final int hash = uid.hashCode();
+        return stripe(hash).get(uid, hash);
+    }
+
+    /** Adds or replaces the version information of the given uid. */
+    void put(BytesRef uid, VersionValue version) {
+        final int hash = uid.hashCode();
+        stripe(hash).put(uid, hash, version);
+    }
+
+    /** Returns the number of uids in this map. */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the exact size of the arrays that hold the entries of this map. Stripes only allocate their arrays on the first put,
+     * so an empty map reports <code>0</code>.
+     */
+    @Override
+    public long ramBytesUsed() {
+        return ramBytesUsed.get();
+    }
+
+    @Override
+    public Collection<Accountable> getChildResources() {
+        return Collections.emptyList();
+    }
+
+    /** An open-addressing hash table whose entries are appended to packed arrays. */
+    private final class Stripe {
+
+        /** Ids of entries plus one, indexed by hash, <code>0</code> marks a free slot. */
+        private int[] table;
+        /** Hash of each entry. */
+        private int[] hashes;
+        /** Start of the uid of each entry in {@link #uids}, the uid of an entry ends where the one of the next entry starts. */
+        private int[] uidStarts;
+        private byte[] uids;
+        private long[] values;
+        private int size;
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized VersionValue get(BytesRef uid, int hash) {
+            if (size == 0) {
+                return null;
+            }
+            final int id = find(uid, hash);
+            if (id < 0) {
+                return null;
+            }
+            final int offset = id * VALUES_PER_ENTRY;
+            final long version = values[offset + VERSION];
+            final long deleteTime = values[offset + DELETE_TIME];
+            final Translog.Location location;
+            if (values[offset + TRANSLOG_GENERATION] == NONE) {
+                location = null;
+            } else {
+                location = new Translog.Location(values[offset + TRANSLOG_GENERATION], values[offset + TRANSLOG_LOCATION],
+                    (int) values[offset + TRANSLOG_SIZE]);
+            }
+            return deleteTime == NONE ? new VersionValue(version, location) : new DeleteVersionValue(version, deleteTime, location);
+        }
+
+        synchronized void put(BytesRef uid, int hash, VersionValue version) {
+            if (table == null) {
+                allocate();
+            }
+            int id = find(uid, hash);
+            if (id < 0) {
+                id = append(uid, hash);
+            }
+            final int offset = id * VALUES_PER_ENTRY;
+            values[offset + VERSION] = version.version();
+            values[offset + DELETE_TIME] = version.delete() ? version.time() : NONE;
+            final Translog.Location location = version.translogLocation();
+            if (location == null) {
+                values[offset + TRANSLOG_GENERATION] = NONE;
+            } else {
+                values[offset + TRANSLOG_GENERATION] = location.generation;
+                values[offset + TRANSLOG_LOCATION] = location.translogLocation;
+                values[offset + TRANSLOG_SIZE] = location.size;
+            }
+        }
+
+        /** Returns the id of the entry of the given uid, or <code>-1</code>. */
+        private int find(BytesRef uid, int hash) {
+            final int mask = table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                final int id = table[slot] - 1;
+                if (id < 0) {
+                    return -1;
+                }
+                if (hashes[id] == hash && uidEquals(id, uid)) {
+                    return id;
+                }
+            }
+        }
+
+        private boolean uidEquals(int id, BytesRef uid) {
+            final int start = uidStarts[id];
+            final int length = uidStarts[id + 1] - start;
+            if (length != uid.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (uids[start + i] != uid.bytes[uid.offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void allocate() {
+            final int capacity = 8;
+            table = new int[capacity * 2];
+            hashes = new int[capacity];
+            uidStarts = new int[capacity + 1];
+            uids = new byte[capacity * 16];
+            values = new long[capacity * VALUES_PER_ENTRY];
+            ramBytesUsed.addAndGet(arraysRamBytesUsed());
+        }
+
+        private int append(BytesRef uid, int hash) {
+            final long ramBytesUsedBefore = arraysRamBytesUsed();
+            final int id = size++;
+            if (id == hashes.length) {
+                final int capacity = ArrayUtil.oversize(id + 1, Integer.BYTES);
+                hashes = Arrays.copyOf(hashes, capacity);
+                uidStarts = Arrays.copyOf(uidStarts, capacity + 1);
+                values = Arrays.copyOf(values, capacity * VALUES_PER_ENTRY);
+            }
+            final int start = uidStarts[id];
+            uids = ArrayUtil.grow(uids, start + uid.length);
+            System.arraycopy(uid.bytes, uid.offset, uids, start, uid.length);
+            uidStarts[id + 1] = start + uid.length;
+            hashes[id] = hash;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            } else {
+                insert(table, id, hash);
+            }
+            ramBytesUsed.addAndGet(arraysRamBytesUsed() - ramBytesUsedBefore);
+            return id;
+        }
+
+        private void rehash(int tableSize) {
+            final int[] newTable = new int[tableSize];
+            for (int id = 0; id < size; id++) {
+                insert(newTable, id, hashes[id]);
+            }
+            table = newTable;
+        }
+
+        private void insert(int[] table, int id, int hash) {
+            final int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+
+        private long arraysRamBytesUsed() {
+            return RamUsageEstimator.sizeOf(table) + RamUsageEstimator.sizeOf(hashes) + RamUsageEstimator.sizeOf(uidStarts)
+                + RamUsageEstimator.sizeOf(uids) + RamUsageEstimator.sizeOf(values);
+        }
+    }
+}
@@ -376,6 +376,19 @@ public abstract class Engine implements Closeable {
     /** returns the translog for this engine */
     public abstract Translog getTranslog();
 
+    /**
+     * Returns a view into the translog holding all operations since the commit with the given sync id, or <code>null</code> if
+     * the translog isn't retained for that sync id. The caller must close the view.
+     */
+    @Nullable
+    public abstract Translog.View acquireTranslogViewForSyncId(String syncId);
+
+    /**
+     * Returns the number of documents in the synced commit with the given sync id, or <code>-1</code> if the translog isn't
+     * retained for that sync id.
+     */
+    public abstract long getRetainedSyncedCommitNumDocs(String syncId);
+
     protected void ensureOpen() {
         if (isClosed.get()) {
             throw new EngineClosedException(shardId, failedEngine);
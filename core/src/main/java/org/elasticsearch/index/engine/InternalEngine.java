@@ -68,6 +68,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -116,6 +118,11 @@ public class InternalEngine extends Engine {
     private final EngineConfig.OpenMode openMode;
     private final AtomicBoolean allowCommits = new AtomicBoolean(true);
 
+    // the translog since the most recent synced flushes, retained so that copies that still have one of these synced commits can be
+    // recovered by replaying operations instead of copying files. Ordered from the oldest to the newest sync id.
+    private static final int MAX_RETAINED_SYNC_IDS = 8;
+    private final Map<String, RetainedTranslog> retainedTranslogs = new LinkedHashMap<>();
+
     public InternalEngine(EngineConfig engineConfig) throws EngineException {
         super(engineConfig);
         openMode = engineConfig.getOpenMode();
@@ -631,6 +638,7 @@ public class InternalEngine extends Engine {
             commitIndexWriter(indexWriter, translog, syncId);
             logger.debug("successfully sync committed. sync id [{}].", syncId);
             lastCommittedSegmentInfos = store.readLastCommittedSegmentsInfo();
+            retainTranslog(syncId, Lucene.getNumDocs(lastCommittedSegmentInfos));
             return SyncedFlushResult.SUCCESS;
         } catch (IOException ex) {
             maybeFailEngine("sync commit", ex);
@@ -638,6 +646,93 @@ public class InternalEngine extends Engine {
         }
     }
 
+    private void retainTranslog(String syncId, long numDocs) {
+        synchronized (retainedTranslogs) {
+            if (engineConfig.getIndexSettings().getTranslogRetentionSize().bytes() > 0) {
+                // all operations after the synced commit go to the generations that are not committed yet
+                final Translog.View view = translog.newView();
+                releaseRetainedTranslog(retainedTranslogs.remove(syncId), syncId);
+                retainedTranslogs.put(syncId, new RetainedTranslog(view, numDocs));
+                logger.trace("retaining translog from generation [{}] for sync id [{}]", view.minTranslogGeneration(), syncId);
+            }
+            maybeReleaseRetainedTranslog();
+        }
+    }
+
+    private void maybeReleaseRetainedTranslog() {
+        synchronized (retainedTranslogs) {
+            if (translog.isOpen() == false) {
+                return;
+            }
+            final ByteSizeValue retentionSize = engineConfig.getIndexSettings().getTranslogRetentionSize();
+            for (Iterator<Map.Entry<String, RetainedTranslog>> it = retainedTranslogs.entrySet().iterator(); it.hasNext(); ) {
+                final Map.Entry<String, RetainedTranslog> entry = it.next();
+                // newer sync ids retain less of the translog, so we can stop at the first one that we keep
+                final long retainedSize = entry.getValue().view.sizeInBytes();
+                if (retainedSize > retentionSize.bytes()) {
+                    logger.debug("releasing translog retained for sync id [{}], size [{}] exceeds [{}]", entry.getKey(),
+                        new ByteSizeValue(retainedSize), retentionSize);
+                } else if (retainedTranslogs.size() > MAX_RETAINED_SYNC_IDS) {
+                    logger.debug("releasing translog retained for sync id [{}], more than [{}] sync ids are retained", entry.getKey(),
+                        MAX_RETAINED_SYNC_IDS);
+                } else {
+                    break;
+                }
+                it.remove();
+                releaseRetainedTranslog(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    private void releaseRetainedTranslogs() {
+        synchronized (retainedTranslogs) {
+            for (Map.Entry<String, RetainedTranslog> entry : retainedTranslogs.entrySet()) {
+                releaseRetainedTranslog(entry.getValue(), entry.getKey());
+            }
+            retainedTranslogs.clear();
+        }
+    }
+
+    private void releaseRetainedTranslog(RetainedTranslog retained, String syncId) {
+        if (retained != null) {
+            try {
+                retained.view.close();
+            } catch (IOException e) {
+                logger.warn("failed to release translog retained for sync id [{}]", e, syncId);
+            }
+        }
+    }
+
+    @Override
+    public Translog.View acquireTranslogViewForSyncId(String syncId) {
+        ensureOpen();
+        synchronized (retainedTranslogs) {
+            final RetainedTranslog retained = retainedTranslogs.get(syncId);
+            return retained == null ? null : translog.newView(retained.view.minTranslogGeneration());
+        }
+    }
+
+    @Override
+    public long getRetainedSyncedCommitNumDocs(String syncId) {
+        synchronized (retainedTranslogs) {
+            final RetainedTranslog retained = retainedTranslogs.get(syncId);
+            return retained == null ? -1 : retained.numDocs;
+        }
+    }
+
+    /**
+     * The translog retained since a synced commit, along with the number of documents in that commit
+     */
+    private static final class RetainedTranslog {
+        final Translog.View view;
+        final long numDocs;
+
+        RetainedTranslog(Translog.View view, long numDocs) {
+            this.view = view;
+            this.numDocs = numDocs;
+        }
+    }
+
     final boolean tryRenewSyncCommit() {
         boolean renewed = false;
         try (ReleasableLock lock = writeLock.acquire()) {
@@ -703,6 +798,7 @@ public class InternalEngine extends Engine {
                         refresh("version_table_flush");
                         // after refresh documents can be retrieved from the index so we can now commit the translog
                         translog.commit();
+                        maybeReleaseRetainedTranslog();
                     } catch (Throwable e) {
                         throw new FlushFailedEngineException(shardId, e);
                     }
@@ -923,6 +1019,7 @@ public class InternalEngine extends Engine {
                 } catch (Throwable t) {
                     logger.warn("Failed to close SearcherManager", t);
                 }
+                releaseRetainedTranslogs();
                 try {
                     IOUtils.close(translog);
                 } catch (Throwable t) {
@@ -1165,6 +1262,8 @@ public class InternalEngine extends Engine {
 
     public void onSettingsChanged() {
         mergeScheduler.refreshConfig();
+        // the translog retention size may have changed
+        maybeReleaseRetainedTranslog();
         // config().isEnableGcDeletes() or config.getGcDeletesInMillis() may have changed:
         maybePruneDeletedTombstones();
     }
@@ -170,6 +170,16 @@ public class ShadowEngine extends Engine {
         throw new UnsupportedOperationException("shadow engines don't have translogs");
     }
 
+    @Override
+    public Translog.View acquireTranslogViewForSyncId(String syncId) {
+        throw new UnsupportedOperationException("shadow engines don't have translogs");
+    }
+
+    @Override
+    public long getRetainedSyncedCommitNumDocs(String syncId) {
+        throw new UnsupportedOperationException("shadow engines don't have translogs");
+    }
+
     @Override
     public List<Segment> segments(boolean verbose) {
         try (ReleasableLock lock = readLock.acquire()) {
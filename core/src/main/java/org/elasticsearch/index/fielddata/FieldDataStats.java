@@ -25,6 +25,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
@@ -38,20 +39,37 @@ public class FieldDataStats implements Streamable, ToXContent {
     long evictions;
     @Nullable
     ObjectLongHashMap<String> fields;
+    long globalOrdinalsMemorySize;
+    long globalOrdinalsBuilds;
+    long globalOrdinalsIncrementalBuilds;
+    long globalOrdinalsBuildTimeInMillis;
 
     public FieldDataStats() {
 
     }
 
     public FieldDataStats(long memorySize, long evictions, @Nullable ObjectLongHashMap<String> fields) {
+        this(memorySize, evictions, fields, 0, 0, 0, 0);
+    }
+
+    public FieldDataStats(long memorySize, long evictions, @Nullable ObjectLongHashMap<String> fields, long globalOrdinalsMemorySize,
+                          long globalOrdinalsBuilds, long globalOrdinalsIncrementalBuilds, long globalOrdinalsBuildTimeInMillis) {
         this.memorySize = memorySize;
         this.evictions = evictions;
         this.fields = fields;
+        this.globalOrdinalsMemorySize = globalOrdinalsMemorySize;
+        this.globalOrdinalsBuilds = globalOrdinalsBuilds;
+        this.globalOrdinalsIncrementalBuilds = globalOrdinalsIncrementalBuilds;
+        this.globalOrdinalsBuildTimeInMillis = globalOrdinalsBuildTimeInMillis;
     }
 
     public void add(FieldDataStats stats) {
         this.memorySize += stats.memorySize;
         this.evictions += stats.evictions;
+        this.globalOrdinalsMemorySize += stats.globalOrdinalsMemorySize;
+        this.globalOrdinalsBuilds += stats.globalOrdinalsBuilds;
+        this.globalOrdinalsIncrementalBuilds += stats.globalOrdinalsIncrementalBuilds;
+        this.globalOrdinalsBuildTimeInMillis += stats.globalOrdinalsBuildTimeInMillis;
         if (stats.fields != null) {
             if (fields == null) {
                 fields = stats.fields.clone();
@@ -85,6 +103,39 @@ public class FieldDataStats implements Streamable, ToXContent {
         return fields;
     }
 
+    /**
+     * @return the memory used by global ordinals, which is included in {@link #getMemorySizeInBytes()}
+     */
+    public long getGlobalOrdinalsMemorySizeInBytes() {
+        return this.globalOrdinalsMemorySize;
+    }
+
+    public ByteSizeValue getGlobalOrdinalsMemorySize() {
+        return new ByteSizeValue(globalOrdinalsMemorySize);
+    }
+
+    /**
+     * @return the number of times global ordinals were built, including incremental builds
+     */
+    public long getGlobalOrdinalsBuilds() {
+        return this.globalOrdinalsBuilds;
+    }
+
+    /**
+     * @return the number of times global ordinals were built by extending the global ordinals of a previous reader
+     */
+    public long getGlobalOrdinalsIncrementalBuilds() {
+        return this.globalOrdinalsIncrementalBuilds;
+    }
+
+    public long getGlobalOrdinalsBuildTimeInMillis() {
+        return this.globalOrdinalsBuildTimeInMillis;
+    }
+
+    public TimeValue getGlobalOrdinalsBuildTime() {
+        return new TimeValue(globalOrdinalsBuildTimeInMillis);
+    }
+
     public static FieldDataStats readFieldDataStats(StreamInput in) throws IOException {
         FieldDataStats stats = new FieldDataStats();
         stats.readFrom(in);
@@ -102,6 +153,10 @@ public class FieldDataStats implements Streamable, ToXContent {
                 fields.put(in.readString(), in.readVLong());
             }
         }
+        globalOrdinalsMemorySize = in.readVLong();
+        globalOrdinalsBuilds = in.readVLong();
+        globalOrdinalsIncrementalBuilds = in.readVLong();
+        globalOrdinalsBuildTimeInMillis = in.readVLong();
     }
 
     @Override
@@ -123,6 +178,10 @@ public class FieldDataStats implements Streamable, ToXContent {
                 }
             }
         }
+        out.writeVLong(globalOrdinalsMemorySize);
+        out.writeVLong(globalOrdinalsBuilds);
+        out.writeVLong(globalOrdinalsIncrementalBuilds);
+        out.writeVLong(globalOrdinalsBuildTimeInMillis);
     }
 
     @Override
@@ -130,6 +189,12 @@ public class FieldDataStats implements Streamable, ToXContent {
         builder.startObject(Fields.FIELDDATA);
         builder.byteSizeField(Fields.MEMORY_SIZE_IN_BYTES, Fields.MEMORY_SIZE, memorySize);
         builder.field(Fields.EVICTIONS, getEvictions());
+        builder.startObject(Fields.GLOBAL_ORDINALS);
+        builder.byteSizeField(Fields.MEMORY_SIZE_IN_BYTES, Fields.MEMORY_SIZE, globalOrdinalsMemorySize);
+        builder.field(Fields.BUILDS, globalOrdinalsBuilds);
+        builder.field(Fields.INCREMENTAL_BUILDS, globalOrdinalsIncrementalBuilds);
+        builder.timeValueField(Fields.BUILD_TIME_IN_MILLIS, Fields.BUILD_TIME, globalOrdinalsBuildTimeInMillis);
+        builder.endObject();
         if (fields != null) {
             builder.startObject(Fields.FIELDS);
             assert !fields.containsKey(null);
@@ -154,5 +219,10 @@ public class FieldDataStats implements Streamable, ToXContent {
         static final String MEMORY_SIZE_IN_BYTES = "memory_size_in_bytes";
         static final String EVICTIONS = "evictions";
         static final String FIELDS = "fields";
+        static final String GLOBAL_ORDINALS = "global_ordinals";
+        static final String BUILDS = "builds";
+        static final String INCREMENTAL_BUILDS = "incremental_builds";
+        static final String BUILD_TIME = "build_time";
+        static final String BUILD_TIME_IN_MILLIS = "build_time_in_millis";
     }
 }
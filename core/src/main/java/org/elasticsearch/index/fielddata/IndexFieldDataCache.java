@@ -22,6 +22,7 @@ package org.elasticsearch.index.fielddata;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.util.Accountable;
+import org.elasticsearch.index.fielddata.ordinals.PreviousOrdinalMaps;
 import org.elasticsearch.index.shard.ShardId;
 
 /**
@@ -43,6 +44,12 @@ public interface IndexFieldDataCache {
      */
     void clear(String fieldName);
 
+    /**
+     * Returns the ordinal maps that global ordinals of this field were last built with, so that they can be extended when a
+     * reader only adds segments.
+     */
+    PreviousOrdinalMaps previousOrdinalMaps();
+
     interface Listener {
 
         /**
@@ -54,10 +61,20 @@ public interface IndexFieldDataCache {
          * Called after the fielddata is unloaded
          */
         default void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes){}
+
+        /**
+         * Called after the fielddata is unloaded, with the fielddata itself. Delegates to
+         * {@link #onRemoval(ShardId, String, boolean, long)} by default.
+         */
+        default void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, Accountable ramUsage) {
+            onRemoval(shardId, fieldName, wasEvicted, ramUsage.ramBytesUsed());
+        }
     }
 
     class None implements IndexFieldDataCache {
 
+        private final PreviousOrdinalMaps previousOrdinalMaps = new PreviousOrdinalMaps();
+
         @Override
         public <FD extends AtomicFieldData, IFD extends IndexFieldData<FD>> FD load(LeafReaderContext context, IFD indexFieldData) throws Exception {
             return indexFieldData.loadDirect(context);
@@ -76,5 +93,10 @@ public interface IndexFieldDataCache {
         @Override
         public void clear(String fieldName) {
         }
+
+        @Override
+        public PreviousOrdinalMaps previousOrdinalMaps() {
+            return previousOrdinalMaps;
+        }
     }
 }
@@ -123,6 +123,16 @@ public class IndexFieldDataService extends AbstractIndexComponent implements Clo
         ExceptionsHelper.maybeThrowRuntimeAndSuppress(exceptions);
     }
 
+    /**
+     * Forgets the ordinal maps that the global ordinals of the specified shard were last built with. The field data of the
+     * shard itself is released when its readers are closed.
+     */
+    public synchronized void removeShard(ShardId shardId) {
+        for (IndexFieldDataCache cache : fieldDataCaches.values()) {
+            cache.previousOrdinalMaps().remove(shardId);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <IFD extends IndexFieldData<?>> IFD getForField(MappedFieldType fieldType) {
         final String fieldName = fieldType.name();
@@ -24,10 +24,12 @@ import org.apache.lucene.util.Accountable;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
 import org.elasticsearch.index.shard.ShardId;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  */
@@ -36,6 +38,10 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
     final CounterMetric evictionsMetric = new CounterMetric();
     final CounterMetric totalMetric = new CounterMetric();
     final ConcurrentMap<String, CounterMetric> perFieldTotals = ConcurrentCollections.newConcurrentMap();
+    final CounterMetric globalOrdinalsMetric = new CounterMetric();
+    final CounterMetric globalOrdinalsBuildsMetric = new CounterMetric();
+    final CounterMetric globalOrdinalsIncrementalBuildsMetric = new CounterMetric();
+    final CounterMetric globalOrdinalsBuildTimeMetric = new CounterMetric();
 
     public FieldDataStats stats(String... fields) {
         ObjectLongHashMap<String> fieldTotals = null;
@@ -47,7 +53,9 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
                 }
             }
         }
-        return new FieldDataStats(totalMetric.count(), evictionsMetric.count(), fieldTotals);
+        return new FieldDataStats(totalMetric.count(), evictionsMetric.count(), fieldTotals, globalOrdinalsMetric.count(),
+                globalOrdinalsBuildsMetric.count(), globalOrdinalsIncrementalBuildsMetric.count(),
+                TimeUnit.NANOSECONDS.toMillis(globalOrdinalsBuildTimeMetric.count()));
     }
 
     @Override
@@ -64,6 +72,15 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
                 prev.inc(ramUsage.ramBytesUsed());
             }
         }
+        if (ramUsage instanceof GlobalOrdinalsIndexFieldData) {
+            GlobalOrdinalsIndexFieldData globalOrdinals = (GlobalOrdinalsIndexFieldData) ramUsage;
+            globalOrdinalsMetric.inc(globalOrdinals.ramBytesUsed());
+            globalOrdinalsBuildsMetric.inc();
+            if (globalOrdinals.isIncremental()) {
+                globalOrdinalsIncrementalBuildsMetric.inc();
+            }
+            globalOrdinalsBuildTimeMetric.inc(globalOrdinals.getBuildTimeInNanos());
+        }
     }
 
     @Override
@@ -80,4 +97,12 @@ public class ShardFieldData implements IndexFieldDataCache.Listener {
             }
         }
     }
+
+    @Override
+    public void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, Accountable ramUsage) {
+        onRemoval(shardId, fieldName, wasEvicted, ramUsage.ramBytesUsed());
+        if (ramUsage instanceof GlobalOrdinalsIndexFieldData) {
+            globalOrdinalsMetric.dec(ramUsage.ramBytesUsed());
+        }
+    }
 }
@@ -40,11 +40,16 @@ public abstract class GlobalOrdinalsIndexFieldData extends AbstractIndexComponen
 
     private final String fieldName;
     private final long memorySizeInBytes;
+    private final boolean incremental;
+    private final long buildTimeInNanos;
 
-    protected GlobalOrdinalsIndexFieldData(IndexSettings indexSettings, String fieldName, long memorySizeInBytes) {
+    protected GlobalOrdinalsIndexFieldData(IndexSettings indexSettings, String fieldName, long memorySizeInBytes, boolean incremental,
+                                           long buildTimeInNanos) {
         super(indexSettings);
         this.fieldName = fieldName;
         this.memorySizeInBytes = memorySizeInBytes;
+        this.incremental = incremental;
+        this.buildTimeInNanos = buildTimeInNanos;
     }
 
     @Override
@@ -82,6 +87,20 @@ public abstract class GlobalOrdinalsIndexFieldData extends AbstractIndexComponen
         return memorySizeInBytes;
     }
 
+    /**
+     * @return whether these global ordinals were built by extending the global ordinals of a reader with fewer segments
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @return how long it took to build these global ordinals
+     */
+    public long getBuildTimeInNanos() {
+        return buildTimeInNanos;
+    }
+
     @Override
     public Collection<Accountable> getChildResources() {
         // TODO: break down ram usage?
@@ -0,0 +1,343 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.fielddata.ordinals;
+
+import org.apache.lucene.index.MultiDocValues.OrdinalMap;
+import org.apache.lucene.index.RandomAccessOrds;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.packed.PackedInts;
+import org.apache.lucene.util.packed.PackedLongValues;
+import org.elasticsearch.common.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps segment ordinals to global ordinals, like {@link OrdinalMap}, but can be extended to a reader that has more segments
+ * without merging the terms of all segments again.
+ * <p>
+ * A map that is built from scratch wraps an {@link OrdinalMap} over all segments, the <em>base</em> segments. Extending it to
+ * a reader that still has all base segments builds an {@link OrdinalMap} over the segments that were added since, which are
+ * usually small, and merges its terms into the base terms by binary searching each added term in the base terms. Base global
+ * ordinals are then shifted by the number of added terms that sort before them, which is precomputed for each base segment,
+ * like {@link OrdinalMap} does, so that looking up a global ordinal takes no search. A map is always extended from its base,
+ * so extending a map that was extended before doesn't chain lookups.
+ */
+final class IncrementalOrdinalMap implements Accountable {
+
+    /**
+     * Extending a map is only worth it if the added segments have few terms compared to the base segments.
+     */
+    static final int MAX_ADDED_TERMS_RATIO = 4;
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Base base;
+    private final boolean incremental;
+    // base segment index of each segment, or -1 for added segments
+    private final int[] baseIndices;
+    // segment index of each base segment
+    private final int[] baseSegments;
+    @Nullable
+    private final OrdinalMap added;
+    // segment index of each added segment
+    private final int[] addedSegments;
+    // global ordinal of each ordinal of the added ordinal map
+    private final long[] addedGlobalOrds;
+    // for the added terms that aren't base terms, in term order: their global ordinal
+    private final long[] insertedGlobalOrds;
+    // ... and their ordinal in the added ordinal map
+    private final long[] insertedAddedOrds;
+    // for each base segment, the global ordinal minus the segment ordinal of each term, or null if no terms were inserted
+    @Nullable
+    private final PackedLongValues[] baseOrdDeltas;
+
+    private IncrementalOrdinalMap(Base base, boolean incremental, int[] baseIndices, int[] baseSegments, OrdinalMap added,
+                                  int[] addedSegments, long[] addedGlobalOrds, long[] insertedGlobalOrds,
+                                  long[] insertedAddedOrds, PackedLongValues[] baseOrdDeltas) {
+        this.base = base;
+        this.incremental = incremental;
+        this.baseIndices = baseIndices;
+        this.baseSegments = baseSegments;
+        this.added = added;
+        this.addedSegments = addedSegments;
+        this.addedGlobalOrds = addedGlobalOrds;
+        this.insertedGlobalOrds = insertedGlobalOrds;
+        this.insertedAddedOrds = insertedAddedOrds;
+        this.baseOrdDeltas = baseOrdDeltas;
+    }
+
+    /**
+     * Builds a map over the specified segments from scratch.
+     *
+     * @param subs        the ordinals of each segment
+     * @param segmentKeys the core cache key of each segment
+     */
+    static IncrementalOrdinalMap build(RandomAccessOrds[] subs, Object[] segmentKeys) throws IOException {
+        Base base = new Base(OrdinalMap.build(null, subs, PackedInts.DEFAULT), segmentKeys.clone());
+        int[] identity = new int[subs.length];
+        for (int i = 0; i < identity.length; i++) {
+            identity[i] = i;
+        }
+        return new IncrementalOrdinalMap(base, false, identity, identity, null, new int[0], EMPTY, EMPTY, EMPTY, null);
+    }
+
+    /**
+     * Extends this map to the specified segments.
+     *
+     * @param subs        the ordinals of each segment
+     * @param segmentKeys the core cache key of each segment
+     * @return the extended map, or <code>null</code> if some base segments are gone or if the added segments have too many
+     *         terms, in which case a map should be built from scratch
+     */
+    IncrementalOrdinalMap extend(RandomAccessOrds[] subs, Object[] segmentKeys) throws IOException {
+        Map<Object, Integer> baseIndexByKey = new HashMap<>();
+        for (int i = 0; i < base.segmentKeys.length; i++) {
+            baseIndexByKey.put(base.segmentKeys[i], i);
+        }
+        int[] baseIndices = new int[subs.length];
+        int[] baseSegments = new int[base.segmentKeys.length];
+        int numBaseSegments = 0;
+        int numAddedSegments = 0;
+        for (int i = 0; i < subs.length; i++) {
+            Integer baseIndex = baseIndexByKey.get(segmentKeys[i]);
+            if (baseIndex == null) {
+                baseIndices[i] = -1;
+                numAddedSegments++;
+            } else {
+                baseIndices[i] = baseIndex;
+                baseSegments[baseIndex] = i;
+                numBaseSegments++;
+            }
+        }
+        if (numBaseSegments != base.segmentKeys.length) {
+            // a base segment was merged away
+            return null;
+        }
+        if (numAddedSegments == 0) {
+            return new IncrementalOrdinalMap(base, true, baseIndices, baseSegments, null, new int[0], EMPTY, EMPTY, EMPTY, null);
+        }
+
+        int[] addedSegments = new int[numAddedSegments];
+        RandomAccessOrds[] addedSubs = new RandomAccessOrds[numAddedSegments];
+        for (int i = 0, j = 0; i < subs.length; i++) {
+            if (baseIndices[i] == -1) {
+                addedSegments[j] = i;
+                addedSubs[j] = subs[i];
+                j++;
+            }
+        }
+        OrdinalMap added = OrdinalMap.build(null, addedSubs, PackedInts.DEFAULT);
+        final long numBaseTerms = base.ordinalMap.getValueCount();
+        final long numAddedTerms = added.getValueCount();
+        if (numAddedTerms > numBaseTerms / MAX_ADDED_TERMS_RATIO) {
+            return null;
+        }
+
+        long[] addedGlobalOrds = new long[(int) numAddedTerms];
+        // the number of base terms that sort before each added term that isn't a base term
+        long[] insertedPositions = new long[8];
+        long[] insertedAddedOrds = new long[8];
+        int numInserted = 0;
+        long position = 0;
+        for (long addedOrd = 0; addedOrd < numAddedTerms; addedOrd++) {
+            final int addedSegment = added.getFirstSegmentNumber(addedOrd);
+            final BytesRef term = BytesRef.deepCopyOf(addedSubs[addedSegment].lookupOrd(added.getFirstSegmentOrd(addedOrd)));
+            // the added terms come in order, so the base terms before the previous position sort before this one too
+            long low = position;
+            long high = numBaseTerms - 1;
+            boolean found = false;
+            while (low <= high) {
+                final long mid = (low + high) >>> 1;
+                final int cmp = baseTerm(subs, baseSegments, mid).compareTo(term);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    low = mid;
+                    found = true;
+                    break;
+                }
+            }
+            position = low;
+            // the global ordinal of a term is the number of base terms plus the number of inserted terms that sort before it
+            addedGlobalOrds[(int) addedOrd] = position + numInserted;
+            if (found == false) {
+                if (numInserted == insertedPositions.length) {
+                    insertedPositions = Arrays.copyOf(insertedPositions, numInserted * 2);
+                    insertedAddedOrds = Arrays.copyOf(insertedAddedOrds, numInserted * 2);
+                }
+                insertedPositions[numInserted] = position;
+                insertedAddedOrds[numInserted] = addedOrd;
+                numInserted++;
+            }
+        }
+        insertedPositions = Arrays.copyOf(insertedPositions, numInserted);
+        insertedAddedOrds = Arrays.copyOf(insertedAddedOrds, numInserted);
+        long[] insertedGlobalOrds = new long[numInserted];
+        for (int i = 0; i < numInserted; i++) {
+            insertedGlobalOrds[i] = insertedPositions[i] + i;
+        }
+        PackedLongValues[] baseOrdDeltas = null;
+        if (numInserted > 0) {
+            baseOrdDeltas = new PackedLongValues[baseSegments.length];
+            for (int baseIndex = 0; baseIndex < baseSegments.length; baseIndex++) {
+                baseOrdDeltas[baseIndex] = baseOrdDeltas(base.ordinalMap.getGlobalOrds(baseIndex),
+                        subs[baseSegments[baseIndex]].getValueCount(), insertedPositions);
+            }
+        }
+        return new IncrementalOrdinalMap(base, true, baseIndices, baseSegments, added, addedSegments, addedGlobalOrds,
+                insertedGlobalOrds, insertedAddedOrds, baseOrdDeltas);
+    }
+
+    /**
+     * @return the global ordinal minus the segment ordinal of each term of a base segment
+     */
+    private static PackedLongValues baseOrdDeltas(LongValues baseOrds, long valueCount, long[] insertedPositions) {
+        final PackedLongValues.Builder deltas = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        // base global ordinals grow with segment ordinals, so the inserted terms that sort before them are counted in one pass
+        int numInsertedBefore = 0;
+        for (long segmentOrd = 0; segmentOrd < valueCount; segmentOrd++) {
+            final long baseGlobalOrd = baseOrds.get(segmentOrd);
+            // several inserted terms may sort right before the same base term
+            while (numInsertedBefore < insertedPositions.length && insertedPositions[numInsertedBefore] <= baseGlobalOrd) {
+                numInsertedBefore++;
+            }
+            deltas.add(baseGlobalOrd + numInsertedBefore - segmentOrd);
+        }
+        return deltas.build();
+    }
+
+    private BytesRef baseTerm(RandomAccessOrds[] subs, int[] baseSegments, long baseGlobalOrd) {
+        final int segment = baseSegments[base.ordinalMap.getFirstSegmentNumber(baseGlobalOrd)];
+        return subs[segment].lookupOrd(base.ordinalMap.getFirstSegmentOrd(baseGlobalOrd));
+    }
+
+    /**
+     * @return whether this map was extended from a map that was built before, rather than built from scratch
+     */
+    boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @see OrdinalMap#getValueCount()
+     */
+    long getValueCount() {
+        return base.ordinalMap.getValueCount() + insertedGlobalOrds.length;
+    }
+
+    /**
+     * @see OrdinalMap#getGlobalOrds(int)
+     */
+    LongValues getGlobalOrds(int segmentIndex) {
+        final int baseIndex = baseIndices[segmentIndex];
+        if (baseIndex == -1) {
+            final LongValues addedOrds = added.getGlobalOrds(Arrays.binarySearch(addedSegments, segmentIndex));
+            return new LongValues() {
+                @Override
+                public long get(long segmentOrd) {
+                    return addedGlobalOrds[(int) addedOrds.get(segmentOrd)];
+                }
+            };
+        }
+        if (baseOrdDeltas == null) {
+            return base.ordinalMap.getGlobalOrds(baseIndex);
+        }
+        final PackedLongValues deltas = baseOrdDeltas[baseIndex];
+        return new LongValues() {
+            @Override
+            public long get(long segmentOrd) {
+                return segmentOrd + deltas.get(segmentOrd);
+            }
+        };
+    }
+
+    /**
+     * @see OrdinalMap#getFirstSegmentNumber(long)
+     */
+    int getFirstSegmentNumber(long globalOrd) {
+        final int index = Arrays.binarySearch(insertedGlobalOrds, globalOrd);
+        if (index >= 0) {
+            return addedSegments[added.getFirstSegmentNumber(insertedAddedOrds[index])];
+        }
+        return baseSegments[base.ordinalMap.getFirstSegmentNumber(globalOrd - (-1 - index))];
+    }
+
+    /**
+     * @see OrdinalMap#getFirstSegmentOrd(long)
+     */
+    long getFirstSegmentOrd(long globalOrd) {
+        final int index = Arrays.binarySearch(insertedGlobalOrds, globalOrd);
+        if (index >= 0) {
+            return added.getFirstSegmentOrd(insertedAddedOrds[index]);
+        }
+        return base.ordinalMap.getFirstSegmentOrd(globalOrd - (-1 - index));
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        // the base ordinal map is shared with the map it was built for and with the maps that extend it, but is accounted
+        // for by each of them because any of them may keep it alive
+        long ramBytesUsed = base.ordinalMap.ramBytesUsed() + RamUsageEstimator.sizeOf(baseIndices)
+                + RamUsageEstimator.sizeOf(addedGlobalOrds) + RamUsageEstimator.sizeOf(insertedGlobalOrds)
+                + RamUsageEstimator.sizeOf(insertedAddedOrds);
+        if (incremental) {
+            ramBytesUsed += RamUsageEstimator.sizeOf(baseSegments) + RamUsageEstimator.sizeOf(addedSegments);
+        }
+        if (added != null) {
+            ramBytesUsed += added.ramBytesUsed();
+        }
+        if (baseOrdDeltas != null) {
+            ramBytesUsed += RamUsageEstimator.shallowSizeOf(baseOrdDeltas);
+            for (PackedLongValues deltas : baseOrdDeltas) {
+                ramBytesUsed += deltas.ramBytesUsed();
+            }
+        }
+        return ramBytesUsed;
+    }
+
+    @Override
+    public Collection<Accountable> getChildResources() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * The ordinal map over the segments of a map that was built from scratch
+     */
+    private static final class Base {
+
+        final OrdinalMap ordinalMap;
+        final Object[] segmentKeys;
+
+        Base(OrdinalMap ordinalMap, Object[] segmentKeys) {
+            this.ordinalMap = ordinalMap;
+            this.segmentKeys = segmentKeys;
+        }
+    }
+}
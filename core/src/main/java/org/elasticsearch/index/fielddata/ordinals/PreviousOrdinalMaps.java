@@ -0,0 +1,69 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.fielddata.ordinals;
+
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.shard.ShardId;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the ordinal map that global ordinals were last built with for each shard, so that the global ordinals of the next
+ * reader of a shard can extend it instead of being built from scratch. Maps are only weakly referenced: they are kept alive by
+ * the global ordinals that hold them, which are accounted for in the field data cache, and are forgotten once those are evicted.
+ * The map of a shard is also forgotten when the field data is cleared or the shard is removed.
+ */
+public final class PreviousOrdinalMaps {
+
+    private final ConcurrentMap<ShardId, WeakReference<IncrementalOrdinalMap>> maps = ConcurrentCollections.newConcurrentMap();
+
+    @Nullable
+    IncrementalOrdinalMap get(@Nullable ShardId shardId) {
+        if (shardId == null) {
+            return null;
+        }
+        WeakReference<IncrementalOrdinalMap> ref = maps.get(shardId);
+        return ref == null ? null : ref.get();
+    }
+
+    void put(@Nullable ShardId shardId, IncrementalOrdinalMap ordinalMap) {
+        if (shardId != null) {
+            maps.put(shardId, new WeakReference<>(ordinalMap));
+            // drop the entries of shards whose maps were collected
+            maps.values().removeIf(ref -> ref.get() == null);
+        }
+    }
+
+    /**
+     * Forgets the ordinal map of the specified shard.
+     */
+    public void remove(ShardId shardId) {
+        maps.remove(shardId);
+    }
+
+    /**
+     * Forgets the ordinal maps of all shards.
+     */
+    public void clear() {
+        maps.clear();
+    }
+}
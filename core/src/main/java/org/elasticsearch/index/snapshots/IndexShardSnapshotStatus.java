@@ -170,6 +170,13 @@ public class IndexShardSnapshotStatus {
         processedSize += size;
     }
 
+    /**
+     * Adds to the size of processed files while a file is being processed
+     */
+    public synchronized void addProcessedSize(long size) {
+        processedSize += size;
+    }
+
     /**
      * Number of files
      *
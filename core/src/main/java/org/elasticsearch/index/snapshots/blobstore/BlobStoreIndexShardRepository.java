@@ -68,6 +68,7 @@ import org.elasticsearch.repositories.blobstore.BlobStoreFormat;
 import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
 import org.elasticsearch.repositories.blobstore.ChecksumBlobStoreFormat;
 import org.elasticsearch.repositories.blobstore.LegacyBlobStoreFormat;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.FilterInputStream;
 import java.io.IOException;
@@ -78,6 +79,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableMap;
@@ -101,6 +103,8 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
 
     private final ClusterService clusterService;
 
+    private final ThreadPool threadPool;
+
     private RateLimiter snapshotRateLimiter;
 
     private RateLimiter restoreRateLimiter;
@@ -138,12 +142,14 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
     private ChecksumBlobStoreFormat<BlobStoreIndexShardSnapshots> indexShardSnapshotsFormat;
 
     @Inject
-    public BlobStoreIndexShardRepository(Settings settings, RepositoryName repositoryName, IndicesService indicesService, ClusterService clusterService) {
+    public BlobStoreIndexShardRepository(Settings settings, RepositoryName repositoryName, IndicesService indicesService,
+                                         ClusterService clusterService, ThreadPool threadPool) {
         super(settings);
         this.parseFieldMatcher = new ParseFieldMatcher(settings);
         this.repositoryName = repositoryName.name();
         this.indicesService = indicesService;
         this.clusterService = clusterService;
+        this.threadPool = threadPool;
     }
 
     /**
@@ -591,12 +597,18 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
 
                 snapshotStatus.updateStage(IndexShardSnapshotStatus.Stage.STARTED);
 
+                final ParallelUploads uploads = new ParallelUploads(threadPool.executor(ThreadPool.Names.SNAPSHOT),
+                        threadPool.info(ThreadPool.Names.SNAPSHOT).getMax() - 1);
                 for (FileInfo snapshotFileInfo : filesToSnapshot) {
-                    try {
-                        snapshotFile(snapshotFileInfo);
-                    } catch (IOException e) {
-                        throw new IndexShardSnapshotFailedException(shardId, "Failed to perform snapshot (index files)", e);
-                    }
+                    new FileUpload(snapshotFileInfo, uploads).addParts();
+                }
+                try {
+                    uploads.run();
+                } catch (IOException e) {
+                    throw new IndexShardSnapshotFailedException(shardId, "Failed to perform snapshot (index files)", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IndexShardSnapshotFailedException(shardId, "Interrupted while waiting for index files to be uploaded", e);
                 }
 
                 snapshotStatus.indexVersion(snapshotIndexCommit.getGeneration());
@@ -631,31 +643,30 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
         }
 
         /**
-         * Snapshot individual file
-         * <p>
-         * This is asynchronous method. Upon completion of the operation latch is getting counted down and any failures are
-         * added to the {@code failures} list
+         * Uploads a part of a file through an input that calculates the checksum of the part, so that the file can be verified
+         * by {@link Store#verifyParts(StoreFileMetaData, IndexInput[])} once all its parts are uploaded.
          *
          * @param fileInfo file to be snapshotted
+         * @param part     the part of the file to upload
+         * @param uploads  the uploads the part belongs to
+         * @return the closed input that the part was read through
          */
-        private void snapshotFile(final BlobStoreIndexShardSnapshot.FileInfo fileInfo) throws IOException {
+        private IndexInput snapshotFilePart(final BlobStoreIndexShardSnapshot.FileInfo fileInfo, final int part,
+                                            final ParallelUploads uploads) throws IOException {
             final String file = fileInfo.physicalName();
-            try (IndexInput indexInput = store.openVerifyingInput(file, IOContext.READONCE, fileInfo.metadata())) {
-                for (int i = 0; i < fileInfo.numberOfParts(); i++) {
-                    final long partBytes = fileInfo.partBytes(i);
-
-                    final InputStreamIndexInput inputStreamIndexInput = new InputStreamIndexInput(indexInput, partBytes);
-                    InputStream inputStream = snapshotRateLimiter == null ? inputStreamIndexInput : new RateLimitingInputStream(inputStreamIndexInput, snapshotRateLimiter, snapshotThrottleListener);
-                    inputStream = new AbortableInputStream(inputStream, fileInfo.physicalName());
-                    blobContainer.writeBlob(fileInfo.partName(i), inputStream, partBytes);
-                }
-                Store.verify(indexInput);
-                snapshotStatus.addProcessedFile(fileInfo.length());
-            } catch (Throwable t) {
-                failStoreIfCorrupted(t);
-                snapshotStatus.addProcessedFile(0);
-                throw t;
+            final long partBytes = fileInfo.partBytes(part);
+            // files that are not split into parts have no part size
+            final long offset = part == 0 ? 0 : part * fileInfo.partSize().bytes();
+            final IndexInput indexInput = store.openVerifyingInput(file, IOContext.READONCE, fileInfo.metadata(), offset);
+            try (IndexInput ignored = indexInput) {
+                final InputStreamIndexInput inputStreamIndexInput = new InputStreamIndexInput(indexInput, partBytes);
+                InputStream inputStream = snapshotRateLimiter == null ? inputStreamIndexInput : new RateLimitingInputStream(inputStreamIndexInput, snapshotRateLimiter, snapshotThrottleListener);
+                inputStream = new AbortableInputStream(inputStream, fileInfo.physicalName(), uploads);
+                blobContainer.writeBlob(fileInfo.partName(part), inputStream, partBytes);
             }
+            snapshotStatus.addProcessedSize(partBytes);
+            snapshotStatus.time(System.currentTimeMillis() - snapshotStatus.startTime());
+            return indexInput;
         }
 
         private void failStoreIfCorrupted(Throwable t) {
@@ -696,12 +707,54 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
             return false;
         }
 
+        /**
+         * Uploads the parts of a file and marks the file as processed once all of them are uploaded. The file is verified from
+         * the inputs that its parts were uploaded through, so it is read only once.
+         */
+        private class FileUpload {
+
+            private final FileInfo fileInfo;
+            private final ParallelUploads uploads;
+            private final IndexInput[] partInputs;
+            private final AtomicInteger remainingParts;
+
+            FileUpload(FileInfo fileInfo, ParallelUploads uploads) {
+                this.fileInfo = fileInfo;
+                this.uploads = uploads;
+                this.partInputs = new IndexInput[Math.toIntExact(fileInfo.numberOfParts())];
+                this.remainingParts = new AtomicInteger(partInputs.length);
+            }
+
+            void addParts() {
+                for (int i = 0; i < partInputs.length; i++) {
+                    final int part = i;
+                    uploads.add(() -> uploadPart(part));
+                }
+            }
+
+            private void uploadPart(int part) throws IOException {
+                try {
+                    partInputs[part] = snapshotFilePart(fileInfo, part, uploads);
+                    // the part that completes the file sees the inputs of all other parts
+                    if (remainingParts.decrementAndGet() == 0) {
+                        Store.verifyParts(fileInfo.metadata(), partInputs);
+                        snapshotStatus.addProcessedFile(0);
+                    }
+                } catch (Throwable t) {
+                    failStoreIfCorrupted(t);
+                    throw t;
+                }
+            }
+        }
+
         private class AbortableInputStream extends FilterInputStream {
             private final String fileName;
+            private final ParallelUploads uploads;
 
-            public AbortableInputStream(InputStream delegate, String fileName) {
+            public AbortableInputStream(InputStream delegate, String fileName, ParallelUploads uploads) {
                 super(delegate);
                 this.fileName = fileName;
+                this.uploads = uploads;
             }
 
             @Override
@@ -721,6 +774,10 @@ public class BlobStoreIndexShardRepository extends AbstractComponent implements
                     logger.debug("[{}] [{}] Aborted on the file [{}], exiting", shardId, snapshotId, fileName);
                     throw new IndexShardSnapshotFailedException(shardId, "Aborted");
                 }
+                if (uploads.isFailed()) {
+                    logger.debug("[{}] [{}] Another file failed to upload, cancelling the upload of [{}]", shardId, snapshotId, fileName);
+                    throw new IndexShardSnapshotFailedException(shardId, "Cancelled because another file failed to upload");
+                }
             }
         }
     }
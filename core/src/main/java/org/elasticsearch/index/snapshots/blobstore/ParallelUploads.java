@@ -0,0 +1,121 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.snapshots.blobstore;
+
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads parts of files in parallel. The thread that calls {@link #run()} uploads parts itself and forks up to a given
+ * number of helpers that take parts from the same list, so a busy executor slows the uploads down but never blocks them.
+ * Once a part fails to upload no further parts are started, and {@link #isFailed()} lets the parts that are in flight
+ * give up early.
+ */
+final class ParallelUploads {
+
+    /**
+     * A part of a file to upload
+     */
+    @FunctionalInterface
+    interface Part {
+        void upload() throws IOException;
+    }
+
+    private final Executor executor;
+    private final int maxHelpers;
+    private final List<Part> parts = new ArrayList<>();
+    private final AtomicInteger nextPart = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private CountDownLatch completedParts;
+
+    /**
+     * @param executor   the executor to fork helpers on
+     * @param maxHelpers the maximum number of helpers to fork in addition to the calling thread
+     */
+    ParallelUploads(Executor executor, int maxHelpers) {
+        this.executor = executor;
+        this.maxHelpers = maxHelpers;
+    }
+
+    /**
+     * Adds a part to upload. Parts are started in the order they were added.
+     */
+    void add(Part part) {
+        assert completedParts == null : "uploads already started";
+        parts.add(part);
+    }
+
+    /**
+     * Returns <code>true</code> if a part failed to upload
+     */
+    boolean isFailed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Uploads all parts and waits until the helpers are done with them. The failure of the first part that failed is
+     * rethrown, with the failures of other parts as suppressed exceptions.
+     */
+    void run() throws IOException, InterruptedException {
+        completedParts = new CountDownLatch(parts.size());
+        int helpers = Math.min(maxHelpers, parts.size() - 1);
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(this::uploadParts);
+            } catch (EsRejectedExecutionException e) {
+                // the parts are uploaded by the threads that are already running
+                break;
+            }
+        }
+        uploadParts();
+        completedParts.await();
+        Throwable t = failure.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+        assert t == null : "unexpected failure " + t;
+    }
+
+    private void uploadParts() {
+        for (int i = nextPart.getAndIncrement(); i < parts.size(); i = nextPart.getAndIncrement()) {
+            try {
+                if (isFailed() == false) {
+                    parts.get(i).upload();
+                }
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t) == false) {
+                    failure.get().addSuppressed(t);
+                }
+            } finally {
+                completedParts.countDown();
+            }
+        }
+    }
+}
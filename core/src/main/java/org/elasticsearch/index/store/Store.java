@@ -483,6 +483,118 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         }
     }
 
+    /**
+     * Opens an input that calculates the checksum of the part of a file that starts at the given offset. The parts of a file
+     * can be read independently of each other, and once all of them were read they are verified together by
+     * {@link #verifyParts(StoreFileMetaData, IndexInput[])}, so the file doesn't need to be read again.
+     */
+    public IndexInput openVerifyingInput(String filename, IOContext context, StoreFileMetaData metadata, long offset) throws IOException {
+        assert metadata.writtenBy() != null;
+        assert metadata.writtenBy().onOrAfter(StoreFileMetaData.FIRST_LUCENE_CHECKSUM_VERSION);
+        final IndexInput input = directory().openInput(filename, context);
+        boolean success = false;
+        try {
+            input.seek(offset);
+            final IndexInput verifyingInput = new VerifyingIndexInput(input, offset);
+            success = true;
+            return verifyingInput;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(input);
+            }
+        }
+    }
+
+    /**
+     * Verifies a file from the inputs that its consecutive parts were read through, which were opened with
+     * {@link #openVerifyingInput(String, IOContext, StoreFileMetaData, long)}. The checksums of the parts are combined and
+     * compared with the checksum in the footer of the file and with the checksum in the metadata.
+     */
+    public static void verifyParts(StoreFileMetaData metadata, IndexInput[] parts) throws IOException {
+        final byte[] footer = new byte[8];
+        long checksum = 0;
+        long verifiedLength = 0;
+        for (IndexInput part : parts) {
+            final VerifyingIndexInput input = (VerifyingIndexInput) part;
+            if (input.startPosition != verifiedLength) {
+                throw new CorruptIndexException("verification failed : part starts at " + input.startPosition +
+                        " but the previous parts end at " + verifiedLength + " (resource=" + metadata + ")", input);
+            }
+            final long checksumPosition = input.checksumPosition;
+            final long checksumStart = Math.min(input.startPosition, checksumPosition);
+            final long checksumEnd = Math.min(input.verifiedPosition, checksumPosition);
+            checksum = crc32Combine(checksum, input.getChecksum(), checksumEnd - checksumStart);
+            for (long pos = Math.max(input.startPosition, checksumPosition); pos < input.verifiedPosition; pos++) {
+                final int index = Math.toIntExact(pos - checksumPosition);
+                footer[index] = input.checksum[index];
+            }
+            verifiedLength = input.verifiedPosition;
+        }
+        final String actualChecksum = digestToString(checksum);
+        final String footerChecksum = digestToString(new ByteArrayDataInput(footer).readLong());
+        if (verifiedLength != metadata.length() || actualChecksum.equals(footerChecksum) == false
+                || actualChecksum.equals(metadata.checksum()) == false) {
+            throw new CorruptIndexException("verification failed (hardware problem?) : expected=" + metadata.checksum() +
+                    " actual=" + actualChecksum + " footer=" + footerChecksum + " verifiedLength=" + verifiedLength +
+                    " expectedLength=" + metadata.length(), "VerifyingIndexInput(" + metadata.name() + ")");
+        }
+    }
+
+    /**
+     * Combines the CRC32 of two consecutive sequences of bytes into the CRC32 of their concatenation, like zlib's
+     * <code>crc32_combine</code> does. The CRC32 of the second sequence is shifted by the CRC32 of the first one through
+     * <code>len2</code> zero bytes, which are applied as powers of the matrix of the CRC32 polynomial over GF(2).
+     */
+    static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) {
+            return crc1;
+        }
+        final long[] even = new long[32]; // even power of two zeros operator
+        final long[] odd = new long[32]; // odd power of two zeros operator
+        // operator for one zero bit
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd); // two zero bits
+        gf2MatrixSquare(odd, even); // four zero bits
+        // apply len2 zero bytes to crc1, the first square puts the operator for one zero byte, eight zero bits, in even
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            len2 >>>= 1;
+            if (len2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            len2 >>>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+
     public boolean checkIntegrityNoException(StoreFileMetaData md) {
         return checkIntegrityNoException(md, directory());
     }
@@ -1196,16 +1308,32 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         private final Checksum digest;
         private final long checksumPosition;
         private final byte[] checksum = new byte[8];
-        private long verifiedPosition = 0;
+        private final long startPosition;
+        private long verifiedPosition;
 
         public VerifyingIndexInput(IndexInput input) {
             this(input, new BufferedChecksum(new CRC32()));
         }
 
         public VerifyingIndexInput(IndexInput input, Checksum digest) {
+            this(input, digest, 0);
+        }
+
+        /**
+         * Creates an input that calculates the checksum of the bytes of a file from the given position on. The given input must
+         * be positioned there.
+         */
+        VerifyingIndexInput(IndexInput input, long startPosition) {
+            this(input, new BufferedChecksum(new CRC32()), startPosition);
+        }
+
+        private VerifyingIndexInput(IndexInput input, Checksum digest, long startPosition) {
             super("VerifyingIndexInput(" + input + ")");
+            assert input.getFilePointer() == startPosition;
             this.input = input;
             this.digest = digest;
+            this.startPosition = startPosition;
+            this.verifiedPosition = startPosition;
             checksumPosition = input.length() - 8;
         }
 
@@ -58,6 +58,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -500,6 +501,24 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         }
     }
 
+    /**
+     * Returns a view into the current translog that retains all operations starting at the given generation, which may
+     * already be committed. The generation must still be retained, for instance by another open view.
+     */
+    public Translog.View newView(long minGeneration) {
+        try (ReleasableLock lock = readLock.acquire()) {
+            ensureOpen();
+            final long minRetainedGeneration = readers.isEmpty() ? current.getGeneration() : readers.get(0).getGeneration();
+            if (minGeneration < minRetainedGeneration) {
+                throw new IllegalArgumentException("translog generation [" + minGeneration + "] is not retained anymore, min retained " +
+                    "generation is [" + minRetainedGeneration + "]");
+            }
+            View view = new View(minGeneration);
+            outstandingViews.add(view);
+            return view;
+        }
+    }
+
     /**
      * Sync's the translog.
      */
@@ -548,6 +567,24 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         return false;
     }
 
+    /**
+     * Ensures that all locations in the given stream have been synced / written to the underlying storage.
+     * This method allows for internal optimization to minimize the amount of fsync operations if multiple
+     * locations must be synced.
+     *
+     * @return Returns <code>true</code> iff this call caused an actual sync operation otherwise <code>false</code>
+     */
+    public boolean ensureSynced(Stream<Location> locations) throws IOException {
+        final Optional<Location> max = locations.max(Location::compareTo);
+        // we only need to sync the max location since it will sync all other
+        // locations implicitly
+        if (max.isPresent()) {
+            return ensureSynced(max.get());
+        } else {
+            return false;
+        }
+    }
+
     private void closeOnTragicEvent(Throwable ex) {
         if (current.getTragicException() != null) {
             try {
@@ -643,7 +680,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         public final long translogLocation;
         public final int size;
 
-        Location(long generation, long translogLocation, int size) {
+        public Location(long generation, long translogLocation, int size) {
             this.generation = generation;
             this.translogLocation = translogLocation;
             this.size = size;
@@ -0,0 +1,337 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.indices;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.StringHelper;
+import org.elasticsearch.common.Numbers;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.logging.ESLogger;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A size bounded second tier for the {@link IndicesRequestCache} that keeps cached shard level results in files on local disk.
+ * Entries are keyed by an identity of the segments the result was computed on plus the request bytes, which unlike the reader
+ * version remains valid across node restarts as long as the segments and their deletes don't change. Entries are evicted in
+ * least recently used order once the configured size is exceeded and eagerly once the reader they belong to is closed.
+ */
+final class DiskRequestCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".cache";
+    private static final String TEMP_PREFIX = "pending-";
+
+    private final ESLogger logger;
+    private final Path path;
+    private final long maxSizeInBytes;
+
+    // all of the below is guarded by this, the entries are kept in access order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> entriesPerIdentity = new HashMap<>();
+    private long sizeInBytes;
+
+    DiskRequestCache(ESLogger logger, Path path, long maxSizeInBytes) throws IOException {
+        this.logger = logger;
+        this.path = path;
+        this.maxSizeInBytes = maxSizeInBytes;
+        Files.createDirectories(path);
+        loadEntries();
+    }
+
+    /**
+     * Returns the cached value for the given identity and key or <code>null</code> if there is no such entry.
+     */
+    BytesReference get(String identity, BytesReference key) {
+        final String name = entryName(identity, key);
+        synchronized (this) {
+            if (entries.get(name) == null) {
+                return null;
+            }
+        }
+        try {
+            final byte[] bytes = Files.readAllBytes(path.resolve(name + ENTRY_SUFFIX));
+            // verify the checksum before parsing anything so that corrupted lengths can't make us read garbage
+            if (bytes.length >= Long.BYTES) {
+                final CRC32 checksum = new CRC32();
+                checksum.update(bytes, 0, bytes.length - Long.BYTES);
+                if (Numbers.bytesToLong(new BytesRef(bytes, bytes.length - Long.BYTES, Long.BYTES)) == checksum.getValue()) {
+                    final StreamInput in = new BytesArray(bytes, 0, bytes.length - Long.BYTES).streamInput();
+                    if (in.readVInt() == FORMAT_VERSION && identity.equals(in.readString()) && key.equals(in.readBytesReference())) {
+                        return in.readBytesReference();
+                    }
+                }
+            }
+            logger.debug("discarding corrupted or mismatching request cache entry [{}]", name);
+        } catch (NoSuchFileException e) {
+            // concurrently evicted or replaced
+            synchronized (this) {
+                removeEntry(name);
+            }
+            return null;
+        } catch (Exception e) {
+            // whatever went wrong, the entry is useless, treat it as a miss
+            logger.debug("failed to read request cache entry [{}]", e, name);
+        }
+        remove(name);
+        return null;
+    }
+
+    /**
+     * Stores the given value for the given identity and key, evicting the least recently used entries if needed.
+     */
+    void put(String identity, BytesReference key, BytesReference value) {
+        final String name = entryName(identity, key);
+        final Path tempFile = path.resolve(TEMP_PREFIX + name + "-" + Thread.currentThread().getId());
+        final long size;
+        try (BytesStreamOutput out = new BytesStreamOutput(key.length() + value.length() + 64)) {
+            out.writeVInt(FORMAT_VERSION);
+            out.writeString(identity);
+            out.writeBytesReference(key);
+            out.writeBytesReference(value);
+            final BytesRef bytes = out.bytes().toBytesRef();
+            final CRC32 checksum = new CRC32();
+            checksum.update(bytes.bytes, bytes.offset, bytes.length);
+            out.writeLong(checksum.getValue());
+            size = out.size();
+            if (size > maxSizeInBytes) {
+                return;
+            }
+            try (OutputStream os = Files.newOutputStream(tempFile)) {
+                out.bytes().writeTo(os);
+            }
+            Files.move(tempFile, path.resolve(name + ENTRY_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("failed to write request cache entry [{}]", e, name);
+            deleteQuietly(tempFile);
+            return;
+        }
+        final List<String> evicted;
+        synchronized (this) {
+            removeEntry(name);
+            addEntry(new Entry(name, identity, size));
+            evicted = evictToSize();
+        }
+        evicted.forEach(this::deleteEntryFile);
+    }
+
+    /**
+     * Removes all entries that were stored for the given identity.
+     */
+    void invalidate(String identity) {
+        final Set<String> names;
+        synchronized (this) {
+            names = entriesPerIdentity.remove(identity);
+            if (names == null) {
+                return;
+            }
+            for (String name : names) {
+                sizeInBytes -= entries.remove(name).sizeInBytes;
+            }
+        }
+        names.forEach(this::deleteEntryFile);
+    }
+
+    synchronized int count() {
+        return entries.size();
+    }
+
+    synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Returns an identity for the segments of the given reader that remains the same across restarts for as long as the segments
+     * and their deletes don't change, or <code>null</code> if no such identity can be built for this reader, for instance because
+     * some of its segments have deletes that were not written to disk yet.
+     */
+    static String readerIdentity(DirectoryReader reader) {
+        final StringBuilder identity = new StringBuilder();
+        for (LeafReaderContext context : reader.leaves()) {
+            final LeafReader leaf = FilterLeafReader.unwrap(context.reader());
+            if (leaf instanceof SegmentReader == false) {
+                return null;
+            }
+            final SegmentReader segmentReader = (SegmentReader) leaf;
+            final SegmentCommitInfo info = segmentReader.getSegmentInfo();
+            final byte[] id = info.info.getId();
+            // the commit info is shared with the index writer, read the deletes generation on both sides of the delete count
+            // so that a concurrent write of live docs can't make us pick up an inconsistent view
+            final long delGen = info.getDelGen();
+            final int delCount = info.getDelCount();
+            if (id == null || delGen != info.getDelGen() || segmentReader.numDocs() != info.info.maxDoc() - delCount) {
+                return null;
+            }
+            identity.append(StringHelper.idToString(id)).append('_').append(delGen).append('_').append(info.getFieldInfosGen())
+                .append('_').append(info.getDocValuesGen()).append('_').append(segmentReader.numDocs()).append(';');
+        }
+        return identity.toString();
+    }
+
+    private static String entryName(String identity, BytesReference key) {
+        final MessageDigest digest = MessageDigests.sha256();
+        digest.update(identity.getBytes(StandardCharsets.UTF_8));
+        final BytesRef keyBytes = key.toBytesRef();
+        digest.update(keyBytes.bytes, keyBytes.offset, keyBytes.length);
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    private void loadEntries() throws IOException {
+        final List<Tuple<Entry, Long>> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path file : stream) {
+                final String fileName = file.getFileName().toString();
+                if (fileName.startsWith(TEMP_PREFIX) || fileName.endsWith(ENTRY_SUFFIX) == false) {
+                    // left over from a write that was interrupted
+                    deleteQuietly(file);
+                    continue;
+                }
+                try (StreamInput in = new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(file), 1024))) {
+                    if (in.readVInt() != FORMAT_VERSION) {
+                        deleteQuietly(file);
+                        continue;
+                    }
+                    final String name = fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length());
+                    existing.add(new Tuple<>(new Entry(name, in.readString(), Files.size(file)),
+                        Files.getLastModifiedTime(file).toMillis()));
+                } catch (Exception e) {
+                    logger.debug("discarding unreadable request cache entry [{}]", e, file);
+                    deleteQuietly(file);
+                }
+            }
+        }
+        // approximate the access order by the time the entries were written
+        existing.sort(Comparator.comparingLong(Tuple::v2));
+        final List<String> evicted;
+        synchronized (this) {
+            for (Tuple<Entry, Long> entry : existing) {
+                addEntry(entry.v1());
+            }
+            evicted = evictToSize();
+        }
+        evicted.forEach(this::deleteEntryFile);
+        logger.debug("loaded [{}] request cache entries from [{}]", count(), path);
+    }
+
+    /**
+     * Drops the least recently used entries until the cache fits its size again and returns the names of the dropped entries,
+     * whose files must be deleted by the caller.
+     */
+    private List<String> evictToSize() {
+        assert Thread.holdsLock(this);
+        final List<String> evicted = new ArrayList<>();
+        for (Iterator<Entry> iterator = entries.values().iterator(); sizeInBytes > maxSizeInBytes && iterator.hasNext(); ) {
+            final Entry eldest = iterator.next();
+            iterator.remove();
+            removeFromIdentity(eldest);
+            evicted.add(eldest.name);
+        }
+        return evicted;
+    }
+
+    private void remove(String name) {
+        synchronized (this) {
+            removeEntry(name);
+        }
+        deleteEntryFile(name);
+    }
+
+    private void addEntry(Entry entry) {
+        assert Thread.holdsLock(this);
+        entries.put(entry.name, entry);
+        entriesPerIdentity.computeIfAbsent(entry.identity, k -> new HashSet<>()).add(entry.name);
+        sizeInBytes += entry.sizeInBytes;
+    }
+
+    private void removeEntry(String name) {
+        assert Thread.holdsLock(this);
+        final Entry entry = entries.remove(name);
+        if (entry != null) {
+            removeFromIdentity(entry);
+        }
+    }
+
+    private void removeFromIdentity(Entry entry) {
+        assert Thread.holdsLock(this);
+        sizeInBytes -= entry.sizeInBytes;
+        final Set<String> names = entriesPerIdentity.get(entry.identity);
+        if (names != null) {
+            names.remove(entry.name);
+            if (names.isEmpty()) {
+                entriesPerIdentity.remove(entry.identity);
+            }
+        }
+    }
+
+    private void deleteEntryFile(String name) {
+        deleteQuietly(path.resolve(name + ENTRY_SUFFIX));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("failed to delete request cache file [{}]", e, file);
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final String identity;
+        final long sizeInBytes;
+
+        Entry(String name, String identity, long sizeInBytes) {
+            this.name = name;
+            this.identity = identity;
+            this.sizeInBytes = sizeInBytes;
+        }
+    }
+}
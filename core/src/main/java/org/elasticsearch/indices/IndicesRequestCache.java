@@ -25,6 +25,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.cache.Cache;
 import org.elasticsearch.common.cache.CacheBuilder;
@@ -36,12 +37,14 @@ import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -59,6 +62,10 @@ import java.util.concurrent.TimeUnit;
  * Currently, the cache is only enabled for count requests, and can only be opted in on an index
  * level setting that can be dynamically changed and defaults to false.
  * <p>
+ * Optionally, a second tier of the cache can be kept on local disk, see {@link #INDICES_CACHE_DISK_ENABLED}. Results that are
+ * computed on readers whose segments are fully persisted are written through to it, so that they survive eviction from the
+ * heap as well as node restarts.
+ * <p>
  * There are still several TODOs left in this class, some easily addressable, some more complex, but the support
  * is functional.
  */
@@ -75,14 +82,28 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         Setting.byteSizeSetting("indices.requests.cache.size", "1%", Property.NodeScope);
     public static final Setting<TimeValue> INDICES_CACHE_QUERY_EXPIRE =
         Setting.positiveTimeSetting("indices.requests.cache.expire", new TimeValue(0), Property.NodeScope);
+    public static final Setting<Boolean> INDICES_CACHE_DISK_ENABLED =
+        Setting.boolSetting("indices.requests.cache.disk.enabled", false, Property.NodeScope);
+    public static final Setting<ByteSizeValue> INDICES_CACHE_DISK_SIZE =
+        Setting.byteSizeSetting("indices.requests.cache.disk.size", new ByteSizeValue(1, ByteSizeUnit.GB), Property.NodeScope);
 
     private final ConcurrentMap<CleanupKey, Boolean> registeredClosedListeners = ConcurrentCollections.newConcurrentMap();
     private final Set<CleanupKey> keysToClean = ConcurrentCollections.newConcurrentSet();
     private final ByteSizeValue size;
     private final TimeValue expire;
     private final Cache<Key, Value> cache;
+    @Nullable
+    private final DiskRequestCache diskCache;
 
     IndicesRequestCache(Settings settings) {
+        this(settings, null);
+    }
+
+    /**
+     * @param diskCachePath the directory to keep the on disk tier of the cache in or <code>null</code> if the cache should be
+     *                      kept in memory only
+     */
+    IndicesRequestCache(Settings settings, @Nullable Path diskCachePath) {
         super(settings);
         this.size = INDICES_CACHE_QUERY_SIZE.get(settings);
         this.expire = INDICES_CACHE_QUERY_EXPIRE.exists(settings) ? INDICES_CACHE_QUERY_EXPIRE.get(settings) : null;
@@ -93,6 +114,15 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             cacheBuilder.setExpireAfterAccess(TimeUnit.MILLISECONDS.toNanos(expire.millis()));
         }
         cache = cacheBuilder.build();
+        DiskRequestCache diskCache = null;
+        if (diskCachePath != null && INDICES_CACHE_DISK_ENABLED.get(settings)) {
+            try {
+                diskCache = new DiskRequestCache(logger, diskCachePath, INDICES_CACHE_DISK_SIZE.get(settings).bytes());
+            } catch (IOException e) {
+                logger.warn("failed to open the on disk request cache at [{}], caching requests in memory only", e, diskCachePath);
+            }
+        }
+        this.diskCache = diskCache;
     }
 
     @Override
@@ -112,12 +142,17 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
 
     BytesReference getOrCompute(CacheEntity cacheEntity, DirectoryReader reader, BytesReference cacheKey) throws Exception {
         final Key key =  new Key(cacheEntity, reader.getVersion(), cacheKey);
-        Loader loader = new Loader(cacheEntity);
+        final String diskIdentity = diskIdentity(cacheEntity, reader);
+        Loader loader = new Loader(cacheEntity, diskIdentity == null ? null : diskCache, diskIdentity);
         Value value = cache.computeIfAbsent(key, loader);
         if (loader.isLoaded()) {
-            key.entity.onMiss();
+            if (loader.isLoadedFromDisk()) {
+                key.entity.onHit();
+            } else {
+                key.entity.onMiss();
+            }
             // see if its the first time we see this reader, and make sure to register a cleanup key
-            CleanupKey cleanupKey = new CleanupKey(cacheEntity, reader.getVersion());
+            CleanupKey cleanupKey = new CleanupKey(cacheEntity, reader.getVersion(), diskIdentity);
             if (!registeredClosedListeners.containsKey(cleanupKey)) {
                 Boolean previous = registeredClosedListeners.putIfAbsent(cleanupKey, Boolean.TRUE);
                 if (previous == null) {
@@ -130,22 +165,61 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         return value.reference;
     }
 
+    /**
+     * Returns the identity that entries computed by the given entity on the given reader are stored under in the on disk tier,
+     * or <code>null</code> if they must not be stored on disk.
+     */
+    @Nullable
+    private String diskIdentity(CacheEntity cacheEntity, DirectoryReader reader) {
+        if (diskCache == null) {
+            return null;
+        }
+        final String entityIdentity = cacheEntity.getPersistentIdentity();
+        if (entityIdentity == null) {
+            return null;
+        }
+        final String readerIdentity = DiskRequestCache.readerIdentity(reader);
+        return readerIdentity == null ? null : entityIdentity + "/" + readerIdentity;
+    }
+
     private static class Loader implements CacheLoader<Key, Value> {
 
         private final CacheEntity entity;
+        private final DiskRequestCache diskCache;
+        private final String diskIdentity;
         private boolean loaded;
+        private boolean loadedFromDisk;
 
-        Loader(CacheEntity entity) {
+        Loader(CacheEntity entity, @Nullable DiskRequestCache diskCache, @Nullable String diskIdentity) {
             this.entity = entity;
+            this.diskCache = diskCache;
+            this.diskIdentity = diskIdentity;
         }
 
         public boolean isLoaded() {
             return this.loaded;
         }
 
+        public boolean isLoadedFromDisk() {
+            return this.loadedFromDisk;
+        }
+
         @Override
         public Value load(Key key) throws Exception {
-            Value value = entity.loadValue();
+            Value value = null;
+            if (diskCache != null) {
+                BytesReference reference = diskCache.get(diskIdentity, key.value);
+                if (reference != null) {
+                    value = new Value(reference, reference.length());
+                    loadedFromDisk = true;
+                }
+            }
+            if (value == null) {
+                value = entity.loadValue();
+                if (diskCache != null) {
+                    diskCache.put(diskIdentity, key.value, value.reference);
+                }
+            }
             entity.onCached(key, value);
             loaded = true;
             return value;
@@ -178,6 +252,14 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
          */
         Object getCacheIdentity();
 
+        /**
+         * Returns an identity of the resource behind this entity that is stable across node restarts and changes whenever
+         * cached values might need to be computed differently, or <code>null</code> if values loaded by this entity must not be
+         * kept in the on disk tier of the cache.
+         */
+        @Nullable
+        String getPersistentIdentity();
+
         /**
          * Called each time this entity has a cache hit.
          */
@@ -260,10 +342,16 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
     private class CleanupKey implements IndexReader.ReaderClosedListener {
         final CacheEntity entity;
         final long readerVersion; // use the reader version to now keep a reference to a "short" lived reader until its reaped
+        final String diskIdentity; // not part of the equality, only used to drop on disk entries once the reader is closed
 
         private CleanupKey(CacheEntity entity, long readerVersion) {
+            this(entity, readerVersion, null);
+        }
+
+        private CleanupKey(CacheEntity entity, long readerVersion, @Nullable String diskIdentity) {
             this.entity = entity;
             this.readerVersion = readerVersion;
+            this.diskIdentity = diskIdentity;
         }
 
         @Override
@@ -304,8 +392,21 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             if (cleanupKey.readerVersion == -1 || cleanupKey.entity.isOpen() == false) {
                 // -1 indicates full cleanup, as does a closed shard
                 currentFullClean.add(cleanupKey.entity.getCacheIdentity());
+                if (diskCache != null && cleanupKey.readerVersion == -1 && cleanupKey.entity.isOpen()) {
+                    // an explicit clear of an open shard, drop what we stored on disk for its current readers too. Entries
+                    // of closed shards stay on disk so that they can be reused once the shard is opened again
+                    for (CleanupKey registered : registeredClosedListeners.keySet()) {
+                        if (registered.diskIdentity != null
+                            && registered.entity.getCacheIdentity().equals(cleanupKey.entity.getCacheIdentity())) {
+                            diskCache.invalidate(registered.diskIdentity);
+                        }
+                    }
+                }
             } else {
                 currentKeysToClean.add(cleanupKey);
+                if (diskCache != null && cleanupKey.diskIdentity != null) {
+                    diskCache.invalidate(cleanupKey.diskIdentity);
+                }
             }
         }
         if (!currentKeysToClean.isEmpty() || !currentFullClean.isEmpty()) {
@@ -335,4 +436,11 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
     final int numRegisteredCloseListeners() { // for testing
         return registeredClosedListeners.size();
     }
+
+    /**
+     * Returns the number of entries in the on disk tier of the cache or <code>-1</code> if it is disabled
+     */
+    final int diskCount() { // for testing
+        return diskCache == null ? -1 : diskCache.count();
+    }
 }
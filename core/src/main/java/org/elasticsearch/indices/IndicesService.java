@@ -139,6 +139,8 @@ public class IndicesService extends AbstractLifecycleComponent
     implements IndicesClusterStateService.AllocatedIndices<IndexShard, IndexService>, IndexService.ShardStoreDeleter {
 
     public static final String INDICES_SHARDS_CLOSED_TIMEOUT = "indices.shards_closed_timeout";
+    /** the folder in the node data path that holds the on disk tier of the {@link IndicesRequestCache} */
+    public static final String REQUEST_CACHE_FOLDER = "request_cache";
     public static final Setting<TimeValue> INDICES_CACHE_CLEAN_INTERVAL_SETTING =
         Setting.positiveTimeSetting("indices.cache.cleanup_interval", TimeValue.timeValueMinutes(1), Property.NodeScope);
     private final PluginsService pluginsService;
@@ -187,7 +189,8 @@ public class IndicesService extends AbstractLifecycleComponent
         this.analysisRegistry = analysisRegistry;
         this.indicesQueriesRegistry = indicesQueriesRegistry;
         this.indexNameExpressionResolver = indexNameExpressionResolver;
-        this.indicesRequestCache = new IndicesRequestCache(settings);
+        this.indicesRequestCache = new IndicesRequestCache(settings,
+            nodeEnv.hasNodeFile() ? nodeEnv.nodeDataPaths()[0].resolve(REQUEST_CACHE_FOLDER) : null);
         this.indicesQueryCache = new IndicesQueryCache(settings);
         this.mapperRegistry = mapperRegistry;
         this.namedWriteableRegistry = namedWriteableRegistry;
@@ -1184,6 +1187,13 @@ public class IndicesService extends AbstractLifecycleComponent
         public Object getCacheIdentity() {
             return indexShard;
         }
+
+        @Override
+        public String getPersistentIdentity() {
+            // the index metadata version changes with mappings and settings that might affect how requests are executed
+            final ShardId shardId = indexShard.shardId();
+            return shardId.getIndex().getUUID() + "/" + shardId.id() + "/" + indexShard.indexSettings().getIndexMetaData().getVersion();
+        }
     }
 
     @FunctionalInterface
@@ -41,6 +41,7 @@ import org.elasticsearch.index.Index;
 import org.elasticsearch.index.fielddata.AtomicFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.ordinals.PreviousOrdinalMaps;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardUtils;
 
@@ -90,7 +91,7 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
         final Accountable value = notification.getValue();
         for (IndexFieldDataCache.Listener listener : key.listeners) {
             try {
-                listener.onRemoval(key.shardId, indexCache.fieldName, notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED, value.ramBytesUsed());
+                listener.onRemoval(key.shardId, indexCache.fieldName, notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED, value);
             } catch (Throwable e) {
                 // load anyway since listeners should not throw exceptions
                 logger.error("Failed to call listener on field data cache unloading", e);
@@ -115,6 +116,7 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
         final String fieldName;
         private final Cache<Key, Accountable> cache;
         private final Listener[] listeners;
+        private final PreviousOrdinalMaps previousOrdinalMaps = new PreviousOrdinalMaps();
 
         IndexFieldCache(ESLogger logger,final Cache<Key, Accountable> cache, Index index, String fieldName, Listener... listeners) {
             this.logger = logger;
@@ -193,6 +195,7 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
             }
             // force eviction
             cache.refresh();
+            previousOrdinalMaps.clear();
         }
 
         @Override
@@ -208,6 +211,14 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
             // rarely and probably means the user wants to see memory returned as
             // soon as possible
             cache.refresh();
+            if (this.fieldName.equals(fieldName)) {
+                previousOrdinalMaps.clear();
+            }
+        }
+
+        @Override
+        public PreviousOrdinalMaps previousOrdinalMaps() {
+            return previousOrdinalMaps;
         }
     }
 
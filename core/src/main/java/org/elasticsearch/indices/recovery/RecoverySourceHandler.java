@@ -30,9 +30,11 @@ import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.IOUtils;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.common.lucene.store.InputStreamIndexInput;
@@ -53,19 +55,23 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.StreamSupport;
 
 /**
  * RecoverySourceHandler handles the three phases of shard recovery, which is
  * everything relating to copying the segment files as well as sending translog
- * operations across the wire once the segments have been copied.
+ * operations across the wire once the segments have been copied. If the target still
+ * has the synced commit the translog was retained for, no segments are copied at all.
  *
  * Note: There is always one source handler per recovery that handles all the
  * file and translog transfer. This handler is completely isolated from other recoveries
  * while the {@link RateLimiter} passed via {@link RecoverySettings} is shared across recoveries
  * originating from this nodes to throttle the number bytes send during file transfer. The transaction log
- * phase bypasses the rate limiter entirely.
+ * phase bypasses the rate limiter entirely. File chunks are sent without waiting for the previous ones to be
+ * acknowledged, up to a number of chunks in flight, which may span several files.
  */
 public class RecoverySourceHandler {
 
@@ -77,7 +83,11 @@ public class RecoverySourceHandler {
     // Request containing source and target node information
     private final StartRecoveryRequest request;
     private final int chunkSizeInBytes;
+    private final int maxConcurrentFileChunks;
     private final RecoveryTargetHandler recoveryTarget;
+    // file chunks that were sent but not acknowledged yet, and the first chunk that failed along with its file
+    private final Semaphore inFlightFileChunks;
+    private final AtomicReference<Tuple<StoreFileMetaData, Throwable>> fileChunkFailure = new AtomicReference<>();
 
     protected final RecoveryResponse response;
 
@@ -100,6 +110,7 @@ public class RecoverySourceHandler {
     public RecoverySourceHandler(final IndexShard shard, RecoveryTargetHandler recoveryTarget,
                                  final StartRecoveryRequest request,
                                  final int fileChunkSizeInBytes,
+                                 final int maxConcurrentFileChunks,
                                  final ESLogger logger) {
         this.shard = shard;
         this.recoveryTarget = recoveryTarget;
@@ -108,6 +119,8 @@ public class RecoverySourceHandler {
         this.indexName = this.request.shardId().getIndex().getName();
         this.shardId = this.request.shardId().id();
         this.chunkSizeInBytes = fileChunkSizeInBytes;
+        this.maxConcurrentFileChunks = maxConcurrentFileChunks;
+        this.inFlightFileChunks = new Semaphore(maxConcurrentFileChunks);
         this.response = new RecoveryResponse();
     }
 
@@ -115,6 +128,26 @@ public class RecoverySourceHandler {
      * performs the recovery from the local engine to the target
      */
     public RecoveryResponse recoverToTarget() throws IOException {
+        final String targetSyncId = request.metadataSnapshot().getSyncId();
+        if (targetSyncId != null) {
+            try (Translog.View retainedTranslogView = shard.acquireTranslogViewForSyncId(targetSyncId)) {
+                if (retainedTranslogView != null) {
+                    final long numDocsTarget = request.metadataSnapshot().getNumDocs();
+                    final long numDocsSource = shard.getRetainedSyncedCommitNumDocs(targetSyncId);
+                    if (numDocsTarget == numDocsSource) {
+                        recoverOperationsToTarget(retainedTranslogView, targetSyncId);
+                        return response;
+                    }
+                    if (numDocsSource != -1) {
+                        // the commits have the same sync id but differ, copy the files rather than replaying operations on top of it
+                        logger.warn("[{}][{}] can't recover {} from translog retained for sync id [{}], number of docs differ: [{}] " +
+                                "on source ({}, primary) vs [{}] on target ({}), falling back to file based recovery", indexName,
+                                shardId, request.targetNode(), targetSyncId, numDocsSource, request.sourceNode().getName(),
+                                numDocsTarget, request.targetNode().getName());
+                    }
+                }
+            }
+        }
         try (Translog.View translogView = shard.acquireTranslogView()) {
             logger.trace("captured translog id [{}] for recovery", translogView.minTranslogGeneration());
             final IndexCommit phase1Snapshot;
@@ -149,6 +182,31 @@ public class RecoverySourceHandler {
         return response;
     }
 
+    /**
+     * Recovers a target that still has the synced commit with the given sync id by only replaying the operations that were
+     * retained in the translog since that commit, skipping the file copy of phase1 entirely.
+     */
+    void recoverOperationsToTarget(final Translog.View translogView, final String syncId) {
+        logger.trace("[{}][{}] skipping [phase1] to {} - translog is retained since the commit with sync id [{}] found on target",
+                indexName, shardId, request.targetNode(), syncId);
+        try {
+            StopWatch stopWatch = new StopWatch().start();
+            prepareTargetForTranslog(translogView.totalOperations());
+            response.phase1Time = stopWatch.totalTime().millis();
+        } catch (Throwable e) {
+            throw new RecoveryEngineException(shard.shardId(), 1, "prepare target for translog failed", e);
+        }
+
+        logger.trace("{} snapshot retained translog for recovery. current size is [{}]", shard.shardId(), translogView.totalOperations());
+        try {
+            phase2(translogView.snapshot());
+        } catch (Throwable e) {
+            throw new RecoveryEngineException(shard.shardId(), 2, "phase2 failed", e);
+        }
+
+        finalizeRecovery();
+    }
+
     /**
      * Perform phase1 of the recovery operations. Once this {@link IndexCommit}
      * snapshot has been performed no commit operations (files being fsync'd)
@@ -501,10 +559,27 @@ public class RecoverySourceHandler {
         }
 
         private void sendNextChunk(long position, BytesArray content, boolean lastChunk) throws IOException {
-            // Actually send the file chunk to the target node, waiting for it to complete
-            cancellableThreads.executeIO(() ->
-                    recoveryTarget.writeFileChunk(md, position, content, lastChunk, translogView.totalOperations())
-            );
+            // the buffered stream reuses its buffer once we return, but the chunk may still be waiting to be sent
+            final BytesArray chunk = new BytesArray(content.toBytesRef(), true);
+            cancellableThreads.execute(inFlightFileChunks::acquire);
+            if (fileChunkFailure.get() != null) {
+                inFlightFileChunks.release();
+                throw new IllegalStateException("stopped sending [" + md.name() + "] since an earlier file chunk failed");
+            }
+            // Send the file chunk to the target node without waiting for it to complete, up to the number of chunks
+            // that may be in flight
+            recoveryTarget.writeFileChunk(md, position, chunk, lastChunk, translogView.totalOperations(), new ActionListener<Void>() {
+                @Override
+                public void onResponse(Void aVoid) {
+                    inFlightFileChunks.release();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    fileChunkFailure.compareAndSet(null, new Tuple<>(md, t));
+                    inFlightFileChunks.release();
+                }
+            });
             if (shard.state() == IndexShardState.CLOSED) { // check if the shard got closed on us
                 throw new IndexShardClosedException(request.shardId());
             }
@@ -522,30 +597,48 @@ public class RecoverySourceHandler {
                     // exceptions during close correctly and doesn't hide the original exception.
                     Streams.copy(new InputStreamIndexInput(indexInput, md.length()), outputStreamFactory.apply(md));
                 } catch (Throwable t) {
-                    final IOException corruptIndexException;
-                    if ((corruptIndexException = ExceptionsHelper.unwrapCorruption(t)) != null) {
-                        if (store.checkIntegrityNoException(md) == false) { // we are corrupted on the primary -- fail!
-                            logger.warn("{} Corrupted file detected {} checksum mismatch", shardId, md);
-                            failEngine(corruptIndexException);
-                            throw corruptIndexException;
-                        } else { // corruption has happened on the way to replica
-                            RemoteTransportException exception = new RemoteTransportException("File corruption occurred on recovery but " +
-                                    "checksums are ok", null);
-                            exception.addSuppressed(t);
-                            logger.warn("{} Remote file corruption on node {}, recovering {}. local checksum OK",
-                                    corruptIndexException, shardId, request.targetNode(), md);
-                            throw exception;
-                        }
-                    } else {
-                        throw t;
-                    }
+                    // a chunk that was sent earlier failing on the target is what made us stop
+                    rethrowFileChunkFailure(store);
+                    handleFileFailure(store, md, t);
                 }
+                rethrowFileChunkFailure(store);
             }
+            // wait for the chunks that are still in flight
+            cancellableThreads.execute(() -> inFlightFileChunks.acquire(maxConcurrentFileChunks));
+            inFlightFileChunks.release(maxConcurrentFileChunks);
+            rethrowFileChunkFailure(store);
         } finally {
             store.decRef();
         }
     }
 
+    private void rethrowFileChunkFailure(Store store) throws Throwable {
+        final Tuple<StoreFileMetaData, Throwable> failure = fileChunkFailure.get();
+        if (failure != null) {
+            handleFileFailure(store, failure.v1(), failure.v2());
+        }
+    }
+
+    private void handleFileFailure(Store store, StoreFileMetaData md, Throwable t) throws Throwable {
+        final IOException corruptIndexException;
+        if ((corruptIndexException = ExceptionsHelper.unwrapCorruption(t)) != null) {
+            if (store.checkIntegrityNoException(md) == false) { // we are corrupted on the primary -- fail!
+                logger.warn("{} Corrupted file detected {} checksum mismatch", shardId, md);
+                failEngine(corruptIndexException);
+                throw corruptIndexException;
+            } else { // corruption has happened on the way to replica
+                RemoteTransportException exception = new RemoteTransportException("File corruption occurred on recovery but " +
+                        "checksums are ok", null);
+                exception.addSuppressed(t);
+                logger.warn("{} Remote file corruption on node {}, recovering {}. local checksum OK",
+                        corruptIndexException, shardId, request.targetNode(), md);
+                throw exception;
+            }
+        } else {
+            throw t;
+        }
+    }
+
     protected void failEngine(IOException cause) {
         shard.failShard("recovery", cause);
     }
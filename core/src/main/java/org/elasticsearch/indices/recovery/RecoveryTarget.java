@@ -28,6 +28,7 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.logging.ESLogger;
@@ -44,12 +45,15 @@ import org.elasticsearch.index.store.StoreFileMetaData;
 import org.elasticsearch.index.translog.Translog;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -78,6 +82,7 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
     private final AtomicBoolean finished = new AtomicBoolean();
 
     private final ConcurrentMap<String, IndexOutput> openIndexOutputs = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, FileChunkWriter> fileChunkWriters = ConcurrentCollections.newConcurrentMap();
     private final CancellableThreads cancellableThreads = new CancellableThreads();
 
     // last time this status was accessed
@@ -260,6 +265,13 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
     }
 
     protected void cleanOpenFiles() {
+        // drop chunks that arrived ahead of their turn
+        Iterator<FileChunkWriter> writers = fileChunkWriters.values().iterator();
+        while (writers.hasNext()) {
+            FileChunkWriter writer = writers.next();
+            writers.remove();
+            writer.fail(new IllegalStateException("recovery [" + recoveryId + "] was closed before the chunk was written"));
+        }
         // clean open index outputs
         Iterator<Entry<String, IndexOutput>> iterator = openIndexOutputs.entrySet().iterator();
         while (iterator.hasNext()) {
@@ -367,12 +379,25 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
         }
     }
 
+    /**
+     * Writes a chunk of a file. The source keeps several chunks in flight, so chunks of a file may arrive out of order. They are
+     * held back until all chunks before them have been written, since index outputs are append-only and verify the checksum of
+     * the file as they go. The listener is only notified once the chunk has been written, so the source doesn't send more
+     * chunks while earlier ones are held back, which bounds the chunks that are held back by the number of chunks the source
+     * keeps in flight.
+     */
     @Override
     public void writeFileChunk(StoreFileMetaData fileMetaData, long position, BytesReference content,
-                               boolean lastChunk, int totalTranslogOps) throws IOException {
+                               boolean lastChunk, int totalTranslogOps, ActionListener<Void> listener) {
+        state().getTranslog().totalOperations(totalTranslogOps);
+        final FileChunkWriter writer = fileChunkWriters.computeIfAbsent(fileMetaData.name(), name -> new FileChunkWriter());
+        writer.writeChunk(fileMetaData, new FileChunk(position, content, lastChunk, listener));
+    }
+
+    private void innerWriteFileChunk(StoreFileMetaData fileMetaData, long position, BytesReference content,
+                                     boolean lastChunk) throws IOException {
         final Store store = store();
         final String name = fileMetaData.name();
-        state().getTranslog().totalOperations(totalTranslogOps);
         final RecoveryState.Index indexState = state().getIndex();
         IndexOutput indexOutput;
         if (position == 0) {
@@ -400,4 +425,82 @@ public class RecoveryTarget extends AbstractRefCounted implements RecoveryTarget
             assert remove == null || remove == indexOutput; // remove maybe null if we got finished
         }
     }
+
+    /**
+     * Writes the chunks of a single file in order. Once a chunk fails to be written, all chunks of the file fail.
+     */
+    private final class FileChunkWriter {
+
+        // the position up to which the file has been written
+        private long writtenPosition = 0;
+        private final PriorityQueue<FileChunk> pendingChunks = new PriorityQueue<>(Comparator.comparingLong(chunk -> chunk.position));
+        private Throwable failure;
+
+        void writeChunk(StoreFileMetaData fileMetaData, FileChunk fileChunk) {
+            final List<FileChunk> writtenChunks = new ArrayList<>();
+            final List<FileChunk> failedChunks = new ArrayList<>();
+            final Throwable failure;
+            synchronized (this) {
+                pendingChunks.add(fileChunk);
+                FileChunk chunk;
+                while (this.failure == null && (chunk = pendingChunks.peek()) != null && chunk.position == writtenPosition) {
+                    pendingChunks.poll();
+                    try {
+                        innerWriteFileChunk(fileMetaData, chunk.position, chunk.content, chunk.lastChunk);
+                    } catch (Throwable t) {
+                        this.failure = t;
+                        failedChunks.add(chunk);
+                        break;
+                    }
+                    writtenChunks.add(chunk);
+                    writtenPosition += chunk.content.length();
+                    if (chunk.lastChunk) {
+                        fileChunkWriters.remove(fileMetaData.name());
+                    }
+                }
+                if (this.failure != null) {
+                    // keep failing the chunks that are still in flight, rather than holding them back forever
+                    failedChunks.addAll(pendingChunks);
+                    pendingChunks.clear();
+                }
+                failure = this.failure;
+            }
+            // notify outside of the lock, these may send responses to the source
+            for (FileChunk chunk : writtenChunks) {
+                chunk.listener.onResponse(null);
+            }
+            for (FileChunk chunk : failedChunks) {
+                chunk.listener.onFailure(failure);
+            }
+        }
+
+        void fail(Throwable t) {
+            final List<FileChunk> failedChunks;
+            synchronized (this) {
+                if (failure == null) {
+                    failure = t;
+                }
+                failedChunks = new ArrayList<>(pendingChunks);
+                pendingChunks.clear();
+            }
+            for (FileChunk chunk : failedChunks) {
+                chunk.listener.onFailure(t);
+            }
+        }
+    }
+
+    private static final class FileChunk {
+
+        final long position;
+        final BytesReference content;
+        final boolean lastChunk;
+        final ActionListener<Void> listener;
+
+        FileChunk(long position, BytesReference content, boolean lastChunk, ActionListener<Void> listener) {
+            this.position = position;
+            this.content = content;
+            this.lastChunk = lastChunk;
+            this.listener = listener;
+        }
+    }
 }
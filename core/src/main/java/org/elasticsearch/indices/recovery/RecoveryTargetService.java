@@ -24,6 +24,7 @@ import org.apache.lucene.store.RateLimiter;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchTimeoutException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ClusterStateObserver;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -421,11 +422,29 @@ public class RecoveryTargetService extends AbstractComponent implements IndexEve
                     }
                 }
 
+                // only acknowledge the chunk once it's written, chunks that arrive ahead of their turn are held back until then
                 status.writeFileChunk(request.metadata(), request.position(), request.content(),
-                        request.lastChunk(), request.totalTranslogOps()
+                        request.lastChunk(), request.totalTranslogOps(), new ActionListener<Void>() {
+                            @Override
+                            public void onResponse(Void aVoid) {
+                                try {
+                                    channel.sendResponse(TransportResponse.Empty.INSTANCE);
+                                } catch (IOException e) {
+                                    onFailure(e);
+                                }
+                            }
+
+                            @Override
+                            public void onFailure(Throwable t) {
+                                try {
+                                    channel.sendResponse(t);
+                                } catch (IOException e) {
+                                    logger.warn("failed to send error response for file chunk of recovery [{}]", e, request.recoveryId());
+                                }
+                            }
+                        }
                 );
             }
-            channel.sendResponse(TransportResponse.Empty.INSTANCE);
         }
     }
 
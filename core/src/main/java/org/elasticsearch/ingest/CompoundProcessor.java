@@ -41,6 +41,7 @@ public class CompoundProcessor implements Processor {
     private final boolean ignoreFailure;
     private final List<Processor> processors;
     private final List<Processor> onFailureProcessors;
+    private final List<IngestMetric> processorMetrics;
 
     public CompoundProcessor(Processor... processor) {
         this(false, Arrays.asList(processor), Collections.emptyList());
@@ -51,6 +52,11 @@ public class CompoundProcessor implements Processor {
         this.ignoreFailure = ignoreFailure;
         this.processors = processors;
         this.onFailureProcessors = onFailureProcessors;
+        List<IngestMetric> processorMetrics = new ArrayList<>(processors.size());
+        for (int i = 0; i < processors.size(); i++) {
+            processorMetrics.add(new IngestMetric());
+        }
+        this.processorMetrics = Collections.unmodifiableList(processorMetrics);
     }
 
     public boolean isIgnoreFailure() {
@@ -83,6 +89,25 @@ public class CompoundProcessor implements Processor {
         return flattened;
     }
 
+    /**
+     * @return the stats of each of the processors, excluding the on failure processors. A processor that has its own on failure
+     *         processors is reported with the type and tag of the processor it wraps.
+     */
+    public List<IngestStats.ProcessorStat> getProcessorStats() {
+        List<IngestStats.ProcessorStat> processorStats = new ArrayList<>(processors.size());
+        for (int i = 0; i < processors.size(); i++) {
+            Processor processor = processors.get(i);
+            if (processor instanceof CompoundProcessor && ((CompoundProcessor) processor).getProcessors().size() == 1) {
+                // the wrapper knows whether the processor it wraps failed, even if its on failure processors handled the failure
+                processorStats.add(((CompoundProcessor) processor).getProcessorStats().get(0));
+            } else {
+                processorStats.add(new IngestStats.ProcessorStat(processor.getType(), processor.getTag(),
+                        processorMetrics.get(i).createStats()));
+            }
+        }
+        return processorStats;
+    }
+
     @Override
     public String getType() {
         return "compound";
@@ -95,10 +120,18 @@ public class CompoundProcessor implements Processor {
 
     @Override
     public void execute(IngestDocument ingestDocument) throws Exception {
-        for (Processor processor : processors) {
+        for (int i = 0; i < processors.size(); i++) {
+            Processor processor = processors.get(i);
+            IngestMetric processorMetric = processorMetrics.get(i);
+            long startTimeInNanos = System.nanoTime();
+            processorMetric.preIngest();
             try {
                 processor.execute(ingestDocument);
+                processorMetric.postIngest(System.nanoTime() - startTimeInNanos);
             } catch (Exception e) {
+                // the time spent in the on failure processors is not accounted to the processor that failed
+                processorMetric.postIngest(System.nanoTime() - startTimeInNanos);
+                processorMetric.ingestFailed();
                 if (ignoreFailure) {
                     continue;
                 }
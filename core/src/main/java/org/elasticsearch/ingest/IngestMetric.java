@@ -0,0 +1,55 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the number of documents an ingest pipeline or processor has processed, the time it took and how many of
+ * them failed.
+ */
+final class IngestMetric {
+
+    private final MeanMetric ingestMetric = new MeanMetric();
+    private final CounterMetric ingestCurrent = new CounterMetric();
+    private final CounterMetric ingestFailed = new CounterMetric();
+
+    void preIngest() {
+        ingestCurrent.inc();
+    }
+
+    void postIngest(long ingestTimeInNanos) {
+        ingestCurrent.dec();
+        ingestMetric.inc(ingestTimeInNanos);
+    }
+
+    void ingestFailed() {
+        ingestFailed.inc();
+    }
+
+    IngestStats.Stats createStats() {
+        // the time is recorded in nanos so that fast processors don't round down to zero on every document
+        long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(ingestMetric.sum());
+        return new IngestStats.Stats(ingestMetric.count(), ingestTimeInMillis, ingestCurrent.count(), ingestFailed.count());
+    }
+}
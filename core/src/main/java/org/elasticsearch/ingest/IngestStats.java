@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest;
 
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -26,17 +27,22 @@ import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class IngestStats implements Writeable, ToXContent {
     private final Stats totalStats;
     private final Map<String, Stats> statsPerPipeline;
+    private final Map<String, List<ProcessorStat>> processorStatsPerPipeline;
 
-    public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline) {
+    public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline, Map<String, List<ProcessorStat>> processorStatsPerPipeline) {
         this.totalStats = totalStats;
         this.statsPerPipeline = statsPerPipeline;
+        this.processorStatsPerPipeline = processorStatsPerPipeline;
     }
 
     /**
@@ -46,8 +52,16 @@ public class IngestStats implements Writeable, ToXContent {
         this.totalStats = new Stats(in);
         int size = in.readVInt();
         this.statsPerPipeline = new HashMap<>(size);
+        this.processorStatsPerPipeline = new HashMap<>(size);
         for (int i = 0; i < size; i++) {
-            statsPerPipeline.put(in.readString(), new Stats(in));
+            String pipelineId = in.readString();
+            statsPerPipeline.put(pipelineId, new Stats(in));
+            int numProcessors = in.readVInt();
+            List<ProcessorStat> processorStats = new ArrayList<>(numProcessors);
+            for (int j = 0; j < numProcessors; j++) {
+                processorStats.add(new ProcessorStat(in));
+            }
+            processorStatsPerPipeline.put(pipelineId, processorStats);
         }
     }
 
@@ -58,6 +72,11 @@ public class IngestStats implements Writeable, ToXContent {
         for (Map.Entry<String, Stats> entry : statsPerPipeline.entrySet()) {
             out.writeString(entry.getKey());
             entry.getValue().writeTo(out);
+            List<ProcessorStat> processorStats = getProcessorStats(entry.getKey());
+            out.writeVInt(processorStats.size());
+            for (ProcessorStat processorStat : processorStats) {
+                processorStat.writeTo(out);
+            }
         }
     }
 
@@ -76,6 +95,13 @@ public class IngestStats implements Writeable, ToXContent {
         return statsPerPipeline;
     }
 
+    /**
+     * @return The stats of each processor of the specified pipeline, in the order the processors are defined in the pipeline
+     */
+    public List<ProcessorStat> getProcessorStats(String pipelineId) {
+        return processorStatsPerPipeline.getOrDefault(pipelineId, Collections.emptyList());
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("ingest");
@@ -86,6 +112,11 @@ public class IngestStats implements Writeable, ToXContent {
         for (Map.Entry<String, Stats> entry : statsPerPipeline.entrySet()) {
             builder.startObject(entry.getKey());
             entry.getValue().toXContent(builder, params);
+            builder.startArray("processors");
+            for (ProcessorStat processorStat : getProcessorStats(entry.getKey())) {
+                processorStat.toXContent(builder, params);
+            }
+            builder.endArray();
             builder.endObject();
         }
         builder.endObject();
@@ -163,4 +194,70 @@ public class IngestStats implements Writeable, ToXContent {
             return builder;
         }
     }
+
+    /**
+     * The stats of a single processor of a pipeline.
+     */
+    public static class ProcessorStat implements Writeable, ToXContent {
+
+        private final String type;
+        private final String tag;
+        private final Stats stats;
+
+        public ProcessorStat(String type, @Nullable String tag, Stats stats) {
+            this.type = type;
+            this.tag = tag;
+            this.stats = stats;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public ProcessorStat(StreamInput in) throws IOException {
+            type = in.readString();
+            tag = in.readOptionalString();
+            stats = new Stats(in);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(type);
+            out.writeOptionalString(tag);
+            stats.writeTo(out);
+        }
+
+        /**
+         * @return The type of the processor, e.g. <code>grok</code>.
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return The tag of the processor or <code>null</code> if it has none.
+         */
+        @Nullable
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @return The stats of the documents that went through the processor.
+         */
+        public Stats getStats() {
+            return stats;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            if (tag != null) {
+                builder.field("tag", tag);
+            }
+            stats.toXContent(builder, params);
+            builder.endObject();
+            return builder;
+        }
+    }
 }
@@ -24,17 +24,17 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.common.Strings;
-import org.elasticsearch.common.metrics.CounterMetric;
-import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -43,8 +43,10 @@ public class PipelineExecutionService implements ClusterStateListener {
     private final PipelineStore store;
     private final ThreadPool threadPool;
 
-    private final StatsHolder totalStats = new StatsHolder();
-    private volatile Map<String, StatsHolder> statsHolderPerPipeline = Collections.emptyMap();
+    private final IngestMetric totalStats = new IngestMetric();
+    private volatile Map<String, IngestMetric> statsHolderPerPipeline = Collections.emptyMap();
+    // the number of helpers of all bulk executions that are queued or running on the ingest thread pool
+    private final AtomicInteger bulkHelpers = new AtomicInteger();
 
     public PipelineExecutionService(PipelineStore store, ThreadPool threadPool) {
         this.store = store;
@@ -53,7 +55,7 @@ public class PipelineExecutionService implements ClusterStateListener {
 
     public void executeIndexRequest(IndexRequest request, Consumer<Throwable> failureHandler, Consumer<Boolean> completionHandler) {
         Pipeline pipeline = getPipeline(request.getPipeline());
-        threadPool.executor(ThreadPool.Names.INDEX).execute(new AbstractRunnable() {
+        threadPool.executor(ThreadPool.Names.INGEST).execute(new AbstractRunnable() {
 
             @Override
             public void onFailure(Throwable t) {
@@ -68,10 +70,21 @@ public class PipelineExecutionService implements ClusterStateListener {
         });
     }
 
+    /**
+     * Executes the pipelines of the index requests of a bulk request on the ingest thread pool. The items are processed in
+     * parallel, by at most as many threads as the ingest thread pool has. The helpers of all bulk requests together never
+     * occupy more than all but one of the threads of the ingest thread pool, so that they don't fill up its queue.
+     *
+     * @param actionRequests     the items of the bulk request
+     * @param itemFailureHandler called with the position of an item in <code>actionRequests</code> and the failure when its
+     *                           pipeline failed. It may be called concurrently for different items and in any order.
+     * @param completionHandler  called once all items have been processed, with <code>null</code> unless the bulk request
+     *                           couldn't be processed at all
+     */
     public void executeBulkRequest(Iterable<ActionRequest<?>> actionRequests,
-                                   BiConsumer<IndexRequest, Throwable> itemFailureHandler,
+                                   BiConsumer<Integer, Throwable> itemFailureHandler,
                                    Consumer<Throwable> completionHandler) {
-        threadPool.executor(ThreadPool.Names.BULK).execute(new AbstractRunnable() {
+        threadPool.executor(ThreadPool.Names.INGEST).execute(new AbstractRunnable() {
 
             @Override
             public void onFailure(Throwable t) {
@@ -80,35 +93,124 @@ public class PipelineExecutionService implements ClusterStateListener {
 
             @Override
             protected void doRun() throws Exception {
+                List<IndexRequest> indexRequests = new ArrayList<>();
+                List<Integer> slots = new ArrayList<>();
+                int slot = 0;
                 for (ActionRequest actionRequest : actionRequests) {
                     if ((actionRequest instanceof IndexRequest)) {
                         IndexRequest indexRequest = (IndexRequest) actionRequest;
                         if (Strings.hasText(indexRequest.getPipeline())) {
-                            try {
-                                innerExecute(indexRequest, getPipeline(indexRequest.getPipeline()));
-                                //this shouldn't be needed here but we do it for consistency with index api
-                                // which requires it to prevent double execution
-                                indexRequest.setPipeline(null);
-                            } catch (Throwable e) {
-                                itemFailureHandler.accept(indexRequest, e);
-                            }
+                            indexRequests.add(indexRequest);
+                            slots.add(slot);
                         }
                     }
+                    slot++;
                 }
-                completionHandler.accept(null);
+                new BulkExecution(indexRequests, slots, itemFailureHandler, completionHandler).start();
             }
         });
     }
 
+    /**
+     * Runs the pipelines of the items of a bulk request. The thread that starts the execution and a number of helpers on the
+     * ingest thread pool claim the items one at a time, and whichever thread completes the last item completes the bulk request.
+     * Helpers are only forked while the node wide number of outstanding helpers is below the size of the ingest thread pool, so
+     * concurrent bulk requests share the pool instead of each queueing a full set of helpers.
+     */
+    private final class BulkExecution {
+
+        private final List<IndexRequest> indexRequests;
+        private final List<Integer> slots;
+        private final BiConsumer<Integer, Throwable> itemFailureHandler;
+        private final Consumer<Throwable> completionHandler;
+        private final AtomicInteger nextItem = new AtomicInteger();
+        private final AtomicInteger pendingItems;
+
+        BulkExecution(List<IndexRequest> indexRequests, List<Integer> slots, BiConsumer<Integer, Throwable> itemFailureHandler,
+                      Consumer<Throwable> completionHandler) {
+            this.indexRequests = indexRequests;
+            this.slots = slots;
+            this.itemFailureHandler = itemFailureHandler;
+            this.completionHandler = completionHandler;
+            this.pendingItems = new AtomicInteger(indexRequests.size());
+        }
+
+        void start() {
+            if (indexRequests.isEmpty()) {
+                completionHandler.accept(null);
+                return;
+            }
+            final int maxHelpers = threadPool.info(ThreadPool.Names.INGEST).getMax() - 1;
+            final int helpers = Math.min(maxHelpers, indexRequests.size() - 1);
+            for (int i = 0; i < helpers && tryAcquireHelper(maxHelpers); i++) {
+                threadPool.executor(ThreadPool.Names.INGEST).execute(new AbstractRunnable() {
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        // a helper that is rejected leaves its items to the threads that are already running
+                    }
+
+                    @Override
+                    protected void doRun() throws Exception {
+                        executeItems();
+                    }
+
+                    @Override
+                    public void onAfter() {
+                        // also called on rejection
+                        bulkHelpers.decrementAndGet();
+                    }
+                });
+            }
+            // the current thread claims items until there are none left, so the bulk request never waits for a helper to start
+            executeItems();
+        }
+
+        private boolean tryAcquireHelper(int maxHelpers) {
+            int current;
+            do {
+                current = bulkHelpers.get();
+                if (current >= maxHelpers) {
+                    return false;
+                }
+            } while (bulkHelpers.compareAndSet(current, current + 1) == false);
+            return true;
+        }
+
+        private void executeItems() {
+            int item;
+            while ((item = nextItem.getAndIncrement()) < indexRequests.size()) {
+                IndexRequest indexRequest = indexRequests.get(item);
+                try {
+                    innerExecute(indexRequest, getPipeline(indexRequest.getPipeline()));
+                    //this shouldn't be needed here but we do it for consistency with index api
+                    // which requires it to prevent double execution
+                    indexRequest.setPipeline(null);
+                } catch (Throwable e) {
+                    itemFailureHandler.accept(slots.get(item), e);
+                }
+                if (pendingItems.decrementAndGet() == 0) {
+                    completionHandler.accept(null);
+                }
+            }
+        }
+    }
+
     public IngestStats stats() {
-        Map<String, StatsHolder> statsHolderPerPipeline = this.statsHolderPerPipeline;
+        Map<String, IngestMetric> statsHolderPerPipeline = this.statsHolderPerPipeline;
 
         Map<String, IngestStats.Stats> statsPerPipeline = new HashMap<>(statsHolderPerPipeline.size());
-        for (Map.Entry<String, StatsHolder> entry : statsHolderPerPipeline.entrySet()) {
+        Map<String, List<IngestStats.ProcessorStat>> processorStatsPerPipeline = new HashMap<>(statsHolderPerPipeline.size());
+        for (Map.Entry<String, IngestMetric> entry : statsHolderPerPipeline.entrySet()) {
             statsPerPipeline.put(entry.getKey(), entry.getValue().createStats());
+            // processor stats are kept by the processors themselves, so they start over when the pipeline gets updated
+            Pipeline pipeline = store.get(entry.getKey());
+            if (pipeline != null) {
+                processorStatsPerPipeline.put(entry.getKey(), pipeline.getCompoundProcessor().getProcessorStats());
+            }
         }
 
-        return new IngestStats(totalStats.createStats(), statsPerPipeline);
+        return new IngestStats(totalStats.createStats(), statsPerPipeline, processorStatsPerPipeline);
     }
 
     @Override
@@ -121,7 +223,7 @@ public class PipelineExecutionService implements ClusterStateListener {
 
     void updatePipelineStats(IngestMetadata ingestMetadata) {
         boolean changed = false;
-        Map<String, StatsHolder> newStatsPerPipeline = new HashMap<>(statsHolderPerPipeline);
+        Map<String, IngestMetric> newStatsPerPipeline = new HashMap<>(statsHolderPerPipeline);
         Iterator<String> iterator = newStatsPerPipeline.keySet().iterator();
         while (iterator.hasNext()) {
             String pipeline = iterator.next();
@@ -132,7 +234,7 @@ public class PipelineExecutionService implements ClusterStateListener {
         }
         for (String pipeline : ingestMetadata.getPipelines().keySet()) {
             if (newStatsPerPipeline.containsKey(pipeline) == false) {
-                newStatsPerPipeline.put(pipeline, new StatsHolder());
+                newStatsPerPipeline.put(pipeline, new IngestMetric());
                 changed = true;
             }
         }
@@ -150,10 +252,10 @@ public class PipelineExecutionService implements ClusterStateListener {
         long startTimeInNanos = System.nanoTime();
         // the pipeline specific stat holder may not exist and that is fine:
         // (e.g. the pipeline may have been removed while we're ingesting a document
-        Optional<StatsHolder> pipelineStats = Optional.ofNullable(statsHolderPerPipeline.get(pipeline.getId()));
+        Optional<IngestMetric> pipelineStats = Optional.ofNullable(statsHolderPerPipeline.get(pipeline.getId()));
         try {
             totalStats.preIngest();
-            pipelineStats.ifPresent(StatsHolder::preIngest);
+            pipelineStats.ifPresent(IngestMetric::preIngest);
             String index = indexRequest.index();
             String type = indexRequest.type();
             String id = indexRequest.id();
@@ -178,12 +280,12 @@ public class PipelineExecutionService implements ClusterStateListener {
             indexRequest.source(ingestDocument.getSourceAndMetadata());
         } catch (Exception e) {
             totalStats.ingestFailed();
-            pipelineStats.ifPresent(StatsHolder::ingestFailed);
+            pipelineStats.ifPresent(IngestMetric::ingestFailed);
             throw e;
         } finally {
-            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos);
-            totalStats.postIngest(ingestTimeInMillis);
-            pipelineStats.ifPresent(statsHolder -> statsHolder.postIngest(ingestTimeInMillis));
+            long ingestTimeInNanos = System.nanoTime() - startTimeInNanos;
+            totalStats.postIngest(ingestTimeInNanos);
+            pipelineStats.ifPresent(statsHolder -> statsHolder.postIngest(ingestTimeInNanos));
         }
     }
 
@@ -195,29 +297,4 @@ public class PipelineExecutionService implements ClusterStateListener {
         return pipeline;
     }
 
-    static class StatsHolder {
-
-        private final MeanMetric ingestMetric = new MeanMetric();
-        private final CounterMetric ingestCurrent = new CounterMetric();
-        private final CounterMetric ingestFailed = new CounterMetric();
-
-        void preIngest() {
-            ingestCurrent.inc();
-        }
-
-        void postIngest(long ingestTimeInMillis) {
-            ingestCurrent.dec();
-            ingestMetric.inc(ingestTimeInMillis);
-        }
-
-        void ingestFailed() {
-            ingestFailed.inc();
-        }
-
-        IngestStats.Stats createStats() {
-            return new IngestStats.Stats(ingestMetric.count(), ingestMetric.sum(), ingestCurrent.count(), ingestFailed.count());
-        }
-
-    }
-
 }
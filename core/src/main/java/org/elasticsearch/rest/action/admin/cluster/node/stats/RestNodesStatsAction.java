@@ -81,6 +81,7 @@ public class RestNodesStatsAction extends BaseRestHandler {
             nodesStatsRequest.script(metrics.contains("script"));
             nodesStatsRequest.discovery(metrics.contains("discovery"));
             nodesStatsRequest.ingest(metrics.contains("ingest"));
+            nodesStatsRequest.clusterStateTasks(metrics.contains("cluster_state_tasks"));
 
             // check for index specific metrics
             if (metrics.contains("indices")) {
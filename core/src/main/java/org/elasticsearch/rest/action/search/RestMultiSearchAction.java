@@ -128,10 +128,9 @@ public class RestMultiSearchAction extends BaseRestHandler {
 
         XContent xContent = XContentFactory.xContent(data);
         int from = 0;
-        int length = data.length();
         byte marker = xContent.streamSeparator();
         while (true) {
-            int nextMarker = findNextMarker(marker, from, data, length);
+            int nextMarker = data.indexOf(marker, from);
             if (nextMarker == -1) {
                 break;
             }
@@ -192,7 +191,7 @@ public class RestMultiSearchAction extends BaseRestHandler {
             // move pointers
             from = nextMarker + 1;
             // now for the body
-            nextMarker = findNextMarker(marker, from, data, length);
+            nextMarker = data.indexOf(marker, from);
             if (nextMarker == -1) {
                 break;
             }
@@ -201,13 +200,4 @@ public class RestMultiSearchAction extends BaseRestHandler {
             from = nextMarker + 1;
         }
     }
-
-    private static int findNextMarker(byte marker, int from, BytesReference data, int length) {
-        for (int i = from; i < length; i++) {
-            if (data.get(i) == marker) {
-                return i;
-            }
-        }
-        return -1;
-    }
 }
@@ -125,6 +125,7 @@ public class RestSearchAction extends BaseRestHandler {
         }
         parseSearchSource(searchRequest.source(), request);
         searchRequest.requestCache(request.paramAsBoolean("request_cache", null));
+        searchRequest.batchedReduceSize(request.paramAsInt("batched_reduce_size", searchRequest.batchedReduceSize()));
 
         String scroll = request.param("scroll");
         if (scroll != null) {
@@ -174,6 +175,9 @@ public class RestSearchAction extends BaseRestHandler {
                 searchSourceBuilder.terminateAfter(terminateAfter);
             }
         }
+        if (request.hasParam("concurrency")) {
+            searchSourceBuilder.concurrency(request.paramAsInt("concurrency", 1));
+        }
 
         String sField = request.param("fields");
         if (sField != null) {
@@ -532,6 +532,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                 indexService,
                 indexShard, scriptService, bigArrays, threadPool.estimatedTimeInMillisCounter(), parseFieldMatcher,
                 defaultSearchTimeout, fetchPhase);
+        context.searcher().setExecutor(threadPool.executor(ThreadPool.Names.SEARCH_WORKER));
+        context.concurrency(indexService.getIndexSettings().getSearchConcurrency());
         SearchContext.setCurrent(context);
         try {
             request.rewrite(context.getQueryShardContext());
@@ -686,6 +688,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         }
         context.timeout(source.timeout());
         context.terminateAfter(source.terminateAfter());
+        if (source.concurrency() != null) {
+            context.concurrency(source.concurrency());
+        }
         if (source.aggregations() != null) {
             try {
                 AggregationContext aggContext = new AggregationContext(context);
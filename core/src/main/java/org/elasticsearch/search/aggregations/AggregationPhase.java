@@ -21,10 +21,14 @@ package org.elasticsearch.search.aggregations;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.search.SearchPhase;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
 import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregator;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.pipeline.SiblingPipelineAggregator;
@@ -66,7 +70,7 @@ public class AggregationPhase implements SearchPhase {
                 }
                 context.aggregations().aggregators(aggregators);
                 if (!collectors.isEmpty()) {
-                    Collector collector = BucketCollector.wrap(collectors);
+                    Collector collector = maybeBuffer(context, BucketCollector.wrap(collectors), matchesAllDocs(context));
                     ((BucketCollector)collector).preCollection();
                     if (context.getProfilers() != null) {
                         collector = new InternalProfileCollector(collector, CollectorResult.REASON_AGGREGATION,
@@ -81,6 +85,59 @@ public class AggregationPhase implements SearchPhase {
         }
     }
 
+    /**
+     * Creates the collector for an additional slice of a concurrent search. The collector wraps a fresh set of top level
+     * aggregators, whose aggregations are reduced with the ones of the other slices when the aggregation phase is executed.
+     * Must be called from the thread that owns the search context.
+     *
+     * @see AggregatorFactories#supportsConcurrentCollection()
+     */
+    public static Collector createSliceCollector(SearchContext context) throws IOException {
+        assert context.aggregations().factories().supportsConcurrentCollection();
+        Aggregator[] aggregators = context.aggregations().factories().createTopLevelAggregators();
+        List<Aggregator> collectors = new ArrayList<>();
+        for (int i = 0; i < aggregators.length; i++) {
+            // global aggregators are executed on their own by the first slice
+            if (aggregators[i] instanceof GlobalAggregator == false) {
+                collectors.add(aggregators[i]);
+            }
+        }
+        context.aggregations().addSliceAggregators(aggregators);
+        BucketCollector collector = maybeBuffer(context, BucketCollector.wrap(collectors), matchesAllDocs(context));
+        collector.preCollection();
+        return collector;
+    }
+
+    /**
+     * Wraps the given top level collector so that it collects docs in blocks, unless it needs scores.
+     */
+    private static BucketCollector maybeBuffer(SearchContext context, BucketCollector collector, boolean matchAll) {
+        if (collector.needsScores()) {
+            return collector;
+        }
+        BufferingBucketCollector bufferingCollector = new BufferingBucketCollector(collector, matchAll);
+        context.aggregations().addBufferingCollector(bufferingCollector);
+        return bufferingCollector;
+    }
+
+    /**
+     * Whether the docs collected by the query are exactly the live docs of the shard, so that aggregations can collect
+     * segments on their own instead of being fed by the query.
+     */
+    static boolean matchesAllDocs(SearchContext context) {
+        if (context.minimumScore() != null
+                || context.scrollContext() != null
+                || context.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER
+                || (context.timeout() != null && context.timeout().equals(SearchService.NO_TIMEOUT) == false)) {
+            return false;
+        }
+        Query query = context.query();
+        while (query instanceof ConstantScoreQuery) {
+            query = ((ConstantScoreQuery) query).getQuery();
+        }
+        return query != null && query.getClass() == MatchAllDocsQuery.class;
+    }
+
     @Override
     public void execute(SearchContext context) {
         if (context.aggregations() == null) {
@@ -103,7 +160,8 @@ public class AggregationPhase implements SearchPhase {
 
         // optimize the global collector based execution
         if (!globals.isEmpty()) {
-            BucketCollector globalsCollector = BucketCollector.wrap(globals);
+            BucketCollector globalsCollector = maybeBuffer(context, BucketCollector.wrap(globals),
+                    context.searchFilter(context.getQueryShardContext().getTypes()) == null);
             Query query = Queries.newMatchAllQuery();
             Query searchFilter = context.searchFilter(context.getQueryShardContext().getTypes());
 
@@ -136,11 +194,34 @@ public class AggregationPhase implements SearchPhase {
             }
         }
 
+        try {
+            for (BufferingBucketCollector bufferingCollector : context.aggregations().bufferingCollectors()) {
+                bufferingCollector.flush();
+            }
+        } catch (IOException e) {
+            throw new AggregationExecutionException("Failed to collect buffered docs", e);
+        }
+
+        List<Aggregator[]> sliceAggregators = context.aggregations().sliceAggregators();
         List<InternalAggregation> aggregations = new ArrayList<>(aggregators.length);
-        for (Aggregator aggregator : context.aggregations().aggregators()) {
+        for (int i = 0; i < aggregators.length; i++) {
+            Aggregator aggregator = aggregators[i];
             try {
                 aggregator.postCollection();
-                aggregations.add(aggregator.buildAggregation(0));
+                InternalAggregation aggregation = aggregator.buildAggregation(0);
+                if (sliceAggregators.isEmpty() == false && aggregator instanceof GlobalAggregator == false) {
+                    // the search was executed concurrently, each slice collected its own aggregators
+                    List<InternalAggregation> sliceAggregations = new ArrayList<>(sliceAggregators.size() + 1);
+                    sliceAggregations.add(aggregation);
+                    for (Aggregator[] slice : sliceAggregators) {
+                        slice[i].postCollection();
+                        sliceAggregations.add(slice[i].buildAggregation(0));
+                    }
+                    // partial reduce: the shard result is reduced again on the coordinating node, no cluster state is needed
+                    ReduceContext reduceContext = new ReduceContext(context.bigArrays(), context.scriptService(), null, false);
+                    aggregation = aggregation.reduce(sliceAggregations, reduceContext);
+                }
+                aggregations.add(aggregation);
             } catch (IOException e) {
                 throw new AggregationExecutionException("Failed to build aggregation [" + aggregator.name() + "]", e);
             }
@@ -124,6 +124,20 @@ public class AggregatorFactories {
         return pipelineAggregatorFactories.size();
     }
 
+    /**
+     * Returns <code>true</code> iff all the aggregators of this tree can collect slices of a shard concurrently.
+     *
+     * @see AggregatorFactory#supportsConcurrentCollection()
+     */
+    public boolean supportsConcurrentCollection() {
+        for (AggregatorFactory<?> factory : factories) {
+            if (factory.canCollectConcurrently() == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void validate() {
         for (AggregatorFactory<?> factory : factories) {
             factory.validate();
@@ -204,6 +204,23 @@ public abstract class AggregatorFactory<AF extends AggregatorFactory<AF>> {
     public void doValidate() {
     }
 
+    /**
+     * Whether the aggregators created by this factory can collect disjoint slices of the segments of a shard concurrently, the
+     * aggregations built for each slice being merged with a partial {@link InternalAggregation#reduce}. Factories whose shard
+     * level result can't be computed that way, for instance because it depends on statistics of the whole shard, must return
+     * <code>false</code>.
+     */
+    protected boolean supportsConcurrentCollection() {
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> iff this factory and all its sub factories support concurrent collection.
+     */
+    final boolean canCollectConcurrently() {
+        return supportsConcurrentCollection() && factories.supportsConcurrentCollection();
+    }
+
     protected abstract Aggregator createInternal(Aggregator parent, boolean collectsFromSingleBucket,
             List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException;
 
@@ -0,0 +1,144 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+
+/**
+ * A {@link BucketCollector} that buffers the docs collected by the query into blocks and hands them to the top level
+ * aggregators through {@link LeafBucketCollector#collect(int[], int, long)}. If the query matches all documents, the live
+ * documents of each segment are directly collected in blocks and the query does not need to feed this collector at all.
+ * Buffered docs are only guaranteed to be collected once {@link #flush()} has been called, which must happen before the
+ * wrapped aggregators are post-collected. Only collectors that don't need scores can be buffered.
+ */
+public final class BufferingBucketCollector extends BucketCollector {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final BucketCollector in;
+    private final boolean matchAll;
+    private final int[] docs = new int[BLOCK_SIZE];
+    private int count;
+    private LeafBucketCollector leafCollector;
+
+    /**
+     * @param in       the top level collector
+     * @param matchAll whether the query matches all live documents, in which case segments are collected without the query
+     */
+    public BufferingBucketCollector(BucketCollector in, boolean matchAll) {
+        if (in.needsScores()) {
+            throw new IllegalArgumentException("Cannot buffer docs for collectors that need scores: " + in);
+        }
+        this.in = in;
+        this.matchAll = matchAll;
+    }
+
+    @Override
+    public LeafBucketCollector getLeafCollector(LeafReaderContext ctx) throws IOException {
+        flush();
+        final LeafBucketCollector leafCollector = in.getLeafCollector(ctx);
+        if (leafCollector == LeafBucketCollector.NO_OP_COLLECTOR) {
+            this.leafCollector = null;
+            throw new CollectionTerminatedException();
+        }
+        this.leafCollector = leafCollector;
+        if (matchAll) {
+            collectAll(ctx.reader());
+            this.leafCollector = null;
+            // the whole segment has been collected already
+            throw new CollectionTerminatedException();
+        }
+        return new LeafBucketCollector() {
+            @Override
+            public void setScorer(Scorer scorer) throws IOException {
+                leafCollector.setScorer(scorer);
+            }
+
+            @Override
+            public void collect(int doc, long bucket) throws IOException {
+                assert bucket == 0 : "top level collectors collect into bucket 0, got " + bucket;
+                docs[count++] = doc;
+                if (count == docs.length) {
+                    flush();
+                }
+            }
+        };
+    }
+
+    private void collectAll(LeafReader reader) throws IOException {
+        final Bits liveDocs = reader.getLiveDocs();
+        final int maxDoc = reader.maxDoc();
+        if (liveDocs == null) {
+            for (int doc = 0; doc < maxDoc; doc += docs.length) {
+                count = Math.min(docs.length, maxDoc - doc);
+                for (int i = 0; i < count; ++i) {
+                    docs[i] = doc + i;
+                }
+                flush();
+            }
+        } else {
+            for (int doc = 0; doc < maxDoc; ++doc) {
+                if (liveDocs.get(doc)) {
+                    docs[count++] = doc;
+                    if (count == docs.length) {
+                        flush();
+                    }
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Collects the buffered docs into the current segment.
+     */
+    public void flush() throws IOException {
+        if (count > 0) {
+            leafCollector.collect(docs, count, 0);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void preCollection() throws IOException {
+        in.preCollection();
+    }
+
+    @Override
+    public void postCollection() throws IOException {
+        flush();
+        in.postCollection();
+    }
+
+    @Override
+    public boolean needsScores() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return in.toString();
+    }
+}
@@ -98,11 +98,26 @@ public abstract class InternalAggregation implements Aggregation, ToXContent, St
         private final BigArrays bigArrays;
         private final ScriptService scriptService;
         private final ClusterState clusterState;
+        private final boolean isFinalReduce;
 
         public ReduceContext(BigArrays bigArrays, ScriptService scriptService, ClusterState clusterState) {
+            this(bigArrays, scriptService, clusterState, true);
+        }
+
+        public ReduceContext(BigArrays bigArrays, ScriptService scriptService, ClusterState clusterState, boolean isFinalReduce) {
             this.bigArrays = bigArrays;
             this.scriptService = scriptService;
             this.clusterState = clusterState;
+            this.isFinalReduce = isFinalReduce;
+        }
+
+        /**
+         * Returns <code>true</code> iff the current reduce phase is the final reduce phase. A partial reduce merges a subset of the
+         * results (for instance the slices of a shard, or a batch of shard results) into an intermediate result that will be reduced
+         * again, so it must neither prune buckets nor run pipeline aggregations.
+         */
+        public boolean isFinalReduce() {
+            return isFinalReduce;
         }
 
         public BigArrays bigArrays() {
@@ -243,8 +258,10 @@ public abstract class InternalAggregation implements Aggregation, ToXContent, St
      */
     public final InternalAggregation reduce(List<InternalAggregation> aggregations, ReduceContext reduceContext) {
         InternalAggregation aggResult = doReduce(aggregations, reduceContext);
-        for (PipelineAggregator pipelineAggregator : pipelineAggregators) {
-            aggResult = pipelineAggregator.reduce(aggResult, reduceContext);
+        if (reduceContext.isFinalReduce()) {
+            for (PipelineAggregator pipelineAggregator : pipelineAggregators) {
+                aggResult = pipelineAggregator.reduce(aggResult, reduceContext);
+            }
         }
         return aggResult;
     }
@@ -20,6 +20,9 @@ package org.elasticsearch.search.aggregations;
 
 import org.elasticsearch.search.aggregations.support.AggregationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The aggregation context that is part of the search context.
  */
@@ -27,6 +30,8 @@ public class SearchContextAggregations {
 
     private final AggregatorFactories factories;
     private Aggregator[] aggregators;
+    private final List<Aggregator[]> sliceAggregators = new ArrayList<>();
+    private final List<BufferingBucketCollector> bufferingCollectors = new ArrayList<>();
     private AggregationContext aggregationContext;
 
     /**
@@ -61,4 +66,34 @@ public class SearchContextAggregations {
         this.aggregators = aggregators;
     }
 
+    /**
+     * Returns the top level aggregators of the additional slices of a concurrent search, in the order of their creation.
+     */
+    public List<Aggregator[]> sliceAggregators() {
+        return sliceAggregators;
+    }
+
+    /**
+     * Registers the top level aggregators that collect an additional slice of a concurrent search. They are created by the
+     * same factories as {@link #aggregators()} and are therefore at the same positions.
+     */
+    public void addSliceAggregators(Aggregator[] aggregators) {
+        sliceAggregators.add(aggregators);
+    }
+
+    /**
+     * Returns the collectors that buffer docs on behalf of the top level aggregators, and that must be flushed before the
+     * aggregators are post-collected.
+     */
+    public List<BufferingBucketCollector> bufferingCollectors() {
+        return bufferingCollectors;
+    }
+
+    /**
+     * Registers a collector that buffers docs on behalf of the top level aggregators.
+     */
+    public void addBufferingCollector(BufferingBucketCollector collector) {
+        bufferingCollectors.add(collector);
+    }
+
 }
@@ -21,6 +21,7 @@ package org.elasticsearch.search.aggregations.bucket.histogram;
 
 import org.elasticsearch.common.ParsingException;
 import org.elasticsearch.common.rounding.Rounding;
+import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.AggregatorFactory;
@@ -107,7 +108,12 @@ public abstract class AbstractHistogramAggregatorFactory<AF extends AbstractHist
             extendedBounds.processAndValidate(name, context.searchContext(), config.format());
             roundedBounds = extendedBounds.round(rounding);
         }
-        return new HistogramAggregator(name, factories, rounding, order, keyed, minDocCount, roundedBounds, valuesSource,
+        // the bounds of the values of a segment can only be read from the field if they are not modified on the fly
+        MappedFieldType fieldType = null;
+        if (valuesSource != null && config.fieldContext() != null && config.script() == null && config.missing() == null) {
+            fieldType = config.fieldContext().fieldType();
+        }
+        return new HistogramAggregator(name, factories, rounding, order, keyed, minDocCount, roundedBounds, valuesSource, fieldType,
                 config.format(), histogramFactory, context, parent, pipelineAggregators, metaData);
     }
 
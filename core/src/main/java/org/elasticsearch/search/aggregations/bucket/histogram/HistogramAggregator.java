@@ -20,12 +20,15 @@ package org.elasticsearch.search.aggregations.bucket.histogram;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.CollectionUtil;
+import org.elasticsearch.action.fieldstats.FieldStats;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.inject.internal.Nullable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.rounding.Rounding;
 import org.elasticsearch.common.util.LongHash;
+import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
@@ -39,6 +42,7 @@ import org.elasticsearch.search.aggregations.support.ValuesSource;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -49,7 +53,11 @@ public class HistogramAggregator extends BucketsAggregator {
     public static final ParseField KEYED_FIELD = new ParseField("keyed");
     public static final ParseField MIN_DOC_COUNT_FIELD = new ParseField("min_doc_count");
 
+    /** The maximum number of keys to compute ahead of time for a segment. */
+    static final int MAX_PREPARED_KEYS = 1024;
+
     private final ValuesSource.Numeric valuesSource;
+    private final MappedFieldType fieldType;
     private final DocValueFormat formatter;
     private final Rounding rounding;
     private final InternalOrder order;
@@ -63,8 +71,9 @@ public class HistogramAggregator extends BucketsAggregator {
 
     public HistogramAggregator(String name, AggregatorFactories factories, Rounding rounding, InternalOrder order, boolean keyed,
             long minDocCount, @Nullable ExtendedBounds extendedBounds, @Nullable ValuesSource.Numeric valuesSource,
-            DocValueFormat formatter, InternalHistogram.Factory<?> histogramFactory, AggregationContext aggregationContext,
-            Aggregator parent, List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
+            @Nullable MappedFieldType fieldType, DocValueFormat formatter, InternalHistogram.Factory<?> histogramFactory,
+            AggregationContext aggregationContext, Aggregator parent, List<PipelineAggregator> pipelineAggregators,
+            Map<String, Object> metaData) throws IOException {
 
         super(name, factories, aggregationContext, parent, pipelineAggregators, metaData);
         this.rounding = rounding;
@@ -73,6 +82,7 @@ public class HistogramAggregator extends BucketsAggregator {
         this.minDocCount = minDocCount;
         this.extendedBounds = extendedBounds;
         this.valuesSource = valuesSource;
+        this.fieldType = fieldType;
         this.formatter = formatter;
         this.histogramFactory = histogramFactory;
 
@@ -91,6 +101,10 @@ public class HistogramAggregator extends BucketsAggregator {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
         final SortedNumericDocValues values = valuesSource.longValues(ctx);
+        final PreparedRounding preparedRounding = prepareRounding(ctx);
+        if (preparedRounding != null) {
+            return new PreparedLeafCollector(sub, values, preparedRounding);
+        }
         return new LeafBucketCollectorBase(sub, values) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
@@ -119,6 +133,145 @@ public class HistogramAggregator extends BucketsAggregator {
         };
     }
 
+    /**
+     * Computes the keys of the segment ahead of time if the bounds of its values are known, or returns null.
+     */
+    private PreparedRounding prepareRounding(LeafReaderContext ctx) throws IOException {
+        if (fieldType == null) {
+            return null;
+        }
+        final FieldStats<?> stats = fieldType.stats(ctx.reader());
+        if (stats == null || stats.getMinValue() instanceof Long == false) {
+            return null;
+        }
+        // rounding ahead of time only pays off if there are several values per key
+        final int maxKeys = Math.min(MAX_PREPARED_KEYS, Math.max(1, ctx.reader().maxDoc() >> 2));
+        return PreparedRounding.prepare(rounding, (Long) stats.getMinValue(), (Long) stats.getMaxValue(), maxKeys);
+    }
+
+    /**
+     * Collects the docs of a segment whose keys have been computed ahead of time, which saves rounding and hashing values.
+     */
+    private class PreparedLeafCollector extends LeafBucketCollectorBase {
+
+        private final LeafBucketCollector sub;
+        private final SortedNumericDocValues values;
+        private final PreparedRounding preparedRounding;
+        private final long[] bucketOrds;
+
+        PreparedLeafCollector(LeafBucketCollector sub, SortedNumericDocValues values, PreparedRounding preparedRounding) {
+            super(sub, values);
+            this.sub = sub;
+            this.values = values;
+            this.preparedRounding = preparedRounding;
+            this.bucketOrds = new long[preparedRounding.keys.length];
+            Arrays.fill(bucketOrds, -1);
+        }
+
+        @Override
+        public void collect(int doc, long bucket) throws IOException {
+            assert bucket == 0;
+            values.setDocument(doc);
+            final int valuesCount = values.count();
+
+            if (preparedRounding.keys.length == 1) {
+                // all values of the segment round to the same key, so there is no need to read them
+                if (valuesCount > 0) {
+                    collectKey(doc, 0);
+                }
+                return;
+            }
+            int previousIndex = -1;
+            for (int i = 0; i < valuesCount; ++i) {
+                final int index = preparedRounding.index(values.valueAt(i));
+                assert index >= previousIndex;
+                if (index == previousIndex) {
+                    continue;
+                }
+                collectKey(doc, index);
+                previousIndex = index;
+            }
+        }
+
+        private void collectKey(int doc, int index) throws IOException {
+            final long bucketOrd = bucketOrds[index];
+            if (bucketOrd >= 0) {
+                collectExistingBucket(sub, doc, bucketOrd);
+            } else {
+                collectBucket(sub, doc, bucketOrd(index));
+            }
+        }
+
+        private long bucketOrd(int index) {
+            long bucketOrd = HistogramAggregator.this.bucketOrds.add(preparedRounding.keys[index]);
+            if (bucketOrd < 0) { // seen in a previous segment
+                bucketOrd = -1 - bucketOrd;
+            }
+            bucketOrds[index] = bucketOrd;
+            return bucketOrd;
+        }
+    }
+
+    /**
+     * The keys that the values of a segment round to, along with the exclusive upper bound of the values of each key.
+     */
+    static final class PreparedRounding {
+
+        final long[] keys;
+        final long[] upperBounds;
+
+        private PreparedRounding(long[] keys, long[] upperBounds) {
+            this.keys = keys;
+            this.upperBounds = upperBounds;
+        }
+
+        /**
+         * Returns the index of the key of the given value, which must be within the bounds the rounding has been prepared for.
+         */
+        int index(long value) {
+            if (keys.length == 1) {
+                // all values round to the same key
+                return 0;
+            }
+            final int index = Arrays.binarySearch(upperBounds, value);
+            return index >= 0 ? index + 1 : -1 - index;
+        }
+
+        /**
+         * Computes the keys of the values in <code>[min, max]</code>, or returns null if there are more than <code>maxKeys</code>
+         * of them or if the rounding does not behave like a floor function over these values.
+         */
+        static PreparedRounding prepare(Rounding rounding, long min, long max, int maxKeys) {
+            long[] keys = new long[Math.min(maxKeys, 16)];
+            long[] upperBounds = new long[keys.length];
+            int count = 0;
+            long key = rounding.roundKey(min);
+            long lowerBound = rounding.valueForKey(key);
+            while (true) {
+                if (count == maxKeys) {
+                    return null;
+                }
+                final long upperBound = rounding.nextRoundingValue(lowerBound);
+                if (upperBound <= lowerBound || rounding.roundKey(upperBound - 1) != key) {
+                    return null;
+                }
+                keys = ArrayUtil.grow(keys, count + 1);
+                upperBounds = ArrayUtil.grow(upperBounds, count + 1);
+                keys[count] = key;
+                upperBounds[count] = upperBound;
+                count++;
+                if (upperBound > max) {
+                    return new PreparedRounding(Arrays.copyOf(keys, count), Arrays.copyOf(upperBounds, count));
+                }
+                key = rounding.roundKey(upperBound);
+                if (rounding.valueForKey(key) != upperBound) {
+                    return null;
+                }
+                lowerBound = upperBound;
+            }
+        }
+    }
+
     @Override
     public InternalAggregation buildAggregation(long owningBucketOrdinal) throws IOException {
         assert owningBucketOrdinal == 0;
@@ -96,6 +96,12 @@ public class SignificantTermsAggregatorFactory extends ValuesSourceAggregatorFac
 
     }
 
+    @Override
+    protected boolean supportsConcurrentCollection() {
+        // the superset statistics and the shared terms enum are computed for the whole shard
+        return false;
+    }
+
     private void setFieldInfo() {
         if (!config.unmapped()) {
             this.indexedFieldName = config.fieldContext().field();
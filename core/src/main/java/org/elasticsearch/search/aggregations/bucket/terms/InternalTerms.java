@@ -169,6 +169,8 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
         Map<Object, List<InternalTerms.Bucket>> buckets = new HashMap<>();
         long sumDocCountError = 0;
         long otherDocCount = 0;
+        // the error of a single result is the one it already carries: 0 for a shard result, or the error computed by a partial reduce
+        final long singleDocCountError = aggregations.size() == 1 ? ((InternalTerms<A, B>) aggregations.get(0)).docCountError : 0;
         InternalTerms<A, B> referenceTerms = null;
         for (InternalAggregation aggregation : aggregations) {
             InternalTerms<A, B> terms = (InternalTerms<A, B>) aggregation;
@@ -193,7 +195,12 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
             if (terms.buckets.size() < this.shardSize || InternalOrder.isTermOrder(order)) {
                 thisAggDocCountError = 0;
             } else if (InternalOrder.isCountDesc(this.order)) {
-                thisAggDocCountError = terms.buckets.get(terms.buckets.size() - 1).docCount;
+                if (terms.docCountError > 0) {
+                    // this aggregation is the output of a partial reduce which already computed its error
+                    thisAggDocCountError = terms.docCountError;
+                } else {
+                    thisAggDocCountError = terms.buckets.get(terms.buckets.size() - 1).docCount;
+                }
             } else {
                 thisAggDocCountError = -1;
             }
@@ -206,7 +213,13 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
             }
             terms.docCountError = thisAggDocCountError;
             for (Bucket bucket : terms.buckets) {
-                bucket.docCountError = thisAggDocCountError;
+                // the bucket error computed below is the sum of the errors of the results that do not contain the bucket, plus
+                // whatever error a partial reduce already attached to the bucket: here we record the part that must be subtracted
+                if (thisAggDocCountError == -1 || bucket.docCountError == -1) {
+                    bucket.docCountError = thisAggDocCountError;
+                } else {
+                    bucket.docCountError = thisAggDocCountError - bucket.docCountError;
+                }
                 List<Bucket> bucketList = buckets.get(bucket.getKey());
                 if (bucketList == null) {
                     bucketList = new ArrayList<>();
@@ -216,7 +229,8 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
             }
         }
 
-        final int size = Math.min(requiredSize, buckets.size());
+        // a partial reduce must keep all buckets, they are pruned on the final reduce
+        final int size = reduceContext.isFinalReduce() ? Math.min(requiredSize, buckets.size()) : buckets.size();
         BucketPriorityQueue ordered = new BucketPriorityQueue(size, order.comparator(null));
         for (List<Bucket> sameTermBuckets : buckets.values()) {
             final Bucket b = sameTermBuckets.get(0).reduce(sameTermBuckets, reduceContext);
@@ -227,7 +241,7 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
                     b.docCountError = sumDocCountError - b.docCountError;
                 }
             }
-            if (b.docCount >= minDocCount) {
+            if (b.docCount >= minDocCount || reduceContext.isFinalReduce() == false) {
                 Terms.Bucket removed = ordered.insertWithOverflow(b);
                 if (removed != null) {
                     otherDocCount += removed.getDocCount();
@@ -242,7 +256,7 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
         if (sumDocCountError == -1) {
             docCountError = -1;
         } else {
-            docCountError = aggregations.size() == 1 ? 0 : sumDocCountError;
+            docCountError = aggregations.size() == 1 ? singleDocCountError : sumDocCountError;
         }
         return create(name, Arrays.asList(list), docCountError, otherDocCount, this);
     }
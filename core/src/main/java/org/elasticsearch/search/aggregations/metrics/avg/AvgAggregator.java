@@ -89,6 +89,27 @@ public class AvgAggregator extends NumericMetricsAggregator.SingleValue {
                 }
                 sums.increment(bucket, sum);
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                counts = bigArrays.grow(counts, bucket + 1);
+                sums = bigArrays.grow(sums, bucket + 1);
+
+                long totalCount = 0;
+                double total = sums.get(bucket);
+                for (int i = 0; i < count; i++) {
+                    values.setDocument(docs[i]);
+                    final int valueCount = values.count();
+                    totalCount += valueCount;
+                    double sum = 0;
+                    for (int j = 0; j < valueCount; j++) {
+                        sum += values.valueAt(j);
+                    }
+                    total += sum;
+                }
+                counts.increment(bucket, totalCount);
+                sums.set(bucket, total);
+            }
         };
     }
 
@@ -194,7 +194,12 @@ public final class HyperLogLogPlusPlus implements Releasable {
     }
 
     private void ensureCapacity(long numBuckets) {
+        final ByteArray previousRunLens = runLens;
         runLens = bigArrays.grow(runLens, numBuckets << p);
+        if (runLens != previousRunLens) {
+            // the spare might point to a page of the released array, don't let the new array materialize slices into it
+            hashSet.readSpare.bytes = BytesRef.EMPTY_BYTES;
+        }
     }
 
     public void merge(long thisBucket, HyperLogLogPlusPlus other, long otherBucket) {
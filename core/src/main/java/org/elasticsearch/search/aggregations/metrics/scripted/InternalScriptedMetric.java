@@ -57,6 +57,8 @@ public class InternalScriptedMetric extends InternalMetricsAggregation implement
 
     private Script reduceScript;
     private Object aggregation;
+    // the objects of all the shards a partially reduced result was built from, never serialized
+    private List<Object> partialAggregations;
 
     private InternalScriptedMetric() {
     }
@@ -81,9 +83,20 @@ public class InternalScriptedMetric extends InternalMetricsAggregation implement
         List<Object> aggregationObjects = new ArrayList<>();
         for (InternalAggregation aggregation : aggregations) {
             InternalScriptedMetric mapReduceAggregation = (InternalScriptedMetric) aggregation;
-            aggregationObjects.add(mapReduceAggregation.aggregation());
+            if (mapReduceAggregation.partialAggregations != null) {
+                aggregationObjects.addAll(mapReduceAggregation.partialAggregations);
+            } else {
+                aggregationObjects.add(mapReduceAggregation.aggregation());
+            }
         }
         InternalScriptedMetric firstAggregation = ((InternalScriptedMetric) aggregations.get(0));
+        if (reduceContext.isFinalReduce() == false) {
+            // the reduce script must see the objects of all the shards at once, so it only runs on the final reduce
+            InternalScriptedMetric partial = new InternalScriptedMetric(firstAggregation.getName(), aggregationObjects,
+                    firstAggregation.reduceScript, pipelineAggregators(), getMetaData());
+            partial.partialAggregations = aggregationObjects;
+            return partial;
+        }
         Object aggregation;
         if (firstAggregation.reduceScript != null) {
             Map<String, Object> vars = new HashMap<>();
@@ -128,6 +141,7 @@ public class InternalScriptedMetric extends InternalMetricsAggregation implement
 
     @Override
     protected void doWriteTo(StreamOutput out) throws IOException {
+        assert partialAggregations == null : "partially reduced aggregations are not meant to be serialized";
         boolean hasScript = reduceScript != null;
         out.writeBoolean(hasScript);
         if (hasScript) {
@@ -86,16 +86,7 @@ public class StatsAggregator extends NumericMetricsAggregator.MultiValue {
         return new LeafBucketCollectorBase(sub, values) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
-                if (bucket >= counts.size()) {
-                    final long from = counts.size();
-                    final long overSize = BigArrays.overSize(bucket + 1);
-                    counts = bigArrays.resize(counts, overSize);
-                    sums = bigArrays.resize(sums, overSize);
-                    mins = bigArrays.resize(mins, overSize);
-                    maxes = bigArrays.resize(maxes, overSize);
-                    mins.fill(from, overSize, Double.POSITIVE_INFINITY);
-                    maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
-                }
+                grow(bucket);
 
                 values.setDocument(doc);
                 final int valuesCount = values.count();
@@ -113,6 +104,46 @@ public class StatsAggregator extends NumericMetricsAggregator.MultiValue {
                 mins.set(bucket, min);
                 maxes.set(bucket, max);
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                grow(bucket);
+
+                long totalCount = 0;
+                double total = sums.get(bucket);
+                double min = mins.get(bucket);
+                double max = maxes.get(bucket);
+                for (int i = 0; i < count; i++) {
+                    values.setDocument(docs[i]);
+                    final int valuesCount = values.count();
+                    totalCount += valuesCount;
+                    double sum = 0;
+                    for (int j = 0; j < valuesCount; j++) {
+                        double value = values.valueAt(j);
+                        sum += value;
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                    total += sum;
+                }
+                counts.increment(bucket, totalCount);
+                sums.set(bucket, total);
+                mins.set(bucket, min);
+                maxes.set(bucket, max);
+            }
+
+            private void grow(long bucket) {
+                if (bucket >= counts.size()) {
+                    final long from = counts.size();
+                    final long overSize = BigArrays.overSize(bucket + 1);
+                    counts = bigArrays.resize(counts, overSize);
+                    sums = bigArrays.resize(sums, overSize);
+                    mins = bigArrays.resize(mins, overSize);
+                    maxes = bigArrays.resize(maxes, overSize);
+                    mins.fill(from, overSize, Double.POSITIVE_INFINITY);
+                    maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
+                }
+            }
         };
     }
 
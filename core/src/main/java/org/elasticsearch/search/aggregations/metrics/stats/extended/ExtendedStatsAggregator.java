@@ -93,17 +93,7 @@ public class ExtendedStatsAggregator extends NumericMetricsAggregator.MultiValue
 
             @Override
             public void collect(int doc, long bucket) throws IOException {
-                if (bucket >= counts.size()) {
-                    final long from = counts.size();
-                    final long overSize = BigArrays.overSize(bucket + 1);
-                    counts = bigArrays.resize(counts, overSize);
-                    sums = bigArrays.resize(sums, overSize);
-                    mins = bigArrays.resize(mins, overSize);
-                    maxes = bigArrays.resize(maxes, overSize);
-                    sumOfSqrs = bigArrays.resize(sumOfSqrs, overSize);
-                    mins.fill(from, overSize, Double.POSITIVE_INFINITY);
-                    maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
-                }
+                grow(bucket);
 
                 values.setDocument(doc);
                 final int valuesCount = values.count();
@@ -125,6 +115,52 @@ public class ExtendedStatsAggregator extends NumericMetricsAggregator.MultiValue
                 maxes.set(bucket, max);
             }
 
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                grow(bucket);
+
+                long totalCount = 0;
+                double total = sums.get(bucket);
+                double totalOfSqrs = sumOfSqrs.get(bucket);
+                double min = mins.get(bucket);
+                double max = maxes.get(bucket);
+                for (int i = 0; i < count; i++) {
+                    values.setDocument(docs[i]);
+                    final int valuesCount = values.count();
+                    totalCount += valuesCount;
+                    double sum = 0;
+                    double sumOfSqr = 0;
+                    for (int j = 0; j < valuesCount; j++) {
+                        double value = values.valueAt(j);
+                        sum += value;
+                        sumOfSqr += value * value;
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                    total += sum;
+                    totalOfSqrs += sumOfSqr;
+                }
+                counts.increment(bucket, totalCount);
+                sums.set(bucket, total);
+                sumOfSqrs.set(bucket, totalOfSqrs);
+                mins.set(bucket, min);
+                maxes.set(bucket, max);
+            }
+
+            private void grow(long bucket) {
+                if (bucket >= counts.size()) {
+                    final long from = counts.size();
+                    final long overSize = BigArrays.overSize(bucket + 1);
+                    counts = bigArrays.resize(counts, overSize);
+                    sums = bigArrays.resize(sums, overSize);
+                    mins = bigArrays.resize(mins, overSize);
+                    maxes = bigArrays.resize(maxes, overSize);
+                    sumOfSqrs = bigArrays.resize(sumOfSqrs, overSize);
+                    mins.fill(from, overSize, Double.POSITIVE_INFINITY);
+                    maxes.fill(from, overSize, Double.NEGATIVE_INFINITY);
+                }
+            }
+
         };
     }
 
@@ -82,6 +82,22 @@ public class SumAggregator extends NumericMetricsAggregator.SingleValue {
                 }
                 sums.increment(bucket, sum);
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                sums = bigArrays.grow(sums, bucket + 1);
+                double total = sums.get(bucket);
+                for (int i = 0; i < count; i++) {
+                    values.setDocument(docs[i]);
+                    final int valuesCount = values.count();
+                    double sum = 0;
+                    for (int j = 0; j < valuesCount; j++) {
+                        sum += values.valueAt(j);
+                    }
+                    total += sum;
+                }
+                sums.set(bucket, total);
+            }
         };
     }
 
@@ -76,6 +76,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
     public static final ParseField SIZE_FIELD = new ParseField("size");
     public static final ParseField TIMEOUT_FIELD = new ParseField("timeout");
     public static final ParseField TERMINATE_AFTER_FIELD = new ParseField("terminate_after");
+    public static final ParseField CONCURRENCY_FIELD = new ParseField("concurrency");
     public static final ParseField QUERY_FIELD = new ParseField("query");
     public static final ParseField POST_FILTER_FIELD = new ParseField("post_filter");
     public static final ParseField MIN_SCORE_FIELD = new ParseField("min_score");
@@ -145,6 +146,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
 
     private TimeValue timeout = null;
     private int terminateAfter = SearchContext.DEFAULT_TERMINATE_AFTER;
+    private Integer concurrency;
 
     private List<String> fieldNames;
     private List<String> fieldDataFields;
@@ -241,6 +243,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
         }
         suggestBuilder = in.readOptionalWriteable(SuggestBuilder::new);
         terminateAfter = in.readVInt();
+        concurrency = in.readOptionalVInt();
         timeout = in.readOptionalWriteable(TimeValue::new);
         trackScores = in.readBoolean();
         version = in.readOptionalBoolean();
@@ -320,6 +323,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
         }
         out.writeOptionalWriteable(suggestBuilder);
         out.writeVInt(terminateAfter);
+        out.writeOptionalVInt(concurrency);
         out.writeOptionalWriteable(timeout);
         out.writeBoolean(trackScores);
         out.writeOptionalBoolean(version);
@@ -476,6 +480,26 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
         return terminateAfter;
     }
 
+    /**
+     * Sets the maximum number of slices the segments of each shard are split into in order to be searched concurrently. Overrides
+     * the <code>index.search.concurrency</code> setting of the searched indices.
+     */
+    public SearchSourceBuilder concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be >= 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of slices the segments of each shard are split into, or <code>null</code> to use the setting of the
+     * searched indices.
+     */
+    public Integer concurrency() {
+        return concurrency;
+    }
+
     /**
      * Adds a sort against the given field name and the sort ordering.
      *
@@ -904,6 +928,15 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
         return this;
     }
 
+    /**
+     * Create a shallow copy of this builder with a new slice configuration.
+     */
+    public SearchSourceBuilder copyWithNewSlice(SliceBuilder slice) {
+        SearchSourceBuilder copy = shallowCopy(queryBuilder, postQueryBuilder);
+        copy.sliceBuilder = slice;
+        return copy;
+    }
+
     private SearchSourceBuilder shallowCopy(QueryBuilder queryBuilder, QueryBuilder postQueryBuilder) {
             SearchSourceBuilder rewrittenBuilder = new SearchSourceBuilder();
             rewrittenBuilder.aggregations = aggregations;
@@ -928,6 +961,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
             rewrittenBuilder.stats = stats;
             rewrittenBuilder.suggestBuilder = suggestBuilder;
             rewrittenBuilder.terminateAfter = terminateAfter;
+            rewrittenBuilder.concurrency = concurrency;
             rewrittenBuilder.timeout = timeout;
             rewrittenBuilder.trackScores = trackScores;
             rewrittenBuilder.version = version;
@@ -961,6 +995,8 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
                     timeout = TimeValue.parseTimeValue(parser.text(), null, TIMEOUT_FIELD.getPreferredName());
                 } else if (context.getParseFieldMatcher().match(currentFieldName, TERMINATE_AFTER_FIELD)) {
                     terminateAfter = parser.intValue();
+                } else if (context.getParseFieldMatcher().match(currentFieldName, CONCURRENCY_FIELD)) {
+                    concurrency(parser.intValue());
                 } else if (context.getParseFieldMatcher().match(currentFieldName, MIN_SCORE_FIELD)) {
                     minScore = parser.floatValue();
                 } else if (context.getParseFieldMatcher().match(currentFieldName, VERSION_FIELD)) {
@@ -1103,6 +1139,10 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
             builder.field(TERMINATE_AFTER_FIELD.getPreferredName(), terminateAfter);
         }
 
+        if (concurrency != null) {
+            builder.field(CONCURRENCY_FIELD.getPreferredName(), concurrency);
+        }
+
         if (queryBuilder != null) {
             builder.field(QUERY_FIELD.getPreferredName(), queryBuilder);
         }
@@ -1341,7 +1381,8 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
     public int hashCode() {
         return Objects.hash(aggregations, explain, fetchSourceContext, fieldDataFields, fieldNames, from,
                 highlightBuilder, indexBoost, minScore, postQueryBuilder, queryBuilder, rescoreBuilders, scriptFields,
-                size, sorts, searchAfterBuilder, sliceBuilder, stats, suggestBuilder, terminateAfter, timeout, trackScores, version, profile);
+                size, sorts, searchAfterBuilder, sliceBuilder, stats, suggestBuilder, terminateAfter, concurrency, timeout, trackScores, version,
+                profile);
     }
 
     @Override
@@ -1373,6 +1414,7 @@ public final class SearchSourceBuilder extends ToXContentToBytes implements Writ
                 && Objects.equals(stats, other.stats)
                 && Objects.equals(suggestBuilder, other.suggestBuilder)
                 && Objects.equals(terminateAfter, other.terminateAfter)
+                && Objects.equals(concurrency, other.concurrency)
                 && Objects.equals(timeout, other.timeout)
                 && Objects.equals(trackScores, other.trackScores)
                 && Objects.equals(version, other.version)
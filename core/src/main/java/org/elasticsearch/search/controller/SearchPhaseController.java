@@ -30,8 +30,10 @@ import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermStatistics;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopFieldDocs;
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.HppcMaps;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
@@ -63,6 +65,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -293,6 +296,18 @@ public class SearchPhaseController extends AbstractComponent {
 
     public InternalSearchResponse merge(ScoreDoc[] sortedDocs, AtomicArray<? extends QuerySearchResultProvider> queryResultsArr,
                                         AtomicArray<? extends FetchSearchResultProvider> fetchResultsArr) {
+        return merge(sortedDocs, queryResultsArr, fetchResultsArr, null);
+    }
+
+    /**
+     * Merges the query and fetch results into the search response.
+     *
+     * @param consumer the consumer that reduced the query results in batches as they arrived, or <code>null</code> if the query
+     *                 results hold all their aggregations
+     */
+    public InternalSearchResponse merge(ScoreDoc[] sortedDocs, AtomicArray<? extends QuerySearchResultProvider> queryResultsArr,
+                                        AtomicArray<? extends FetchSearchResultProvider> fetchResultsArr,
+                                        @Nullable QueryPhaseResultConsumer consumer) {
 
         List<? extends AtomicArray.Entry<? extends QuerySearchResultProvider>> queryResults = queryResultsArr.asList();
         List<? extends AtomicArray.Entry<? extends FetchSearchResultProvider>> fetchResults = fetchResultsArr.asList();
@@ -395,11 +410,17 @@ public class SearchPhaseController extends AbstractComponent {
         // merge addAggregation
         InternalAggregations aggregations = null;
         if (!queryResults.isEmpty()) {
-            if (firstResult.aggregations() != null && firstResult.aggregations().asList() != null) {
-                List<InternalAggregations> aggregationsList = new ArrayList<>(queryResults.size());
+            List<InternalAggregations> aggregationsList = null;
+            if (consumer != null) {
+                // the aggregations were partially reduced as the results arrived, only the last batch is left
+                aggregationsList = consumer.consumeAggregations();
+            } else if (firstResult.aggregations() != null && firstResult.aggregations().asList() != null) {
+                aggregationsList = new ArrayList<>(queryResults.size());
                 for (AtomicArray.Entry<? extends QuerySearchResultProvider> entry : queryResults) {
                     aggregationsList.add((InternalAggregations) entry.value.queryResult().aggregations());
                 }
+            }
+            if (aggregationsList != null && aggregationsList.isEmpty() == false) {
                 ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state());
                 aggregations = InternalAggregations.reduce(aggregationsList, reduceContext);
             }
@@ -436,4 +457,156 @@ public class SearchPhaseController extends AbstractComponent {
         return new InternalSearchResponse(searchHits, aggregations, suggest, shardResults, timedOut, terminatedEarly);
     }
 
+    /**
+     * Returns a consumer that reduces the query results of the given request in batches of
+     * {@link SearchRequest#batchedReduceSize()} results as they arrive, or <code>null</code> if the request does not target
+     * more shards than that, in which case all the results are reduced at once by {@link #sortDocs} and {@link #merge}.
+     * Only meant for search types that fetch the hits in a separate phase.
+     */
+    @Nullable
+    public QueryPhaseResultConsumer newQueryPhaseResultConsumer(SearchRequest request, int numShards) {
+        if (numShards <= request.batchedReduceSize()) {
+            return null;
+        }
+        return new QueryPhaseResultConsumer(request.batchedReduceSize(), request.scroll() != null);
+    }
+
+    /**
+     * Partially reduces the query results of a search as they arrive, once a batch of results is buffered, so that the
+     * coordinating node doesn't have to hold the aggregations and the hits of all the shards at once. The aggregations of each
+     * batch are reduced into a running partial result and removed from the query results. The hits of each query result are
+     * trimmed to the ones that still make it into the top hits of all the results seen so far, which is safe since the top hits
+     * are a prefix of the hits of every shard. The trimmed query results are then handled by {@link #sortDocs} as usual, and the
+     * running aggregations are reduced with the last batch by {@link #merge}.
+     */
+    public final class QueryPhaseResultConsumer {
+        private final int bufferSize;
+        private final boolean ignoreFrom;
+        private final List<AtomicArray.Entry<QuerySearchResult>> buffer;
+        // the results whose hits may still make it into the top hits, by shard index
+        private final List<AtomicArray.Entry<QuerySearchResult>> topDocsResults = new ArrayList<>();
+        private InternalAggregations reducedAggregations;
+        private int numReducePhases = 0;
+        private Throwable failure;
+
+        QueryPhaseResultConsumer(int bufferSize, boolean ignoreFrom) {
+            if (bufferSize < 2) {
+                throw new IllegalArgumentException("buffer size must be >= 2");
+            }
+            this.bufferSize = bufferSize;
+            this.ignoreFrom = ignoreFrom;
+            this.buffer = new ArrayList<>(bufferSize);
+        }
+
+        /**
+         * Adds the query result of the shard at the given index, and partially reduces the buffered results if the buffer is full.
+         */
+        public synchronized void consume(int shardIndex, QuerySearchResultProvider resultProvider) {
+            assert resultProvider.includeFetch() == false : "hits fetched in the query phase can't be trimmed";
+            buffer.add(new AtomicArray.Entry<>(shardIndex, resultProvider.queryResult()));
+            if (buffer.size() == bufferSize && failure == null) {
+                try {
+                    partialReduce();
+                } catch (Throwable t) {
+                    // this is called from the response handler of a shard, the search fails once all the shards responded
+                    failure = t;
+                }
+            }
+        }
+
+        private void partialReduce() throws IOException {
+            List<InternalAggregations> aggregationsList = consumeAggregations();
+            if (aggregationsList.isEmpty() == false) {
+                ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state(), false);
+                reducedAggregations = InternalAggregations.reduce(aggregationsList, reduceContext);
+            }
+            for (AtomicArray.Entry<QuerySearchResult> entry : buffer) {
+                if (entry.value.topDocs().scoreDocs.length > 0) {
+                    topDocsResults.add(entry);
+                }
+            }
+            buffer.clear();
+            trimTopDocs();
+            numReducePhases++;
+        }
+
+        private void trimTopDocs() throws IOException {
+            if (topDocsResults.isEmpty()) {
+                return;
+            }
+            // ties are broken on the position of the shard in the merged array, keep it consistent with the final merge
+            topDocsResults.sort((e1, e2) -> Integer.compare(e1.index, e2.index));
+            QuerySearchResult firstResult = topDocsResults.get(0).value;
+            int topN = ignoreFrom ? firstResult.size() : firstResult.from() + firstResult.size();
+            int[] numTopDocs = new int[topDocsResults.size()];
+            if (topN > 0) {
+                final TopDocs mergedTopDocs;
+                if (firstResult.topDocs() instanceof TopFieldDocs) {
+                    TopFieldDocs[] shardTopDocs = new TopFieldDocs[topDocsResults.size()];
+                    for (int i = 0; i < shardTopDocs.length; i++) {
+                        shardTopDocs[i] = (TopFieldDocs) topDocsResults.get(i).value.topDocs();
+                    }
+                    mergedTopDocs = TopDocs.merge(new Sort(shardTopDocs[0].fields), 0, topN, shardTopDocs);
+                } else {
+                    TopDocs[] shardTopDocs = new TopDocs[topDocsResults.size()];
+                    for (int i = 0; i < shardTopDocs.length; i++) {
+                        shardTopDocs[i] = topDocsResults.get(i).value.topDocs();
+                    }
+                    mergedTopDocs = TopDocs.merge(0, topN, shardTopDocs);
+                }
+                // the merge sets the shard index to the position of the shard in the merged array
+                for (ScoreDoc scoreDoc : mergedTopDocs.scoreDocs) {
+                    numTopDocs[scoreDoc.shardIndex]++;
+                }
+            }
+            int i = 0;
+            for (Iterator<AtomicArray.Entry<QuerySearchResult>> it = topDocsResults.iterator(); it.hasNext(); i++) {
+                QuerySearchResult result = it.next().value;
+                TopDocs topDocs = result.topDocs();
+                if (numTopDocs[i] < topDocs.scoreDocs.length) {
+                    ScoreDoc[] scoreDocs = Arrays.copyOf(topDocs.scoreDocs, numTopDocs[i]);
+                    final TopDocs trimmedTopDocs;
+                    if (topDocs instanceof TopFieldDocs) {
+                        trimmedTopDocs = new TopFieldDocs(topDocs.totalHits, scoreDocs, ((TopFieldDocs) topDocs).fields,
+                            topDocs.getMaxScore());
+                    } else {
+                        trimmedTopDocs = new TopDocs(topDocs.totalHits, scoreDocs, topDocs.getMaxScore());
+                    }
+                    result.topDocs(trimmedTopDocs, result.sortValueFormats());
+                }
+                if (numTopDocs[i] == 0) {
+                    it.remove();
+                }
+            }
+        }
+
+        /**
+         * Returns the aggregations that are left to reduce, made of the running partially reduced aggregations and the ones of
+         * the buffered results, which are removed from the query results.
+         */
+        synchronized List<InternalAggregations> consumeAggregations() {
+            if (failure != null) {
+                throw new ElasticsearchException("failed to partially reduce the query results", failure);
+            }
+            List<InternalAggregations> aggregationsList = new ArrayList<>(buffer.size() + 1);
+            if (reducedAggregations != null) {
+                aggregationsList.add(reducedAggregations);
+                reducedAggregations = null;
+            }
+            for (AtomicArray.Entry<QuerySearchResult> entry : buffer) {
+                InternalAggregations aggregations = entry.value.consumeAggregations();
+                if (aggregations != null) {
+                    aggregationsList.add(aggregations);
+                }
+            }
+            return aggregationsList;
+        }
+
+        /**
+         * Returns the number of partial reduce phases that were executed so far.
+         */
+        public synchronized int getNumReducePhases() {
+            return numReducePhases;
+        }
+    }
 }
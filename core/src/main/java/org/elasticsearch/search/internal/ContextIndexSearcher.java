@@ -20,9 +20,12 @@
 package org.elasticsearch.search.internal;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermContext;
 import org.apache.lucene.search.CollectionStatistics;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
@@ -30,7 +33,9 @@ import org.apache.lucene.search.QueryCache;
 import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.TermStatistics;
 import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.profile.query.ProfileWeight;
@@ -39,6 +44,11 @@ import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.profile.query.QueryTimingType;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Context-aware extension of {@link IndexSearcher}.
@@ -57,6 +67,9 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     // TODO revisit moving the profiler to inheritance or wrapping model in the future
     private QueryProfiler profiler;
 
+    /** The executor that searches slices of the leaves concurrently, may be <code>null</code>. */
+    private Executor executor;
+
     public ContextIndexSearcher(Engine.Searcher searcher,
             QueryCache queryCache, QueryCachingPolicy queryCachingPolicy) {
         super(searcher.reader());
@@ -79,6 +92,117 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         this.aggregatedDfs = aggregatedDfs;
     }
 
+    /**
+     * Sets the executor used to search slices of the leaves concurrently, see {@link #search(Query, CollectorManager, int)}.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Searches the given query after splitting the leaves into at most <code>maxSlices</code> slices, each of them being collected
+     * by its own collector. The first slice is searched by the calling thread and the others on the executor of this searcher, then
+     * the collectors are reduced by the collector manager. Collectors are created by the calling thread.
+     *
+     * Falls back to a sequential search with a single collector if no executor is set or if there is only one slice.
+     */
+    public <C extends Collector, T> T search(Query query, CollectorManager<C, T> collectorManager, int maxSlices) throws IOException {
+        final List<List<LeafReaderContext>> slices = slices(leafContexts, maxSlices);
+        if (executor == null || slices.size() <= 1) {
+            return search(query, collectorManager);
+        }
+
+        final List<C> collectors = new ArrayList<>(slices.size());
+        boolean needsScores = false;
+        for (int i = 0; i < slices.size(); ++i) {
+            final C collector = collectorManager.newCollector();
+            collectors.add(collector);
+            needsScores |= collector.needsScores();
+        }
+        final Weight weight = createNormalizedWeight(query, needsScores);
+
+        final List<FutureTask<Object>> tasks = new ArrayList<>(slices.size() - 1);
+        for (int i = 1; i < slices.size(); ++i) {
+            final List<LeafReaderContext> slice = slices.get(i);
+            final C collector = collectors.get(i);
+            final FutureTask<Object> task = new FutureTask<>(() -> {
+                search(slice, weight, collector);
+                return null;
+            });
+            tasks.add(task);
+            try {
+                executor.execute(task);
+            } catch (EsRejectedExecutionException e) {
+                // the task is executed by the calling thread below
+            }
+        }
+
+        Throwable failure = null;
+        try {
+            search(slices.get(0), weight, collectors.get(0));
+        } catch (Throwable t) {
+            failure = t;
+        }
+        for (FutureTask<Object> task : tasks) {
+            // runs the slice on the calling thread unless a worker already picked it up, so that we never
+            // wait on slices that are still sitting in the queue of the executor
+            task.run();
+        }
+        for (FutureTask<Object> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ThreadInterruptedException(e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new RuntimeException(failure);
+        }
+        return collectorManager.reduce(collectors);
+    }
+
+    /**
+     * Splits the given leaves into at most <code>maxSlices</code> slices of consecutive leaves that have about the same number of
+     * documents. Slices are made of consecutive leaves so that merging their hits tie-breaks on doc ids like a sequential search.
+     */
+    static List<List<LeafReaderContext>> slices(List<LeafReaderContext> leaves, int maxSlices) {
+        long totalDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            totalDocs += leaf.reader().maxDoc();
+        }
+        final long docsPerSlice = Math.max(1, (totalDocs + maxSlices - 1) / maxSlices);
+        final List<List<LeafReaderContext>> slices = new ArrayList<>(Math.min(maxSlices, leaves.size()));
+        List<LeafReaderContext> slice = new ArrayList<>();
+        long sliceDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            slice.add(leaf);
+            sliceDocs += leaf.reader().maxDoc();
+            if (sliceDocs >= docsPerSlice && slices.size() < maxSlices - 1) {
+                slices.add(slice);
+                slice = new ArrayList<>();
+                sliceDocs = 0;
+            }
+        }
+        if (slice.isEmpty() == false) {
+            slices.add(slice);
+        }
+        return slices;
+    }
+
     @Override
     public Query rewrite(Query original) throws IOException {
         if (profiler != null) {
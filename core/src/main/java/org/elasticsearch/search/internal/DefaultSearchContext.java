@@ -102,6 +102,7 @@ public class DefaultSearchContext extends SearchContext {
     private TimeValue timeout;
     // terminate after count
     private int terminateAfter = DEFAULT_TERMINATE_AFTER;
+    private int concurrency = 1;
     private List<String> groupStats;
     private ScrollContext scrollContext;
     private boolean explain;
@@ -530,6 +531,16 @@ public class DefaultSearchContext extends SearchContext {
         this.terminateAfter = terminateAfter;
     }
 
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public void concurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
     @Override
     public SearchContext minimumScore(float minimumScore) {
         this.minimumScore = minimumScore;
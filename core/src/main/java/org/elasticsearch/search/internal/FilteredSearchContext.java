@@ -284,6 +284,16 @@ public abstract class FilteredSearchContext extends SearchContext {
         in.terminateAfter(terminateAfter);
     }
 
+    @Override
+    public int concurrency() {
+        return in.concurrency();
+    }
+
+    @Override
+    public void concurrency(int concurrency) {
+        in.concurrency(concurrency);
+    }
+
     @Override
     public SearchContext minimumScore(float minimumScore) {
         return in.minimumScore(minimumScore);
@@ -235,6 +235,13 @@ public abstract class SearchContext implements Releasable {
 
     public abstract void terminateAfter(int terminateAfter);
 
+    /**
+     * The maximum number of slices the segments of the shard are split into in order to be searched concurrently.
+     */
+    public abstract int concurrency();
+
+    public abstract void concurrency(int concurrency);
+
     public abstract SearchContext minimumScore(float minimumScore);
 
     public abstract Float minimumScore();
@@ -24,9 +24,14 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.queries.MinDocQuery;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MultiCollector;
@@ -38,6 +43,7 @@ import org.apache.lucene.search.TimeLimitingCollector;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopDocsCollector;
 import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.Weight;
@@ -50,6 +56,7 @@ import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchPhase;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.aggregations.AggregationPhase;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.profile.ProfileShardResult;
@@ -61,11 +68,14 @@ import org.elasticsearch.search.rescore.RescoreSearchContext;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.search.suggest.SuggestPhase;
 
+import java.io.IOException;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *
@@ -145,6 +155,11 @@ public class QueryPhase implements SearchPhase {
             queryResult.from(searchContext.from());
             queryResult.size(searchContext.size());
 
+            final int numSlices = numSlices(searchContext, searcher);
+            if (numSlices > 1) {
+                return executeConcurrently(searchContext, (ContextIndexSearcher) searcher, numSlices);
+            }
+
             Query query = searchContext.query();
 
             final int totalNumDocs = searcher.getIndexReader().numDocs();
@@ -395,4 +410,197 @@ public class QueryPhase implements SearchPhase {
             throw new QueryPhaseExecutionException(searchContext, "Failed to execute main query", e);
         }
     }
+
+    /**
+     * Returns the number of slices the leaves of the given searcher should be split into in order to execute the query
+     * concurrently, or <code>1</code> if the query must be executed sequentially. Scroll, terminate_after and profiled
+     * searches, as well as pure counts and aggregations that need to see the whole shard, are always executed sequentially.
+     */
+    static int numSlices(SearchContext searchContext, IndexSearcher searcher) {
+        final int concurrency = searchContext.concurrency();
+        if (concurrency <= 1 || searcher instanceof ContextIndexSearcher == false) {
+            return 1;
+        }
+        // profile breakdowns are timers of the search thread, they can't account for slices that run on other threads
+        if (searchContext.scrollContext() != null
+                || searchContext.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER
+                || searchContext.getProfilers() != null) {
+            return 1;
+        }
+        for (Class<?> key : searchContext.queryCollectors().keySet()) {
+            if (key != AggregationPhase.class) {
+                return 1;
+            }
+        }
+        if (searchContext.queryCollectors().containsKey(AggregationPhase.class)
+                && searchContext.aggregations().factories().supportsConcurrentCollection() == false) {
+            return 1;
+        }
+        if (searchContext.size() == 0 && searchContext.queryCollectors().isEmpty()
+                && searchContext.parsedPostFilter() == null && searchContext.minimumScore() == null) {
+            // pure counts keep their shortcuts
+            return 1;
+        }
+        return Math.min(concurrency, searcher.getIndexReader().leaves().size());
+    }
+
+    private static boolean executeConcurrently(SearchContext searchContext, ContextIndexSearcher searcher,
+                                               int numSlices) throws Exception {
+        final QuerySearchResult queryResult = searchContext.queryResult();
+        final Query query = searchContext.query();
+        assert query == searcher.rewrite(query); // already rewritten
+
+        final int totalNumDocs = searcher.getIndexReader().numDocs();
+        int numDocs = Math.min(searchContext.from() + searchContext.size(), totalNumDocs);
+        boolean rescore = false;
+        DocValueFormat[] sortValueFormats = new DocValueFormat[0];
+        if (searchContext.size() > 0) {
+            if (totalNumDocs == 0) {
+                // top collectors don't like a size of 0
+                numDocs = 1;
+            }
+            if (searchContext.sort() != null) {
+                sortValueFormats = searchContext.sort().formats;
+            } else {
+                rescore = !searchContext.rescore().isEmpty();
+                for (RescoreSearchContext rescoreContext : searchContext.rescore()) {
+                    numDocs = Math.max(rescoreContext.window(), numDocs);
+                }
+            }
+        }
+
+        final Weight filterWeight = searchContext.parsedPostFilter() == null ? null
+                : searcher.createNormalizedWeight(searchContext.parsedPostFilter().query(), false);
+        final QueryCollectorManager collectorManager = new QueryCollectorManager(searchContext, numDocs, filterWeight);
+        final TopDocs topDocs;
+        try {
+            topDocs = searcher.search(query, collectorManager, numSlices);
+        } finally {
+            searchContext.clearReleasables(SearchContext.Lifetime.COLLECTION);
+        }
+        if (collectorManager.timedOut.get()) {
+            queryResult.searchTimedOut(true);
+        }
+        queryResult.topDocs(topDocs, sortValueFormats);
+        return rescore;
+    }
+
+    /**
+     * Creates one collector per slice of a concurrent search, and merges their top docs.
+     */
+    private static class QueryCollectorManager implements CollectorManager<SliceCollector, TopDocs> {
+
+        private final SearchContext searchContext;
+        private final int numDocs;
+        private final Weight filterWeight;
+        private final AtomicBoolean timedOut = new AtomicBoolean();
+        private boolean firstSlice = true;
+
+        QueryCollectorManager(SearchContext searchContext, int numDocs, Weight filterWeight) {
+            this.searchContext = searchContext;
+            this.numDocs = numDocs;
+            this.filterWeight = filterWeight;
+        }
+
+        @Override
+        public SliceCollector newCollector() throws IOException {
+            final Collector topCollector;
+            if (searchContext.size() == 0) {
+                topCollector = new TotalHitCountCollector();
+            } else if (searchContext.sort() != null) {
+                topCollector = TopFieldCollector.create(searchContext.sort().sort, numDocs,
+                        (FieldDoc) searchContext.searchAfter(), true, searchContext.trackScores(), searchContext.trackScores());
+            } else {
+                topCollector = TopScoreDocCollector.create(numDocs, searchContext.searchAfter());
+            }
+
+            Collector collector = topCollector;
+            if (filterWeight != null) {
+                // the post filter only applies to the main collector, not to aggregations
+                collector = new FilteredCollector(collector, filterWeight);
+            }
+            if (searchContext.queryCollectors().containsKey(AggregationPhase.class)) {
+                // the first slice reuses the aggregators of the search context, other slices get their own
+                final Collector aggsCollector = firstSlice ? searchContext.queryCollectors().get(AggregationPhase.class)
+                        : AggregationPhase.createSliceCollector(searchContext);
+                collector = MultiCollector.wrap(collector, aggsCollector);
+            }
+            firstSlice = false;
+            if (searchContext.minimumScore() != null) {
+                // apply the minimum score after multi collector so we filter aggs as well
+                collector = new MinimumScoreCollector(collector, searchContext.minimumScore());
+            }
+            if (searchContext.timeout() != null && !searchContext.timeout().equals(SearchService.NO_TIMEOUT)) {
+                collector = Lucene.wrapTimeLimitingCollector(collector, searchContext.timeEstimateCounter(),
+                        searchContext.timeout().millis());
+            }
+            return new SliceCollector(collector, topCollector, timedOut);
+        }
+
+        @Override
+        public TopDocs reduce(Collection<SliceCollector> collectors) throws IOException {
+            if (searchContext.size() == 0) {
+                int totalHits = 0;
+                for (SliceCollector collector : collectors) {
+                    totalHits += ((TotalHitCountCollector) collector.topCollector).getTotalHits();
+                }
+                return new TopDocs(totalHits, Lucene.EMPTY_SCORE_DOCS, 0);
+            }
+            if (searchContext.sort() != null) {
+                final TopFieldDocs[] shardHits = new TopFieldDocs[collectors.size()];
+                int i = 0;
+                for (SliceCollector collector : collectors) {
+                    shardHits[i++] = ((TopFieldCollector) collector.topCollector).topDocs();
+                }
+                return TopDocs.merge(searchContext.sort().sort, numDocs, shardHits);
+            }
+            final TopDocs[] shardHits = new TopDocs[collectors.size()];
+            int i = 0;
+            for (SliceCollector collector : collectors) {
+                shardHits[i++] = ((TopDocsCollector<?>) collector.topCollector).topDocs();
+            }
+            return TopDocs.merge(numDocs, shardHits);
+        }
+    }
+
+    /**
+     * The collector of a single slice. A timeout stops the collection of the slice and is reported to the other
+     * slices through a shared flag, so that they stop collecting on their next segment.
+     */
+    private static class SliceCollector extends FilterCollector {
+
+        private final Collector topCollector;
+        private final AtomicBoolean timedOut;
+
+        SliceCollector(Collector in, Collector topCollector, AtomicBoolean timedOut) {
+            super(in);
+            this.topCollector = topCollector;
+            this.timedOut = timedOut;
+        }
+
+        @Override
+        public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+            if (timedOut.get()) {
+                throw new CollectionTerminatedException();
+            }
+            final LeafCollector leafCollector;
+            try {
+                leafCollector = super.getLeafCollector(context);
+            } catch (TimeLimitingCollector.TimeExceededException e) {
+                timedOut.set(true);
+                throw new CollectionTerminatedException();
+            }
+            return new FilterLeafCollector(leafCollector) {
+                @Override
+                public void collect(int doc) throws IOException {
+                    try {
+                        super.collect(doc);
+                    } catch (TimeLimitingCollector.TimeExceededException e) {
+                        timedOut.set(true);
+                        throw new CollectionTerminatedException();
+                    }
+                }
+            };
+        }
+    }
 }
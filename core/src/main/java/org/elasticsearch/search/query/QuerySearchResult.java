@@ -139,6 +139,16 @@ public class QuerySearchResult extends QuerySearchResultProvider {
         this.aggregations = aggregations;
     }
 
+    /**
+     * Returns the aggregations of this result and removes them from it, so that they can be garbage collected once they were
+     * reduced on the coordinating node.
+     */
+    public InternalAggregations consumeAggregations() {
+        InternalAggregations aggregations = this.aggregations;
+        this.aggregations = null;
+        return aggregations;
+    }
+
     /**
      * Returns the profiled results for this search, or potentially null if result was empty
      * @return The profiled results, or null
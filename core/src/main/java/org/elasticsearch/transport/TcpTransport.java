@@ -29,6 +29,7 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.component.Lifecycle;
 import org.elasticsearch.common.compress.Compressor;
@@ -144,6 +145,26 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
         Setting.byteSizeSetting("transport.tcp.receive_buffer_size", NetworkService.TcpSettings.TCP_RECEIVE_BUFFER_SIZE,
             Setting.Property.NodeScope);
 
+    // the codec that is used when transport.tcp.compress is enabled
+    public static final Setting<TransportCompression> COMPRESSION_CODEC =
+        new Setting<>("transport.compression.codec", TransportCompression.DEFLATE.name(), (s) -> {
+            TransportCompression compression = TransportCompression.parse(s);
+            if (compression == TransportCompression.NONE) {
+                throw new IllegalArgumentException("transport compression codec must be [deflate] or [lz4] but was [" + s + "]");
+            }
+            return compression;
+        }, Setting.Property.NodeScope);
+    // the compression of action families, overrides transport.tcp.compress for the actions of the family if set
+    public static final Setting<TransportCompression> COMPRESSION_RECOVERY = actionCompressionSetting("recovery");
+    public static final Setting<TransportCompression> COMPRESSION_BULK = actionCompressionSetting("bulk");
+    public static final Setting<TransportCompression> COMPRESSION_SEARCH = actionCompressionSetting("search");
+
+    private static Setting<TransportCompression> actionCompressionSetting(String family) {
+        return new Setting<>("transport.compression." + family,
+            (s) -> Transport.TRANSPORT_TCP_COMPRESS.get(s) ? COMPRESSION_CODEC.getRaw(s) : TransportCompression.NONE.name(),
+            TransportCompression::parse, Setting.Property.NodeScope);
+    }
+
     private static final long NINETY_PER_HEAP_SIZE = (long) (JvmInfo.jvmInfo().getMem().getHeapMax().bytes() * 0.9);
     private static final int PING_DATA_SIZE = -1;
 
@@ -175,6 +196,9 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
     // connections while no connect operations is going on... (this might help with 100% CPU when stopping the transport?)
     protected final ReadWriteLock globalLock = new ReentrantReadWriteLock();
     protected final boolean compress;
+    private final TransportCompression compressionCodec;
+    // action name prefix to compression, for the action families that have an explicit compression setting
+    private final List<Tuple<String, TransportCompression>> actionCompressions;
     protected volatile BoundTransportAddress boundAddress;
     private final String transportName;
 
@@ -189,6 +213,12 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
         this.pingSchedule = PING_SCHEDULE.get(settings);
         this.namedWriteableRegistry = namedWriteableRegistry;
         this.compress = Transport.TRANSPORT_TCP_COMPRESS.get(settings);
+        this.compressionCodec = COMPRESSION_CODEC.get(settings);
+        List<Tuple<String, TransportCompression>> actionCompressions = new ArrayList<>();
+        addActionCompression(actionCompressions, COMPRESSION_RECOVERY, "internal:index/shard/recovery/", settings);
+        addActionCompression(actionCompressions, COMPRESSION_BULK, "indices:data/write/bulk", settings);
+        addActionCompression(actionCompressions, COMPRESSION_SEARCH, "indices:data/read/search", settings);
+        this.actionCompressions = Collections.unmodifiableList(actionCompressions);
         this.networkService = networkService;
         this.transportName = transportName;
 
@@ -201,6 +231,13 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
         this.blockingClient = TCP_BLOCKING_CLIENT.get(settings);
     }
 
+    private static void addActionCompression(List<Tuple<String, TransportCompression>> actionCompressions,
+                                             Setting<TransportCompression> setting, String actionPrefix, Settings settings) {
+        if (setting.exists(settings)) {
+            actionCompressions.add(new Tuple<>(actionPrefix, setting.get(settings)));
+        }
+    }
+
     @Override
     protected void doStart() {
         if (pingSchedule.millis() > 0) {
@@ -870,8 +907,31 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
      */
     protected void stopInternal() {}
 
+    /**
+     * Returns <code>false</code> if the given request must not be compressed, even if its action should be compressed.
+     */
     public boolean canCompress(TransportRequest request) {
-        return compress;
+        return true;
+    }
+
+    /**
+     * Returns the compressor for a message of the given action, or <code>null</code> if it should not be compressed. A message that
+     * disables compression is never compressed, otherwise the compression of the action family applies if it is configured, and the
+     * configured codec is used if either the transport or the message asks for compression.
+     *
+     * @param compress          whether the options of the message ask for compression
+     * @param compressDisabled  whether the options of the message disable compression
+     */
+    Compressor compressor(String action, boolean compress, boolean compressDisabled) {
+        if (compressDisabled) {
+            return null;
+        }
+        for (Tuple<String, TransportCompression> actionCompression : actionCompressions) {
+            if (action.startsWith(actionCompression.v1())) {
+                return actionCompression.v2().compressor();
+            }
+        }
+        return this.compress || compress ? compressionCodec.compressor() : null;
     }
 
     @Override
@@ -880,9 +940,6 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
 
         Channel targetChannel = nodeChannel(node, options);
 
-        if (compress) {
-            options = TransportRequestOptions.builder(options).withCompress(true).build();
-        }
         byte status = 0;
         status = TransportStatus.setRequest(status);
         ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
@@ -890,11 +947,13 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
         try {
             bStream.skip(TcpHeader.HEADER_SIZE);
             StreamOutput stream = bStream;
-            // only compress if asked, and, the request is not bytes, since then only
+            // only compress if configured for the action, and, the request is not bytes, since then only
             // the header part is compressed, and the "body" can't be extracted as compressed
-            if (options.compress() && canCompress(request)) {
+            final Compressor compressor = compressor(action, options.compress(), options.compressDisabled());
+            CountingStreamOutput uncompressedStream = null;
+            if (compressor != null && canCompress(request)) {
                 status = TransportStatus.setCompress(status);
-                stream = CompressorFactory.COMPRESSOR.streamOutput(stream);
+                stream = uncompressedStream = new CountingStreamOutput(compressor.streamOutput(stream));
             }
 
             // we pick the smallest of the 2, to support both backward and forward compatibility
@@ -907,6 +966,9 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
             stream.writeString(action);
 
             Message<Channel> writeable = prepareSend(node.getVersion(), request, stream, bStream);
+            if (uncompressedStream != null) {
+                transportServiceAdapter.sentCompressed(uncompressedStream.count(), bStream.size() - TcpHeader.HEADER_SIZE);
+            }
             try (StreamOutput headerOutput = writeable.getHeaderOutput()) {
                 TcpHeader.writeHeader(headerOutput, requestId, status, version,
                     writeable.size());
@@ -968,10 +1030,6 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
      */
     public void sendResponse(Version nodeVersion, Channel channel, final TransportResponse response, final long requestId,
                              final String action, TransportResponseOptions options) throws IOException {
-        if (compress) {
-            options = TransportResponseOptions.builder(options).withCompress(true).build();
-        }
-
         byte status = 0;
         status = TransportStatus.setResponse(status); // TODO share some code with sendRequest
         ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
@@ -979,12 +1037,17 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
         try {
             bStream.skip(TcpHeader.HEADER_SIZE);
             StreamOutput stream = bStream;
-            if (options.compress()) {
+            final Compressor compressor = compressor(action, options.compress(), options.compressDisabled());
+            CountingStreamOutput uncompressedStream = null;
+            if (compressor != null) {
                 status = TransportStatus.setCompress(status);
-                stream = CompressorFactory.COMPRESSOR.streamOutput(stream);
+                stream = uncompressedStream = new CountingStreamOutput(compressor.streamOutput(stream));
             }
             stream.setVersion(nodeVersion);
             Message<Channel> writeable = prepareSend(nodeVersion, response, stream, bStream);
+            if (uncompressedStream != null) {
+                transportServiceAdapter.sentCompressed(uncompressedStream.count(), bStream.size() - TcpHeader.HEADER_SIZE);
+            }
             try (StreamOutput headerOutput = writeable.getHeaderOutput()) {
                 TcpHeader.writeHeader(headerOutput, requestId, status, nodeVersion,
                     writeable.size());
@@ -1023,6 +1086,49 @@ public abstract class TcpTransport<Channel> extends AbstractLifecycleComponent i
      */
     protected abstract Message<Channel> prepareSend(Version nodeVersion, BytesReference bytesReference) throws IOException;
 
+    /**
+     * Counts the bytes that are written to a compressing stream, to compute the compression ratio of sent messages.
+     */
+    private static final class CountingStreamOutput extends StreamOutput {
+        private final StreamOutput out;
+        private long count;
+
+        CountingStreamOutput(StreamOutput out) {
+            this.out = out;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void writeByte(byte b) throws IOException {
+            out.writeByte(b);
+            count++;
+        }
+
+        @Override
+        public void writeBytes(byte[] b, int offset, int length) throws IOException {
+            out.writeBytes(b, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Allows implementations to transform TransportMessages into implementation specific messages
      */
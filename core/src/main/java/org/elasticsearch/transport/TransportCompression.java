@@ -0,0 +1,62 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.compress.Compressor;
+import org.elasticsearch.common.compress.CompressorFactory;
+
+import java.util.Locale;
+
+/**
+ * The compression that is applied to transport messages.
+ */
+public enum TransportCompression {
+    /** Messages are sent uncompressed */
+    NONE(null),
+    /** Messages are compressed with DEFLATE, which compresses well but costs a lot of CPU */
+    DEFLATE(CompressorFactory.COMPRESSOR),
+    /** Messages are compressed with LZ4, which is much faster than DEFLATE but compresses less */
+    LZ4(CompressorFactory.LZ4_COMPRESSOR);
+
+    private final Compressor compressor;
+
+    TransportCompression(Compressor compressor) {
+        this.compressor = compressor;
+    }
+
+    /**
+     * Returns the compressor for this compression, or <code>null</code> if messages should not be compressed.
+     */
+    public Compressor compressor() {
+        return compressor;
+    }
+
+    public static TransportCompression parse(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "none":
+                return NONE;
+            case "deflate":
+                return DEFLATE;
+            case "lz4":
+                return LZ4;
+            default:
+                throw new IllegalArgumentException("no transport compression support [" + value + "]");
+        }
+    }
+}
@@ -24,10 +24,11 @@ import org.elasticsearch.common.unit.TimeValue;
 public class TransportRequestOptions {
 
     private final TimeValue timeout;
-    private final boolean compress;
+    // null if the request did not ask for or against compression
+    private final Boolean compress;
     private final Type type;
 
-    private TransportRequestOptions(TimeValue timeout, boolean compress, Type type) {
+    private TransportRequestOptions(TimeValue timeout, Boolean compress, Type type) {
         this.timeout = timeout;
         this.compress = compress;
         this.type = type;
@@ -37,8 +38,19 @@ public class TransportRequestOptions {
         return this.timeout;
     }
 
+    /**
+     * Returns <code>true</code> if the request should be compressed.
+     */
     public boolean compress() {
-        return this.compress;
+        return Boolean.TRUE.equals(this.compress);
+    }
+
+    /**
+     * Returns <code>true</code> if the request must not be compressed, regardless of the compression that is configured for the
+     * transport or the action.
+     */
+    public boolean compressDisabled() {
+        return Boolean.FALSE.equals(this.compress);
     }
 
     public Type type() {
@@ -60,15 +72,16 @@ public class TransportRequestOptions {
     }
 
     public static Builder builder(TransportRequestOptions options) {
-        return new Builder()
+        Builder builder = new Builder()
                 .withTimeout(options.timeout)
-                .withCompress(options.compress)
                 .withType(options.type());
+        builder.compress = options.compress;
+        return builder;
     }
 
     public static class Builder {
         private TimeValue timeout;
-        private boolean compress;
+        private Boolean compress;
         private Type type = Type.REG;
 
         private Builder() {
@@ -24,14 +24,26 @@ package org.elasticsearch.transport;
  */
 public class TransportResponseOptions {
 
-    private final boolean compress;
+    // null if the response did not ask for or against compression
+    private final Boolean compress;
 
-    private TransportResponseOptions(boolean compress) {
+    private TransportResponseOptions(Boolean compress) {
         this.compress = compress;
     }
 
+    /**
+     * Returns <code>true</code> if the response should be compressed.
+     */
     public boolean compress() {
-        return this.compress;
+        return Boolean.TRUE.equals(this.compress);
+    }
+
+    /**
+     * Returns <code>true</code> if the response must not be compressed, regardless of the compression that is configured for the
+     * transport or the action.
+     */
+    public boolean compressDisabled() {
+        return Boolean.FALSE.equals(this.compress);
     }
 
     public static final TransportResponseOptions EMPTY = TransportResponseOptions.builder().build();
@@ -41,12 +53,13 @@ public class TransportResponseOptions {
     }
 
     public static Builder builder(TransportResponseOptions options) {
-        return new Builder()
-                .withCompress(options.compress);
+        Builder builder = new Builder();
+        builder.compress = options.compress;
+        return builder;
     }
 
     public static class Builder {
-        private boolean compress;
+        private Boolean compress;
 
         public Builder withCompress(boolean compress) {
             this.compress = compress;
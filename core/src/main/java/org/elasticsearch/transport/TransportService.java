@@ -174,6 +174,8 @@ public class TransportService extends AbstractLifecycleComponent {
     protected void doStart() {
         adapter.rxMetric.clear();
         adapter.txMetric.clear();
+        adapter.txCompressedMetric.clear();
+        adapter.txUncompressedMetric.clear();
         transport.transportServiceAdapter(adapter);
         transport.start();
         if (transport.boundAddress() != null && logger.isInfoEnabled()) {
@@ -241,6 +243,10 @@ public class TransportService extends AbstractLifecycleComponent {
         return transport.addressSupported(address);
     }
 
+    public ThreadPool getThreadPool() {
+        return threadPool;
+    }
+
     public TransportInfo info() {
         BoundTransportAddress boundTransportAddress = boundAddress();
         if (boundTransportAddress == null) {
@@ -251,7 +257,8 @@ public class TransportService extends AbstractLifecycleComponent {
 
     public TransportStats stats() {
         return new TransportStats(
-            transport.serverOpen(), adapter.rxMetric.count(), adapter.rxMetric.sum(), adapter.txMetric.count(), adapter.txMetric.sum());
+            transport.serverOpen(), adapter.rxMetric.count(), adapter.rxMetric.sum(), adapter.txMetric.count(), adapter.txMetric.sum(),
+            adapter.txCompressedMetric.count(), adapter.txUncompressedMetric.sum(), adapter.txCompressedMetric.sum());
     }
 
     public BoundTransportAddress boundAddress() {
@@ -624,6 +631,8 @@ public class TransportService extends AbstractLifecycleComponent {
 
         final MeanMetric rxMetric = new MeanMetric();
         final MeanMetric txMetric = new MeanMetric();
+        final MeanMetric txCompressedMetric = new MeanMetric();
+        final MeanMetric txUncompressedMetric = new MeanMetric();
 
         @Override
         public void received(long size) {
@@ -635,6 +644,12 @@ public class TransportService extends AbstractLifecycleComponent {
             txMetric.inc(size);
         }
 
+        @Override
+        public void sentCompressed(long uncompressedSize, long compressedSize) {
+            txCompressedMetric.inc(compressedSize);
+            txUncompressedMetric.inc(uncompressedSize);
+        }
+
         @Override
         public void onRequestSent(DiscoveryNode node, long requestId, String action, TransportRequest request,
                                   TransportRequestOptions options) {
@@ -30,6 +30,12 @@ public interface TransportServiceAdapter {
 
     void sent(long size);
 
+    /**
+     * called by the {@link Transport} implementation once a compressed message has been serialized, with the size of the message before
+     * and after compression
+     */
+    void sentCompressed(long uncompressedSize, long compressedSize);
+
     /** called by the {@link Transport} implementation once a request has been sent */
     void onRequestSent(DiscoveryNode node, long requestId, String action, TransportRequest request, TransportRequestOptions options);
 
@@ -35,17 +35,24 @@ public class TransportStats implements Streamable, ToXContent {
     private long rxSize;
     private long txCount;
     private long txSize;
+    private long txCompressedCount;
+    private long txCompressedUncompressedSize;
+    private long txCompressedSize;
 
     TransportStats() {
 
     }
 
-    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize) {
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize,
+                          long txCompressedCount, long txCompressedUncompressedSize, long txCompressedSize) {
         this.serverOpen = serverOpen;
         this.rxCount = rxCount;
         this.rxSize = rxSize;
         this.txCount = txCount;
         this.txSize = txSize;
+        this.txCompressedCount = txCompressedCount;
+        this.txCompressedUncompressedSize = txCompressedUncompressedSize;
+        this.txCompressedSize = txCompressedSize;
     }
 
     public long serverOpen() {
@@ -88,6 +95,38 @@ public class TransportStats implements Streamable, ToXContent {
         return txSize();
     }
 
+    /**
+     * The number of sent messages that were compressed.
+     */
+    public long getTxCompressedCount() {
+        return txCompressedCount;
+    }
+
+    /**
+     * The size of the sent messages that were compressed, before compression.
+     */
+    public ByteSizeValue getTxCompressedUncompressedSize() {
+        return new ByteSizeValue(txCompressedUncompressedSize);
+    }
+
+    /**
+     * The size of the sent messages that were compressed, after compression.
+     */
+    public ByteSizeValue getTxCompressedSize() {
+        return new ByteSizeValue(txCompressedSize);
+    }
+
+    /**
+     * The ratio of the size of compressed messages after compression to their size before compression, or <code>1</code> if no
+     * message was compressed.
+     */
+    public double getTxCompressionRatio() {
+        if (txCompressedUncompressedSize == 0) {
+            return 1;
+        }
+        return (double) txCompressedSize / txCompressedUncompressedSize;
+    }
+
     public static TransportStats readTransportStats(StreamInput in) throws IOException {
         TransportStats stats = new TransportStats();
         stats.readFrom(in);
@@ -101,6 +140,9 @@ public class TransportStats implements Streamable, ToXContent {
         rxSize = in.readVLong();
         txCount = in.readVLong();
         txSize = in.readVLong();
+        txCompressedCount = in.readVLong();
+        txCompressedUncompressedSize = in.readVLong();
+        txCompressedSize = in.readVLong();
     }
 
     @Override
@@ -110,6 +152,9 @@ public class TransportStats implements Streamable, ToXContent {
         out.writeVLong(rxSize);
         out.writeVLong(txCount);
         out.writeVLong(txSize);
+        out.writeVLong(txCompressedCount);
+        out.writeVLong(txCompressedUncompressedSize);
+        out.writeVLong(txCompressedSize);
     }
 
     @Override
@@ -120,6 +165,12 @@ public class TransportStats implements Streamable, ToXContent {
         builder.byteSizeField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, rxSize);
         builder.field(Fields.TX_COUNT, txCount);
         builder.byteSizeField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, txSize);
+        builder.startObject(Fields.TX_COMPRESSION);
+        builder.field(Fields.COUNT, txCompressedCount);
+        builder.byteSizeField(Fields.UNCOMPRESSED_SIZE_IN_BYTES, Fields.UNCOMPRESSED_SIZE, txCompressedUncompressedSize);
+        builder.byteSizeField(Fields.COMPRESSED_SIZE_IN_BYTES, Fields.COMPRESSED_SIZE, txCompressedSize);
+        builder.field(Fields.RATIO, getTxCompressionRatio());
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -133,5 +184,12 @@ public class TransportStats implements Streamable, ToXContent {
         static final String TX_COUNT = "tx_count";
         static final String TX_SIZE = "tx_size";
         static final String TX_SIZE_IN_BYTES = "tx_size_in_bytes";
+        static final String TX_COMPRESSION = "tx_compression";
+        static final String COUNT = "count";
+        static final String UNCOMPRESSED_SIZE = "uncompressed_size";
+        static final String UNCOMPRESSED_SIZE_IN_BYTES = "uncompressed_size_in_bytes";
+        static final String COMPRESSED_SIZE = "compressed_size";
+        static final String COMPRESSED_SIZE_IN_BYTES = "compressed_size_in_bytes";
+        static final String RATIO = "ratio";
     }
 }
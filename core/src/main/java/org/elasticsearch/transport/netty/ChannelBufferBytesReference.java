@@ -19,12 +19,14 @@
 package org.elasticsearch.transport.netty;
 
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.jboss.netty.buffer.ChannelBuffer;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 final class ChannelBufferBytesReference extends BytesReference {
@@ -50,6 +52,13 @@ final class ChannelBufferBytesReference extends BytesReference {
         return length;
     }
 
+    @Override
+    public int indexOf(byte marker, int from) {
+        // the buffer knows how to search its components, which is much cheaper than reading it byte by byte
+        final int index = buffer.indexOf(offset + from, offset + length, marker);
+        return index == -1 ? -1 : index - offset;
+    }
+
     @Override
     public BytesReference slice(int from, int length) {
         return new ChannelBufferBytesReference(buffer.slice(offset + from, length), length);
@@ -84,6 +93,35 @@ final class ChannelBufferBytesReference extends BytesReference {
         return new BytesRef(copy);
     }
 
+    @Override
+    public BytesRefIterator iterator() {
+        if (buffer.hasArray()) {
+            return super.iterator();
+        }
+        // composite buffers, for instance aggregated http chunks, don't have a single backing array. Rather than copying them into
+        // one array we iterate over their heap components, falling back to the copy if any of them isn't backed by an array.
+        final ByteBuffer[] components = buffer.toByteBuffers(offset, length);
+        for (ByteBuffer component : components) {
+            if (component.hasArray() == false) {
+                return super.iterator();
+            }
+        }
+        return new BytesRefIterator() {
+            int index = 0;
+
+            @Override
+            public BytesRef next() throws IOException {
+                while (index < components.length) {
+                    ByteBuffer component = components[index++];
+                    if (component.hasRemaining()) {
+                        return new BytesRef(component.array(), component.arrayOffset() + component.position(), component.remaining());
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
     @Override
     public long ramBytesUsed() {
         return buffer.capacity();
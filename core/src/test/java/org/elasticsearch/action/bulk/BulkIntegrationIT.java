@@ -21,11 +21,17 @@
 package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.test.ESIntegTestCase;
 
 import java.nio.charset.StandardCharsets;
 
 import static org.elasticsearch.test.StreamsUtils.copyToStringFromClasspath;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.equalTo;
 
 public class BulkIntegrationIT extends ESIntegTestCase {
     public void testBulkIndexCreatesMapping() throws Exception {
@@ -42,4 +48,57 @@ public class BulkIntegrationIT extends ESIntegTestCase {
             }
         });
     }
+
+    public void testParallelParsingKeepsItemOrder() throws Exception {
+        assertAcked(prepareCreate("test").setSettings(Settings.builder().put("index.number_of_shards", 1)));
+        assertAcked(client().admin().cluster().prepareUpdateSettings().setTransientSettings(Settings.builder()
+                .put(TransportShardBulkAction.PARSING_THREADS_SETTING.getKey(), between(2, 8))));
+        try {
+            int numDocs = between(5, 20);
+            int numUpdates = between(2, 10);
+            BulkRequestBuilder bulk = client().prepareBulk();
+            for (int i = 0; i < numDocs * numUpdates; i++) {
+                bulk.add(client().prepareIndex("test", "type", Integer.toString(i % numDocs)).setSource("value", i));
+            }
+            // the second create of the same id conflicts, regardless of which of the two got parsed first
+            bulk.add(client().prepareIndex("test", "type", "create").setCreate(true).setSource("name", "first"));
+            bulk.add(client().prepareIndex("test", "type", "create").setCreate(true).setSource("name", "second"));
+            // external versions are checked against the previous item with the same id
+            bulk.add(client().prepareIndex("test", "type", "external").setVersion(5).setVersionType(VersionType.EXTERNAL)
+                    .setSource("name", "five"));
+            bulk.add(client().prepareIndex("test", "type", "external").setVersion(3).setVersionType(VersionType.EXTERNAL)
+                    .setSource("name", "three"));
+            // the mapping introduced by one item applies to the items after it
+            bulk.add(client().prepareIndex("test", "type", "long").setSource("dynamic", 1));
+            bulk.add(client().prepareIndex("test", "type", "text").setSource("dynamic", "not a number"));
+            BulkResponse response = bulk.get();
+
+            BulkItemResponse[] items = response.getItems();
+            assertThat(items.length, equalTo(numDocs * numUpdates + 6));
+            for (int i = 0; i < numDocs * numUpdates; i++) {
+                assertFalse(items[i].getFailureMessage(), items[i].isFailed());
+                assertThat(items[i].getVersion(), equalTo((long) (i / numDocs + 1)));
+            }
+            int offset = numDocs * numUpdates;
+            assertFalse(items[offset].getFailureMessage(), items[offset].isFailed());
+            assertTrue(items[offset + 1].isFailed());
+            assertThat(items[offset + 1].getFailure().getStatus(), equalTo(RestStatus.CONFLICT));
+            assertFalse(items[offset + 2].getFailureMessage(), items[offset + 2].isFailed());
+            assertTrue(items[offset + 3].isFailed());
+            assertThat(items[offset + 3].getFailure().getStatus(), equalTo(RestStatus.CONFLICT));
+            assertFalse(items[offset + 4].getFailureMessage(), items[offset + 4].isFailed());
+            assertTrue(items[offset + 5].isFailed());
+
+            for (int id = 0; id < numDocs; id++) {
+                GetResponse get = client().prepareGet("test", "type", Integer.toString(id)).get();
+                assertThat(get.getVersion(), equalTo((long) numUpdates));
+                assertThat(get.getSource().get("value"), equalTo((numUpdates - 1) * numDocs + id));
+            }
+            assertThat(client().prepareGet("test", "type", "create").get().getSource().get("name"), equalTo("first"));
+            assertThat(client().prepareGet("test", "type", "external").get().getSource().get("name"), equalTo("five"));
+        } finally {
+            assertAcked(client().admin().cluster().prepareUpdateSettings().setTransientSettings(Settings.builder()
+                    .putNull(TransportShardBulkAction.PARSING_THREADS_SETTING.getKey())));
+        }
+    }
 }
@@ -403,6 +403,43 @@ public class ClusterServiceTests extends ESTestCase {
         latch.await();
     }
 
+    public void testClusterStateTaskStats() throws Exception {
+        final int numOfBatches = randomIntBetween(1, 5);
+        final ClusterStateTaskExecutor<Object> executor = (currentState, tasks) ->
+            ClusterStateTaskExecutor.BatchResult.builder().successes(tasks).build(ClusterState.builder(currentState).build());
+        for (int i = 0; i < numOfBatches; i++) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            clusterService.submitStateUpdateTask("test", new Object(), ClusterStateTaskConfig.build(Priority.NORMAL), executor,
+                new ClusterStateTaskListener() {
+                    @Override
+                    public void clusterStateProcessed(String source, ClusterState oldState, ClusterState newState) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(String source, Throwable t) {
+                        fail(ExceptionsHelper.detailedMessage(t));
+                    }
+                });
+            latch.await();
+        }
+
+        assertBusy(() -> {
+            // lambdas are reported under the class that defines them
+            assertEquals(ClusterServiceTests.class.getName(), executor.statsName());
+            ClusterStateTaskStats.ExecutorStats stats = clusterService.stats().getStatsPerExecutor().get(executor.statsName());
+            assertNotNull(stats);
+            assertThat(stats.getCompute().getCount(), equalTo((long) numOfBatches));
+            assertThat(stats.getPublish().getCount(), equalTo((long) numOfBatches));
+            assertThat(stats.getApply().getCount(), equalTo((long) numOfBatches));
+            long histogramCount = 0;
+            for (long count : stats.getApply().getHistogram()) {
+                histogramCount += count;
+            }
+            assertThat(histogramCount, equalTo((long) numOfBatches));
+        });
+    }
+
     public void testClusterStateBatchedUpdates() throws BrokenBarrierException, InterruptedException {
         AtomicInteger counter = new AtomicInteger();
         class Task {
@@ -343,6 +343,38 @@ public abstract class AbstractBytesReferenceTestCase extends ESTestCase {
         assertArrayEquals(BytesReference.toBytes(slice), BytesRef.deepCopyOf(builder.toBytesRef()).bytes);
     }
 
+    public void testIndexOf() throws IOException {
+        int length = randomIntBetween(1, PAGE_SIZE * randomIntBetween(2, 5));
+        BytesReference pbr = newBytesReference(length);
+        if (randomBoolean()) {
+            int sliceOffset = randomIntBetween(0, pbr.length());
+            int sliceLength = randomIntBetween(0, pbr.length() - sliceOffset);
+            pbr = pbr.slice(sliceOffset, sliceLength);
+        }
+        byte marker = (byte) randomIntBetween(Byte.MIN_VALUE, Byte.MAX_VALUE);
+        int from = randomIntBetween(0, pbr.length());
+        int expected = -1;
+        for (int i = from; i < pbr.length(); i++) {
+            if (pbr.get(i) == marker) {
+                expected = i;
+                break;
+            }
+        }
+        assertEquals(expected, pbr.indexOf(marker, from));
+        // walk all occurrences of a marker that is present the way the bulk parsing does
+        if (pbr.length() > 0) {
+            marker = pbr.get(randomIntBetween(0, pbr.length() - 1));
+            int index = -1;
+            for (int i = 0; i < pbr.length(); i++) {
+                if (pbr.get(i) == marker) {
+                    index = pbr.indexOf(marker, index + 1);
+                    assertEquals(i, index);
+                }
+            }
+            assertEquals(-1, pbr.indexOf(marker, index + 1));
+        }
+    }
+
     public void testIteratorRandom() throws IOException {
         int length = randomIntBetween(10, PAGE_SIZE * randomIntBetween(2, 8));
         BytesReference pbr = newBytesReference(length);
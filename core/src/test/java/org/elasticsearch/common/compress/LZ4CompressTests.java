@@ -0,0 +1,52 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.compress;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Test streaming compression with LZ4 (e.g. used for transport messages)
+ */
+public class LZ4CompressTests extends DeflateCompressTests {
+
+    @Override
+    protected Compressor newCompressor() {
+        return new LZ4Compressor();
+    }
+
+    public void testCompressorFactoryDetectsLZ4() throws IOException {
+        BytesStreamOutput bytes = new BytesStreamOutput();
+        byte[] data = randomUnicodeOfLengthBetween(0, 10000).getBytes(StandardCharsets.UTF_8);
+        try (StreamOutput out = CompressorFactory.LZ4_COMPRESSOR.streamOutput(bytes)) {
+            out.writeBytes(data);
+        }
+        BytesReference compressed = bytes.bytes();
+        assertThat(CompressorFactory.compressor(compressed), sameInstance(CompressorFactory.LZ4_COMPRESSOR));
+        assertEquals(new BytesArray(data), CompressorFactory.uncompress(compressed));
+    }
+}
@@ -37,7 +37,11 @@ import java.util.Arrays;
 public class BigArraysTests extends ESSingleNodeTestCase {
 
     private BigArrays randombigArrays() {
-        return new MockBigArrays(Settings.EMPTY, new NoneCircuitBreakerService());
+        final Settings settings = Settings.builder()
+            .put(BigArrays.SEARCH_STORAGE_SETTING.getKey(), randomFrom(BigArrays.Storage.values()).name())
+            .build();
+        final BigArrays bigArrays = new MockBigArrays(settings, new NoneCircuitBreakerService());
+        return randomBoolean() ? bigArrays : bigArrays.withCircuitBreaking();
     }
 
     private BigArrays bigArrays;
@@ -329,6 +333,41 @@ public class BigArraysTests extends ESSingleNodeTestCase {
         return bytearray;
     }
 
+    public void testSearchStorage() {
+        final BigArrays bigArrays = new BigArrays(null, new NoneCircuitBreakerService(), false, BigArrays.Storage.DIRECT);
+        final long size = randomIntBetween(BigArrays.LONG_PAGE_SIZE / 2, 3 * BigArrays.LONG_PAGE_SIZE);
+        try (LongArray heapArray = bigArrays.newLongArray(size);
+             LongArray directArray = bigArrays.withCircuitBreaking().newLongArray(size)) {
+            // only the arrays of search requests are stored off-heap
+            assertFalse(heapArray instanceof AbstractDirectBigArray);
+            assertTrue(directArray instanceof AbstractDirectBigArray);
+            // off-heap memory is accounted like heap memory
+            assertTrue(directArray.ramBytesUsed() >= size * Long.BYTES);
+        }
+    }
+
+    public void testDirectByteArrayBulkGetReusesRef() {
+        final BigArrays bigArrays = new BigArrays(null, new NoneCircuitBreakerService(), false, BigArrays.Storage.DIRECT)
+            .withCircuitBreaking();
+        final byte[] array1 = new byte[randomIntBetween(BigArrays.BYTE_PAGE_SIZE / 2, 3 * BigArrays.BYTE_PAGE_SIZE)];
+        random().nextBytes(array1);
+        try (ByteArray array2 = bigArrays.newByteArray(array1.length, false)) {
+            assertTrue(array2 instanceof AbstractDirectBigArray);
+            array2.set(0, array1, 0, array1.length);
+            final BytesRef ref = new BytesRef();
+            assertTrue(array2.get(0, array1.length, ref));
+            assertEquals(new BytesRef(array1), ref);
+            final byte[] bytes = ref.bytes;
+            for (int i = 0; i < 100; ++i) {
+                final int offset = randomInt(array1.length - 1);
+                final int len = randomInt(array1.length - offset);
+                assertTrue(array2.get(offset, len, ref));
+                assertEquals(new BytesRef(array1, offset, len), ref);
+                assertSame("the bytes of the ref are large enough and should be reused", bytes, ref.bytes);
+            }
+        }
+    }
+
     public void testMaxSizeExceededOnNew() throws Exception {
         final int size = scaledRandomIntBetween(5, 1 << 22);
         for (String type : Arrays.asList("Byte", "Int", "Long", "Float", "Double", "Object")) {
@@ -337,7 +376,7 @@ public class BigArraysTests extends ESSingleNodeTestCase {
                             .put(HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), size - 1, ByteSizeUnit.BYTES)
                             .build(),
                     new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
-            BigArrays bigArrays = new BigArrays(null, hcbs, false).withCircuitBreaking();
+            BigArrays bigArrays = new BigArrays(null, hcbs, false, randomFrom(BigArrays.Storage.values())).withCircuitBreaking();
             Method create = BigArrays.class.getMethod("new" + type + "Array", long.class);
             try {
                 create.invoke(bigArrays, size);
@@ -357,7 +396,7 @@ public class BigArraysTests extends ESSingleNodeTestCase {
                             .put(HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), maxSize, ByteSizeUnit.BYTES)
                             .build(),
                     new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
-            BigArrays bigArrays = new BigArrays(null, hcbs, false).withCircuitBreaking();
+            BigArrays bigArrays = new BigArrays(null, hcbs, false, randomFrom(BigArrays.Storage.values())).withCircuitBreaking();
             Method create = BigArrays.class.getMethod("new" + type + "Array", long.class);
             final int size = scaledRandomIntBetween(1, 20);
             BigArray array = (BigArray) create.invoke(bigArrays, size);
@@ -70,6 +70,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -484,6 +485,73 @@ public class PublishClusterStateActionTests extends ESTestCase {
     }
 
 
+    public void testConcurrentSerializationOfFullStateAndDiff() throws Exception {
+        MockNode nodeA = createMockNode("nodeA", Settings.EMPTY, event -> fail("Shouldn't send cluster state to myself")).setAsMaster();
+        MockNode nodeB = createMockNode("nodeB", Settings.EMPTY);
+        MockNode nodeC = createMockNode("nodeC", Settings.EMPTY);
+
+        // Initial cluster state without nodeC
+        DiscoveryNodes discoveryNodes = DiscoveryNodes.builder(nodeA.nodes()).put(nodeB.discoveryNode).build();
+        ClusterState previousClusterState = ClusterState.builder(CLUSTER_NAME).nodes(discoveryNodes).build();
+        ClusterState clusterState = ClusterState.builder(previousClusterState).incrementVersion().build();
+        publishStateAndWait(nodeA.action, clusterState, previousClusterState);
+        assertSameStateFromFull(nodeB.clusterState, clusterState);
+
+        // nodeC joins and needs the full state while nodeB gets a diff, so both are serialized on the generic thread pool
+        previousClusterState = clusterState;
+        clusterState = ClusterState.builder(clusterState)
+            .nodes(DiscoveryNodes.builder(clusterState.nodes()).put(nodeC.discoveryNode))
+            .blocks(ClusterBlocks.builder().addGlobalBlock(MetaData.CLUSTER_READ_ONLY_BLOCK))
+            .incrementVersion().build();
+        final AtomicInteger diffs = new AtomicInteger();
+        ClusterState countingClusterState = new ClusterState(clusterState.version(), clusterState.stateUUID(), clusterState) {
+            @Override
+            public Diff<ClusterState> diff(ClusterState previousState) {
+                diffs.incrementAndGet();
+                return super.diff(previousState);
+            }
+        };
+        publishStateAndWait(nodeA.action, countingClusterState, previousClusterState);
+        assertThat("the diff should only be computed once", diffs.get(), equalTo(1));
+        assertSameStateFromDiff(nodeB.clusterState, clusterState);
+        assertSameStateFromFull(nodeC.clusterState, clusterState);
+
+        // a serialization failure on one of the threads fails the publishing
+        previousClusterState = clusterState;
+        clusterState = ClusterState.builder(clusterState)
+            .nodes(DiscoveryNodes.builder(clusterState.nodes()).remove(nodeC.discoveryNode.getId()))
+            .incrementVersion().build();
+        final ClusterState nextClusterState = ClusterState.builder(clusterState)
+            .nodes(DiscoveryNodes.builder(clusterState.nodes()).put(nodeC.discoveryNode))
+            .incrementVersion().build();
+        publishStateAndWait(nodeA.action, clusterState, previousClusterState);
+        ClusterState unserializableClusterState = new ClusterState(nextClusterState.version(), nextClusterState.stateUUID(),
+            nextClusterState) {
+            @Override
+            public Diff<ClusterState> diff(ClusterState previousState) {
+                return new Diff<ClusterState>() {
+                    @Override
+                    public ClusterState apply(ClusterState part) {
+                        fail("this diff shouldn't be applied");
+                        return part;
+                    }
+
+                    @Override
+                    public void writeTo(StreamOutput out) throws IOException {
+                        throw new IOException("Simulated failure of diff serialization");
+                    }
+                };
+            }
+        };
+        try {
+            publishStateAndWait(nodeA.action, unserializableClusterState, clusterState);
+            fail("cluster state published despite of diff errors");
+        } catch (Discovery.FailedToCommitClusterStateException e) {
+            assertThat(e.getCause(), notNullValue());
+            assertThat(e.getCause().getMessage(), containsString("failed to serialize"));
+        }
+    }
+
     public void testFailToPublishWithLessThanMinMasterNodes() throws Exception {
         final int masterNodes = randomIntBetween(1, 10);
 
@@ -490,6 +490,56 @@ public class RecoveryFromGatewayIT extends ESIntegTestCase {
         }
     }
 
+    public void testOperationBasedPeerRecovery() throws Exception {
+        internalCluster().startNodesAsync(2).get();
+        assertAcked(prepareCreate("test").setSettings(Settings.builder()
+            .put(indexSettings())
+            .put(SETTING_NUMBER_OF_SHARDS, 1)
+            .put(SETTING_NUMBER_OF_REPLICAS, 1)));
+        ensureGreen();
+        final int numDocs = randomIntBetween(10, 100);
+        for (int i = 0; i < numDocs; i++) {
+            client().prepareIndex("test", "type").setSource("field", "value").get();
+        }
+        assertEquals(client().admin().indices().prepareSyncedFlush("test").get().failedShards(), 0);
+        assertSyncIdsNotNull();
+
+        final ClusterState state = client().admin().cluster().prepareState().get().getState();
+        final String primaryNode = state.nodes().get(state.routingTable().index("test").shard(0).primaryShard().currentNodeId())
+            .getName();
+        final String replicaNode = state.nodes().get(state.routingTable().index("test").shard(0).replicaShards().get(0).currentNodeId())
+            .getName();
+        final int moreDocs = randomIntBetween(1, 100);
+        logger.info("--> restarting [{}] while indexing [{}] docs", replicaNode, moreDocs);
+        internalCluster().restartNode(replicaNode, new RestartCallback() {
+            @Override
+            public Settings onNodeStopped(String nodeName) throws Exception {
+                final Client client = client(primaryNode);
+                for (int i = 0; i < moreDocs; i++) {
+                    client.prepareIndex("test", "type").setSource("field", "value").get();
+                }
+                // the commit on the primary doesn't have the sync id of the replica anymore
+                client.admin().indices().prepareFlush("test").setForce(true).setWaitIfOngoing(true).get();
+                if (randomBoolean()) {
+                    client.admin().indices().prepareSyncedFlush("test").get();
+                }
+                return super.onNodeStopped(nodeName);
+            }
+        });
+        ensureGreen();
+        refresh();
+        assertHitCount(client().prepareSearch("test").setSize(0).get(), numDocs + moreDocs);
+
+        RecoveryResponse recoveryResponse = client().admin().indices().prepareRecoveries("test").get();
+        for (RecoveryState recoveryState : recoveryResponse.shardRecoveryStates().get("test")) {
+            if (recoveryState.getPrimary() == false) {
+                assertThat("no files should be recovered", recoveryState.getIndex().recoveredFileCount(), equalTo(0));
+                assertThat("operations since the synced flush should be replayed", recoveryState.getTranslog().recoveredOperations(),
+                    equalTo(moreDocs));
+            }
+        }
+    }
+
     public void assertSyncIdsNotNull() {
         IndexStats indexStats = client().admin().indices().prepareStats("test").get().getIndex("test");
         for (ShardStats shardStats : indexStats.getShards()) {
@@ -0,0 +1,139 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+public class CompactVersionMapTests extends ESTestCase {
+
+    public void testEmpty() {
+        CompactVersionMap map = new CompactVersionMap();
+        assertNull(map.get(new BytesRef(randomAsciiOfLength(10))));
+        assertEquals(0, map.size());
+        assertEquals(0, map.ramBytesUsed());
+    }
+
+    public void testRandomPutAndGet() {
+        CompactVersionMap map = new CompactVersionMap();
+        Map<BytesRef, VersionValue> expected = new HashMap<>();
+        final int numOps = scaledRandomIntBetween(10, 10000);
+        for (int i = 0; i < numOps; i++) {
+            BytesRef uid = new BytesRef(randomUnicodeOfLengthBetween(0, 20));
+            VersionValue value = randomVersionValue();
+            map.put(uid, value);
+            expected.put(uid, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<BytesRef, VersionValue> entry : expected.entrySet()) {
+            // look up with a copy that has an offset to make sure only the bytes of the uid are compared
+            BytesRef uid = entry.getKey();
+            byte[] bytes = new byte[uid.length + 2];
+            System.arraycopy(uid.bytes, uid.offset, bytes, 1, uid.length);
+            assertVersionValue(entry.getValue(), map.get(new BytesRef(bytes, 1, uid.length)));
+        }
+        for (int i = 0; i < 100; i++) {
+            BytesRef uid = new BytesRef(randomUnicodeOfLengthBetween(0, 30));
+            if (expected.containsKey(uid) == false) {
+                assertNull(map.get(uid));
+            }
+        }
+    }
+
+    public void testRamBytesUsed() {
+        CompactVersionMap map = new CompactVersionMap();
+        long totalUidBytes = 0;
+        final int numDocs = scaledRandomIntBetween(1, 10000);
+        for (int i = 0; i < numDocs; i++) {
+            BytesRef uid = new BytesRef(Integer.toString(i));
+            totalUidBytes += uid.length;
+            final long before = map.ramBytesUsed();
+            map.put(uid, randomVersionValue());
+            assertTrue(map.ramBytesUsed() >= before);
+            // replacing an entry does not allocate
+            final long afterFirstPut = map.ramBytesUsed();
+            map.put(uid, randomVersionValue());
+            assertEquals(afterFirstPut, map.ramBytesUsed());
+        }
+        final long lowerBound = totalUidBytes + numDocs * (Integer.BYTES * 3L + Long.BYTES * 5L);
+        assertTrue(map.ramBytesUsed() >= lowerBound);
+        // much less than the objects a map of BytesRef to VersionValue would need
+        final long perEntryWithObjects = RamUsageEstimator.NUM_BYTES_OBJECT_HEADER * 3 + 4 * RamUsageEstimator.NUM_BYTES_OBJECT_REF
+            + RamUsageEstimator.shallowSizeOfInstance(Translog.Location.class) + RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+        assertTrue(map.ramBytesUsed() < 16 * 1024 + numDocs * perEntryWithObjects + totalUidBytes * 2);
+    }
+
+    public void testConcurrentPuts() throws InterruptedException {
+        CompactVersionMap map = new CompactVersionMap();
+        Thread[] threads = new Thread[randomIntBetween(2, 8)];
+        final int docsPerThread = scaledRandomIntBetween(100, 5000);
+        CountDownLatch latch = new CountDownLatch(threads.length);
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                latch.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int i = 0; i < docsPerThread; i++) {
+                    BytesRef uid = new BytesRef(thread + "_" + i);
+                    map.put(uid, new VersionValue(i, null));
+                    assertEquals(i, map.get(uid).version());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * docsPerThread, map.size());
+        for (int t = 0; t < threads.length; t++) {
+            for (int i = 0; i < docsPerThread; i++) {
+                assertEquals(i, map.get(new BytesRef(t + "_" + i)).version());
+            }
+        }
+    }
+
+    private static VersionValue randomVersionValue() {
+        final long version = randomIntBetween(1, Integer.MAX_VALUE);
+        final Translog.Location location = randomBoolean() ? null
+            : new Translog.Location(randomIntBetween(0, 100), randomIntBetween(0, Integer.MAX_VALUE), randomIntBetween(1, 1024));
+        return randomBoolean() ? new VersionValue(version, location) : new DeleteVersionValue(version, randomIntBetween(0, Integer.MAX_VALUE), location);
+    }
+
+    private static void assertVersionValue(VersionValue expected, VersionValue actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.version(), actual.version());
+        assertEquals(expected.delete(), actual.delete());
+        if (expected.delete()) {
+            assertEquals(expected.time(), actual.time());
+        }
+        assertEquals(expected.translogLocation(), actual.translogLocation());
+    }
+}
@@ -925,6 +925,63 @@ public class InternalEngineTests extends ESTestCase {
         }
     }
 
+    public void testSyncedFlushRetainsTranslog() throws IOException {
+        try (Store store = createStore();
+            Engine engine = new InternalEngine(config(defaultSettings, store, createTempDir(),
+                     new LogByteSizeMergePolicy()))) {
+            final String syncId = randomUnicodeOfCodepointLengthBetween(10, 20);
+            ParsedDocument doc = testParsedDocument("1", "1", "test", null, -1, -1, testDocumentWithTextField(), B_1, null);
+            engine.index(new Engine.Index(newUid("1"), doc));
+            Engine.CommitId commitID = engine.flush();
+            assertNull("translog must only be retained for synced commits", engine.acquireTranslogViewForSyncId(syncId));
+            assertEquals(-1, engine.getRetainedSyncedCommitNumDocs(syncId));
+            assertEquals(Engine.SyncedFlushResult.SUCCESS, engine.syncFlush(syncId, commitID));
+            final int numDocs = randomIntBetween(1, 10);
+            for (int i = 0; i < numDocs; i++) {
+                final String id = Integer.toString(i + 2);
+                doc = testParsedDocument(id, id, "test", null, -1, -1, testDocumentWithTextField(), B_1, null);
+                engine.index(new Engine.Index(newUid(id), doc));
+            }
+            engine.flush();
+            assertEquals(0, engine.getTranslog().totalOperations());
+            assertNull(engine.acquireTranslogViewForSyncId(syncId + "1"));
+            try (Translog.View view = engine.acquireTranslogViewForSyncId(syncId)) {
+                assertNotNull("translog must be retained since the synced commit", view);
+                assertEquals(numDocs, view.totalOperations());
+            }
+            assertEquals("the synced commit only has the first document", 1, engine.getRetainedSyncedCommitNumDocs(syncId));
+        }
+    }
+
+    public void testRetainedTranslogIsReleasedOnceTooLarge() throws IOException {
+        IndexSettings indexSettings = IndexSettingsModule.newIndexSettings("test", Settings.builder()
+                .put(defaultSettings.getSettings())
+                .put(IndexSettings.INDEX_TRANSLOG_RETENTION_SIZE_SETTING.getKey(), "1kb")
+                .build());
+        try (Store store = createStore();
+            Engine engine = new InternalEngine(config(indexSettings, store, createTempDir(),
+                     new LogByteSizeMergePolicy()))) {
+            final String syncId = randomUnicodeOfCodepointLengthBetween(10, 20);
+            ParsedDocument doc = testParsedDocument("1", "1", "test", null, -1, -1, testDocumentWithTextField(), B_1, null);
+            engine.index(new Engine.Index(newUid("1"), doc));
+            assertEquals(Engine.SyncedFlushResult.SUCCESS, engine.syncFlush(syncId, engine.flush()));
+            doc = testParsedDocument("2", "2", "test", null, -1, -1, testDocumentWithTextField(), B_1, null);
+            engine.index(new Engine.Index(newUid("2"), doc));
+            engine.flush();
+            try (Translog.View view = engine.acquireTranslogViewForSyncId(syncId)) {
+                assertNotNull("translog is still within its retention size", view);
+                assertEquals(1, view.totalOperations());
+            }
+            while (engine.getTranslog().sizeInBytes() <= indexSettings.getTranslogRetentionSize().bytes()) {
+                final String id = randomAsciiOfLength(10);
+                doc = testParsedDocument(id, id, "test", null, -1, -1, testDocumentWithTextField(), B_1, null);
+                engine.index(new Engine.Index(newUid(id), doc));
+            }
+            engine.flush();
+            assertNull("translog must be released once it exceeds its retention size", engine.acquireTranslogViewForSyncId(syncId));
+        }
+    }
+
     public void testRenewSyncFlush() throws Exception {
         final int iters = randomIntBetween(2, 5); // run this a couple of times to get some coverage
         for (int i = 0; i < iters; i++) {
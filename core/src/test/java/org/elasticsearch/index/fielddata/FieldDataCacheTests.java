@@ -35,6 +35,7 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.ordinals.PreviousOrdinalMaps;
 import org.elasticsearch.index.fielddata.plain.PagedBytesIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.SortedSetDVOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.core.TextFieldMapper;
@@ -110,6 +111,7 @@ public class FieldDataCacheTests extends ESTestCase {
     private class DummyAccountingFieldDataCache implements IndexFieldDataCache {
 
         private int cachedGlobally = 0;
+        private final PreviousOrdinalMaps previousOrdinalMaps = new PreviousOrdinalMaps();
 
         @Override
         public <FD extends AtomicFieldData, IFD extends IndexFieldData<FD>> FD load(LeafReaderContext context, IFD indexFieldData) throws Exception {
@@ -129,6 +131,11 @@ public class FieldDataCacheTests extends ESTestCase {
         @Override
         public void clear(String fieldName) {
         }
+
+        @Override
+        public PreviousOrdinalMaps previousOrdinalMaps() {
+            return previousOrdinalMaps;
+        }
     }
 
 }
@@ -20,16 +20,28 @@
 package org.elasticsearch.index.fielddata;
 
 import org.elasticsearch.action.admin.cluster.stats.ClusterStatsResponse;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.MergePolicyConfig;
+import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.test.ESIntegTestCase;
+import org.elasticsearch.test.InternalSettingsPlugin;
+
+import java.util.Collection;
 
 import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 
 /**
  */
 public class FieldDataLoadingIT extends ESIntegTestCase {
 
+    @Override
+    protected Collection<Class<? extends Plugin>> nodePlugins() {
+        return pluginList(InternalSettingsPlugin.class); // uses index.merge.enabled
+    }
+
     public void testEagerGlobalOrdinalsFieldDataLoading() throws Exception {
         assertAcked(prepareCreate("test")
                 .addMapping("type", jsonBuilder().startObject().startObject("type").startObject("properties")
@@ -48,4 +60,37 @@ public class FieldDataLoadingIT extends ESIntegTestCase {
         assertThat(response.getIndicesStats().getFieldData().getMemorySizeInBytes(), greaterThan(0L));
     }
 
+    public void testIncrementalGlobalOrdinalsStats() throws Exception {
+        assertAcked(prepareCreate("test")
+                .setSettings(Settings.builder()
+                        .put("index.number_of_shards", 1)
+                        .put("index.number_of_replicas", 0)
+                        // global ordinals can only be extended while the segments they were built for are still there
+                        .put(MergePolicyConfig.INDEX_MERGE_ENABLED, false))
+                .addMapping("type", jsonBuilder().startObject().startObject("type").startObject("properties")
+                        .startObject("name")
+                        .field("type", "keyword")
+                        .field("eager_global_ordinals", true)
+                        .endObject()
+                        .endObject().endObject().endObject()));
+        ensureGreen();
+
+        // global ordinals are only built for readers with more than one segment
+        for (int segment = 0; segment < 2; segment++) {
+            for (int i = 0; i < 50; i++) {
+                client().prepareIndex("test", "type").setSource("name", "name-" + segment + "-" + i).get();
+            }
+            client().admin().indices().prepareRefresh("test").get();
+        }
+        FieldDataStats before = client().admin().indices().prepareStats("test").setFieldData(true).get().getTotal().getFieldData();
+        assertThat(before.getGlobalOrdinalsBuilds(), greaterThan(0L));
+        assertThat(before.getGlobalOrdinalsMemorySizeInBytes(), greaterThan(0L));
+
+        // a refresh that only adds a small segment extends the global ordinals of the previous reader
+        client().prepareIndex("test", "type").setSource("name", "name-2-0").get();
+        client().admin().indices().prepareRefresh("test").get();
+        FieldDataStats after = client().admin().indices().prepareStats("test").setFieldData(true).get().getTotal().getFieldData();
+        assertThat(after.getGlobalOrdinalsBuilds(), equalTo(before.getGlobalOrdinalsBuilds() + 1));
+        assertThat(after.getGlobalOrdinalsIncrementalBuilds(), equalTo(before.getGlobalOrdinalsIncrementalBuilds() + 1));
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.fielddata.ordinals;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiDocValues.OrdinalMap;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.RandomAccessOrds;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.packed.PackedInts;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class IncrementalOrdinalMapTests extends ESTestCase {
+
+    public void testExtendMatchesFullBuild() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(null).setMergePolicy(NoMergePolicy.INSTANCE))) {
+            // enough base terms for the added segments to never have too many terms
+            Document doc = new Document();
+            for (int i = 0; i < 200; i++) {
+                doc.add(new SortedSetDocValuesField("field", new BytesRef(Integer.toString(i * 50))));
+            }
+            writer.addDocument(doc);
+            final int numBaseSegments = randomIntBetween(1, 5);
+            for (int i = 0; i < numBaseSegments; i++) {
+                addSegment(writer, randomIntBetween(1, 200), 10000);
+            }
+            DirectoryReader reader = DirectoryReader.open(writer);
+            IncrementalOrdinalMap previous = IncrementalOrdinalMap.build(subs(reader), keys(reader));
+            assertThat(previous.isIncremental(), equalTo(false));
+            assertSameAsOrdinalMap(previous, subs(reader));
+            reader.close();
+
+            final int numAddedSegments = randomIntBetween(0, 3);
+            for (int i = 0; i < numAddedSegments; i++) {
+                addSegment(writer, randomIntBetween(1, 5), 10000);
+            }
+            reader = DirectoryReader.open(writer);
+            IncrementalOrdinalMap extended = previous.extend(subs(reader), keys(reader));
+            assertThat(extended, notNullValue());
+            assertThat(extended.isIncremental(), equalTo(true));
+            assertSameAsOrdinalMap(extended, subs(reader));
+            reader.close();
+        }
+    }
+
+    public void testExtendWithoutAddedSegments() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(null).setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (int i = 0; i < 3; i++) {
+                addSegment(writer, 50, 1000);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                IncrementalOrdinalMap previous = IncrementalOrdinalMap.build(subs(reader), keys(reader));
+                IncrementalOrdinalMap extended = previous.extend(subs(reader), keys(reader));
+                assertThat(extended, notNullValue());
+                assertThat(extended.isIncremental(), equalTo(true));
+                assertSameAsOrdinalMap(extended, subs(reader));
+            }
+        }
+    }
+
+    public void testExtendFailsWhenBaseSegmentIsGone() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(null))) {
+            for (int i = 0; i < 3; i++) {
+                addSegment(writer, 50, 1000);
+            }
+            IncrementalOrdinalMap previous;
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                previous = IncrementalOrdinalMap.build(subs(reader), keys(reader));
+            }
+            writer.forceMerge(1);
+            addSegment(writer, 1, 1000);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertThat(previous.extend(subs(reader), keys(reader)), nullValue());
+            }
+        }
+    }
+
+    public void testExtendFailsWhenTooManyTermsAreAdded() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(null).setMergePolicy(NoMergePolicy.INSTANCE))) {
+            addSegment(writer, 10, 10);
+            addSegment(writer, 10, 10);
+            IncrementalOrdinalMap previous;
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                previous = IncrementalOrdinalMap.build(subs(reader), keys(reader));
+            }
+            Document doc = new Document();
+            for (int i = 0; i < previous.getValueCount(); i++) {
+                doc.add(new SortedSetDocValuesField("field", new BytesRef("added-" + i)));
+            }
+            writer.addDocument(doc);
+            writer.commit();
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertThat(previous.extend(subs(reader), keys(reader)), nullValue());
+            }
+        }
+    }
+
+    public void testPreviousOrdinalMapsForgetRemovedShards() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(null))) {
+            addSegment(writer, 10, 100);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                IncrementalOrdinalMap map = IncrementalOrdinalMap.build(subs(reader), keys(reader));
+                PreviousOrdinalMaps previousOrdinalMaps = new PreviousOrdinalMaps();
+                ShardId shardId = new ShardId("index", "_na_", 0);
+                ShardId otherShardId = new ShardId("index", "_na_", 1);
+                previousOrdinalMaps.put(shardId, map);
+                previousOrdinalMaps.put(otherShardId, map);
+                previousOrdinalMaps.remove(shardId);
+                assertThat(previousOrdinalMaps.get(shardId), nullValue());
+                assertThat(previousOrdinalMaps.get(otherShardId), sameInstance(map));
+                previousOrdinalMaps.clear();
+                assertThat(previousOrdinalMaps.get(otherShardId), nullValue());
+            }
+        }
+    }
+
+    private void addSegment(IndexWriter writer, int numDocs, int maxTerm) throws IOException {
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            final int numValues = randomIntBetween(0, 3);
+            for (int j = 0; j < numValues; j++) {
+                doc.add(new SortedSetDocValuesField("field", new BytesRef(Integer.toString(randomInt(maxTerm)))));
+            }
+            writer.addDocument(doc);
+        }
+        writer.commit();
+    }
+
+    private static RandomAccessOrds[] subs(DirectoryReader reader) throws IOException {
+        List<LeafReaderContext> leaves = reader.leaves();
+        RandomAccessOrds[] subs = new RandomAccessOrds[leaves.size()];
+        for (int i = 0; i < subs.length; i++) {
+            subs[i] = FieldData.maybeSlowRandomAccessOrds(DocValues.getSortedSet(leaves.get(i).reader(), "field"));
+        }
+        return subs;
+    }
+
+    private static Object[] keys(DirectoryReader reader) {
+        return reader.leaves().stream().map(leaf -> leaf.reader().getCoreCacheKey()).toArray();
+    }
+
+    private static void assertSameAsOrdinalMap(IncrementalOrdinalMap map, RandomAccessOrds[] subs) throws IOException {
+        OrdinalMap expected = OrdinalMap.build(null, subs, PackedInts.DEFAULT);
+        assertThat(map.getValueCount(), equalTo(expected.getValueCount()));
+        for (int i = 0; i < subs.length; i++) {
+            LongValues expectedOrds = expected.getGlobalOrds(i);
+            LongValues actualOrds = map.getGlobalOrds(i);
+            for (long ord = 0; ord < subs[i].getValueCount(); ord++) {
+                assertThat(actualOrds.get(ord), equalTo(expectedOrds.get(ord)));
+            }
+        }
+        for (long globalOrd = 0; globalOrd < expected.getValueCount(); globalOrd++) {
+            BytesRef expectedTerm = BytesRef.deepCopyOf(subs[expected.getFirstSegmentNumber(globalOrd)]
+                    .lookupOrd(expected.getFirstSegmentOrd(globalOrd)));
+            BytesRef actualTerm = subs[map.getFirstSegmentNumber(globalOrd)].lookupOrd(map.getFirstSegmentOrd(globalOrd));
+            assertThat(actualTerm, equalTo(expectedTerm));
+        }
+    }
+}
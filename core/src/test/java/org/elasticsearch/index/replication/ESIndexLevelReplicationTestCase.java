@@ -293,7 +293,7 @@ public abstract class ESIndexLevelReplicationTestCase extends ESTestCase {
             StartRecoveryRequest request = new StartRecoveryRequest(replica.shardId(), pNode, rNode,
                 replica.store().getMetadataOrEmpty(), RecoveryState.Type.REPLICA, 0);
             RecoverySourceHandler recovery = new RecoverySourceHandler(primary, recoveryTarget, request, (int) ByteSizeUnit.MB.toKB(1),
-                logger);
+                between(1, 8), logger);
             recovery.recoverToTarget();
             recoveryTarget.markAsDone();
             replica.updateRoutingEntry(ShardRoutingHelper.moveToStarted(replica.routingEntry()));
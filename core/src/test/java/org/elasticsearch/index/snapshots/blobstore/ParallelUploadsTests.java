@@ -0,0 +1,126 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.snapshots.blobstore;
+
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ParallelUploadsTests extends ESTestCase {
+
+    public void testUploadsPartsInParallel() throws Exception {
+        int threads = randomIntBetween(2, 5);
+        int numberOfParts = randomIntBetween(threads, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(threads - 1);
+        try {
+            // the first parts only complete once as many parts as there are threads are uploaded at the same time
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            AtomicIntegerArray uploaded = new AtomicIntegerArray(numberOfParts);
+            ParallelUploads uploads = new ParallelUploads(executor, threads - 1);
+            for (int i = 0; i < numberOfParts; i++) {
+                final int part = i;
+                uploads.add(() -> {
+                    if (part < threads) {
+                        try {
+                            barrier.await(10, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new AssertionError(e);
+                        }
+                    }
+                    uploaded.incrementAndGet(part);
+                });
+            }
+            uploads.run();
+            assertFalse(uploads.isFailed());
+            for (int i = 0; i < numberOfParts; i++) {
+                assertThat("part " + i, uploaded.get(i), equalTo(1));
+            }
+        } finally {
+            terminate(executor);
+        }
+    }
+
+    public void testUploadsOnCallingThreadIfHelpersAreRejected() throws Exception {
+        int numberOfParts = randomIntBetween(1, 20);
+        AtomicInteger uploaded = new AtomicInteger();
+        ParallelUploads uploads = new ParallelUploads(command -> {
+            throw new EsRejectedExecutionException("rejected");
+        }, randomIntBetween(1, 5));
+        Thread thread = Thread.currentThread();
+        for (int i = 0; i < numberOfParts; i++) {
+            uploads.add(() -> {
+                assertThat(Thread.currentThread(), sameInstance(thread));
+                uploaded.incrementAndGet();
+            });
+        }
+        uploads.run();
+        assertThat(uploaded.get(), equalTo(numberOfParts));
+    }
+
+    public void testFailedPartCancelsOtherParts() throws Exception {
+        int threads = randomIntBetween(2, 5);
+        int numberOfParts = randomIntBetween(threads + 1, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(threads - 1);
+        try {
+            // the parts that are in flight when the first part fails wait for the failure and then give up
+            AtomicInteger started = new AtomicInteger();
+            AtomicInteger cancelled = new AtomicInteger();
+            IOException failure = new IOException("boom");
+            ParallelUploads uploads = new ParallelUploads(executor, threads - 1);
+            for (int i = 0; i < numberOfParts; i++) {
+                final int part = i;
+                uploads.add(() -> {
+                    started.incrementAndGet();
+                    if (part == 0) {
+                        throw failure;
+                    }
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                    while (uploads.isFailed() == false) {
+                        assertThat("part 0 didn't fail in time", System.nanoTime(), lessThan(deadline));
+                        Thread.yield();
+                    }
+                    cancelled.incrementAndGet();
+                    throw new IOException("cancelled");
+                });
+            }
+            IOException e = expectThrows(IOException.class, uploads::run);
+            assertThat(e, sameInstance(failure));
+            assertTrue(uploads.isFailed());
+            // every thread started at most one part before the failure and no part was started after it
+            assertThat(started.get(), lessThanOrEqualTo(threads));
+            assertThat(cancelled.get(), equalTo(started.get() - 1));
+            assertThat(e.getSuppressed(), arrayWithSize(cancelled.get()));
+        } finally {
+            terminate(executor);
+        }
+    }
+}
@@ -80,6 +80,7 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -87,6 +88,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import static java.util.Collections.unmodifiableMap;
 import static org.elasticsearch.test.VersionUtils.randomVersion;
@@ -459,6 +461,71 @@ public class StoreTests extends ESTestCase {
         IOUtils.close(dir);
     }
 
+    public void testCrc32Combine() {
+        byte[] bytes = new byte[randomIntBetween(0, 10000)];
+        random().nextBytes(bytes);
+        int split = randomIntBetween(0, bytes.length);
+        CRC32 crc1 = new CRC32();
+        crc1.update(bytes, 0, split);
+        CRC32 crc2 = new CRC32();
+        crc2.update(bytes, split, bytes.length - split);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        assertThat(Store.crc32Combine(crc1.getValue(), crc2.getValue(), bytes.length - split), equalTo(crc.getValue()));
+    }
+
+    public void testVerifyParts() throws IOException {
+        final ShardId shardId = new ShardId("index", "_na_", 1);
+        DirectoryService directoryService = new LuceneManagedDirectoryService(random());
+        Store store = new Store(shardId, INDEX_SETTINGS, directoryService, new DummyShardLock(shardId));
+        IndexOutput output = store.directory().createOutput("foo.bar", IOContext.DEFAULT);
+        int iters = scaledRandomIntBetween(10, 100);
+        for (int i = 0; i < iters; i++) {
+            BytesRef bytesRef = new BytesRef(TestUtil.randomRealisticUnicodeString(random(), 10, 1024));
+            output.writeBytes(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+        }
+        CodecUtil.writeFooter(output);
+        output.close();
+        final long length;
+        final String checksum;
+        try (IndexInput indexInput = store.directory().openInput("foo.bar", IOContext.DEFAULT)) {
+            length = indexInput.length();
+            checksum = Store.digestToString(CodecUtil.retrieveChecksum(indexInput));
+        }
+        // parts may end anywhere, also within the footer
+        long partSize = randomIntBetween(1, (int) length);
+        int numberOfParts = (int) ((length + partSize - 1) / partSize);
+        StoreFileMetaData metadata = new StoreFileMetaData("foo.bar", length, checksum, Version.LATEST);
+        assertThat(readParts(store, "foo.bar", metadata, partSize, numberOfParts), equalTo(numberOfParts));
+
+        corruptFile(store.directory(), "foo.bar", "foo1.bar");
+        StoreFileMetaData corruptedMetadata = new StoreFileMetaData("foo1.bar", length, checksum, Version.LATEST);
+        expectThrows(CorruptIndexException.class, () -> readParts(store, "foo1.bar", corruptedMetadata, partSize, numberOfParts));
+        IOUtils.close(store);
+    }
+
+    /**
+     * Reads the parts of a file in random order and verifies them
+     */
+    private int readParts(Store store, String file, StoreFileMetaData metadata, long partSize, int numberOfParts) throws IOException {
+        IndexInput[] parts = new IndexInput[numberOfParts];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < numberOfParts; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random());
+        for (int part : order) {
+            long offset = part * partSize;
+            try (IndexInput input = store.openVerifyingInput(file, IOContext.READONCE, metadata, offset)) {
+                byte[] bytes = new byte[(int) Math.min(partSize, metadata.length() - offset)];
+                input.readBytes(bytes, 0, bytes.length);
+                parts[part] = input;
+            }
+        }
+        Store.verifyParts(metadata, parts);
+        return numberOfParts;
+    }
+
     private void readIndexInputFullyWithRandomSeeks(IndexInput indexInput) throws IOException {
         BytesRef ref = new BytesRef(scaledRandomIntBetween(1, 1024));
         long pos = 0;
@@ -82,6 +82,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -414,6 +415,30 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testViewAtRetainedGeneration() throws IOException {
+        ArrayList<Translog.Operation> ops = new ArrayList<>();
+        addToTranslogAndList(translog, ops, new Translog.Index("test", "1", new byte[]{1}));
+        translog.commit();
+        addToTranslogAndList(translog, ops, new Translog.Index("test", "2", new byte[]{2}));
+        try (Translog.View retained = translog.newView()) {
+            translog.commit();
+            addToTranslogAndList(translog, ops, new Translog.Index("test", "3", new byte[]{3}));
+            assertThat(translog.totalOperations(), equalTo(1));
+            try (Translog.View view = translog.newView(retained.minTranslogGeneration())) {
+                retained.close();
+                translog.commit();
+                assertThat(view.snapshot(), SnapshotMatchers.equalsTo(ops.get(1), ops.get(2)));
+                assertThat(view.totalOperations(), equalTo(2));
+            }
+        }
+        try {
+            translog.newView(translog.currentFileGeneration() - 1);
+            fail("generation is not retained anymore");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), containsString("is not retained anymore"));
+        }
+    }
+
     public void testSnapshotOnClosedTranslog() throws IOException {
         assertTrue(Files.exists(translogDir.resolve(Translog.getFilename(1))));
         translog.add(new Translog.Index("test", "1", new byte[]{1}));
@@ -807,6 +832,43 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testSyncUpToStream() throws IOException {
+        int iters = randomIntBetween(5, 10);
+        int count = 0;
+        for (int i = 0; i < iters; i++) {
+            int translogOperations = randomIntBetween(10, 100);
+            // roll the generation somewhere in the middle so that the locations span several translog files
+            int rollAt = randomBoolean() ? randomIntBetween(1, translogOperations - 1) : -1;
+            List<Translog.Location> locations = new ArrayList<>();
+            for (int op = 0; op < translogOperations; op++) {
+                if (op == rollAt) {
+                    translog.prepareCommit();
+                }
+                locations.add(translog.add(new Translog.Index("test", "" + op, Integer.toString(++count).getBytes(Charset.forName("UTF-8")))));
+            }
+            Collections.shuffle(locations, random());
+            if (randomBoolean()) {
+                assertTrue("at least one operation pending", translog.syncNeeded());
+                assertTrue("this operation has not been synced", translog.ensureSynced(locations.stream()));
+                assertFalse("the last call to ensureSycned synced all previous ops", translog.syncNeeded()); // we are the last location so everything should be synced
+            } else if (rollAt == -1 && rarely()) {
+                translog.commit();
+                assertFalse("locations are from a previous translog - already synced", translog.ensureSynced(locations.stream()));
+                assertFalse("no sync needed since no operations in current translog", translog.syncNeeded());
+            } else {
+                translog.sync();
+                assertFalse("translog has been synced already", translog.ensureSynced(locations.stream()));
+            }
+            for (Translog.Location location : locations) {
+                assertFalse("all locations have been synced before", translog.ensureSynced(location));
+            }
+            assertFalse("nothing to sync for an empty stream", translog.ensureSynced(Collections.<Translog.Location>emptyList().stream()));
+            if (rollAt != -1) {
+                translog.commit();
+            }
+        }
+    }
+
     public void testLocationComparison() throws IOException {
         List<Translog.Location> locations = new ArrayList<>();
         int translogOperations = randomIntBetween(10, 100);
@@ -0,0 +1,130 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.indices;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DiskRequestCacheTests extends ESTestCase {
+
+    public void testPutAndGet() throws IOException {
+        Path path = createTempDir();
+        DiskRequestCache cache = new DiskRequestCache(logger, path, Long.MAX_VALUE);
+        Map<String, BytesReference> values = new HashMap<>();
+        int numEntries = randomIntBetween(1, 50);
+        for (int i = 0; i < numEntries; i++) {
+            String key = randomAsciiOfLength(10);
+            BytesReference value = new BytesArray(randomUnicodeOfLengthBetween(0, 1000));
+            cache.put(randomFrom("a", "b"), new BytesArray(key), value);
+            values.put(key, value);
+        }
+        // identities are part of the key
+        for (Map.Entry<String, BytesReference> entry : values.entrySet()) {
+            BytesReference value = cache.get("a", new BytesArray(entry.getKey()));
+            if (value == null) {
+                value = cache.get("b", new BytesArray(entry.getKey()));
+            }
+            assertEquals(entry.getValue(), value);
+        }
+        assertNull(cache.get("c", new BytesArray(randomFrom(values.keySet()))));
+
+        // entries are loaded again by a new instance
+        DiskRequestCache reloaded = new DiskRequestCache(logger, path, Long.MAX_VALUE);
+        assertEquals(cache.count(), reloaded.count());
+        assertEquals(cache.sizeInBytes(), reloaded.sizeInBytes());
+
+        cache.invalidate("a");
+        reloaded = new DiskRequestCache(logger, path, Long.MAX_VALUE);
+        assertEquals(cache.count(), reloaded.count());
+        for (String key : values.keySet()) {
+            assertNull(reloaded.get("a", new BytesArray(key)));
+        }
+    }
+
+    public void testEvictsLeastRecentlyUsed() throws IOException {
+        DiskRequestCache cache = new DiskRequestCache(logger, createTempDir(), 3000);
+        BytesReference value = new BytesArray(new byte[900]);
+        cache.put("id", new BytesArray("1"), value);
+        cache.put("id", new BytesArray("2"), value);
+        cache.put("id", new BytesArray("3"), value);
+        assertEquals(3, cache.count());
+        // access the first entry so that the second is the least recently used one
+        assertNotNull(cache.get("id", new BytesArray("1")));
+        cache.put("id", new BytesArray("4"), value);
+        assertEquals(3, cache.count());
+        assertTrue(cache.sizeInBytes() <= 3000);
+        assertNotNull(cache.get("id", new BytesArray("1")));
+        assertNull(cache.get("id", new BytesArray("2")));
+        assertNotNull(cache.get("id", new BytesArray("3")));
+        assertNotNull(cache.get("id", new BytesArray("4")));
+
+        // values that can never fit are not stored
+        cache.put("id", new BytesArray("5"), new BytesArray(new byte[3000]));
+        assertNull(cache.get("id", new BytesArray("5")));
+        assertEquals(3, cache.count());
+    }
+
+    public void testCorruptedEntry() throws IOException {
+        Path path = createTempDir();
+        DiskRequestCache cache = new DiskRequestCache(logger, path, Long.MAX_VALUE);
+        cache.put("id", new BytesArray("key"), new BytesArray(randomAsciiOfLength(100)));
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path file : stream) {
+                byte[] bytes = Files.readAllBytes(file);
+                int position = bytes.length - 1 - randomIntBetween(Long.BYTES, 100);
+                bytes[position] = (byte) ~bytes[position];
+                Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+        }
+        assertNull(cache.get("id", new BytesArray("key")));
+        assertEquals(0, cache.count());
+        assertEquals(0, cache.sizeInBytes());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            assertFalse("the corrupted entry should be deleted", stream.iterator().hasNext());
+        }
+    }
+
+    public void testTruncatedEntry() throws IOException {
+        Path path = createTempDir();
+        DiskRequestCache cache = new DiskRequestCache(logger, path, Long.MAX_VALUE);
+        cache.put("id", new BytesArray("key"), new BytesArray(randomAsciiOfLength(100)));
+        Path entry;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            entry = stream.iterator().next();
+        }
+        byte[] bytes = Files.readAllBytes(entry);
+        // also shorter than the checksum
+        Files.write(entry, Arrays.copyOf(bytes, randomIntBetween(0, bytes.length - 1)), StandardOpenOption.TRUNCATE_EXISTING);
+        assertNull(cache.get("id", new BytesArray("key")));
+        assertEquals(0, cache.count());
+        assertEquals(0, cache.sizeInBytes());
+        assertFalse("the truncated entry should be deleted", Files.exists(entry));
+    }
+}
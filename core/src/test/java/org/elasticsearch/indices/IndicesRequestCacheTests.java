@@ -19,11 +19,13 @@
 
 package org.elasticsearch.indices;
 
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.TermQuery;
@@ -42,6 +44,7 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -299,6 +302,62 @@ public class IndicesRequestCacheTests extends ESTestCase {
 
     }
 
+    public void testDiskTier() throws Exception {
+        Settings settings = Settings.builder().put(IndicesRequestCache.INDICES_CACHE_DISK_ENABLED.getKey(), true).build();
+        Path diskCachePath = createTempDir();
+        IndicesRequestCache cache = new IndicesRequestCache(settings, diskCachePath);
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        // a plain config keeps both documents in a single segment and the deletes in memory
+        IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new KeywordAnalyzer()));
+
+        writer.addDocument(newDoc(0, "foo"));
+        writer.addDocument(newDoc(1, "baz"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+
+        // initial cache, written through to disk
+        TestEntity entity = new TestEntity(requestCacheStats, reader, indexShard, 0);
+        BytesReference value = cache.getOrCompute(entity, reader, termQuery.buildAsBytes());
+        assertEquals("foo", value.streamInput().readString());
+        assertFalse(entity.loadedFromCache());
+        assertEquals(1, cache.count());
+        assertEquals(1, cache.diskCount());
+
+        // a new cache on the same path and a new shard instance, like after a restart, load the value from disk
+        cache.close();
+        cache = new IndicesRequestCache(settings, diskCachePath);
+        indexShard = new AtomicBoolean(true);
+        assertEquals(0, cache.count());
+        assertEquals(1, cache.diskCount());
+        entity = new TestEntity(requestCacheStats, reader, indexShard, 0);
+        value = cache.getOrCompute(entity, reader, termQuery.buildAsBytes());
+        assertEquals("foo", value.streamInput().readString());
+        assertTrue(entity.loadedFromCache());
+        assertEquals(1, requestCacheStats.stats().getHitCount());
+        assertEquals(1, requestCacheStats.stats().getMissCount());
+        assertEquals(1, cache.count());
+
+        // results of readers with deletes that are not written yet are not stored on disk
+        writer.updateDocument(new Term("id", "0"), newDoc(0, "bar"));
+        DirectoryReader secondReader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        entity = new TestEntity(requestCacheStats, secondReader, indexShard, 0);
+        value = cache.getOrCompute(entity, secondReader, termQuery.buildAsBytes());
+        assertEquals("bar", value.streamInput().readString());
+        assertFalse(entity.loadedFromCache());
+        assertEquals(2, cache.count());
+        assertEquals(1, cache.diskCount());
+
+        // closing the reader of an open shard drops its entries from disk
+        reader.close();
+        cache.cleanCache();
+        assertEquals(1, cache.count());
+        assertEquals(0, cache.diskCount());
+
+        IOUtils.close(secondReader, writer, dir, cache);
+    }
+
     public Iterable<Field> newDoc(int id, String value) {
         return Arrays.asList(newField("id", Integer.toString(id), StringField.TYPE_STORED), newField("value", value,
             StringField.TYPE_STORED));
@@ -336,5 +395,10 @@ public class IndicesRequestCacheTests extends ESTestCase {
         public Object getCacheIdentity() {
             return standInForIndexShard;
         }
+
+        @Override
+        public String getPersistentIdentity() {
+            return "test";
+        }
     }
 }
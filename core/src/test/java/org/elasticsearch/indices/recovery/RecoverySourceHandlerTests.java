@@ -24,6 +24,7 @@ import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexCommit;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.store.BaseDirectoryWrapper;
@@ -32,32 +33,46 @@ import org.apache.lucene.store.IOContext;
 import org.apache.lucene.util.IOUtils;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.FileSystemUtils;
 import org.elasticsearch.common.lucene.store.IndexOutputOutputStream;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.DummyTransportAddress;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.DirectoryService;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetaData;
+import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.test.CorruptionUtils;
 import org.elasticsearch.test.DummyShardLock;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.IndexSettingsModule;
+import org.elasticsearch.transport.RemoteTransportException;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class RecoverySourceHandlerTests extends ESTestCase {
     private static final IndexSettings INDEX_SETTINGS = IndexSettingsModule.newIndexSettings("index", Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, org.elasticsearch.Version.CURRENT).build());
@@ -74,7 +89,7 @@ public class RecoverySourceHandlerTests extends ESTestCase {
             null, RecoveryState.Type.STORE, randomLong());
         Store store = newStore(createTempDir());
         RecoverySourceHandler handler = new RecoverySourceHandler(null, null, request, recoverySettings.getChunkSize().bytesAsInt(),
-                logger);
+                recoverySettings.getMaxConcurrentFileChunks(), logger);
         Directory dir = store.directory();
         RandomIndexWriter writer = new RandomIndexWriter(random(), dir, newIndexWriterConfig());
         int numDocs = randomIntBetween(10, 100);
@@ -125,7 +140,8 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         Path tempDir = createTempDir();
         Store store = newStore(tempDir, false);
         AtomicBoolean failedEngine = new AtomicBoolean(false);
-        RecoverySourceHandler handler = new RecoverySourceHandler(null, null, request, recoverySettings.getChunkSize().bytesAsInt(), logger) {
+        RecoverySourceHandler handler = new RecoverySourceHandler(null, null, request, recoverySettings.getChunkSize().bytesAsInt(),
+                recoverySettings.getMaxConcurrentFileChunks(), logger) {
             @Override
             protected void failEngine(IOException cause) {
                 assertFalse(failedEngine.get());
@@ -188,7 +204,8 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         Path tempDir = createTempDir();
         Store store = newStore(tempDir, false);
         AtomicBoolean failedEngine = new AtomicBoolean(false);
-        RecoverySourceHandler handler = new RecoverySourceHandler(null, null, request, recoverySettings.getChunkSize().bytesAsInt(), logger) {
+        RecoverySourceHandler handler = new RecoverySourceHandler(null, null, request, recoverySettings.getChunkSize().bytesAsInt(),
+                recoverySettings.getMaxConcurrentFileChunks(), logger) {
             @Override
             protected void failEngine(IOException cause) {
                 assertFalse(failedEngine.get());
@@ -237,6 +254,161 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         IOUtils.close(store, targetStore);
     }
 
+    public void testFailedFileChunkStopsSendingFiles() throws Throwable {
+        StartRecoveryRequest request = new StartRecoveryRequest(shardId,
+                new DiscoveryNode("b", DummyTransportAddress.INSTANCE, emptyMap(), emptySet(), Version.CURRENT),
+                new DiscoveryNode("b", DummyTransportAddress.INSTANCE, emptyMap(), emptySet(), Version.CURRENT),
+            null, RecoveryState.Type.STORE, randomLong());
+        Path tempDir = createTempDir();
+        Store store = newStore(tempDir, false);
+        Directory dir = store.directory();
+        RandomIndexWriter writer = new RandomIndexWriter(random(), dir, newIndexWriterConfig());
+        int numDocs = randomIntBetween(10, 100);
+        for (int i = 0; i < numDocs; i++) {
+            Document document = new Document();
+            document.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+            document.add(newField("field", randomUnicodeOfCodepointLengthBetween(1, 10), TextField.TYPE_STORED));
+            writer.addDocument(document);
+        }
+        writer.commit();
+        writer.close();
+
+        Store.MetadataSnapshot metadata = store.getMetadata();
+        List<StoreFileMetaData> metas = new ArrayList<>();
+        for (StoreFileMetaData md : metadata) {
+            metas.add(md);
+        }
+        // every file is sent in at least one chunk, so the chunk that fails is always sent
+        final int failedChunk = randomIntBetween(0, metas.size() - 1);
+        final boolean throwCorruptedIndexException = randomBoolean();
+        final int maxConcurrentFileChunks = randomIntBetween(1, 8);
+        final ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentFileChunks);
+        final AtomicInteger sentChunks = new AtomicInteger();
+        final AtomicInteger inFlightChunks = new AtomicInteger();
+        final AtomicInteger maxInFlightChunks = new AtomicInteger();
+        RecoveryTargetHandler target = new RecoveryTargetHandler() {
+            @Override
+            public void prepareForTranslogOperations(int totalTranslogOps) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void finalizeRecovery() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void indexTranslogOperations(List<Translog.Operation> operations, int totalTranslogOps) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void receiveFileInfo(List<String> phase1FileNames, List<Long> phase1FileSizes,
+                                        List<String> phase1ExistingFileNames, List<Long> phase1ExistingFileSizes, int totalTranslogOps) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void cleanFiles(int totalTranslogOps, Store.MetadataSnapshot sourceMetaData) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeFileChunk(StoreFileMetaData fileMetaData, long position, BytesReference content, boolean lastChunk,
+                                       int totalTranslogOps, ActionListener<Void> listener) {
+                final int chunk = sentChunks.getAndIncrement();
+                final int inFlight = inFlightChunks.incrementAndGet();
+                maxInFlightChunks.accumulateAndGet(inFlight, Math::max);
+                // chunks complete on other threads and not necessarily in the order they were sent
+                executor.execute(() -> {
+                    inFlightChunks.decrementAndGet();
+                    if (chunk == failedChunk) {
+                        if (throwCorruptedIndexException) {
+                            listener.onFailure(new RemoteTransportException("remote", new CorruptIndexException("foo", "bar")));
+                        } else {
+                            listener.onFailure(new RuntimeException("boom"));
+                        }
+                    } else {
+                        listener.onResponse(null);
+                    }
+                });
+            }
+        };
+        AtomicBoolean failedEngine = new AtomicBoolean(false);
+        IndexShard shard = mock(IndexShard.class);
+        when(shard.state()).thenReturn(IndexShardState.RECOVERING);
+        Translog.View translogView = mock(Translog.View.class);
+        int chunkSize = randomIntBetween(1, 1024);
+        RecoverySourceHandler handler = new RecoverySourceHandler(shard, target, request, chunkSize, maxConcurrentFileChunks, logger) {
+            @Override
+            protected void failEngine(IOException cause) {
+                assertFalse(failedEngine.get());
+                failedEngine.set(true);
+            }
+        };
+        try {
+            handler.sendFiles(store, metas.toArray(new StoreFileMetaData[0]),
+                md -> new BufferedOutputStream(handler.new RecoveryOutputStream(md, translogView), chunkSize));
+            fail("exception index");
+        } catch (RuntimeException ex) {
+            assertNull(ExceptionsHelper.unwrapCorruption(ex));
+            if (throwCorruptedIndexException) {
+                assertEquals(ex.getMessage(), "[File corruption occurred on recovery but checksums are ok]");
+            } else {
+                assertEquals(ex.getMessage(), "boom");
+            }
+        } finally {
+            terminate(executor);
+        }
+        assertFalse(failedEngine.get());
+        // no more chunks were sent than fit into the window with the failed chunk
+        assertThat(maxInFlightChunks.get(), lessThanOrEqualTo(maxConcurrentFileChunks));
+        assertThat(sentChunks.get(), lessThanOrEqualTo(failedChunk + maxConcurrentFileChunks));
+        IOUtils.close(store);
+    }
+
+    public void testRecoverOperationsOnlyIfNumDocsMatch() throws Throwable {
+        final String syncId = randomAsciiOfLength(10);
+        final long numDocsTarget = randomIntBetween(0, 100);
+        final boolean numDocsMatch = randomBoolean();
+        final long numDocsSource = numDocsMatch ? numDocsTarget : numDocsTarget + randomIntBetween(1, 10);
+        Store.MetadataSnapshot targetMetadata = new Store.MetadataSnapshot(emptyMap(),
+                Collections.singletonMap(Engine.SYNC_COMMIT_ID, syncId), numDocsTarget);
+        StartRecoveryRequest request = new StartRecoveryRequest(shardId,
+                new DiscoveryNode("b", DummyTransportAddress.INSTANCE, emptyMap(), emptySet(), Version.CURRENT),
+                new DiscoveryNode("b", DummyTransportAddress.INSTANCE, emptyMap(), emptySet(), Version.CURRENT),
+            targetMetadata, RecoveryState.Type.REPLICA, randomLong());
+        IndexShard shard = mock(IndexShard.class);
+        when(shard.acquireTranslogViewForSyncId(syncId)).thenReturn(mock(Translog.View.class));
+        when(shard.getRetainedSyncedCommitNumDocs(syncId)).thenReturn(numDocsSource);
+        when(shard.acquireTranslogView()).thenReturn(mock(Translog.View.class));
+        AtomicBoolean recoveredOperations = new AtomicBoolean(false);
+        AtomicBoolean recoveredFiles = new AtomicBoolean(false);
+        RecoverySourceHandler handler = new RecoverySourceHandler(shard, null, request, 1024, 1, logger) {
+            @Override
+            void recoverOperationsToTarget(Translog.View translogView, String syncId) {
+                recoveredOperations.set(true);
+            }
+
+            @Override
+            public void phase1(IndexCommit snapshot, Translog.View translogView) {
+                recoveredFiles.set(true);
+            }
+
+            @Override
+            public void phase2(Translog.Snapshot snapshot) {
+            }
+
+            @Override
+            public void finalizeRecovery() {
+            }
+        };
+        handler.recoverToTarget();
+        // operations are only replayed on top of a synced commit with the same number of docs
+        assertEquals(numDocsMatch, recoveredOperations.get());
+        assertEquals(numDocsMatch == false, recoveredFiles.get());
+    }
+
     private Store newStore(Path path) throws IOException {
         return newStore(path, true);
     }
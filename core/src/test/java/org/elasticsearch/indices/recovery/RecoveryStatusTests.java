@@ -19,18 +19,28 @@
 package org.elasticsearch.indices.recovery;
 
 import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RAMDirectory;
 import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.transport.LocalTransportAddress;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetaData;
 import org.elasticsearch.test.ESSingleNodeTestCase;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static java.util.Collections.emptyMap;
@@ -87,4 +97,78 @@ public class RecoveryStatusTests extends ESSingleNodeTestCase {
         // we must fail the recovery because marking it as done will try to move the shard to POST_RECOVERY, which will fail because it's started
         status.fail(new RecoveryFailedException(status.state(), "end of test. OK.", null), false);
     }
+
+    public void testWriteFileChunksOutOfOrder() throws IOException {
+        IndexService service = createIndex("foo");
+
+        IndexShard indexShard = service.getShardOrNull(0);
+        DiscoveryNode node = new DiscoveryNode("foo", new LocalTransportAddress("bar"), emptyMap(), emptySet(), Version.CURRENT);
+        RecoveryTarget status = new RecoveryTarget(indexShard, node, new RecoveryTargetService.RecoveryListener() {
+            @Override
+            public void onRecoveryDone(RecoveryState state) {
+            }
+
+            @Override
+            public void onRecoveryFailure(RecoveryState state, RecoveryFailedException e, boolean sendShardFailure) {
+            }
+        });
+        final byte[] bytes;
+        final StoreFileMetaData metaData;
+        try (RAMDirectory dir = new RAMDirectory()) {
+            try (IndexOutput output = dir.createOutput("foo.bar", IOContext.DEFAULT)) {
+                byte[] content = new byte[randomIntBetween(1, 10000)];
+                random().nextBytes(content);
+                output.writeBytes(content, content.length);
+                CodecUtil.writeFooter(output);
+            }
+            try (IndexInput input = dir.openInput("foo.bar", IOContext.DEFAULT)) {
+                metaData = new StoreFileMetaData("foo.bar", input.length(), Store.digestToString(CodecUtil.retrieveChecksum(input)));
+                bytes = new byte[(int) input.length()];
+                input.seek(0);
+                input.readBytes(bytes, 0, bytes.length);
+            }
+        }
+        List<Integer> positions = new ArrayList<>();
+        for (int position = 0; position < bytes.length; position += randomIntBetween(1, 1000)) {
+            positions.add(position);
+        }
+        status.state().getIndex().addFileDetail("foo.bar", bytes.length, false);
+        List<Integer> chunks = new ArrayList<>(positions);
+        Collections.shuffle(chunks, random());
+        boolean[] submitted = new boolean[positions.size()];
+        AtomicInteger acked = new AtomicInteger();
+        for (int position : chunks) {
+            final int index = positions.indexOf(position);
+            final int end = index == positions.size() - 1 ? bytes.length : positions.get(index + 1);
+            status.writeFileChunk(metaData, position, new BytesArray(bytes, position, end - position), end == bytes.length, 0,
+                new ActionListener<Void>() {
+                    @Override
+                    public void onResponse(Void aVoid) {
+                        acked.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        throw new AssertionError("chunk at [" + position + "] failed", t);
+                    }
+                });
+            submitted[index] = true;
+            // a chunk is only acknowledged once it is written, which needs all chunks before it
+            int written = 0;
+            while (written < submitted.length && submitted[written]) {
+                written++;
+            }
+            assertEquals(written, acked.get());
+        }
+        assertEquals(positions.size(), acked.get());
+        // the output was verified and closed once the last chunk was written
+        assertNull(status.getOpenIndexOutput("foo.bar"));
+        assertEquals(bytes.length, status.state().getIndex().recoveredBytes());
+        try (IndexInput input = status.store().directory().openInput(status.getTempNameForFile("foo.bar"), IOContext.DEFAULT)) {
+            byte[] written = new byte[(int) input.length()];
+            input.readBytes(written, 0, written.length);
+            assertArrayEquals(bytes, written);
+        }
+        status.fail(new RecoveryFailedException(status.state(), "end of test. OK.", null), false);
+    }
 }
@@ -25,6 +25,7 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class IngestStatsTests extends ESTestCase {
@@ -32,7 +33,10 @@ public class IngestStatsTests extends ESTestCase {
     public void testSerialization() throws IOException {
         IngestStats.Stats total = new IngestStats.Stats(5, 10, 20, 30);
         IngestStats.Stats foo = new IngestStats.Stats(50, 100, 200, 300);
-        IngestStats ingestStats = new IngestStats(total, Collections.singletonMap("foo", foo));
+        IngestStats.ProcessorStat fooProcessor = new IngestStats.ProcessorStat("set", randomBoolean() ? null : "tag",
+                new IngestStats.Stats(5, 6, 7, 8));
+        IngestStats ingestStats = new IngestStats(total, Collections.singletonMap("foo", foo),
+                Collections.singletonMap("foo", Collections.singletonList(fooProcessor)));
         IngestStats serialize = serialize(ingestStats);
         assertNotSame(serialize, ingestStats);
         assertNotSame(serialize.getTotalStats(), total);
@@ -57,6 +61,16 @@ public class IngestStatsTests extends ESTestCase {
         assertEquals(leftStats.getIngestFailedCount(), rightStats.getIngestFailedCount());
         assertEquals(leftStats.getIngestTimeInMillis(), rightStats.getIngestTimeInMillis());
         assertEquals(leftStats.getIngestCurrent(), rightStats.getIngestCurrent());
+
+        List<IngestStats.ProcessorStat> processorStats = serialize.getProcessorStats("foo");
+        assertEquals(1, processorStats.size());
+        assertEquals(fooProcessor.getType(), processorStats.get(0).getType());
+        assertEquals(fooProcessor.getTag(), processorStats.get(0).getTag());
+        assertEquals(fooProcessor.getStats().getIngestCount(), processorStats.get(0).getStats().getIngestCount());
+        assertEquals(fooProcessor.getStats().getIngestTimeInMillis(), processorStats.get(0).getStats().getIngestTimeInMillis());
+        assertEquals(fooProcessor.getStats().getIngestCurrent(), processorStats.get(0).getStats().getIngestCurrent());
+        assertEquals(fooProcessor.getStats().getIngestFailedCount(), processorStats.get(0).getStats().getIngestFailedCount());
+        assertEquals(0, serialize.getProcessorStats("bar").size());
     }
 
     private IngestStats serialize(IngestStats stats) throws IOException {
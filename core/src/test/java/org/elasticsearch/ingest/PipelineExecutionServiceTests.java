@@ -27,9 +27,13 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.node.Node;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.ThreadPoolStats;
 import org.hamcrest.CustomTypeSafeMatcher;
 import org.junit.Before;
 import org.mockito.ArgumentMatcher;
@@ -37,11 +41,17 @@ import org.mockito.invocation.InvocationOnMock;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.not;
@@ -68,6 +78,8 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         store = mock(PipelineStore.class);
         ThreadPool threadPool = mock(ThreadPool.class);
         when(threadPool.executor(anyString())).thenReturn(Runnable::run);
+        when(threadPool.info(ThreadPool.Names.INGEST))
+            .thenReturn(new ThreadPool.Info(ThreadPool.Names.INGEST, ThreadPool.ThreadPoolType.FIXED, randomIntBetween(1, 4)));
         executionService = new PipelineExecutionService(store, threadPool);
     }
 
@@ -98,18 +110,12 @@ public class PipelineExecutionServiceTests extends ESTestCase {
                 new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("does_not_exist");
         bulkRequest.add(indexRequest2);
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Throwable> failureHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Throwable> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Throwable> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), failureHandler, completionHandler);
         verify(failureHandler, times(1)).accept(
-            argThat(new CustomTypeSafeMatcher<IndexRequest>("failure handler was not called with the expected arguments") {
-                @Override
-                protected boolean matchesSafely(IndexRequest item) {
-                    return item == indexRequest2;
-                }
-
-            }),
+            eq(1),
             argThat(new CustomTypeSafeMatcher<IllegalArgumentException>("failure handler was not called with the expected arguments") {
                 @Override
                 protected boolean matchesSafely(IllegalArgumentException iae) {
@@ -336,11 +342,16 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         doThrow(error).when(processor).execute(any());
         when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, processor));
 
-        BiConsumer<IndexRequest, Throwable> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Throwable> requestItemErrorHandler = mock(BiConsumer.class);
         Consumer<Throwable> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler);
 
-        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(IndexRequest.class), eq(error));
+        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(Integer.class), eq(error));
+        for (int i = 0; i < numRequest; i++) {
+            if (bulkRequest.requests().get(i) instanceof IndexRequest) {
+                verify(requestItemErrorHandler, times(1)).accept(i, error);
+            }
+        }
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -358,7 +369,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, new CompoundProcessor()));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Throwable> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Throwable> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Throwable> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler);
@@ -367,6 +378,99 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         verify(completionHandler, times(1)).accept(null);
     }
 
+    public void testBulkRequestExecutionInParallel() throws Exception {
+        BulkRequest bulkRequest = new BulkRequest();
+        String pipelineId = "_id";
+
+        int numRequest = scaledRandomIntBetween(8, 64);
+        for (int i = 0; i < numRequest; i++) {
+            IndexRequest indexRequest = new IndexRequest("_index", "_type", Integer.toString(i)).setPipeline(pipelineId);
+            indexRequest.source("field1", i);
+            bulkRequest.add(indexRequest);
+        }
+
+        Processor processor = new TestProcessor(ingestDocument -> {
+            int value = ingestDocument.getFieldValue("field1", Integer.class);
+            if (value % 3 == 0) {
+                throw new IllegalArgumentException("failed [" + value + "]");
+            }
+            ingestDocument.setFieldValue("field2", ingestDocument.getFieldValue("_id", String.class));
+        });
+        when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, new CompoundProcessor(processor)));
+
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            executionService = new PipelineExecutionService(store, threadPool);
+            Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+            CountDownLatch completed = new CountDownLatch(1);
+            AtomicReference<Throwable> completionFailure = new AtomicReference<>();
+            executionService.executeBulkRequest(bulkRequest.requests(), failures::put, t -> {
+                completionFailure.set(t);
+                completed.countDown();
+            });
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertNull(completionFailure.get());
+
+            for (int i = 0; i < numRequest; i++) {
+                IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(i);
+                if (i % 3 == 0) {
+                    assertThat(failures.get(i).getMessage(), containsString("failed [" + i + "]"));
+                    assertThat(indexRequest.getPipeline(), equalTo(pipelineId));
+                } else {
+                    assertThat(failures, not(hasKey(i)));
+                    assertThat(indexRequest.sourceAsMap().get("field2"), equalTo(Integer.toString(i)));
+                    assertNull(indexRequest.getPipeline());
+                }
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testConcurrentBulkRequestsAreNotRejected() throws Exception {
+        String pipelineId = "_id";
+        Processor processor = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("field2", "value2"));
+        when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, new CompoundProcessor(processor)));
+
+        int numBulkRequests = randomIntBetween(10, 30);
+        int size = randomIntBetween(2, 4);
+        // room for all bulk requests plus the helpers of a single one, helpers of concurrent bulk requests must not add up
+        ThreadPool threadPool = new ThreadPool(Settings.builder()
+            .put(Node.NODE_NAME_SETTING.getKey(), getTestName())
+            .put("thread_pool.ingest.size", size)
+            .put("thread_pool.ingest.queue_size", numBulkRequests + size)
+            .build());
+        try {
+            executionService = new PipelineExecutionService(store, threadPool);
+            CountDownLatch completed = new CountDownLatch(numBulkRequests);
+            Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+            AtomicReference<Throwable> completionFailure = new AtomicReference<>();
+            for (int i = 0; i < numBulkRequests; i++) {
+                BulkRequest bulkRequest = new BulkRequest();
+                int numRequest = scaledRandomIntBetween(8, 64);
+                for (int j = 0; j < numRequest; j++) {
+                    bulkRequest.add(new IndexRequest("_index", "_type", Integer.toString(j)).setPipeline(pipelineId).source("field1", j));
+                }
+                executionService.executeBulkRequest(bulkRequest.requests(), failures::put, t -> {
+                    if (t != null) {
+                        completionFailure.set(t);
+                    }
+                    completed.countDown();
+                });
+            }
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertNull(completionFailure.get());
+            assertThat(failures.size(), equalTo(0));
+            for (ThreadPoolStats.Stats stats : threadPool.stats()) {
+                if (ThreadPool.Names.INGEST.equals(stats.getName())) {
+                    assertThat(stats.getRejected(), equalTo(0L));
+                }
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
     public void testStats() throws Exception {
         IngestStats ingestStats = executionService.stats();
         assertThat(ingestStats.getStatsPerPipeline().size(), equalTo(0));
@@ -404,6 +508,45 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         assertThat(ingestStats.getTotalStats().getIngestCount(), equalTo(2L));
     }
 
+    public void testProcessorStats() throws Exception {
+        Processor succeeding = new TestProcessor("succeeding_tag", "succeeding", ingestDocument -> {});
+        Processor failing = new TestProcessor("failing_tag", "failing", ingestDocument -> {
+            throw new IllegalStateException("failed");
+        });
+        Processor onFailure = new TestProcessor("on_failure_tag", "on_failure", ingestDocument -> {});
+        CompoundProcessor failingWithOnFailure = new CompoundProcessor(false, Collections.singletonList(failing),
+                Collections.singletonList(onFailure));
+        when(store.get("_id")).thenReturn(new Pipeline("_id", null, new CompoundProcessor(succeeding, failingWithOnFailure)));
+        executionService.updatePipelineStats(new IngestMetadata(
+                Collections.singletonMap("_id", new PipelineConfiguration("_id", new BytesArray("{}")))));
+
+        @SuppressWarnings("unchecked")
+        Consumer<Throwable> failureHandler = mock(Consumer.class);
+        @SuppressWarnings("unchecked")
+        Consumer<Boolean> completionHandler = mock(Consumer.class);
+        int numDocs = randomIntBetween(1, 8);
+        for (int i = 0; i < numDocs; i++) {
+            executionService.executeIndexRequest(new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap())
+                    .setPipeline("_id"), failureHandler, completionHandler);
+        }
+        verify(failureHandler, never()).accept(any());
+        verify(completionHandler, times(numDocs)).accept(true);
+
+        List<IngestStats.ProcessorStat> processorStats = executionService.stats().getProcessorStats("_id");
+        assertThat(processorStats.size(), equalTo(2));
+        assertThat(processorStats.get(0).getType(), equalTo("succeeding"));
+        assertThat(processorStats.get(0).getTag(), equalTo("succeeding_tag"));
+        assertThat(processorStats.get(0).getStats().getIngestCount(), equalTo((long) numDocs));
+        assertThat(processorStats.get(0).getStats().getIngestFailedCount(), equalTo(0L));
+        assertThat(processorStats.get(0).getStats().getIngestCurrent(), equalTo(0L));
+        // the processor that has on failure processors is reported as the processor it wraps
+        assertThat(processorStats.get(1).getType(), equalTo("failing"));
+        assertThat(processorStats.get(1).getTag(), equalTo("failing_tag"));
+        assertThat(processorStats.get(1).getStats().getIngestCount(), equalTo((long) numDocs));
+        assertThat(processorStats.get(1).getStats().getIngestFailedCount(), equalTo((long) numDocs));
+        assertThat(processorStats.get(1).getStats().getIngestCurrent(), equalTo(0L));
+    }
+
     // issue: https://github.com/elastic/elasticsearch/issues/18126
     public void testUpdatingStatsWhenRemovingPipelineWorks() throws Exception {
         Map<String, PipelineConfiguration> configurationMap = new HashMap<>();
@@ -0,0 +1,120 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+public class BufferingBucketCollectorTests extends ESTestCase {
+
+    public void testBufferedCollection() throws IOException {
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            final int numDocs = scaledRandomIntBetween(1, BufferingBucketCollector.BLOCK_SIZE * 5);
+            for (int i = 0; i < numDocs; ++i) {
+                Document doc = new Document();
+                doc.add(new StringField("id", Integer.toString(i), Store.NO));
+                doc.add(new StringField("even", Boolean.toString(i % 2 == 0), Store.NO));
+                w.addDocument(doc);
+            }
+            if (randomBoolean()) {
+                for (int i = 0; i < numDocs; i += randomIntBetween(1, 100)) {
+                    w.deleteDocuments(new Term("id", Integer.toString(i)));
+                }
+            }
+            try (IndexReader reader = w.getReader()) {
+                final IndexSearcher searcher = newSearcher(reader);
+                assertBuffered(searcher, new TermQuery(new Term("even", "true")), false);
+                assertBuffered(searcher, new MatchAllDocsQuery(), false);
+                assertBuffered(searcher, new MatchAllDocsQuery(), true);
+            }
+        }
+    }
+
+    private static void assertBuffered(IndexSearcher searcher, Query query, boolean matchAll) throws IOException {
+        RecordingCollector expected = new RecordingCollector();
+        searcher.search(query, expected);
+        assertEquals(0, expected.blocks);
+
+        RecordingCollector actual = new RecordingCollector();
+        BufferingBucketCollector collector = new BufferingBucketCollector(actual, matchAll);
+        collector.preCollection();
+        searcher.search(query, collector);
+        collector.postCollection();
+        assertEquals(expected.docs, actual.docs);
+        if (expected.docs.isEmpty() == false) {
+            assertTrue(actual.blocks > 0);
+        }
+    }
+
+    /** Records collected docs as top level doc ids, and the number of blocks it got. */
+    private static class RecordingCollector extends BucketCollector {
+
+        final Set<Integer> docs = new HashSet<>();
+        int blocks;
+
+        @Override
+        public LeafBucketCollector getLeafCollector(LeafReaderContext ctx) throws IOException {
+            return new LeafBucketCollector() {
+                @Override
+                public void collect(int doc, long bucket) throws IOException {
+                    assertEquals(0, bucket);
+                    assertTrue("duplicate doc " + doc, docs.add(ctx.docBase + doc));
+                }
+
+                @Override
+                public void collect(int[] docs, int count, long bucket) throws IOException {
+                    assertTrue(count > 0 && count <= docs.length);
+                    for (int i = 1; i < count; ++i) {
+                        assertTrue(docs[i - 1] < docs[i]);
+                    }
+                    blocks++;
+                    super.collect(docs, count, bucket);
+                }
+            };
+        }
+
+        @Override
+        public void preCollection() throws IOException {
+        }
+
+        @Override
+        public void postCollection() throws IOException {
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+    }
+}
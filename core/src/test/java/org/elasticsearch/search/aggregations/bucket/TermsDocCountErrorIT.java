@@ -252,6 +252,58 @@ public class TermsDocCountErrorIT extends ESIntegTestCase {
         assertNoDocCountError(size, accurateResponse, testResponse);
     }
 
+    public void testStringValueFieldConcurrent() throws Exception {
+        int size = randomIntBetween(1, 20);
+        int shardSize = randomIntBetween(size, size * 2);
+        String index = randomFrom("idx", "idx_single_shard");
+        SearchResponse accurateResponse = client().prepareSearch(index).setTypes("type")
+                .addAggregation(terms("terms")
+                        .executionHint(randomExecutionHint())
+                        .field(STRING_FIELD_NAME)
+                        .showTermDocCountError(true)
+                        .size(10000).shardSize(10000)
+                        .collectMode(randomFrom(SubAggCollectionMode.values())))
+                .execute().actionGet();
+
+        assertSearchResponse(accurateResponse);
+
+        // the slices of a shard are reduced without pruning any bucket, so a concurrent search is accurate too
+        SearchResponse accurateConcurrentResponse = client().prepareSearch(index).setTypes("type")
+                .setConcurrency(between(2, 4))
+                .addAggregation(terms("terms")
+                        .executionHint(randomExecutionHint())
+                        .field(STRING_FIELD_NAME)
+                        .showTermDocCountError(true)
+                        .size(10000).shardSize(10000)
+                        .collectMode(randomFrom(SubAggCollectionMode.values())))
+                .execute().actionGet();
+
+        assertSearchResponse(accurateConcurrentResponse);
+        assertNoDocCountError(10000, accurateResponse, accurateConcurrentResponse);
+        Terms accurateTerms = accurateResponse.getAggregations().get("terms");
+        Terms accurateConcurrentTerms = accurateConcurrentResponse.getAggregations().get("terms");
+        assertThat(accurateConcurrentTerms.getBuckets().size(), equalTo(accurateTerms.getBuckets().size()));
+        for (Terms.Bucket bucket : accurateTerms.getBuckets()) {
+            assertThat(accurateConcurrentTerms.getBucketByKey(bucket.getKeyAsString()).getDocCount(), equalTo(bucket.getDocCount()));
+        }
+
+        // each slice prunes its buckets to the shard size, which introduces an error even on a single shard
+        SearchResponse testResponse = client().prepareSearch(index).setTypes("type")
+                .setConcurrency(between(2, 4))
+                .addAggregation(terms("terms")
+                        .executionHint(randomExecutionHint())
+                        .field(STRING_FIELD_NAME)
+                        .showTermDocCountError(true)
+                        .size(size)
+                        .shardSize(shardSize)
+                        .collectMode(randomFrom(SubAggCollectionMode.values())))
+                .execute().actionGet();
+
+        assertSearchResponse(testResponse);
+
+        assertDocCountErrorWithinBounds(size, accurateResponse, testResponse);
+    }
+
     public void testStringValueFieldWithRouting() throws Exception {
         int size = randomIntBetween(1, 20);
         int shardSize = randomIntBetween(size, size * 2);
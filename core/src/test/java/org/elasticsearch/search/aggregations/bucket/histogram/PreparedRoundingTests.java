@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations.bucket.histogram;
+
+import org.apache.lucene.util.TestUtil;
+import org.elasticsearch.common.rounding.DateTimeUnit;
+import org.elasticsearch.common.rounding.Rounding;
+import org.elasticsearch.common.rounding.TimeZoneRounding;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.aggregations.bucket.histogram.HistogramAggregator.PreparedRounding;
+import org.elasticsearch.test.ESTestCase;
+import org.joda.time.DateTimeZone;
+
+import java.util.concurrent.TimeUnit;
+
+public class PreparedRoundingTests extends ESTestCase {
+
+    public void testSameKeysAsRounding() {
+        for (int iter = 0; iter < 100; ++iter) {
+            final Rounding rounding = randomRounding();
+            final long min = TestUtil.nextLong(random(), 0, TimeUnit.DAYS.toMillis(365 * 60));
+            final long max = min + TestUtil.nextLong(random(), 0, TimeUnit.DAYS.toMillis(randomFrom(1, 30, 365)));
+            final PreparedRounding prepared = PreparedRounding.prepare(rounding, min, max, 100000);
+            if (prepared == null) {
+                continue;
+            }
+            for (int i = 0; i < prepared.keys.length - 1; ++i) {
+                assertTrue(prepared.keys[i] < prepared.keys[i + 1]);
+                assertTrue(prepared.upperBounds[i] < prepared.upperBounds[i + 1]);
+            }
+            assertKey(rounding, prepared, min);
+            assertKey(rounding, prepared, max);
+            for (int i = 0; i < 100; ++i) {
+                assertKey(rounding, prepared, TestUtil.nextLong(random(), min, max));
+            }
+            for (long upperBound : prepared.upperBounds) {
+                if (upperBound - 1 <= max) {
+                    assertKey(rounding, prepared, upperBound - 1);
+                }
+                if (upperBound <= max) {
+                    assertKey(rounding, prepared, upperBound);
+                }
+            }
+        }
+    }
+
+    public void testSingleKey() {
+        final Rounding rounding = TimeZoneRounding.builder(DateTimeUnit.DAY_OF_MONTH).build();
+        final long day = TimeUnit.DAYS.toMillis(randomIntBetween(0, 365 * 60));
+        final long min = day + TestUtil.nextLong(random(), 0, TimeUnit.HOURS.toMillis(12));
+        final long max = min + TestUtil.nextLong(random(), 0, TimeUnit.HOURS.toMillis(12) - 1);
+        final PreparedRounding prepared = PreparedRounding.prepare(rounding, min, max, 1);
+        assertNotNull(prepared);
+        assertEquals(1, prepared.keys.length);
+        assertEquals(day, prepared.keys[0]);
+        assertEquals(0, prepared.index(TestUtil.nextLong(random(), min, max)));
+    }
+
+    public void testTooManyKeys() {
+        final Rounding rounding = new Rounding.Interval(10);
+        final int maxKeys = randomIntBetween(1, 100);
+        assertNull(PreparedRounding.prepare(rounding, 0, maxKeys * 10, maxKeys));
+        PreparedRounding prepared = PreparedRounding.prepare(rounding, 0, maxKeys * 10 - 1, maxKeys);
+        assertNotNull(prepared);
+        assertEquals(maxKeys, prepared.keys.length);
+    }
+
+    private static void assertKey(Rounding rounding, PreparedRounding prepared, long value) {
+        assertEquals("wrong key for " + value + " with " + rounding, rounding.roundKey(value), prepared.keys[prepared.index(value)]);
+    }
+
+    private static Rounding randomRounding() {
+        final DateTimeZone timeZone = randomBoolean() ? DateTimeZone.UTC : randomDateTimeZone();
+        final Rounding rounding;
+        switch (randomInt(3)) {
+        case 0:
+            rounding = new Rounding.Interval(TestUtil.nextLong(random(), 1, TimeUnit.DAYS.toMillis(10)));
+            break;
+        case 1:
+            rounding = TimeZoneRounding.builder(randomFrom(DateTimeUnit.values())).timeZone(timeZone).build();
+            break;
+        case 2:
+            rounding = TimeZoneRounding.builder(TimeValue.timeValueMinutes(randomIntBetween(1, 60 * 48))).timeZone(timeZone).build();
+            break;
+        default:
+            rounding = new Rounding.OffsetRounding(new Rounding.Interval(TestUtil.nextLong(random(), 1, TimeUnit.DAYS.toMillis(10))),
+                    TestUtil.nextLong(random(), -TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1)));
+            break;
+        }
+        return rounding;
+    }
+}
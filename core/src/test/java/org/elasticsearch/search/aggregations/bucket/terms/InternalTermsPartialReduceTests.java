@@ -0,0 +1,104 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations.bucket.terms;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks the doc count errors of terms aggregations whose shard results are the partial reduce of the results of
+ * several slices of a concurrent search.
+ */
+public class InternalTermsPartialReduceTests extends ESTestCase {
+
+    private static final int SIZE = 2;
+    private static final int SHARD_SIZE = 2;
+
+    public void testDocCountErrorAfterSliceReduce() {
+        // two slices of a shard, which both pruned their third term: c has 7 docs in the first slice and b 4 in the second one
+        StringTerms shard = partialReduce(terms("a", 10, "b", 8), terms("c", 9, "a", 5));
+        // the partial reduce keeps all buckets, and knows that every slice may have missed up to its last bucket's count
+        assertEquals(3, shard.getBuckets().size());
+        assertEquals(8 + 5, shard.getDocCountError());
+        assertBucket(shard, "a", 15, 0);
+        assertBucket(shard, "c", 9, 8);
+        assertBucket(shard, "b", 8, 5);
+
+        // the other shard ran sequentially and pruned d
+        StringTerms otherShard = terms("a", 3, "d", 2);
+        StringTerms result = (StringTerms) shard.reduce(Arrays.asList(shard, otherShard), new ReduceContext(null, null, null));
+        assertEquals(SIZE, result.getBuckets().size());
+        assertEquals(8 + 5 + 2, result.getDocCountError());
+        assertBucket(result, "a", 18, 0);
+        assertBucket(result, "c", 9, 8 + 2);
+    }
+
+    public void testDocCountErrorOfSingleShardAfterSliceReduce() {
+        StringTerms shard = partialReduce(terms("a", 10, "b", 8), terms("c", 9, "a", 5));
+        StringTerms result = (StringTerms) shard.reduce(Collections.singletonList(shard), new ReduceContext(null, null, null));
+        assertEquals(SIZE, result.getBuckets().size());
+        // the error that the slices introduced is still reported for the only shard
+        assertEquals(8 + 5, result.getDocCountError());
+        assertBucket(result, "a", 15, 0);
+        assertBucket(result, "c", 9, 8);
+    }
+
+    public void testNoDocCountErrorWhenSlicesDidNotPrune() {
+        StringTerms shard = partialReduce(terms("a", 10), terms("b", 9));
+        assertEquals(0, shard.getDocCountError());
+        StringTerms result = (StringTerms) shard.reduce(Collections.singletonList(shard), new ReduceContext(null, null, null));
+        assertEquals(0, result.getDocCountError());
+        assertBucket(result, "a", 10, 0);
+        assertBucket(result, "b", 9, 0);
+    }
+
+    private static StringTerms partialReduce(StringTerms... slices) {
+        InternalAggregation reduced = slices[0].reduce(Arrays.asList(slices), new ReduceContext(null, null, null, false));
+        return (StringTerms) reduced;
+    }
+
+    private static void assertBucket(StringTerms terms, String key, long docCount, long docCountError) {
+        Terms.Bucket bucket = terms.getBucketByKey(key);
+        assertNotNull("missing bucket " + key, bucket);
+        assertEquals(docCount, bucket.getDocCount());
+        assertEquals(docCountError, bucket.getDocCountError());
+    }
+
+    /**
+     * Builds the result of a shard or a slice from pairs of terms and doc counts, in descending order of doc count.
+     */
+    private static StringTerms terms(Object... termsAndCounts) {
+        List<StringTerms.Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < termsAndCounts.length; i += 2) {
+            buckets.add(new StringTerms.Bucket(new BytesRef((String) termsAndCounts[i]), (Integer) termsAndCounts[i + 1],
+                    InternalAggregations.EMPTY, true, 0, DocValueFormat.RAW));
+        }
+        return new StringTerms("terms", Terms.Order.count(false), DocValueFormat.RAW, SIZE, SHARD_SIZE, 1, buckets, true,
+                0, 0, Collections.emptyList(), null);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.controller;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.metrics.max.InternalMax;
+import org.elasticsearch.search.fetch.FetchSearchResult;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+public class SearchPhaseControllerTests extends ESTestCase {
+
+    private SearchPhaseController searchPhaseController;
+
+    @Before
+    public void setupController() {
+        searchPhaseController = new SearchPhaseController(Settings.EMPTY, BigArrays.NON_RECYCLING_INSTANCE, null,
+            mock(ClusterService.class));
+    }
+
+    public void testNoConsumerForSmallRequests() {
+        SearchRequest request = new SearchRequest().batchedReduceSize(randomIntBetween(2, 100));
+        assertThat(searchPhaseController.newQueryPhaseResultConsumer(request, randomIntBetween(1, request.batchedReduceSize())),
+            nullValue());
+    }
+
+    public void testBatchedReduceMatchesReduceAll() throws Exception {
+        int bufferSize = randomIntBetween(2, 10);
+        int numShards = randomIntBetween(bufferSize + 1, 64);
+        int from = randomIntBetween(0, 5);
+        int size = randomIntBetween(0, 10);
+        // few distinct scores so that the merge has to break ties
+        float[][] scores = new float[numShards][];
+        double[] maxValues = new double[numShards];
+        for (int shard = 0; shard < numShards; shard++) {
+            int numDocs = randomBoolean() ? 0 : randomIntBetween(0, from + size);
+            scores[shard] = new float[numDocs];
+            float score = randomIntBetween(5, 10);
+            for (int i = 0; i < numDocs; i++) {
+                score -= randomIntBetween(0, 1);
+                scores[shard][i] = score;
+            }
+            maxValues[shard] = randomDouble();
+        }
+
+        AtomicArray<QuerySearchResult> expectedResults = new AtomicArray<>(numShards);
+        AtomicArray<QuerySearchResult> batchedResults = new AtomicArray<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            expectedResults.set(shard, createResult(shard, from, size, scores[shard], maxValues[shard]));
+        }
+        SearchRequest request = new SearchRequest().batchedReduceSize(bufferSize);
+        SearchPhaseController.QueryPhaseResultConsumer consumer = searchPhaseController.newQueryPhaseResultConsumer(request, numShards);
+        List<Integer> arrivalOrder = new ArrayList<>();
+        for (int shard = 0; shard < numShards; shard++) {
+            arrivalOrder.add(shard);
+        }
+        Collections.shuffle(arrivalOrder, random());
+        for (int shard : arrivalOrder) {
+            QuerySearchResult result = createResult(shard, from, size, scores[shard], maxValues[shard]);
+            batchedResults.set(shard, result);
+            consumer.consume(shard, result);
+        }
+        assertThat(consumer.getNumReducePhases(), equalTo(numShards / bufferSize));
+
+        ScoreDoc[] expectedDocs = searchPhaseController.sortDocs(false, expectedResults);
+        ScoreDoc[] batchedDocs = searchPhaseController.sortDocs(false, batchedResults);
+        assertThat(batchedDocs.length, equalTo(expectedDocs.length));
+        for (int i = 0; i < expectedDocs.length; i++) {
+            assertThat(batchedDocs[i].shardIndex, equalTo(expectedDocs[i].shardIndex));
+            assertThat(batchedDocs[i].doc, equalTo(expectedDocs[i].doc));
+            assertThat(batchedDocs[i].score, equalTo(expectedDocs[i].score));
+        }
+
+        InternalSearchResponse expectedResponse = searchPhaseController.merge(expectedDocs, expectedResults,
+            new AtomicArray<FetchSearchResult>(numShards));
+        InternalSearchResponse batchedResponse = searchPhaseController.merge(batchedDocs, batchedResults,
+            new AtomicArray<FetchSearchResult>(numShards), consumer);
+        assertThat(batchedResponse.hits().totalHits(), equalTo(expectedResponse.hits().totalHits()));
+        assertThat(batchedResponse.hits().maxScore(), equalTo(expectedResponse.hits().maxScore()));
+        InternalMax expectedMax = expectedResponse.aggregations().get("max");
+        InternalMax batchedMax = batchedResponse.aggregations().get("max");
+        assertThat(batchedMax.getValue(), equalTo(expectedMax.getValue()));
+        // the aggregations of the consumed results were released
+        for (AtomicArray.Entry<QuerySearchResult> entry : batchedResults.asList()) {
+            assertThat(entry.value.aggregations(), nullValue());
+        }
+    }
+
+    private static QuerySearchResult createResult(int shard, int from, int size, float[] scores, double maxValue) {
+        QuerySearchResult result = new QuerySearchResult(shard, new SearchShardTarget("node", new Index("test", "_na_"), shard));
+        result.from(from).size(size);
+        ScoreDoc[] scoreDocs = new ScoreDoc[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            scoreDocs[i] = new ScoreDoc(i, scores[i]);
+        }
+        float maxScore = scores.length == 0 ? Float.NaN : scores[0];
+        result.topDocs(new TopDocs(scores.length * 2, scoreDocs, maxScore), new DocValueFormat[0]);
+        InternalMax max = new InternalMax("max", maxValue, DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap());
+        result.aggregations(new InternalAggregations(Collections.<InternalAggregation>singletonList(max)));
+        return result;
+    }
+}
@@ -37,17 +37,25 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.query.ParsedQuery;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.TestSearchContext;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.hamcrest.Matchers.greaterThan;
+
 public class QueryPhaseTests extends ESTestCase {
 
     private void countTestCase(Query query, IndexReader reader, boolean shouldCollect) throws Exception {
@@ -165,4 +173,82 @@ public class QueryPhaseTests extends ESTestCase {
         assertTrue(collected.get());
     }
 
+    public void testConcurrentSearch() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numDocs = scaledRandomIntBetween(100, 200);
+        for (int i = 0; i < numDocs; ++i) {
+            Document doc = new Document();
+            if (randomBoolean()) {
+                doc.add(new StringField("foo", "bar", Store.NO));
+            }
+            if (randomBoolean()) {
+                doc.add(new StringField("foo", "baz", Store.NO));
+            }
+            w.addDocument(doc);
+            if (i == numDocs / 2 || rarely()) {
+                w.commit();
+            }
+        }
+        final IndexReader reader = w.getReader();
+        final Query query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("foo", "bar")), Occur.SHOULD)
+            .add(new TermQuery(new Term("foo", "baz")), Occur.SHOULD)
+            .build();
+        assertThat(reader.leaves().size(), greaterThan(1));
+        final IndexSearcher searcher = new IndexSearcher(reader);
+        final int size = randomIntBetween(1, numDocs);
+        final TopDocs expected = searcher.search(query, size);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(1, 4));
+        try {
+            ContextIndexSearcher contextSearcher = new ContextIndexSearcher(new Engine.Searcher("test", searcher), null,
+                    IndexSearcher.getDefaultQueryCachingPolicy());
+            contextSearcher.setExecutor(executor);
+
+            TestSearchContext context = new TestSearchContext(null);
+            context.parsedQuery(new ParsedQuery(query));
+            context.setSize(size);
+            context.concurrency(randomIntBetween(2, 8));
+            assertEquals(Math.min(context.concurrency(), reader.leaves().size()), QueryPhase.numSlices(context, contextSearcher));
+
+            QueryPhase.execute(context, contextSearcher);
+            TopDocs topDocs = context.queryResult().topDocs();
+            assertEquals(expected.totalHits, topDocs.totalHits);
+            assertEquals(expected.scoreDocs.length, topDocs.scoreDocs.length);
+            for (int i = 0; i < expected.scoreDocs.length; ++i) {
+                ScoreDoc expectedDoc = expected.scoreDocs[i];
+                ScoreDoc doc = topDocs.scoreDocs[i];
+                assertEquals(expectedDoc.doc, doc.doc);
+                assertEquals(expectedDoc.score, doc.score, 0f);
+            }
+
+            // not a pure count anymore since there is a post filter
+            context.setSize(0);
+            context.parsedPostFilter(new ParsedQuery(new TermQuery(new Term("foo", "bar"))));
+            QueryPhase.execute(context, contextSearcher);
+            BooleanQuery filtered = new BooleanQuery.Builder()
+                .add(query, Occur.MUST)
+                .add(new TermQuery(new Term("foo", "bar")), Occur.FILTER)
+                .build();
+            assertEquals(searcher.count(filtered), context.queryResult().topDocs().totalHits);
+        } finally {
+            terminate(executor);
+            reader.close();
+            w.close();
+            dir.close();
+        }
+    }
+
+    public void testSequentialWithoutConcurrency() throws Exception {
+        TestSearchContext context = new TestSearchContext(null);
+        context.parsedQuery(new ParsedQuery(new MatchAllDocsQuery()));
+        context.setSize(10);
+        IndexSearcher searcher = new IndexSearcher(new MultiReader());
+        assertEquals(1, QueryPhase.numSlices(context, searcher));
+        context.concurrency(4);
+        // only context searchers know how to search concurrently
+        assertEquals(1, QueryPhase.numSlices(context, searcher));
+    }
 }
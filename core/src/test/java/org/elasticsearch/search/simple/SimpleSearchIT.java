@@ -33,7 +33,11 @@ import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.max.Max;
 import org.elasticsearch.search.rescore.QueryRescorerBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.test.ESIntegTestCase;
 
 import static org.elasticsearch.action.support.WriteRequest.RefreshPolicy.IMMEDIATE;
@@ -49,6 +53,7 @@ import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertFail
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 
 import static com.carrotsearch.randomizedtesting.RandomizedTest.systemPropertyAsBoolean;
 
@@ -294,6 +299,48 @@ public class SimpleSearchIT extends ESIntegTestCase {
         assertFalse(searchResponse.isTerminatedEarly());
     }
 
+    public void testBatchedReduce() throws Exception {
+        int numShards = randomIntBetween(3, 8);
+        prepareCreate("test").setSettings(
+                SETTING_NUMBER_OF_SHARDS, numShards,
+                SETTING_NUMBER_OF_REPLICAS, 0)
+                .addMapping("type1", "field", "type=integer", "term", "type=keyword").get();
+        ensureGreen();
+        int numDocs = randomIntBetween(20, 100);
+        List<IndexRequestBuilder> docbuilders = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            docbuilders.add(client().prepareIndex("test", "type1", String.valueOf(i))
+                    .setSource("field", i, "term", "t" + randomIntBetween(0, 9)));
+        }
+        indexRandom(true, docbuilders);
+
+        int from = randomIntBetween(0, 10);
+        int size = randomIntBetween(0, 10);
+        SortOrder order = randomFrom(SortOrder.values());
+        SearchResponse expected = client().prepareSearch("test").setFrom(from).setSize(size).addSort("field", order)
+                .addAggregation(AggregationBuilders.terms("terms").field("term"))
+                .addAggregation(AggregationBuilders.max("max").field("field")).get();
+        SearchResponse batched = client().prepareSearch("test").setFrom(from).setSize(size).addSort("field", order)
+                .addAggregation(AggregationBuilders.terms("terms").field("term"))
+                .addAggregation(AggregationBuilders.max("max").field("field"))
+                .setBatchedReduceSize(randomIntBetween(2, numShards - 1)).get();
+        assertNoFailures(expected);
+        assertNoFailures(batched);
+        assertHitCount(batched, numDocs);
+        assertThat(batched.getHits().getHits().length, equalTo(expected.getHits().getHits().length));
+        for (int i = 0; i < expected.getHits().getHits().length; i++) {
+            assertThat(batched.getHits().getAt(i).getId(), equalTo(expected.getHits().getAt(i).getId()));
+        }
+        Terms expectedTerms = expected.getAggregations().get("terms");
+        Terms batchedTerms = batched.getAggregations().get("terms");
+        assertThat(batchedTerms.getBuckets().size(), equalTo(expectedTerms.getBuckets().size()));
+        for (Terms.Bucket bucket : expectedTerms.getBuckets()) {
+            assertThat(batchedTerms.getBucketByKey(bucket.getKeyAsString()).getDocCount(), equalTo(bucket.getDocCount()));
+        }
+        Max max = batched.getAggregations().get("max");
+        assertThat(max.getValue(), equalTo((double) numDocs - 1));
+    }
+
     public void testInsaneFromAndSize() throws Exception {
         createIndex("idx");
         indexRandom(true, client().prepareIndex("idx", "type").setSource("{}"));
@@ -19,7 +19,10 @@
 package org.elasticsearch.transport.netty;
 
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.bytes.AbstractBytesReferenceTestCase;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.jboss.netty.buffer.ChannelBuffer;
@@ -57,6 +60,38 @@ public class ChannelBufferBytesReferenceTests extends AbstractBytesReferenceTest
         assertEquals(other.slice(3, 1), slice.slice(3, 1));
     }
 
+    public void testCompositeBuffer() throws IOException {
+        int numComponents = randomIntBetween(2, 5);
+        ChannelBuffer[] components = new ChannelBuffer[numComponents];
+        BytesRefBuilder expected = new BytesRefBuilder();
+        for (int i = 0; i < numComponents; i++) {
+            BytesRef bytesRef = BytesRef.deepCopyOf(newBytesReference(randomIntBetween(1, 2 * PAGE_SIZE)).toBytesRef());
+            components[i] = ChannelBuffers.wrappedBuffer(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+            expected.append(bytesRef);
+        }
+        BytesReference expectedReference = new BytesArray(expected.toBytesRef());
+        BytesReference bytesReference = NettyUtils.toBytesReference(ChannelBuffers.wrappedBuffer(components));
+        if (randomBoolean()) {
+            int sliceOffset = randomIntBetween(0, bytesReference.length());
+            int sliceLength = randomIntBetween(0, bytesReference.length() - sliceOffset);
+            bytesReference = bytesReference.slice(sliceOffset, sliceLength);
+            expectedReference = expectedReference.slice(sliceOffset, sliceLength);
+        }
+
+        // iterating shouldn't need to copy the components into a single array
+        BytesRefIterator iterator = bytesReference.iterator();
+        BytesRefBuilder builder = new BytesRefBuilder();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            builder.append(ref);
+        }
+        assertEquals(expectedReference.toBytesRef(), builder.toBytesRef());
+
+        byte marker = (byte) randomIntBetween(Byte.MIN_VALUE, Byte.MAX_VALUE);
+        int from = randomIntBetween(0, bytesReference.length());
+        assertEquals(expectedReference.indexOf(marker, from), bytesReference.indexOf(marker, from));
+    }
+
     public void testImmutable() throws IOException {
         BytesReference bytesReference = newBytesReference(randomIntBetween(10, 3 * PAGE_SIZE));
         BytesRef bytesRef = BytesRef.deepCopyOf(bytesReference.toBytesRef());
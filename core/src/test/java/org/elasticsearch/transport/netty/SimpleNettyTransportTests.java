@@ -26,9 +26,15 @@ import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.test.transport.MockTransportService;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.AbstractSimpleTransportTestCase;
 import org.elasticsearch.transport.ConnectTransportException;
+import org.elasticsearch.transport.FutureTransportResponseHandler;
+import org.elasticsearch.transport.TcpTransport;
+import org.elasticsearch.transport.TransportRequestOptions;
+import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportSettings;
+import org.elasticsearch.transport.TransportStats;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -36,6 +42,9 @@ import java.net.UnknownHostException;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 
 public class SimpleNettyTransportTests extends AbstractSimpleTransportTestCase {
 
@@ -57,4 +66,72 @@ public class SimpleNettyTransportTests extends AbstractSimpleTransportTestCase {
             assertThat(e.getMessage(), containsString("[127.0.0.1:9876]"));
         }
     }
+
+    public void testActionCompression() throws Exception {
+        MockTransportService serviceC = build(Settings.builder()
+            .put("name", "TS_C")
+            .put(TcpTransport.COMPRESSION_SEARCH.getKey(), randomFrom("lz4", "deflate"))
+            .build(), Version.CURRENT);
+        try {
+            serviceC.acceptIncomingRequests();
+            DiscoveryNode nodeC = new DiscoveryNode("TS_C", serviceC.boundAddress().publishAddress(), emptyMap(), emptySet(),
+                Version.CURRENT);
+            serviceC.connectToNode(nodeA);
+            serviceA.connectToNode(nodeC);
+            final String searchAction = "indices:data/read/search[test]";
+            final String otherAction = "internal:test";
+            for (MockTransportService service : new MockTransportService[] {serviceA, serviceC}) {
+                for (String action : new String[] {searchAction, otherAction}) {
+                    service.registerRequestHandler(action, StringMessageRequest::new, ThreadPool.Names.SAME,
+                        (request, channel) -> channel.sendResponse(TransportResponse.Empty.INSTANCE));
+                }
+            }
+            StringBuilder message = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                message.append("compress me ");
+            }
+
+            // requests of other actions are not compressed
+            submit(serviceC, nodeA, otherAction, message.toString());
+            assertThat(serviceC.stats().getTxCompressedCount(), equalTo(0L));
+
+            // requests and responses of search actions are
+            submit(serviceC, nodeA, searchAction, message.toString());
+            TransportStats stats = serviceC.stats();
+            assertThat(stats.getTxCompressedCount(), equalTo(1L));
+            assertThat(stats.getTxCompressedSize().bytes(), greaterThan(0L));
+            assertThat(stats.getTxCompressedSize().bytes(), lessThan(stats.getTxCompressedUncompressedSize().bytes()));
+            assertThat(stats.getTxCompressionRatio(), lessThan(1d));
+
+            submit(serviceA, nodeC, searchAction, message.toString());
+            assertThat(serviceC.stats().getTxCompressedCount(), equalTo(2L));
+            assertThat(serviceA.stats().getTxCompressedCount(), equalTo(0L));
+
+            // requests that disable compression are not compressed, even if their action is
+            submit(serviceC, nodeA, searchAction, message.toString(), TransportRequestOptions.builder().withCompress(false).build());
+            assertThat(serviceC.stats().getTxCompressedCount(), equalTo(2L));
+
+            // requests that ask for compression are compressed, even if their action is not
+            submit(serviceA, nodeC, otherAction, message.toString(), TransportRequestOptions.builder().withCompress(true).build());
+            assertThat(serviceA.stats().getTxCompressedCount(), equalTo(1L));
+            assertThat(serviceC.stats().getTxCompressedCount(), equalTo(2L));
+        } finally {
+            serviceC.close();
+        }
+    }
+
+    private void submit(MockTransportService service, DiscoveryNode node, String action, String message) {
+        submit(service, node, action, message, TransportRequestOptions.EMPTY);
+    }
+
+    private void submit(MockTransportService service, DiscoveryNode node, String action, String message,
+                        TransportRequestOptions options) {
+        service.submitRequest(node, action, new StringMessageRequest(message), options,
+            new FutureTransportResponseHandler<TransportResponse.Empty>() {
+                @Override
+                public TransportResponse.Empty newInstance() {
+                    return TransportResponse.Empty.INSTANCE;
+                }
+            }).txGet();
+    }
 }
@@ -29,8 +29,10 @@ import org.joni.Syntax;
 import org.joni.exception.ValueException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -58,6 +60,8 @@ final class Grok {
     private final boolean namedCaptures;
     private final Regex compiledExpression;
     private final String expression;
+    private final String[] anchoredPrefixes;
+    private final String[] lineAnchoredPrefixes;
 
 
     public Grok(Map<String, String> patternBank, String grokPattern) {
@@ -72,6 +76,19 @@ final class Grok {
         this.expression = toRegex(grokPattern);
         byte[] expressionBytes = expression.getBytes(StandardCharsets.UTF_8);
         this.compiledExpression = new Regex(expressionBytes, 0, expressionBytes.length, Option.DEFAULT, UTF8Encoding.INSTANCE);
+
+        List<String> prefixes = anchoredPrefixes(expression);
+        if (prefixes == null) {
+            this.anchoredPrefixes = null;
+            this.lineAnchoredPrefixes = null;
+        } else {
+            this.anchoredPrefixes = prefixes.toArray(new String[prefixes.size()]);
+            this.lineAnchoredPrefixes = new String[anchoredPrefixes.length];
+            for (int i = 0; i < anchoredPrefixes.length; i++) {
+                // ^ matches at the start of every line
+                lineAnchoredPrefixes[i] = "\n" + anchoredPrefixes[i];
+            }
+        }
     }
 
 
@@ -126,12 +143,18 @@ final class Grok {
     }
 
     public boolean match(String text) {
+        if (mayMatch(text) == false) {
+            return false;
+        }
         Matcher matcher = compiledExpression.matcher(text.getBytes(StandardCharsets.UTF_8));
         int result = matcher.search(0, text.length(), Option.DEFAULT);
         return (result != -1);
     }
 
     public Map<String, Object> captures(String text) {
+        if (mayMatch(text) == false) {
+            return null;
+        }
         byte[] textAsBytes = text.getBytes(StandardCharsets.UTF_8);
         Map<String, Object> fields = new HashMap<>();
         Matcher matcher = compiledExpression.matcher(textAsBytes);
@@ -157,5 +180,167 @@ final class Grok {
         }
         return null;
     }
+
+    /**
+     * A cheap check that runs before the regex engine: if every alternative of the grok pattern is anchored to the start of a line
+     * and starts with a literal, then a text that has none of these literals at the start of one of its lines can't match.
+     *
+     * @return <code>false</code> if the text can't match, <code>true</code> if it may match
+     */
+    boolean mayMatch(String text) {
+        if (anchoredPrefixes == null) {
+            return true;
+        }
+        for (int i = 0; i < anchoredPrefixes.length; i++) {
+            if (text.startsWith(anchoredPrefixes[i]) || text.contains(lineAnchoredPrefixes[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the literal that each alternative of the pattern must start with, or <code>null</code> if some alternative isn't
+     *         anchored to the start of a line or doesn't start with a literal
+     */
+    static List<String> anchoredPrefixes(String pattern) {
+        if (pattern.contains("[]") || pattern.contains("[^]")) {
+            // a closing bracket right at the start of a character class is a literal, which we don't bother to track
+            return null;
+        }
+        List<String> prefixes = new ArrayList<>();
+        for (String alternative : topLevelAlternatives(pattern)) {
+            String group = unwrapGroup(alternative);
+            if (group != null) {
+                List<String> groupPrefixes = anchoredPrefixes(group);
+                if (groupPrefixes == null) {
+                    return null;
+                }
+                prefixes.addAll(groupPrefixes);
+            } else {
+                String prefix = anchoredLiteralPrefix(alternative);
+                if (prefix == null) {
+                    return null;
+                }
+                prefixes.add(prefix);
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * Splits a pattern at its top level alternations, e.g. <code>a|(b|c)</code> into <code>a</code> and <code>(b|c)</code>.
+     */
+    static List<String> topLevelAlternatives(String pattern) {
+        List<String> alternatives = new ArrayList<>();
+        int depth = 0;
+        int classDepth = 0;
+        int start = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    alternatives.add(pattern.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+        alternatives.add(pattern.substring(start));
+        return alternatives;
+    }
+
+    /**
+     * @return the content of the group that spans the whole alternative, if it is a plain, non-capturing or named group, or
+     *         <code>null</code> otherwise
+     */
+    static String unwrapGroup(String alternative) {
+        if (alternative.length() < 2 || alternative.charAt(0) != '(' || alternative.charAt(alternative.length() - 1) != ')') {
+            return null;
+        }
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < alternative.length(); i++) {
+            char c = alternative.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0 && i != alternative.length() - 1) {
+                    // the first group closes before the end of the alternative
+                    return null;
+                }
+            }
+        }
+        if (alternative.startsWith("(?:")) {
+            return alternative.substring(3, alternative.length() - 1);
+        } else if (alternative.startsWith("(?<") && alternative.length() > 3
+                && (Character.isLetter(alternative.charAt(3)) || alternative.charAt(3) == '_')) {
+            int endOfName = alternative.indexOf('>');
+            return endOfName == -1 ? null : alternative.substring(endOfName + 1, alternative.length() - 1);
+        } else if (alternative.startsWith("(?")) {
+            // look arounds, atomic groups and options change what the group means
+            return null;
+        }
+        return alternative.substring(1, alternative.length() - 1);
+    }
+
+    /**
+     * @return the literal that the alternative starts with, if it is anchored at the start of a line, or <code>null</code>
+     */
+    static String anchoredLiteralPrefix(String alternative) {
+        int i;
+        if (alternative.startsWith("^")) {
+            i = 1;
+        } else if (alternative.startsWith("\\A")) {
+            i = 2;
+        } else {
+            return null;
+        }
+        StringBuilder prefix = new StringBuilder();
+        while (i < alternative.length()) {
+            char c = alternative.charAt(i);
+            char literal;
+            int next;
+            if (c == '\\') {
+                if (i + 1 >= alternative.length() || Character.isLetterOrDigit(alternative.charAt(i + 1))) {
+                    // character types, anchors and escape sequences
+                    break;
+                }
+                literal = alternative.charAt(i + 1);
+                next = i + 2;
+            } else if (".[](){}*+?^$|%#".indexOf(c) >= 0) {
+                // meta characters and grok pattern references
+                break;
+            } else {
+                literal = c;
+                next = i + 1;
+            }
+            if (next < alternative.length() && "*?{".indexOf(alternative.charAt(next)) >= 0) {
+                // the literal is optional or is repeated a variable number of times
+                break;
+            }
+            prefix.append(literal);
+            i = next;
+            if (i < alternative.length() && alternative.charAt(i) == '+') {
+                break;
+            }
+        }
+        return prefix.length() == 0 ? null : prefix.toString();
+    }
 }
 
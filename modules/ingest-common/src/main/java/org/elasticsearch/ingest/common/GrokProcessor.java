@@ -19,15 +19,20 @@
 
 package org.elasticsearch.ingest.common;
 
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.ingest.AbstractProcessor;
 import org.elasticsearch.ingest.ConfigurationUtils;
 import org.elasticsearch.ingest.IngestDocument;
 import org.elasticsearch.ingest.Processor;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 import static org.elasticsearch.ingest.ConfigurationUtils.newConfigurationException;
 
@@ -45,9 +50,13 @@ public final class GrokProcessor extends AbstractProcessor {
     }
 
     public GrokProcessor(String tag, Map<String, String> patternBank, List<String> matchPatterns, String matchField, boolean traceMatch) {
+        this(tag, new Grok(patternBank, combinePatterns(matchPatterns, traceMatch)), matchField, traceMatch);
+    }
+
+    GrokProcessor(String tag, Grok grok, String matchField, boolean traceMatch) {
         super(tag);
         this.matchField = matchField;
-        this.grok = new Grok(patternBank, combinePatterns(matchPatterns, traceMatch));
+        this.grok = grok;
         this.traceMatch = traceMatch;
     }
 
@@ -116,10 +125,18 @@ public final class GrokProcessor extends AbstractProcessor {
 
     public static final class Factory implements Processor.Factory {
 
+        static final int GROK_CACHE_SIZE = 1000;
+
         private final Map<String, String> builtinPatterns;
+        // compiling a grok expression is expensive and many pipelines share the same expressions, so these are compiled once
+        // per node and are keyed by the combined pattern and the custom pattern definitions
+        private final Cache<Tuple<String, Map<String, String>>, Grok> grokCache;
 
         public Factory(Map<String, String> builtinPatterns) {
             this.builtinPatterns = builtinPatterns;
+            this.grokCache = CacheBuilder.<Tuple<String, Map<String, String>>, Grok>builder()
+                .setMaximumWeight(GROK_CACHE_SIZE)
+                .build();
         }
 
         @Override
@@ -132,17 +149,22 @@ public final class GrokProcessor extends AbstractProcessor {
                 throw newConfigurationException(TYPE, processorTag, "patterns", "List of patterns must not be empty");
             }
             Map<String, String> customPatternBank = ConfigurationUtils.readOptionalMap(TYPE, processorTag, config, "pattern_definitions");
-            Map<String, String> patternBank = new HashMap<>(builtinPatterns);
-            if (customPatternBank != null) {
-                patternBank.putAll(customPatternBank);
-            }
+            String combinedPattern = combinePatterns(matchPatterns, traceMatch);
+            Map<String, String> customPatterns = customPatternBank == null ? Collections.emptyMap() : customPatternBank;
 
+            Grok grok;
             try {
-                return new GrokProcessor(processorTag, patternBank, matchPatterns, matchField, traceMatch);
-            } catch (Exception e) {
+                grok = grokCache.computeIfAbsent(new Tuple<>(combinedPattern, customPatterns), key -> {
+                    Map<String, String> patternBank = new HashMap<>(builtinPatterns);
+                    patternBank.putAll(customPatterns);
+                    return new Grok(patternBank, combinedPattern);
+                });
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
                 throw newConfigurationException(TYPE, processorTag, "patterns",
-                    "Invalid regex pattern found in: " + matchPatterns + ". " + e.getMessage());
+                    "Invalid regex pattern found in: " + matchPatterns + ". " + cause.getMessage());
             }
+            return new GrokProcessor(processorTag, grok, matchField, traceMatch);
 
         }
     }
@@ -28,6 +28,8 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class GrokProcessorFactoryTests extends ESTestCase {
 
@@ -101,4 +103,26 @@ public class GrokProcessorFactoryTests extends ESTestCase {
         assertThat(e.getMessage(),
             equalTo("[patterns] Invalid regex pattern found in: [%{MY_PATTERN:name}!]. premature end of char-class"));
     }
+
+    public void testGrokExpressionsAreShared() throws Exception {
+        GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.emptyMap());
+        GrokProcessor first = factory.create("first", grokConfig("%{MY_PATTERN:name}!", "foo"));
+        GrokProcessor second = factory.create("second", grokConfig("%{MY_PATTERN:name}!", "foo"));
+        assertThat(second.getGrok(), sameInstance(first.getGrok()));
+
+        GrokProcessor otherDefinition = factory.create("other", grokConfig("%{MY_PATTERN:name}!", "bar"));
+        assertThat(otherDefinition.getGrok(), not(sameInstance(first.getGrok())));
+        assertThat(otherDefinition.getGrok().match("bar!"), equalTo(true));
+
+        GrokProcessor otherPattern = factory.create("other", grokConfig("%{MY_PATTERN:name}?", "foo"));
+        assertThat(otherPattern.getGrok(), not(sameInstance(first.getGrok())));
+    }
+
+    private static Map<String, Object> grokConfig(String pattern, String definition) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "_field");
+        config.put("patterns", Collections.singletonList(pattern));
+        config.put("pattern_definitions", new HashMap<>(Collections.singletonMap("MY_PATTERN", definition)));
+        return config;
+    }
 }
@@ -24,10 +24,12 @@ import org.junit.Before;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
@@ -307,4 +309,41 @@ public class GrokTests extends ESTestCase {
         Grok grok = new Grok(bank, "%{MONTHDAY:greatday}");
         assertThat(grok.captures("nomatch"), nullValue());
     }
+
+    public void testAnchoredPrefixes() {
+        assertThat(Grok.anchoredPrefixes("^GET %{URIPATH:path}"), contains("GET "));
+        assertThat(Grok.anchoredPrefixes("\\A\\[INFO\\] %{GREEDYDATA:message}"), contains("[INFO] "));
+        assertThat(Grok.anchoredPrefixes("(?:^GET .*)|(?:^POST .*)"), contains("GET ", "POST "));
+        assertThat(Grok.anchoredPrefixes("(?<method>^(?:GET|HEAD) .*)"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^(?:GET|HEAD) .*"), nullValue());
+        // the last literal is optional or repeated
+        assertThat(Grok.anchoredPrefixes("^abc?d"), contains("ab"));
+        assertThat(Grok.anchoredPrefixes("^ab*"), contains("a"));
+        assertThat(Grok.anchoredPrefixes("^ab{2}"), contains("a"));
+        assertThat(Grok.anchoredPrefixes("^ab+c"), contains("ab"));
+        // not every alternative is anchored or starts with a literal
+        assertThat(Grok.anchoredPrefixes("^GET .*|POST .*"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^GET .*|^.*"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^\\d+"), nullValue());
+        assertThat(Grok.anchoredPrefixes("%{SYSLOGLINE}"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^[|]a|^b"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^[]a]|^b"), nullValue());
+        assertThat(Grok.anchoredPrefixes("^(?=a)b"), nullValue());
+    }
+
+    public void testAnchoredPrefixPrefilter() {
+        Grok grok = new Grok(basePatterns, "^GET %{URIPATH:path}");
+        assertThat(grok.mayMatch("POST /index.html"), is(false));
+        assertThat(grok.captures("POST /index.html"), nullValue());
+        assertThat(grok.match("POST /index.html"), is(false));
+        assertThat(grok.mayMatch("GET /index.html"), is(true));
+        assertThat(grok.captures("GET /index.html"), equalTo(Collections.singletonMap("path", "/index.html")));
+        // ^ matches at the start of every line
+        assertThat(grok.mayMatch("POST /index.html\nGET /index.html"), is(true));
+        assertThat(grok.captures("POST /index.html\nGET /index.html"), equalTo(Collections.singletonMap("path", "/index.html")));
+
+        grok = new Grok(basePatterns, "GET %{URIPATH:path}");
+        assertThat(grok.mayMatch("POST /index.html"), is(true));
+        assertThat(grok.captures("POST /index.html"), nullValue());
+    }
 }
@@ -18,11 +18,14 @@
  */
 package org.elasticsearch.percolator;
 
+import org.apache.lucene.document.BinaryPoint;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.Fields;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.PrefixCodedTerms;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
@@ -36,6 +39,7 @@ import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DisjunctionMaxQuery;
 import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.SynonymQuery;
 import org.apache.lucene.search.TermQuery;
@@ -47,12 +51,14 @@ import org.apache.lucene.search.spans.SpanQuery;
 import org.apache.lucene.search.spans.SpanTermQuery;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.StringHelper;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
 import org.elasticsearch.common.lucene.search.MatchNoDocsQuery;
 import org.elasticsearch.index.mapper.ParseContext;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -72,6 +78,15 @@ public final class ExtractQueryTermsService {
     public static final String EXTRACTION_PARTIAL = "partial";
     public static final String EXTRACTION_FAILED = "failed";
 
+    /**
+     * Ranges are indexed as a two dimensional point, the lower bound in the first dimension and the upper bound in the second. Each
+     * bound starts with a hash of the field name so that only ranges on the same field can intersect, followed by the point value
+     * padded to a fixed length.
+     */
+    static final int RANGE_FIELD_HASH_BYTES = Integer.BYTES;
+    static final int RANGE_BYTES_PER_DIM = PointValues.MAX_NUM_BYTES;
+    static final int MAX_RANGE_VALUE_BYTES = RANGE_BYTES_PER_DIM - RANGE_FIELD_HASH_BYTES;
+
     static final Map<Class<? extends Query>, Function<Query, Result>> queryProcessors;
 
     static {
@@ -92,6 +107,7 @@ public final class ExtractQueryTermsService {
         map.put(BooleanQuery.class, booleanQuery());
         map.put(DisjunctionMaxQuery.class, disjunctionMaxQuery());
         map.put(SynonymQuery.class, synonymQuery());
+        map.put(PointRangeQuery.class, pointRangeQuery());
         queryProcessors = Collections.unmodifiableMap(map);
     }
 
@@ -99,7 +115,7 @@ public final class ExtractQueryTermsService {
     }
 
     /**
-     * Extracts all terms from the specified query and adds it to the specified document.
+     * Extracts all terms and ranges from the specified query and adds it to the specified document.
      *
      * @param query                 The query to extract terms from
      * @param document              The document to add the extracted terms to
@@ -107,10 +123,12 @@ public final class ExtractQueryTermsService {
      * @param extractionResultField The field contains whether query term extraction was successful, partial or
      *                              failed. (For example the query contained an unsupported query (e.g. WildcardQuery)
      *                              then query extraction would fail)
+     * @param extractedRangeField   The field in the document holding the extracted ranges or <code>null</code> if the ranges of this
+     *                              query can't be used to select it. (For example because they depend on the current time)
      * @param fieldType             The field type for the query metadata field
      */
     public static void extractQueryTerms(Query query, ParseContext.Document document, String queryTermsFieldField,
-                                         String extractionResultField, FieldType fieldType) {
+                                         String extractionResultField, String extractedRangeField, FieldType fieldType) {
         Result result;
         try {
             result = extractQueryTerms(query);
@@ -118,6 +136,10 @@ public final class ExtractQueryTermsService {
             document.add(new Field(extractionResultField, EXTRACTION_FAILED, fieldType));
             return;
         }
+        if (result.ranges.isEmpty() == false && extractedRangeField == null) {
+            document.add(new Field(extractionResultField, EXTRACTION_FAILED, fieldType));
+            return;
+        }
         for (Term term : result.terms) {
             BytesRefBuilder builder = new BytesRefBuilder();
             builder.append(new BytesRef(term.field()));
@@ -125,6 +147,11 @@ public final class ExtractQueryTermsService {
             builder.append(term.bytes());
             document.add(new Field(queryTermsFieldField, builder.toBytesRef(), fieldType));
         }
+        for (Range range : result.ranges) {
+            byte[] fieldHash = fieldHash(range.field);
+            document.add(new BinaryPoint(extractedRangeField, encodeRangeBound(fieldHash, range.lowerPoint),
+                    encodeRangeBound(fieldHash, range.upperPoint)));
+        }
         if (result.verified) {
             document.add(new Field(extractionResultField, EXTRACTION_COMPLETE, fieldType));
         } else {
@@ -162,11 +189,64 @@ public final class ExtractQueryTermsService {
         return new TermsQuery(extractedTerms);
     }
 
+    /**
+     * Creates a query that selects all percolator queries with an extracted range that intersects the range of values of a point
+     * field of the specified index reader, or <code>null</code> if the index reader has no point fields ranges can be extracted for.
+     */
+    public static Query createQueryRangesQuery(IndexReader indexReader, String extractedRangeField) throws IOException {
+        Objects.requireNonNull(extractedRangeField);
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+        for (FieldInfo info : MultiFields.getMergedFieldInfos(indexReader)) {
+            if (info.getPointDimensionCount() != 1 || info.getPointNumBytes() > MAX_RANGE_VALUE_BYTES) {
+                continue;
+            }
+            byte[] minValue = PointValues.getMinPackedValue(indexReader, info.name);
+            byte[] maxValue = PointValues.getMaxPackedValue(indexReader, info.name);
+            if (minValue == null || maxValue == null) {
+                continue;
+            }
+            byte[] fieldHash = fieldHash(info.name);
+            byte[] lowest = new byte[RANGE_BYTES_PER_DIM];
+            System.arraycopy(fieldHash, 0, lowest, 0, RANGE_FIELD_HASH_BYTES);
+            byte[] highest = new byte[RANGE_BYTES_PER_DIM];
+            System.arraycopy(fieldHash, 0, highest, 0, RANGE_FIELD_HASH_BYTES);
+            Arrays.fill(highest, RANGE_FIELD_HASH_BYTES, RANGE_BYTES_PER_DIM, (byte) 0xff);
+            // A range intersects the values of the document if its lower bound isn't above the document's maximum value
+            // and its upper bound isn't below the document's minimum value:
+            byte[][] lower = new byte[][] {lowest, encodeRangeBound(fieldHash, minValue)};
+            byte[][] upper = new byte[][] {encodeRangeBound(fieldHash, maxValue), highest};
+            builder.add(BinaryPoint.newRangeQuery(extractedRangeField, lower, upper), BooleanClause.Occur.SHOULD);
+            clauses++;
+        }
+        return clauses == 0 ? null : builder.build();
+    }
+
+    static byte[] fieldHash(String field) {
+        BytesRef fieldBr = new BytesRef(field);
+        int hash = StringHelper.murmurhash3_x86_32(fieldBr.bytes, fieldBr.offset, fieldBr.length, 0);
+        return new byte[] {(byte) (hash >> 24), (byte) (hash >> 16), (byte) (hash >> 8), (byte) hash};
+    }
+
+    /**
+     * Encodes a bound of a range, the point value is padded on the left with zeros so that values of the same field, which have the
+     * same length, keep their order.
+     */
+    static byte[] encodeRangeBound(byte[] fieldHash, byte[] value) {
+        assert value.length <= MAX_RANGE_VALUE_BYTES;
+        byte[] encoded = new byte[RANGE_BYTES_PER_DIM];
+        System.arraycopy(fieldHash, 0, encoded, 0, RANGE_FIELD_HASH_BYTES);
+        System.arraycopy(value, 0, encoded, RANGE_BYTES_PER_DIM - value.length, value.length);
+        return encoded;
+    }
+
     /**
      * Extracts all query terms from the provided query and adds it to specified list.
      * <p>
      * From boolean query with no should clauses or phrase queries only the longest term are selected,
      * since that those terms are likely to be the rarest. Boolean query's must_not clauses are always ignored.
+     * Clauses with terms are preferred over clauses with ranges, since a range usually matches many more documents.
      * <p>
      * If from part of the query, no query terms can be extracted then term extraction is stopped and
      * an UnsupportedQueryException is thrown.
@@ -230,6 +310,18 @@ public final class ExtractQueryTermsService {
         };
     }
 
+    static Function<Query, Result> pointRangeQuery() {
+        return query -> {
+            PointRangeQuery pointRangeQuery = (PointRangeQuery) query;
+            if (pointRangeQuery.getNumDims() != 1 || pointRangeQuery.getBytesPerDim() > MAX_RANGE_VALUE_BYTES) {
+                throw new UnsupportedQueryException(query);
+            }
+            // The document's values are only compared with the range by their minimum and maximum, so this needs to be verified
+            Range range = new Range(pointRangeQuery.getField(), pointRangeQuery.getLowerPoint(), pointRangeQuery.getUpperPoint());
+            return new Result(false, Collections.emptySet(), Collections.singleton(range));
+        };
+    }
+
     static Function<Query, Result> commonTermsQuery() {
         return query -> {
             List<Term> terms = ((CommonTermsQuery) query).getTerms();
@@ -327,7 +419,7 @@ public final class ExtractQueryTermsService {
                 }
             }
             if (numRequiredClauses > 0) {
-                Set<Term> bestClause = null;
+                Result bestClause = null;
                 UnsupportedQueryException uqe = null;
                 for (BooleanClause clause : clauses) {
                     if (clause.isRequired() == false) {
@@ -344,10 +436,10 @@ public final class ExtractQueryTermsService {
                         uqe = e;
                         continue;
                     }
-                    bestClause = selectTermListWithTheLongestShortestTerm(temp.terms, bestClause);
+                    bestClause = selectBestResult(temp, bestClause);
                 }
                 if (bestClause != null) {
-                    return new Result(false, bestClause);
+                    return new Result(false, bestClause.terms, bestClause.ranges);
                 } else {
                     if (uqe != null) {
                         // we're unable to select the best clause and an exception occurred, so we bail
@@ -379,14 +471,39 @@ public final class ExtractQueryTermsService {
     static Result handleDisjunction(List<Query> disjunctions, int minimumShouldMatch, boolean otherClauses) {
         boolean verified = minimumShouldMatch <= 1 && otherClauses == false;
         Set<Term> terms = new HashSet<>();
+        Set<Range> ranges = new HashSet<>();
         for (Query disjunct : disjunctions) {
             Result subResult = extractQueryTerms(disjunct);
             if (subResult.verified == false) {
                 verified = false;
             }
             terms.addAll(subResult.terms);
+            ranges.addAll(subResult.ranges);
+        }
+        return new Result(verified, terms, ranges);
+    }
+
+    static Result selectBestResult(Result result1, Result result2) {
+        if (result1 == null) {
+            return result2;
+        } else if (result2 == null) {
+            return result1;
+        }
+        boolean onlyTerms1 = result1.ranges.isEmpty();
+        boolean onlyTerms2 = result2.ranges.isEmpty();
+        if (onlyTerms1 && onlyTerms2) {
+            Set<Term> bestTerms = selectTermListWithTheLongestShortestTerm(result1.terms, result2.terms);
+            return bestTerms == result1.terms ? result1 : result2;
+        } else if (onlyTerms1) {
+            return result1;
+        } else if (onlyTerms2) {
+            return result2;
+        } else {
+            // both have ranges, keep the one with the fewest extractions since it is likely to select the fewest queries
+            int size1 = result1.terms.size() + result1.ranges.size();
+            int size2 = result2.terms.size() + result2.ranges.size();
+            return size1 <= size2 ? result1 : result2;
         }
-        return new Result(verified, terms);
     }
 
     static Set<Term> selectTermListWithTheLongestShortestTerm(Set<Term> terms1, Set<Term> terms2) {
@@ -417,15 +534,56 @@ public final class ExtractQueryTermsService {
     static class Result {
 
         final Set<Term> terms;
+        final Set<Range> ranges;
         final boolean verified;
 
         Result(boolean verified, Set<Term> terms) {
+            this(verified, terms, Collections.emptySet());
+        }
+
+        Result(boolean verified, Set<Term> terms, Set<Range> ranges) {
             this.terms = terms;
+            this.ranges = ranges;
             this.verified = verified;
         }
 
     }
 
+    /**
+     * The bounds of a range on a one dimensional point field, encoded the way the field encodes its points.
+     */
+    static class Range {
+
+        final String field;
+        final byte[] lowerPoint;
+        final byte[] upperPoint;
+
+        Range(String field, byte[] lowerPoint, byte[] upperPoint) {
+            this.field = field;
+            this.lowerPoint = lowerPoint;
+            this.upperPoint = upperPoint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Range range = (Range) o;
+            return field.equals(range.field) && Arrays.equals(lowerPoint, range.lowerPoint)
+                    && Arrays.equals(upperPoint, range.upperPoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, Arrays.hashCode(lowerPoint), Arrays.hashCode(upperPoint));
+        }
+
+    }
+
     /**
      * Exception indicating that none or some query terms couldn't extracted from a percolator query.
      */
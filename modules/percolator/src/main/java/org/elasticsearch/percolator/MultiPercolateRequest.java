@@ -92,10 +92,9 @@ public class MultiPercolateRequest extends ActionRequest<MultiPercolateRequest>
     public MultiPercolateRequest add(BytesReference data, boolean allowExplicitIndex) throws Exception {
         XContent xContent = XContentFactory.xContent(data);
         int from = 0;
-        int length = data.length();
         byte marker = xContent.streamSeparator();
         while (true) {
-            int nextMarker = findNextMarker(marker, from, data, length);
+            int nextMarker = data.indexOf(marker, from);
             if (nextMarker == -1) {
                 break;
             }
@@ -149,7 +148,7 @@ public class MultiPercolateRequest extends ActionRequest<MultiPercolateRequest>
             from = nextMarker + 1;
 
             // now for the body
-            nextMarker = findNextMarker(marker, from, data, length);
+            nextMarker = data.indexOf(marker, from);
             if (nextMarker == -1) {
                 break;
             }
@@ -237,15 +236,6 @@ public class MultiPercolateRequest extends ActionRequest<MultiPercolateRequest>
         percolateRequest.indicesOptions(IndicesOptions.fromMap(header, indicesOptions));
     }
 
-    private int findNextMarker(byte marker, int from, BytesReference data, int length) {
-        for (int i = from; i < length; i++) {
-            if (data.get(i) == marker) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     /**
      * @return The list of already set percolate requests.
      */
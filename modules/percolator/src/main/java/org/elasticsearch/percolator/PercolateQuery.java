@@ -39,10 +39,13 @@ import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.MatchNoDocsQuery;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 import static org.apache.lucene.search.BooleanClause.Occur.FILTER;
+import static org.apache.lucene.search.BooleanClause.Occur.SHOULD;
 
 public final class PercolateQuery extends Query implements Accountable {
 
@@ -53,7 +56,7 @@ public final class PercolateQuery extends Query implements Accountable {
 
         private final String docType;
         private final QueryStore queryStore;
-        private final BytesReference documentSource;
+        private final List<BytesReference> documents;
         private final IndexSearcher percolatorIndexSearcher;
 
         private Query queriesMetaDataQuery;
@@ -67,20 +70,32 @@ public final class PercolateQuery extends Query implements Accountable {
          * @param percolatorIndexSearcher   The index searcher on top of the in-memory index that holds the document being percolated
          */
         public Builder(String docType, QueryStore queryStore, BytesReference documentSource, IndexSearcher percolatorIndexSearcher) {
+            this(docType, queryStore, Collections.singletonList(Objects.requireNonNull(documentSource)), percolatorIndexSearcher);
+        }
+
+        /**
+         * @param docType                   The type of the documents being percolated
+         * @param queryStore                The lookup holding all the percolator queries as Lucene queries.
+         * @param documents                 The sources of the documents being percolated
+         * @param percolatorIndexSearcher   The index searcher on top of the in-memory index that holds the documents being percolated
+         */
+        public Builder(String docType, QueryStore queryStore, List<BytesReference> documents, IndexSearcher percolatorIndexSearcher) {
             this.docType = Objects.requireNonNull(docType);
             this.queryStore = Objects.requireNonNull(queryStore);
-            this.documentSource = Objects.requireNonNull(documentSource);
+            this.documents = Objects.requireNonNull(documents);
             this.percolatorIndexSearcher = Objects.requireNonNull(percolatorIndexSearcher);
         }
 
         /**
-         * Optionally sets a query that reduces the number of queries to percolate based on extracted terms from
+         * Optionally sets a query that reduces the number of queries to percolate based on extracted terms and ranges from
          * the document to be percolated.
          * @param extractedTermsFieldName   The name of the field to get the extracted terms from
+         * @param extractedRangeFieldName   The name of the field to get the extracted ranges from
          * @param extractionResultField     The field to indicate for a document whether query term extraction was complete,
          *                                  partial or failed. If query extraction was complete, the MemoryIndex doesn't
          */
-        public void extractQueryTermsQuery(String extractedTermsFieldName, String extractionResultField) throws IOException {
+        public void extractQueryTermsQuery(String extractedTermsFieldName, String extractedRangeFieldName,
+                                           String extractionResultField) throws IOException {
             // We can only skip the MemoryIndex verification when percolating a single document.
             // When the document being percolated contains a nested object field then the MemoryIndex contains multiple
             // documents. In this case the term query that indicates whether memory index verification can be skipped
@@ -88,13 +103,23 @@ public final class PercolateQuery extends Query implements Accountable {
             if (percolatorIndexSearcher.getIndexReader().maxDoc() == 1) {
                 this.verifiedQueriesQuery = new TermQuery(new Term(extractionResultField, ExtractQueryTermsService.EXTRACTION_COMPLETE));
             }
-            this.queriesMetaDataQuery = ExtractQueryTermsService.createQueryTermsQuery(
+            Query queryTermsQuery = ExtractQueryTermsService.createQueryTermsQuery(
                     percolatorIndexSearcher.getIndexReader(), extractedTermsFieldName,
                     // include extractionResultField:failed, because docs with this term have no extractedTermsField
                     // and otherwise we would fail to return these docs. Docs that failed query term extraction
                     // always need to be verified by MemoryIndex:
                     new Term(extractionResultField, ExtractQueryTermsService.EXTRACTION_FAILED)
             );
+            Query queryRangesQuery = ExtractQueryTermsService.createQueryRangesQuery(
+                    percolatorIndexSearcher.getIndexReader(), extractedRangeFieldName);
+            if (queryRangesQuery == null) {
+                this.queriesMetaDataQuery = queryTermsQuery;
+            } else {
+                BooleanQuery.Builder candidatesQuery = new BooleanQuery.Builder();
+                candidatesQuery.add(queryTermsQuery, SHOULD);
+                candidatesQuery.add(queryRangesQuery, SHOULD);
+                this.queriesMetaDataQuery = candidatesQuery.build();
+            }
         }
 
         /**
@@ -116,7 +141,7 @@ public final class PercolateQuery extends Query implements Accountable {
             if (queriesMetaDataQuery != null) {
                 queriesQuery.add(queriesMetaDataQuery, FILTER);
             }
-            return new PercolateQuery(docType, queryStore, documentSource, queriesQuery.build(), percolatorIndexSearcher,
+            return new PercolateQuery(docType, queryStore, documents, queriesQuery.build(), percolatorIndexSearcher,
                     verifiedQueriesQuery);
         }
 
@@ -124,15 +149,15 @@ public final class PercolateQuery extends Query implements Accountable {
 
     private final String documentType;
     private final QueryStore queryStore;
-    private final BytesReference documentSource;
+    private final List<BytesReference> documents;
     private final Query percolatorQueriesQuery;
     private final Query verifiedQueriesQuery;
     private final IndexSearcher percolatorIndexSearcher;
 
-    private PercolateQuery(String documentType, QueryStore queryStore, BytesReference documentSource,
+    private PercolateQuery(String documentType, QueryStore queryStore, List<BytesReference> documents,
                            Query percolatorQueriesQuery, IndexSearcher percolatorIndexSearcher, Query verifiedQueriesQuery) {
         this.documentType = documentType;
-        this.documentSource = documentSource;
+        this.documents = documents;
         this.percolatorQueriesQuery = percolatorQueriesQuery;
         this.queryStore = queryStore;
         this.percolatorIndexSearcher = percolatorIndexSearcher;
@@ -143,7 +168,7 @@ public final class PercolateQuery extends Query implements Accountable {
     public Query rewrite(IndexReader reader) throws IOException {
         Query rewritten = percolatorQueriesQuery.rewrite(reader);
         if (rewritten != percolatorQueriesQuery) {
-            return new PercolateQuery(documentType, queryStore, documentSource, rewritten, percolatorIndexSearcher,
+            return new PercolateQuery(documentType, queryStore, documents, rewritten, percolatorIndexSearcher,
                     verifiedQueriesQuery);
         } else {
             return this;
@@ -261,8 +286,11 @@ public final class PercolateQuery extends Query implements Accountable {
         return documentType;
     }
 
-    public BytesReference getDocumentSource() {
-        return documentSource;
+    /**
+     * @return the sources of the documents being percolated, in the order they were indexed into the percolator index searcher
+     */
+    public List<BytesReference> getDocuments() {
+        return documents;
     }
 
     public QueryStore getQueryStore() {
@@ -278,7 +306,7 @@ public final class PercolateQuery extends Query implements Accountable {
         PercolateQuery that = (PercolateQuery) o;
 
         if (!documentType.equals(that.documentType)) return false;
-        return documentSource.equals(that.documentSource);
+        return documents.equals(that.documents);
 
     }
 
@@ -286,19 +314,30 @@ public final class PercolateQuery extends Query implements Accountable {
     public int hashCode() {
         int result = classHash();
         result = 31 * result + documentType.hashCode();
-        result = 31 * result + documentSource.hashCode();
+        result = 31 * result + documents.hashCode();
         return result;
     }
 
     @Override
     public String toString(String s) {
-        return "PercolateQuery{document_type={" + documentType + "},document_source={" + documentSource.utf8ToString() +
+        StringBuilder sources = new StringBuilder();
+        for (BytesReference document : documents) {
+            if (sources.length() > 0) {
+                sources.append(',');
+            }
+            sources.append(document.utf8ToString());
+        }
+        return "PercolateQuery{document_type={" + documentType + "},document_sources={" + sources +
                 "},inner={" + percolatorQueriesQuery.toString(s)  + "}}";
     }
 
     @Override
     public long ramBytesUsed() {
-        return documentSource.ramBytesUsed();
+        long ramUsed = 0;
+        for (BytesReference document : documents) {
+            ramUsed += document.ramBytesUsed();
+        }
+        return ramUsed;
     }
 
     @FunctionalInterface
@@ -38,12 +38,19 @@ import org.elasticsearch.index.mapper.MapperParsingException;
 import org.elasticsearch.index.mapper.ParseContext;
 import org.elasticsearch.index.mapper.core.BinaryFieldMapper;
 import org.elasticsearch.index.mapper.core.KeywordFieldMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.DisMaxQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryParseContext;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.query.QueryShardException;
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.query.functionscore.FunctionScoreQueryBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -60,6 +67,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     public static final String EXTRACTED_TERMS_FIELD_NAME = "extracted_terms";
     public static final String EXTRACTION_RESULT_FIELD_NAME = "extraction_result";
+    public static final String EXTRACTED_RANGE_FIELD_NAME = "extracted_range";
     public static final String QUERY_BUILDER_FIELD_NAME = "query_builder_field";
 
     public static class Builder extends FieldMapper.Builder<Builder, PercolatorFieldMapper> {
@@ -80,6 +88,8 @@ public class PercolatorFieldMapper extends FieldMapper {
             ((PercolatorFieldType) fieldType).extractionResultField = extractionResultField.fieldType();
             BinaryFieldMapper queryBuilderField = createQueryBuilderFieldBuilder(context);
             ((PercolatorFieldType) fieldType).queryBuilderField = queryBuilderField.fieldType();
+            // The extracted ranges are indexed as points directly, there is no mapper for them since they are never searched directly
+            ((PercolatorFieldType) fieldType).extractedRangeField = context.path().pathAsText(EXTRACTED_RANGE_FIELD_NAME);
             context.path().remove();
             setupFieldType(context);
             return new PercolatorFieldMapper(name(), fieldType, defaultFieldType, context.indexSettings(),
@@ -119,6 +129,7 @@ public class PercolatorFieldMapper extends FieldMapper {
         private MappedFieldType queryTermsField;
         private MappedFieldType extractionResultField;
         private MappedFieldType queryBuilderField;
+        private String extractedRangeField;
 
         public PercolatorFieldType() {
             setIndexOptions(IndexOptions.NONE);
@@ -131,6 +142,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             queryTermsField = ref.queryTermsField;
             extractionResultField = ref.extractionResultField;
             queryBuilderField = ref.queryBuilderField;
+            extractedRangeField = ref.extractedRangeField;
         }
 
         public String getExtractedTermsField() {
@@ -145,6 +157,10 @@ public class PercolatorFieldMapper extends FieldMapper {
             return queryBuilderField.name();
         }
 
+        public String getExtractedRangeField() {
+            return extractedRangeField;
+        }
+
         @Override
         public MappedFieldType clone() {
             return new PercolatorFieldType(this);
@@ -222,11 +238,49 @@ public class PercolatorFieldMapper extends FieldMapper {
         }
 
         Query query = toQuery(queryShardContext, mapUnmappedFieldAsString, queryBuilder);
+        // Ranges relative to the current time are resolved when the query is parsed, so they change between indexing and percolating
+        String extractedRangeField = usesCurrentTime(queryBuilder) ? null : fieldType().getExtractedRangeField();
         ExtractQueryTermsService.extractQueryTerms(query, context.doc(), queryTermsField.name(), extractionResultField.name(),
-                queryTermsField.fieldType());
+                extractedRangeField, queryTermsField.fieldType());
         return null;
     }
 
+    @Override
+    public PercolatorFieldType fieldType() {
+        return (PercolatorFieldType) super.fieldType();
+    }
+
+    /**
+     * Whether the query may contain a range based on the current time. Only the query types whose clauses can end up in the
+     * extracted ranges are inspected.
+     */
+    static boolean usesCurrentTime(QueryBuilder queryBuilder) {
+        if (queryBuilder instanceof RangeQueryBuilder) {
+            RangeQueryBuilder rangeQueryBuilder = (RangeQueryBuilder) queryBuilder;
+            return containsNow(rangeQueryBuilder.from()) || containsNow(rangeQueryBuilder.to());
+        } else if (queryBuilder instanceof QueryStringQueryBuilder) {
+            return containsNow(((QueryStringQueryBuilder) queryBuilder).queryString());
+        } else if (queryBuilder instanceof BoolQueryBuilder) {
+            BoolQueryBuilder boolQueryBuilder = (BoolQueryBuilder) queryBuilder;
+            List<QueryBuilder> clauses = new ArrayList<>();
+            clauses.addAll(boolQueryBuilder.must());
+            clauses.addAll(boolQueryBuilder.filter());
+            clauses.addAll(boolQueryBuilder.should());
+            return clauses.stream().anyMatch(PercolatorFieldMapper::usesCurrentTime);
+        } else if (queryBuilder instanceof DisMaxQueryBuilder) {
+            return ((DisMaxQueryBuilder) queryBuilder).innerQueries().stream().anyMatch(PercolatorFieldMapper::usesCurrentTime);
+        } else if (queryBuilder instanceof ConstantScoreQueryBuilder) {
+            return usesCurrentTime(((ConstantScoreQueryBuilder) queryBuilder).innerQuery());
+        } else if (queryBuilder instanceof FunctionScoreQueryBuilder) {
+            return usesCurrentTime(((FunctionScoreQueryBuilder) queryBuilder).query());
+        }
+        return false;
+    }
+
+    private static boolean containsNow(Object value) {
+        return value instanceof String && ((String) value).contains("now");
+    }
+
     public static Query parseQuery(QueryShardContext context, boolean mapUnmappedFieldsAsString, XContentParser parser) throws IOException {
         return toQuery(context, mapUnmappedFieldsAsString, parseQueryBuilder(context.newParseContext(parser), parser.getTokenLocation()));
     }
@@ -33,6 +33,7 @@ import org.elasticsearch.common.text.Text;
 import org.elasticsearch.index.query.ParsedQuery;
 import org.elasticsearch.search.Highlighters;
 import org.elasticsearch.search.fetch.FetchSubPhase;
+import org.elasticsearch.search.highlight.HighlightField;
 import org.elasticsearch.search.highlight.HighlightPhase;
 import org.elasticsearch.search.highlight.SearchContextHighlight;
 import org.elasticsearch.search.internal.InternalSearchHit;
@@ -75,8 +76,13 @@ public final class PercolatorHighlightSubFetchPhase extends HighlightPhase {
 
         LeafReaderContext percolatorLeafReaderContext = percolatorIndexSearcher.getIndexReader().leaves().get(0);
         FetchSubPhase.HitContext hitContext = new FetchSubPhase.HitContext();
+        List<BytesReference> documents = percolateQuery.getDocuments();
+        if (documents.size() > 1) {
+            highlightMultipleDocuments(context, hits, percolateQuery, percolatorLeafReaderContext, hitContext);
+            return;
+        }
         SubSearchContext subSearchContext =
-                createSubSearchContext(context, percolatorLeafReaderContext, percolateQuery.getDocumentSource());
+                createSubSearchContext(context, percolatorLeafReaderContext, documents.get(0), 0);
 
         for (InternalSearchHit hit : hits) {
             final Query query;
@@ -100,6 +106,46 @@ public final class PercolatorHighlightSubFetchPhase extends HighlightPhase {
         }
     }
 
+    /**
+     * Highlights each of the documents that a hit's query matched, prefixing the highlighted field names with the slot of the document.
+     */
+    private void highlightMultipleDocuments(SearchContext context, InternalSearchHit[] hits, PercolateQuery percolateQuery,
+                                            LeafReaderContext percolatorLeafReaderContext, FetchSubPhase.HitContext hitContext) {
+        List<LeafReaderContext> ctxs = context.searcher().getIndexReader().leaves();
+        IndexSearcher percolatorIndexSearcher = percolateQuery.getPercolatorIndexSearcher();
+        PercolateQuery.QueryStore queryStore = percolateQuery.getQueryStore();
+        List<BytesReference> documents = percolateQuery.getDocuments();
+        try {
+            int[] rootDocs = PercolatorMatchedSlotSubFetchPhase.rootDocs(percolatorIndexSearcher);
+            for (InternalSearchHit hit : hits) {
+                LeafReaderContext ctx = ctxs.get(ReaderUtil.subIndex(hit.docId(), ctxs));
+                int segmentDocId = hit.docId() - ctx.docBase;
+                Query query = queryStore.getQueries(ctx).getQuery(segmentDocId);
+                if (query == null) {
+                    continue;
+                }
+                for (int slot : PercolatorMatchedSlotSubFetchPhase.matchingSlots(percolatorIndexSearcher, rootDocs, query)) {
+                    int rootDoc = rootDocs[slot];
+                    SubSearchContext subSearchContext =
+                            createSubSearchContext(context, percolatorLeafReaderContext, documents.get(slot), rootDoc);
+                    subSearchContext.parsedQuery(new ParsedQuery(query));
+                    hitContext.reset(
+                            new InternalSearchHit(rootDoc, "unknown", new Text(percolateQuery.getDocumentType()), Collections.emptyMap()),
+                            percolatorLeafReaderContext, rootDoc, percolatorIndexSearcher
+                    );
+                    hitContext.cache().clear();
+                    super.hitExecute(subSearchContext, hitContext);
+                    for (HighlightField field : hitContext.hit().getHighlightFields().values()) {
+                        String name = slot + "_" + field.name();
+                        hit.highlightFields().put(name, new HighlightField(name, field.fragments()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     static PercolateQuery locatePercolatorQuery(Query query) {
         if (query instanceof PercolateQuery) {
             return (PercolateQuery) query;
@@ -119,12 +165,13 @@ public final class PercolatorHighlightSubFetchPhase extends HighlightPhase {
         return null;
     }
 
-    private SubSearchContext createSubSearchContext(SearchContext context, LeafReaderContext leafReaderContext, BytesReference source) {
+    private SubSearchContext createSubSearchContext(SearchContext context, LeafReaderContext leafReaderContext, BytesReference source,
+                                                    int docId) {
         SubSearchContext subSearchContext = new SubSearchContext(context);
         subSearchContext.highlight(new SearchContextHighlight(context.highlight().fields()));
         // Enforce highlighting by source, because MemoryIndex doesn't support stored fields.
         subSearchContext.highlight().globalForceSource(true);
-        subSearchContext.lookup().source().setSegmentAndDocument(leafReaderContext, 0);
+        subSearchContext.lookup().source().setSegmentAndDocument(leafReaderContext, docId);
         subSearchContext.lookup().source().setSource(source);
         return subSearchContext;
     }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.search.SearchHitField;
+import org.elasticsearch.search.fetch.FetchSubPhase;
+import org.elasticsearch.search.internal.InternalSearchHit;
+import org.elasticsearch.search.internal.InternalSearchHitField;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.elasticsearch.percolator.PercolatorHighlightSubFetchPhase.locatePercolatorQuery;
+
+/**
+ * Adds a special field to each hit of a percolate query that percolates several documents, listing the slots of the
+ * documents that the hit's percolator query matched. A slot is the position of a document in the percolate query's documents.
+ */
+final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
+
+    static final String FIELD_NAME = "_percolator_document_slot";
+
+    @Override
+    public void hitsExecute(SearchContext context, InternalSearchHit[] hits) {
+        PercolateQuery percolateQuery = locatePercolatorQuery(context.query());
+        if (percolateQuery == null || percolateQuery.getDocuments().size() <= 1) {
+            // nothing to report, either there is no percolate query or the hit matched the one document being percolated
+            return;
+        }
+
+        List<LeafReaderContext> ctxs = context.searcher().getIndexReader().leaves();
+        IndexSearcher percolatorIndexSearcher = percolateQuery.getPercolatorIndexSearcher();
+        PercolateQuery.QueryStore queryStore = percolateQuery.getQueryStore();
+        try {
+            int[] rootDocs = rootDocs(percolatorIndexSearcher);
+            for (InternalSearchHit hit : hits) {
+                LeafReaderContext ctx = ctxs.get(ReaderUtil.subIndex(hit.docId(), ctxs));
+                int segmentDocId = hit.docId() - ctx.docBase;
+                Query query = queryStore.getQueries(ctx).getQuery(segmentDocId);
+                if (query == null) {
+                    continue;
+                }
+                List<Object> slots = new ArrayList<>();
+                for (int slot : matchingSlots(percolatorIndexSearcher, rootDocs, query)) {
+                    slots.add(slot);
+                }
+                if (hit.fieldsOrNull() == null) {
+                    hit.fields(new HashMap<>(2));
+                }
+                SearchHitField field = new InternalSearchHitField(FIELD_NAME, slots);
+                hit.fields().put(FIELD_NAME, field);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the ids of the root documents in the percolator index, in slot order. Nested documents are excluded because the
+     *         percolator index searcher never matches them.
+     */
+    static int[] rootDocs(IndexSearcher percolatorIndexSearcher) throws IOException {
+        FixedBitSet matches = matchingDocs(percolatorIndexSearcher, new MatchAllDocsQuery());
+        int[] rootDocs = new int[matches.cardinality()];
+        BitSetIterator iterator = new BitSetIterator(matches, rootDocs.length);
+        for (int slot = 0; slot < rootDocs.length; slot++) {
+            rootDocs[slot] = iterator.nextDoc();
+        }
+        return rootDocs;
+    }
+
+    /**
+     * @return the slots of the documents being percolated that match the specified percolator query, in ascending order
+     */
+    static int[] matchingSlots(IndexSearcher percolatorIndexSearcher, int[] rootDocs, Query query) throws IOException {
+        FixedBitSet matches = matchingDocs(percolatorIndexSearcher, query);
+        int[] slots = new int[matches.cardinality()];
+        int numSlots = 0;
+        for (int slot = 0; slot < rootDocs.length; slot++) {
+            if (matches.get(rootDocs[slot])) {
+                slots[numSlots++] = slot;
+            }
+        }
+        assert numSlots == slots.length : "matched [" + slots.length + "] docs but only [" + numSlots + "] are root docs";
+        return slots;
+    }
+
+    private static FixedBitSet matchingDocs(IndexSearcher percolatorIndexSearcher, Query query) throws IOException {
+        FixedBitSet matches = new FixedBitSet(percolatorIndexSearcher.getIndexReader().maxDoc());
+        percolatorIndexSearcher.search(query, new SimpleCollector() {
+
+            private int docBase;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                docBase = context.docBase;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                matches.set(docBase + doc);
+            }
+
+            @Override
+            public boolean needsScores() {
+                return false;
+            }
+        });
+        return matches;
+    }
+}
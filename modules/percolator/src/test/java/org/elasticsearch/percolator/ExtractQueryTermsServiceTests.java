@@ -19,9 +19,14 @@
 package org.elasticsearch.percolator;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.document.BinaryPoint;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.PrefixCodedTerms;
 import org.apache.lucene.index.Term;
@@ -34,23 +39,31 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SynonymQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.spans.SpanFirstQuery;
 import org.apache.lucene.search.spans.SpanNearQuery;
 import org.apache.lucene.search.spans.SpanNotQuery;
 import org.apache.lucene.search.spans.SpanOrQuery;
 import org.apache.lucene.search.spans.SpanTermQuery;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.search.MatchNoDocsQuery;
 import org.elasticsearch.index.mapper.ParseContext;
+import org.elasticsearch.percolator.ExtractQueryTermsService.Range;
 import org.elasticsearch.percolator.ExtractQueryTermsService.Result;
 import org.elasticsearch.test.ESTestCase;
 
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -63,6 +76,7 @@ import static org.elasticsearch.percolator.ExtractQueryTermsService.EXTRACTION_F
 import static org.elasticsearch.percolator.ExtractQueryTermsService.EXTRACTION_PARTIAL;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.UnsupportedQueryException;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.extractQueryTerms;
+import static org.elasticsearch.percolator.ExtractQueryTermsService.createQueryRangesQuery;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.createQueryTermsQuery;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.selectTermListWithTheLongestShortestTerm;
 import static org.hamcrest.Matchers.equalTo;
@@ -73,6 +87,7 @@ public class ExtractQueryTermsServiceTests extends ESTestCase {
 
     public static final String QUERY_TERMS_FIELD = "extracted_terms";
     public static final String EXTRACTION_RESULT_FIELD = "extraction_result";
+    public static final String EXTRACTED_RANGE_FIELD = "extracted_range";
     public static final FieldType QUERY_TERMS_FIELD_TYPE = new FieldType();
 
     static {
@@ -89,7 +104,7 @@ public class ExtractQueryTermsServiceTests extends ESTestCase {
         bq.add(termQuery2, BooleanClause.Occur.SHOULD);
 
         ParseContext.Document document = new ParseContext.Document();
-        extractQueryTerms(bq.build(), document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, QUERY_TERMS_FIELD_TYPE);
+        extractQueryTerms(bq.build(), document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, EXTRACTED_RANGE_FIELD, QUERY_TERMS_FIELD_TYPE);
         assertThat(document.getField(EXTRACTION_RESULT_FIELD).stringValue(), equalTo(EXTRACTION_COMPLETE));
         List<IndexableField> fields = new ArrayList<>(Arrays.asList(document.getFields(QUERY_TERMS_FIELD)));
         Collections.sort(fields, (field1, field2) -> field1.binaryValue().compareTo(field2.binaryValue()));
@@ -103,7 +118,7 @@ public class ExtractQueryTermsServiceTests extends ESTestCase {
     public void testExtractQueryMetadata_unsupported() {
         TermRangeQuery query = new TermRangeQuery("field1", new BytesRef("a"), new BytesRef("z"), true, true);
         ParseContext.Document document = new ParseContext.Document();
-        extractQueryTerms(query, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, QUERY_TERMS_FIELD_TYPE);
+        extractQueryTerms(query, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, EXTRACTED_RANGE_FIELD, QUERY_TERMS_FIELD_TYPE);
         assertThat(document.getFields().size(), equalTo(1));
         assertThat(document.getField(EXTRACTION_RESULT_FIELD).stringValue(), equalTo(EXTRACTION_FAILED));
     }
@@ -112,13 +127,116 @@ public class ExtractQueryTermsServiceTests extends ESTestCase {
         PhraseQuery phraseQuery = new PhraseQuery("field", "term");
 
         ParseContext.Document document = new ParseContext.Document();
-        extractQueryTerms(phraseQuery, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, QUERY_TERMS_FIELD_TYPE);
+        extractQueryTerms(phraseQuery, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, EXTRACTED_RANGE_FIELD, QUERY_TERMS_FIELD_TYPE);
         assertThat(document.getFields().size(), equalTo(2));
         assertThat(document.getFields().get(0).name(), equalTo(QUERY_TERMS_FIELD));
         assertThat(document.getFields().get(0).binaryValue().utf8ToString(), equalTo("field\u0000term"));
         assertThat(document.getField(EXTRACTION_RESULT_FIELD).stringValue(), equalTo(EXTRACTION_PARTIAL));
     }
 
+    public void testExtractQueryMetadata_range() {
+        Query query = IntPoint.newRangeQuery("field", 10, 20);
+        ParseContext.Document document = new ParseContext.Document();
+        extractQueryTerms(query, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, EXTRACTED_RANGE_FIELD, QUERY_TERMS_FIELD_TYPE);
+        assertThat(document.getField(EXTRACTION_RESULT_FIELD).stringValue(), equalTo(EXTRACTION_PARTIAL));
+        assertThat(document.getFields(QUERY_TERMS_FIELD).length, equalTo(0));
+        IndexableField[] ranges = document.getFields(EXTRACTED_RANGE_FIELD);
+        assertThat(ranges.length, equalTo(1));
+        assertThat(ranges[0].fieldType().pointDimensionCount(), equalTo(2));
+        assertThat(ranges[0].fieldType().pointNumBytes(), equalTo(ExtractQueryTermsService.RANGE_BYTES_PER_DIM));
+
+        // Without a range field the query can only be selected by failing the extraction
+        document = new ParseContext.Document();
+        extractQueryTerms(query, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, null, QUERY_TERMS_FIELD_TYPE);
+        assertThat(document.getFields().size(), equalTo(1));
+        assertThat(document.getField(EXTRACTION_RESULT_FIELD).stringValue(), equalTo(EXTRACTION_FAILED));
+    }
+
+    public void testPointRangeQuery() {
+        Result result = extractQueryTerms(LongPoint.newRangeQuery("field", 10L, 20L));
+        assertThat(result.verified, is(false));
+        assertThat(result.terms.isEmpty(), is(true));
+        assertThat(result.ranges.size(), equalTo(1));
+        Range range = result.ranges.iterator().next();
+        assertThat(range.field, equalTo("field"));
+        assertThat(LongPoint.decodeDimension(range.lowerPoint, 0), equalTo(10L));
+        assertThat(LongPoint.decodeDimension(range.upperPoint, 0), equalTo(20L));
+
+        // multi dimensional points and points that are too wide to be encoded next to the field hash aren't supported:
+        expectThrows(UnsupportedQueryException.class, () -> extractQueryTerms(IntPoint.newRangeQuery("field", new int[] {1, 2},
+                new int[] {3, 4})));
+        expectThrows(UnsupportedQueryException.class, () -> extractQueryTerms(BinaryPoint.newRangeQuery("field", new byte[16],
+                new byte[16])));
+    }
+
+    public void testExtractQueryMetadata_booleanQueryWithRanges() {
+        TermQuery termQuery = new TermQuery(new Term("_field", "_term"));
+        Query rangeQuery1 = IntPoint.newRangeQuery("_field1", 10, 20);
+        Query rangeQuery2 = IntPoint.newRangeQuery("_field2", 10, 20);
+
+        // conjunctions prefer clauses with terms over clauses with ranges
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(rangeQuery1, BooleanClause.Occur.FILTER);
+        builder.add(termQuery, BooleanClause.Occur.MUST);
+        Result result = extractQueryTerms(builder.build());
+        assertThat(result.verified, is(false));
+        assertTermsEqual(result.terms, termQuery.getTerm());
+        assertThat(result.ranges.isEmpty(), is(true));
+
+        builder = new BooleanQuery.Builder();
+        builder.add(rangeQuery1, BooleanClause.Occur.FILTER);
+        builder.add(rangeQuery2, BooleanClause.Occur.FILTER);
+        result = extractQueryTerms(builder.build());
+        assertThat(result.verified, is(false));
+        assertThat(result.terms.isEmpty(), is(true));
+        assertThat(result.ranges.size(), equalTo(1));
+
+        // disjunctions need all of their terms and ranges
+        builder = new BooleanQuery.Builder();
+        builder.add(rangeQuery1, BooleanClause.Occur.SHOULD);
+        builder.add(rangeQuery2, BooleanClause.Occur.SHOULD);
+        builder.add(termQuery, BooleanClause.Occur.SHOULD);
+        result = extractQueryTerms(builder.build());
+        assertThat(result.verified, is(false));
+        assertTermsEqual(result.terms, termQuery.getTerm());
+        assertThat(result.ranges.size(), equalTo(2));
+    }
+
+    public void testCreateQueryRangesQuery() throws Exception {
+        MemoryIndex memoryIndex = new MemoryIndex(false);
+        memoryIndex.addField(new IntPoint("int_field", 15), null);
+        memoryIndex.addField(new LongPoint("long_field", 15L), null);
+        memoryIndex.addField("text_field", "some text", new WhitespaceAnalyzer());
+        IndexReader indexReader = memoryIndex.createSearcher().getIndexReader();
+        assertNull(createQueryRangesQuery(new MemoryIndex().createSearcher().getIndexReader(), EXTRACTED_RANGE_FIELD));
+        Query query = createQueryRangesQuery(indexReader, EXTRACTED_RANGE_FIELD);
+
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+                addRangeQuery(writer, IntPoint.newRangeQuery("int_field", 10, 20));        // 0: matches
+                addRangeQuery(writer, IntPoint.newRangeQuery("int_field", 16, 20));        // 1: above the value
+                addRangeQuery(writer, IntPoint.newRangeQuery("int_field", 10, 14));        // 2: below the value
+                addRangeQuery(writer, IntPoint.newExactQuery("int_field", 15));            // 3: matches
+                addRangeQuery(writer, LongPoint.newRangeQuery("long_field", 0L, 100L));    // 4: matches
+                addRangeQuery(writer, IntPoint.newRangeQuery("other_field", 10, 20));      // 5: another field
+            }
+            try (IndexReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = newSearcher(reader);
+                TopDocs topDocs = searcher.search(query, 10, new Sort(SortField.FIELD_DOC));
+                assertThat(topDocs.totalHits, equalTo(3));
+                assertThat(topDocs.scoreDocs[0].doc, equalTo(0));
+                assertThat(topDocs.scoreDocs[1].doc, equalTo(3));
+                assertThat(topDocs.scoreDocs[2].doc, equalTo(4));
+            }
+        }
+    }
+
+    private void addRangeQuery(IndexWriter writer, Query query) throws IOException {
+        ParseContext.Document document = new ParseContext.Document();
+        extractQueryTerms(query, document, QUERY_TERMS_FIELD, EXTRACTION_RESULT_FIELD, EXTRACTED_RANGE_FIELD, QUERY_TERMS_FIELD_TYPE);
+        writer.addDocument(document);
+    }
+
     public void testExtractQueryMetadata_termQuery() {
         TermQuery termQuery = new TermQuery(new Term("_field", "_term"));
         Result result = extractQueryTerms(termQuery);
@@ -22,11 +22,16 @@ package org.elasticsearch.percolator;
 import com.fasterxml.jackson.core.JsonParseException;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.ResourceNotFoundException;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequest;
@@ -42,6 +47,7 @@ import org.elasticsearch.index.get.GetResult;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.ParseContext;
 import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.index.mapper.internal.TypeFieldMapper;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.ingest.RandomDocumentPicks;
@@ -62,7 +68,8 @@ import static org.hamcrest.Matchers.sameInstance;
 
 public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQueryBuilder> {
 
-    private static final String[] SHUFFLE_PROTECTED_FIELDS = new String[] { PercolateQueryBuilder.DOCUMENT_FIELD.getPreferredName()};
+    private static final String[] SHUFFLE_PROTECTED_FIELDS = new String[] { PercolateQueryBuilder.DOCUMENT_FIELD.getPreferredName(),
+            PercolateQueryBuilder.DOCUMENTS_FIELD.getPreferredName()};
 
     private static String queryField;
     private static String docType;
@@ -73,7 +80,7 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
     private String indexedDocumentRouting;
     private String indexedDocumentPreference;
     private Long indexedDocumentVersion;
-    private BytesReference documentSource;
+    private List<BytesReference> documentSources;
 
     boolean indexedDocumentExists = true;
 
@@ -100,8 +107,8 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
     }
 
     private PercolateQueryBuilder doCreateTestQueryBuilder(boolean indexedDocument) {
-        documentSource = randomSource();
         if (indexedDocument) {
+            documentSources = Collections.singletonList(randomSource());
             indexedDocumentIndex = randomAsciiOfLength(4);
             indexedDocumentType = randomAsciiOfLength(4);
             indexedDocumentId = randomAsciiOfLength(4);
@@ -110,13 +117,21 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
             indexedDocumentVersion = (long) randomIntBetween(0, Integer.MAX_VALUE);
             return new PercolateQueryBuilder(queryField, docType, indexedDocumentIndex, indexedDocumentType, indexedDocumentId,
                     indexedDocumentRouting, indexedDocumentPreference, indexedDocumentVersion);
+        } else if (randomBoolean()) {
+            documentSources = Collections.singletonList(randomSource());
+            return new PercolateQueryBuilder(queryField, docType, documentSources.get(0));
         } else {
-            return new PercolateQueryBuilder(queryField, docType, documentSource);
+            int numDocuments = randomIntBetween(1, 8);
+            documentSources = new ArrayList<>(numDocuments);
+            for (int i = 0; i < numDocuments; i++) {
+                documentSources.add(randomSource());
+            }
+            return new PercolateQueryBuilder(queryField, docType, documentSources);
         }
     }
 
     /**
-     * we don't want to shuffle the "document" field internally in {@link #testFromXContent()} because even though the
+     * we don't want to shuffle the "document" and "documents" fields internally in {@link #testFromXContent()} because even though the
      * documents would be functionally the same, their {@link BytesReference} representation isn't and thats what we
      * compare when check for equality of the original and the shuffled builder
      */
@@ -135,7 +150,7 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         assertThat(getRequest.version(), Matchers.equalTo(indexedDocumentVersion));
         if (indexedDocumentExists) {
             return new GetResponse(
-                    new GetResult(indexedDocumentIndex, indexedDocumentType, indexedDocumentId, 0L, true, documentSource,
+                    new GetResult(indexedDocumentIndex, indexedDocumentType, indexedDocumentId, 0L, true, documentSources.get(0),
                             Collections.emptyMap())
             );
         } else {
@@ -150,7 +165,7 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         assertThat(query, Matchers.instanceOf(PercolateQuery.class));
         PercolateQuery percolateQuery = (PercolateQuery) query;
         assertThat(percolateQuery.getDocumentType(), Matchers.equalTo(queryBuilder.getDocumentType()));
-        assertThat(percolateQuery.getDocumentSource(), Matchers.equalTo(documentSource));
+        assertThat(percolateQuery.getDocuments(), Matchers.equalTo(documentSources));
     }
 
     @Override
@@ -159,7 +174,8 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         IllegalStateException e = expectThrows(IllegalStateException.class, () -> pqb.toQuery(createShardContext()));
         assertThat(e.getMessage(), equalTo("query builder must be rewritten first"));
         QueryBuilder rewrite = pqb.rewrite(createShardContext());
-        PercolateQueryBuilder geoShapeQueryBuilder = new PercolateQueryBuilder(pqb.getField(), pqb.getDocumentType(), documentSource);
+        PercolateQueryBuilder geoShapeQueryBuilder = new PercolateQueryBuilder(pqb.getField(), pqb.getDocumentType(),
+                documentSources.get(0));
         assertEquals(geoShapeQueryBuilder, rewrite);
     }
 
@@ -208,9 +224,14 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         e = expectThrows(IllegalArgumentException.class, () -> new PercolateQueryBuilder("_field", null, new BytesArray("{}")));
         assertThat(e.getMessage(), equalTo("[document_type] is a required argument"));
 
-        e = expectThrows(IllegalArgumentException.class, () -> new PercolateQueryBuilder("_field", "_document_type", null));
+        e = expectThrows(IllegalArgumentException.class,
+                () -> new PercolateQueryBuilder("_field", "_document_type", (BytesReference) null));
         assertThat(e.getMessage(), equalTo("[document] is a required argument"));
 
+        e = expectThrows(IllegalArgumentException.class,
+                () -> new PercolateQueryBuilder("_field", "_document_type", Collections.<BytesReference>emptyList()));
+        assertThat(e.getMessage(), equalTo("[documents] must contain at least one document"));
+
         e = expectThrows(IllegalArgumentException.class, () -> {
             new PercolateQueryBuilder(null, null, "_index", "_type", "_id", null, null, null);
         });
@@ -243,16 +264,29 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         assertThat(e.getMessage(), equalTo("[percolate] query is missing required [document_type] parameter"));
     }
 
+    public void testFromJsonDocumentAndDocuments() throws IOException {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> parseQuery("{\"percolate\" : { \"document_type\": \"" + docType + "\", \"field\": \"" + queryField +
+                        "\", \"document\": {}, \"documents\": [{}, {}]}}"));
+        assertThat(e.getMessage(), equalTo("[percolate] query can't percolate both a [document] and [documents]"));
+    }
+
     public void testCreateMultiDocumentSearcher() throws Exception {
-        int numDocs = randomIntBetween(2, 8);
-        List<ParseContext.Document> docs = new ArrayList<>(numDocs);
-        for (int i = 0; i < numDocs; i++) {
-            docs.add(new ParseContext.Document());
+        int numParsedDocs = randomIntBetween(1, 4);
+        int numDocs = 0;
+        List<ParsedDocument> parsedDocuments = new ArrayList<>(numParsedDocs);
+        for (int i = 0; i < numParsedDocs; i++) {
+            int numNestedDocs = randomIntBetween(numParsedDocs == 1 ? 2 : 1, 8);
+            List<ParseContext.Document> docs = new ArrayList<>(numNestedDocs);
+            for (int j = 0; j < numNestedDocs; j++) {
+                docs.add(new ParseContext.Document());
+            }
+            numDocs += numNestedDocs;
+            parsedDocuments.add(new ParsedDocument(null, "_id", "_type", null, -1L, -1L, docs, null, null));
         }
 
         Analyzer analyzer = new WhitespaceAnalyzer();
-        ParsedDocument parsedDocument = new ParsedDocument(null, "_id", "_type", null, -1L, -1L, docs, null, null);
-        IndexSearcher indexSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(analyzer, parsedDocument);
+        IndexSearcher indexSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(analyzer, parsedDocuments);
         assertThat(indexSearcher.getIndexReader().numDocs(), equalTo(numDocs));
 
         // ensure that any query get modified so that the nested docs are never included as hits:
@@ -264,6 +298,38 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         assertThat(result.clauses().get(1).getOccur(), equalTo(BooleanClause.Occur.MUST_NOT));
     }
 
+    public void testCreateMultiDocumentSearcherKeepsSlotsAcrossSegments() throws Exception {
+        int numParsedDocs = randomIntBetween(50, 200);
+        List<ParsedDocument> parsedDocuments = new ArrayList<>(numParsedDocs);
+        for (int i = 0; i < numParsedDocs; i++) {
+            int numNestedDocs = randomIntBetween(0, 3);
+            List<ParseContext.Document> docs = new ArrayList<>(numNestedDocs + 1);
+            for (int j = 0; j < numNestedDocs; j++) {
+                ParseContext.Document nestedDoc = new ParseContext.Document();
+                nestedDoc.add(new StringField(TypeFieldMapper.NAME, "__nested", Field.Store.NO));
+                nestedDoc.add(new StringField("field", "value" + i, Field.Store.NO));
+                docs.add(nestedDoc);
+            }
+            ParseContext.Document rootDoc = new ParseContext.Document();
+            rootDoc.add(new StringField("field", "value" + i, Field.Store.NO));
+            docs.add(rootDoc);
+            parsedDocuments.add(new ParsedDocument(null, "_id", "_type", null, -1L, -1L, docs, null, null));
+        }
+
+        // flush every few docs, so that the documents are spread over many segments before they are merged
+        IndexWriterConfig config = new IndexWriterConfig(new WhitespaceAnalyzer());
+        config.setMaxBufferedDocs(randomIntBetween(2, 10));
+        IndexSearcher indexSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(config, parsedDocuments);
+        assertThat(indexSearcher.getIndexReader().leaves().size(), equalTo(1));
+
+        int[] rootDocs = PercolatorMatchedSlotSubFetchPhase.rootDocs(indexSearcher);
+        assertThat(rootDocs.length, equalTo(numParsedDocs));
+        for (int slot = 0; slot < numParsedDocs; slot++) {
+            Query query = new TermQuery(new Term("field", "value" + slot));
+            assertArrayEquals(new int[] {slot}, PercolatorMatchedSlotSubFetchPhase.matchingSlots(indexSearcher, rootDocs, query));
+        }
+    }
+
     private static BytesReference randomSource() {
         try {
             XContentBuilder xContent = XContentFactory.jsonBuilder();
@@ -22,6 +22,8 @@ package org.elasticsearch.percolator;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
@@ -84,6 +86,7 @@ public class PercolateQueryTests extends ESTestCase {
 
     public static final String EXTRACTED_TERMS_FIELD_NAME = "extracted_terms";
     public static final String UNKNOWN_QUERY_FIELD_NAME = "unknown_query";
+    public static final String EXTRACTED_RANGE_FIELD_NAME = "extracted_range";
     public static final FieldType EXTRACTED_TERMS_FIELD_TYPE = new FieldType();
 
     static {
@@ -160,7 +163,7 @@ public class PercolateQueryTests extends ESTestCase {
                 new BytesArray("{}"),
                 percolateSearcher
         );
-        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
+        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, EXTRACTED_RANGE_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
         // no scoring, wrapping it in a constant score query:
         Query query = new ConstantScoreQuery(builder.build());
         TopDocs topDocs = shardSearcher.search(query, 10);
@@ -234,7 +237,7 @@ public class PercolateQueryTests extends ESTestCase {
                 new BytesArray("{}"),
                 percolateSearcher
         );
-        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
+        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, EXTRACTED_RANGE_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
         Query query = builder.build();
         TopDocs topDocs = shardSearcher.search(query, 10);
         assertThat(topDocs.totalHits, equalTo(3));
@@ -346,6 +349,65 @@ public class PercolateQueryTests extends ESTestCase {
         duelRun(memoryIndex, shardSearcher);
     }
 
+    public void testDuelRangeQueries() throws Exception {
+        List<Function<String, Query>> queries = new ArrayList<>();
+        queries.add((id) -> {
+            int from = randomIntBetween(-100, 100);
+            return IntPoint.newRangeQuery("int_field", from, from + randomIntBetween(0, 50));
+        });
+        queries.add((id) -> LongPoint.newExactQuery("long_field", randomIntBetween(-100, 100)));
+        queries.add((id) -> {
+            BooleanQuery.Builder builder = new BooleanQuery.Builder();
+            // the control query can't tell a match without a score from a miss, so don't use filter clauses
+            builder.add(IntPoint.newRangeQuery("int_field", randomIntBetween(-100, 0), randomIntBetween(0, 100)),
+                    BooleanClause.Occur.MUST);
+            if (randomBoolean()) {
+                builder.add(new TermQuery(new Term("field", id)), BooleanClause.Occur.MUST);
+            }
+            if (randomBoolean()) {
+                builder.add(LongPoint.newRangeQuery("long_field", randomIntBetween(-100, 0), randomIntBetween(0, 100)),
+                        BooleanClause.Occur.MUST);
+            }
+            return builder.build();
+        });
+        queries.add((id) -> {
+            BooleanQuery.Builder builder = new BooleanQuery.Builder();
+            builder.add(IntPoint.newRangeQuery("int_field", randomIntBetween(-100, 0), randomIntBetween(0, 100)),
+                    BooleanClause.Occur.SHOULD);
+            builder.add(new TermQuery(new Term("field", id)), BooleanClause.Occur.SHOULD);
+            if (randomBoolean()) {
+                builder.add(new PrefixQuery(new Term("field", id)), BooleanClause.Occur.SHOULD);
+            }
+            return builder.build();
+        });
+
+        int numDocs = randomIntBetween(queries.size(), queries.size() * 10);
+        for (int i = 0; i < numDocs; i++) {
+            String id = Integer.toString(i);
+            addPercolatorQuery(id, queries.get(i % queries.size()).apply(id));
+        }
+
+        indexWriter.close();
+        directoryReader = DirectoryReader.open(directory);
+        IndexSearcher shardSearcher = newSearcher(directoryReader);
+        // Disable query cache, because ControlQuery cannot be cached...
+        shardSearcher.setQueryCache(null);
+
+        int iters = randomIntBetween(10, 50);
+        for (int i = 0; i < iters; i++) {
+            MemoryIndex memoryIndex = new MemoryIndex();
+            memoryIndex.addField("field", Integer.toString(randomInt(numDocs)), new WhitespaceAnalyzer());
+            int numValues = randomIntBetween(0, 3);
+            for (int j = 0; j < numValues; j++) {
+                memoryIndex.addField(new IntPoint("int_field", randomIntBetween(-150, 150)), null);
+            }
+            if (randomBoolean()) {
+                memoryIndex.addField(new LongPoint("long_field", randomIntBetween(-150, 150)), null);
+            }
+            duelRun(memoryIndex, shardSearcher);
+        }
+    }
+
     public void testDuelSpecificQueries() throws Exception {
         CommonTermsQuery commonTermsQuery = new CommonTermsQuery(BooleanClause.Occur.SHOULD, BooleanClause.Occur.SHOULD, 128);
         commonTermsQuery.add(new Term("field", "quick"));
@@ -393,7 +455,7 @@ public class PercolateQueryTests extends ESTestCase {
         queries.put(id, query);
         ParseContext.Document document = new ParseContext.Document();
         ExtractQueryTermsService.extractQueryTerms(query, document, EXTRACTED_TERMS_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME,
-                EXTRACTED_TERMS_FIELD_TYPE);
+                EXTRACTED_RANGE_FIELD_NAME, EXTRACTED_TERMS_FIELD_TYPE);
         document.add(new StoredField(UidFieldMapper.NAME, Uid.createUid(MapperService.PERCOLATOR_LEGACY_TYPE_NAME, id)));
         assert extraFields.length % 2 == 0;
         for (int i = 0; i < extraFields.length; i++) {
@@ -412,7 +474,7 @@ public class PercolateQueryTests extends ESTestCase {
                 percolateSearcher
         );
         // enables the optimization that prevents queries from being evaluated that don't match
-        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
+        builder.extractQueryTermsQuery(EXTRACTED_TERMS_FIELD_NAME, EXTRACTED_RANGE_FIELD_NAME, UNKNOWN_QUERY_FIELD_NAME);
         Query query = requireScore ? builder.build() : new ConstantScoreQuery(builder.build());
         TopDocs topDocs = shardSearcher.search(query, 10);
 
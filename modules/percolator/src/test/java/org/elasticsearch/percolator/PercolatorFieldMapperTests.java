@@ -41,16 +41,20 @@ import java.util.Collection;
 import java.util.Collections;
 
 import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.constantScoreQuery;
 import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
 import static org.elasticsearch.index.query.QueryBuilders.matchPhraseQuery;
 import static org.elasticsearch.index.query.QueryBuilders.matchQuery;
 import static org.elasticsearch.index.query.QueryBuilders.prefixQuery;
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
 import static org.elasticsearch.index.query.QueryBuilders.termQuery;
 import static org.elasticsearch.index.query.QueryBuilders.termsLookupQuery;
 import static org.elasticsearch.index.query.QueryBuilders.wildcardQuery;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.EXTRACTION_COMPLETE;
 import static org.elasticsearch.percolator.ExtractQueryTermsService.EXTRACTION_FAILED;
+import static org.elasticsearch.percolator.ExtractQueryTermsService.EXTRACTION_PARTIAL;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -121,6 +125,43 @@ public class PercolatorFieldMapperTests extends ESSingleNodeTestCase {
         assertQueryBuilder(qbSource, queryBuilder);
     }
 
+    public void testExtractRanges() throws Exception {
+        addQueryMapping();
+        QueryBuilder queryBuilder = boolQuery().filter(rangeQuery("number_field").gte(10).lte(20)).filter(termQuery("field", "value"));
+        ParsedDocument doc = mapperService.documentMapper(typeName).parse("test", typeName, "1", XContentFactory.jsonBuilder().startObject()
+                .field(fieldName, queryBuilder)
+                .endObject().bytes());
+        // conjunctions prefer terms over ranges
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractedTermsField()).length, equalTo(1));
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractedRangeField()).length, equalTo(0));
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractionResultFieldName())[0].stringValue(), equalTo(EXTRACTION_PARTIAL));
+
+        queryBuilder = rangeQuery("number_field").gte(10).lte(20);
+        doc = mapperService.documentMapper(typeName).parse("test", typeName, "1", XContentFactory.jsonBuilder().startObject()
+                .field(fieldName, queryBuilder)
+                .endObject().bytes());
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractedTermsField()).length, equalTo(0));
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractedRangeField()).length, equalTo(1));
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractionResultFieldName())[0].stringValue(), equalTo(EXTRACTION_PARTIAL));
+
+        // ranges relative to the current time change after the query has been indexed, so they can't be used
+        queryBuilder = boolQuery().filter(rangeQuery("date_field").gte("now-1d"));
+        doc = mapperService.documentMapper(typeName).parse("test", typeName, "1", XContentFactory.jsonBuilder().startObject()
+                .field(fieldName, queryBuilder)
+                .endObject().bytes());
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractedRangeField()).length, equalTo(0));
+        assertThat(doc.rootDoc().getFields(fieldType.getExtractionResultFieldName())[0].stringValue(), equalTo(EXTRACTION_FAILED));
+    }
+
+    public void testUsesCurrentTime() {
+        assertFalse(PercolatorFieldMapper.usesCurrentTime(rangeQuery("date_field").from("2015-01-01").to("2016-01-01")));
+        assertTrue(PercolatorFieldMapper.usesCurrentTime(rangeQuery("date_field").from("2015-01-01").to("now")));
+        assertTrue(PercolatorFieldMapper.usesCurrentTime(boolQuery().should(termQuery("field", "value"))
+                .should(constantScoreQuery(rangeQuery("date_field").gte("now/d")))));
+        assertFalse(PercolatorFieldMapper.usesCurrentTime(boolQuery().mustNot(rangeQuery("date_field").gte("now/d"))));
+        assertTrue(PercolatorFieldMapper.usesCurrentTime(queryStringQuery("date_field:[now-1d TO now]")));
+    }
+
     public void testStoringQueries() throws Exception {
         addQueryMapping();
         QueryBuilder[] queries = new QueryBuilder[]{
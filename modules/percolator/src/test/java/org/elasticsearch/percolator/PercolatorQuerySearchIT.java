@@ -35,8 +35,10 @@ import org.elasticsearch.search.highlight.HighlightBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.test.ESSingleNodeTestCase;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
 import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
@@ -52,6 +54,7 @@ import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitC
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
 
 public class PercolatorQuerySearchIT extends ESSingleNodeTestCase {
 
@@ -109,6 +112,54 @@ public class PercolatorQuerySearchIT extends ESSingleNodeTestCase {
         assertThat(response.getHits().getAt(2).getId(), equalTo("3"));
     }
 
+    public void testPercolateMultipleDocuments() throws Exception {
+        createIndex("test", client().admin().indices().prepareCreate("test")
+                .addMapping("type", "field1", "type=keyword", "field2", "type=keyword")
+                .addMapping("queries", "query", "type=percolator")
+        );
+
+        client().prepareIndex("test", "queries", "1")
+                .setSource(jsonBuilder().startObject().field("query", matchAllQuery()).endObject())
+                .get();
+        client().prepareIndex("test", "queries", "2")
+                .setSource(jsonBuilder().startObject().field("query", matchQuery("field1", "value")).endObject())
+                .get();
+        client().prepareIndex("test", "queries", "3")
+                .setSource(jsonBuilder().startObject().field("query", boolQuery()
+                        .must(matchQuery("field1", "value"))
+                        .must(matchQuery("field2", "value"))
+                ).endObject()).get();
+        client().prepareIndex("test", "queries", "4")
+                .setSource(jsonBuilder().startObject().field("query", matchQuery("field2", "other")).endObject())
+                .get();
+        client().admin().indices().prepareRefresh().get();
+
+        List<BytesReference> documents = Arrays.asList(
+                jsonBuilder().startObject().endObject().bytes(),
+                jsonBuilder().startObject().field("field1", "value").endObject().bytes(),
+                jsonBuilder().startObject().field("field1", "value").field("field2", "value").endObject().bytes()
+        );
+        SearchResponse response = client().prepareSearch()
+                .setQuery(new PercolateQueryBuilder("query", "type", documents))
+                .addSort("_uid", SortOrder.ASC)
+                .get();
+        assertHitCount(response, 3);
+        assertThat(response.getHits().getAt(0).getId(), equalTo("1"));
+        assertThat(response.getHits().getAt(0).field("_percolator_document_slot").getValues(), equalTo(Arrays.asList(0, 1, 2)));
+        assertThat(response.getHits().getAt(1).getId(), equalTo("2"));
+        assertThat(response.getHits().getAt(1).field("_percolator_document_slot").getValues(), equalTo(Arrays.asList(1, 2)));
+        assertThat(response.getHits().getAt(2).getId(), equalTo("3"));
+        assertThat(response.getHits().getAt(2).field("_percolator_document_slot").getValues(), equalTo(Arrays.asList(2)));
+
+        // a single document doesn't report slots:
+        response = client().prepareSearch()
+                .setQuery(new PercolateQueryBuilder("query", "type", documents.get(1)))
+                .addSort("_uid", SortOrder.ASC)
+                .get();
+        assertHitCount(response, 2);
+        assertThat(response.getHits().getAt(0).field("_percolator_document_slot"), nullValue());
+    }
+
     public void testPercolatorQueryExistingDocument() throws Exception {
         createIndex("test", client().admin().indices().prepareCreate("test")
                 .addMapping("type", "field1", "type=keyword", "field2", "type=keyword")
@@ -305,6 +356,40 @@ public class PercolatorQuerySearchIT extends ESSingleNodeTestCase {
                 equalTo("The quick brown <em>fox</em> jumps over the lazy dog"));
     }
 
+    public void testPercolateMultipleDocumentsWithHighlighting() throws Exception {
+        createIndex("test", client().admin().indices().prepareCreate("test")
+                .addMapping("type", "field1", "type=text")
+                .addMapping("queries", "query", "type=percolator")
+        );
+        client().prepareIndex("test", "queries", "1")
+                .setSource(jsonBuilder().startObject().field("query", matchQuery("field1", "brown fox")).endObject())
+                .get();
+        client().prepareIndex("test", "queries", "2")
+                .setSource(jsonBuilder().startObject().field("query", termQuery("field1", "dog")).endObject())
+                .get();
+        client().admin().indices().prepareRefresh().get();
+
+        List<BytesReference> documents = Arrays.asList(
+                jsonBuilder().startObject().field("field1", "The quick brown fox jumps over the lazy dog").endObject().bytes(),
+                jsonBuilder().startObject().field("field1", "The lazy dog sleeps").endObject().bytes()
+        );
+        SearchResponse searchResponse = client().prepareSearch()
+                .setQuery(new PercolateQueryBuilder("query", "type", documents))
+                .highlighter(new HighlightBuilder().field("field1"))
+                .addSort("_uid", SortOrder.ASC)
+                .get();
+        assertHitCount(searchResponse, 2);
+
+        assertThat(searchResponse.getHits().getAt(0).getHighlightFields().size(), equalTo(1));
+        assertThat(searchResponse.getHits().getAt(0).getHighlightFields().get("0_field1").fragments()[0].string(),
+                equalTo("The quick <em>brown</em> <em>fox</em> jumps over the lazy dog"));
+        assertThat(searchResponse.getHits().getAt(1).getHighlightFields().size(), equalTo(2));
+        assertThat(searchResponse.getHits().getAt(1).getHighlightFields().get("0_field1").fragments()[0].string(),
+                equalTo("The quick brown fox jumps over the lazy <em>dog</em>"));
+        assertThat(searchResponse.getHits().getAt(1).getHighlightFields().get("1_field1").fragments()[0].string(),
+                equalTo("The lazy <em>dog</em> sleeps"));
+    }
+
     public void testTakePositionOffsetGapIntoAccount() throws Exception {
         createIndex("test", client().admin().indices().prepareCreate("test")
                 .addMapping("type", "field", "type=text,position_increment_gap=5")
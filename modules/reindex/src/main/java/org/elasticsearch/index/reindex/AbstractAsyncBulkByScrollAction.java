@@ -44,17 +44,21 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.internal.InternalSearchHit;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -84,6 +88,20 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
     private final AtomicLong startTime = new AtomicLong(-1);
     private final AtomicReference<String> scroll = new AtomicReference<>();
     private final Set<String> destinationIndices = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+
+    /**
+     * Pages of the scroll fetched ahead of the batch that is currently being processed. Only used if the request asks for a scroll
+     * prefetch. The deque guards all of the prefetch state.
+     */
+    private final Deque<SearchResponse> prefetchedPages = new ArrayDeque<>();
+    private long prefetchedBytes;
+    private boolean prefetchInFlight;
+    private boolean lastPagePrefetched;
+    /**
+     * Called with the next page as soon as it arrives because the batch before it finished before the page was fetched.
+     */
+    private Consumer<SearchResponse> waitingForPage;
 
     private final ESLogger logger;
     private final ParentTaskAssigningClient client;
@@ -144,6 +162,7 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
         }
         searchWithRetry(listener -> client.search(firstSearchRequest, listener), (SearchResponse response) -> {
             logger.debug("[{}] documents match query", response.getHits().getTotalHits());
+            setScroll(response.getScrollId());
             onScrollResponse(timeValueNanos(System.nanoTime()), 0, response);
         });
     }
@@ -159,7 +178,13 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
             finishHim(null);
             return;
         }
-        setScroll(searchResponse.getScrollId());
+        if (mainRequest.getScrollPrefetch() == 0) {
+            /*
+             * When prefetching the scroll id is recorded as soon as a page arrives because pages after this one might already have been
+             * fetched.
+             */
+            setScroll(searchResponse.getScrollId());
+        }
         if (    // If any of the shards failed that should abort the request.
                 (searchResponse.getShardFailures() != null && searchResponse.getShardFailures().length > 0)
                 // Timeouts aren't shard failures but we still need to pass them back to the user.
@@ -191,6 +216,13 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
         };
         prepareBulkRequestRunnable = (AbstractRunnable) threadPool.getThreadContext().preserveContext(prepareBulkRequestRunnable);
         task.delayPrepareBulkRequest(threadPool, lastBatchStartTime, lastBatchSize, prepareBulkRequestRunnable);
+        if (mainRequest.getScrollPrefetch() > 0) {
+            synchronized (prefetchedPages) {
+                lastPagePrefetched |= isLastPage(searchResponse);
+            }
+            // Fetch the next pages while this batch waits on the throttle and is indexed
+            prefetchNextPage();
+        }
     }
 
     /**
@@ -324,6 +356,25 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
             finishHim(null);
             return;
         }
+        if (mainRequest.getScrollPrefetch() > 0) {
+            SearchResponse page;
+            synchronized (prefetchedPages) {
+                page = prefetchedPages.poll();
+                if (page == null) {
+                    // The next page is still being fetched, process it as soon as it arrives
+                    waitingForPage = response -> onScrollResponse(lastBatchStartTime, lastBatchSize, response);
+                } else {
+                    prefetchedBytes -= estimateSize(page);
+                }
+            }
+            if (page == null) {
+                // Make sure the page we're waiting for is actually being fetched
+                prefetchNextPage();
+                return;
+            }
+            onScrollResponse(lastBatchStartTime, lastBatchSize, page);
+            return;
+        }
         SearchScrollRequest request = new SearchScrollRequest();
         // Add the wait time into the scroll timeout so it won't timeout while we wait for throttling
         request.scrollId(scroll.get()).scroll(timeValueNanos(
@@ -333,6 +384,81 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
         });
     }
 
+    /**
+     * Fetch the next page of the scroll ahead of the batch that needs it unless a page is already being fetched or the prefetched pages
+     * already use up the prefetch depth or memory limit. Pages are fetched one after the other because each scroll request needs the
+     * scroll id returned by the one before it.
+     */
+    void prefetchNextPage() {
+        int pagesAhead;
+        synchronized (prefetchedPages) {
+            if (prefetchInFlight || lastPagePrefetched || finished.get()
+                    || prefetchedPages.size() >= mainRequest.getScrollPrefetch()
+                    || prefetchedBytes >= mainRequest.getScrollPrefetchMemoryLimit().bytes()) {
+                return;
+            }
+            prefetchInFlight = true;
+            pagesAhead = prefetchedPages.size() + 1;
+        }
+        SearchScrollRequest request = new SearchScrollRequest();
+        /*
+         * The scroll isn't used again until the batches before this page have been throttled and processed so add the time they'd take
+         * if they were perfectly throttled into the scroll timeout.
+         */
+        long keepAlive = firstSearchRequest.scroll().keepAlive().nanos();
+        float throttleWait = max(0, task.perfectlyThrottledBatchTime(firstSearchRequest.source().size())) * pagesAhead;
+        request.scrollId(scroll.get()).scroll(timeValueNanos(keepAlive + (long) min(throttleWait, Long.MAX_VALUE - keepAlive)));
+        searchWithRetry(listener -> client.searchScroll(request, listener), this::onPrefetchedPage);
+    }
+
+    private void onPrefetchedPage(SearchResponse response) {
+        Consumer<SearchResponse> consumer;
+        synchronized (prefetchedPages) {
+            prefetchInFlight = false;
+            if (finished.get()) {
+                return;
+            }
+            setScroll(response.getScrollId());
+            lastPagePrefetched |= isLastPage(response);
+            consumer = waitingForPage;
+            waitingForPage = null;
+            if (consumer == null) {
+                prefetchedPages.add(response);
+                prefetchedBytes += estimateSize(response);
+            }
+        }
+        if (consumer != null) {
+            // The page is processed right away so onScrollResponse will keep fetching ahead
+            consumer.accept(response);
+        } else {
+            prefetchNextPage();
+        }
+    }
+
+    /**
+     * Is this the last page of the scroll we'll process? Either because it is empty or because we'll stop on its failures.
+     */
+    private static boolean isLastPage(SearchResponse response) {
+        return response.getHits().getHits().length == 0
+                || (response.getShardFailures() != null && response.getShardFailures().length > 0)
+                || response.isTimedOut();
+    }
+
+    /**
+     * Estimate the memory used by a page of the scroll by the size of the source of its documents.
+     */
+    private static long estimateSize(SearchResponse response) {
+        long size = 0;
+        for (SearchHit hit : response.getHits().getHits()) {
+            // Hits without a source blow up when asked for their sourceRef so we check the internal representation first
+            if (hit instanceof InternalSearchHit && ((InternalSearchHit) hit).internalSourceRef() == null) {
+                continue;
+            }
+            size += hit.sourceRef().length();
+        }
+        return size;
+    }
+
     private void recordFailure(Failure failure, List<Failure> failures) {
         if (failure.getStatus() == CONFLICT) {
             task.countVersionConflict();
@@ -384,6 +510,14 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
      * @param timedOut have any of the sub-requests timed out?
      */
     void finishHim(Throwable failure, List<Failure> indexingFailures, List<ShardSearchFailure> searchFailures, boolean timedOut) {
+        if (false == finished.compareAndSet(false, true)) {
+            // A prefetch failed while a batch was being processed or the other way around. Only the first to finish responds.
+            return;
+        }
+        synchronized (prefetchedPages) {
+            prefetchedPages.clear();
+            prefetchedBytes = 0;
+        }
         String scrollId = scroll.get();
         if (Strings.hasLength(scrollId)) {
             /*
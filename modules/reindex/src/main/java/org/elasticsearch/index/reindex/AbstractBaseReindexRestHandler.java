@@ -118,6 +118,10 @@ public abstract class AbstractBaseReindexRestHandler<
         if (requestsPerSecond != null) {
             request.setRequestsPerSecond(requestsPerSecond);
         }
+        request.setSlices(restRequest.paramAsInt("slices", request.getSlices()));
+        request.setScrollPrefetch(restRequest.paramAsInt("scroll_prefetch", request.getScrollPrefetch()));
+        request.setScrollPrefetchMemoryLimit(
+                restRequest.paramAsSize("scroll_prefetch_memory_limit", request.getScrollPrefetchMemoryLimit()));
         return request;
     }
 
@@ -26,6 +26,8 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.support.replication.ReplicationRequest;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.tasks.Task;
@@ -34,6 +36,7 @@ import org.elasticsearch.tasks.TaskId;
 import java.io.IOException;
 import java.util.Arrays;
 
+import static java.lang.Math.max;
 import static org.elasticsearch.action.ValidateActions.addValidationError;
 import static org.elasticsearch.common.unit.TimeValue.timeValueMillis;
 import static org.elasticsearch.common.unit.TimeValue.timeValueMinutes;
@@ -43,6 +46,7 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
     public static final int SIZE_ALL_MATCHES = -1;
     private static final TimeValue DEFAULT_SCROLL_TIMEOUT = timeValueMinutes(5);
     private static final int DEFAULT_SCROLL_SIZE = 1000;
+    private static final ByteSizeValue DEFAULT_SCROLL_PREFETCH_MEMORY_LIMIT = new ByteSizeValue(50, ByteSizeUnit.MB);
 
     /**
      * The search to be executed.
@@ -98,17 +102,45 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
      */
     private boolean shouldPersistResult;
 
+    /**
+     * The number of slices this task should be divided into. Defaults to 1 meaning the task isn't sliced into subtasks.
+     */
+    private int slices = 1;
+
+    /**
+     * How many pages of the scroll to fetch ahead of the batch that is currently being processed. Defaults to 0 meaning the next page is
+     * only fetched once the current batch has been processed.
+     */
+    private int scrollPrefetch = 0;
+
+    /**
+     * Upper bound for the size of the documents in the pages fetched ahead. No more pages are fetched ahead once it is reached.
+     */
+    private ByteSizeValue scrollPrefetchMemoryLimit = DEFAULT_SCROLL_PREFETCH_MEMORY_LIMIT;
+
     public AbstractBulkByScrollRequest() {
     }
 
     public AbstractBulkByScrollRequest(SearchRequest source) {
-        this.searchRequest = source;
+        this(source, true);
+    }
 
-        // Set the defaults which differ from SearchRequest's defaults.
-        source.scroll(DEFAULT_SCROLL_TIMEOUT);
-        source.source(new SearchSourceBuilder());
-        source.source().version(true);
-        source.source().size(DEFAULT_SCROLL_SIZE);
+    /**
+     * Constructor for actual use.
+     *
+     * @param source the search request that matches the documents to process
+     * @param setDefaults should this request set the defaults on the search request? Usually set to true but leave it false to build
+     *        requests for slices of a parent request that already has them set
+     */
+    protected AbstractBulkByScrollRequest(SearchRequest source, boolean setDefaults) {
+        this.searchRequest = source;
+        if (setDefaults) {
+            // Set the defaults which differ from SearchRequest's defaults.
+            source.scroll(DEFAULT_SCROLL_TIMEOUT);
+            source.source(new SearchSourceBuilder());
+            source.source().version(true);
+            source.source().size(DEFAULT_SCROLL_SIZE);
+        }
     }
 
     /**
@@ -135,6 +167,23 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
                             + size + "]",
                     e);
         }
+        if (scrollPrefetch < 0) {
+            e = addValidationError("scroll_prefetch cannot be negative but was [" + scrollPrefetch + "]", e);
+        }
+        if (scrollPrefetchMemoryLimit.bytes() <= 0) {
+            e = addValidationError("scroll_prefetch_memory_limit must be greater than 0 but was [" + scrollPrefetchMemoryLimit + "]", e);
+        }
+        if (slices < 1) {
+            e = addValidationError("slices must be greater than 0 but was [" + slices + "]", e);
+        }
+        if (slices > 1) {
+            if (size != SIZE_ALL_MATCHES) {
+                e = addValidationError("can't limit the number of processed documents with [size] when using [slices]", e);
+            }
+            if (searchRequest.source().slice() != null) {
+                e = addValidationError("can't specify both slice in the query and [slices]", e);
+            }
+        }
         return e;
     }
 
@@ -304,8 +353,86 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         return shouldPersistResult;
     }
 
+    /**
+     * The number of slices this task should be divided into. Defaults to 1 meaning the task isn't sliced into subtasks.
+     */
+    public int getSlices() {
+        return slices;
+    }
+
+    /**
+     * The number of slices this task should be divided into. Defaults to 1 meaning the task isn't sliced into subtasks.
+     */
+    public Self setSlices(int slices) {
+        this.slices = slices;
+        return self();
+    }
+
+    /**
+     * How many pages of the scroll to fetch ahead of the batch that is currently being processed. Defaults to 0 meaning the next page is
+     * only fetched once the current batch has been processed.
+     */
+    public int getScrollPrefetch() {
+        return scrollPrefetch;
+    }
+
+    /**
+     * How many pages of the scroll to fetch ahead of the batch that is currently being processed. Fetching ahead overlaps the time spent
+     * waiting on the search with the time spent indexing at the cost of holding more documents in memory.
+     */
+    public Self setScrollPrefetch(int scrollPrefetch) {
+        this.scrollPrefetch = scrollPrefetch;
+        return self();
+    }
+
+    /**
+     * Upper bound for the size of the documents in the pages fetched ahead.
+     */
+    public ByteSizeValue getScrollPrefetchMemoryLimit() {
+        return scrollPrefetchMemoryLimit;
+    }
+
+    /**
+     * Upper bound for the size of the documents in the pages fetched ahead. No more pages are fetched ahead once it is reached.
+     */
+    public Self setScrollPrefetchMemoryLimit(ByteSizeValue scrollPrefetchMemoryLimit) {
+        this.scrollPrefetchMemoryLimit = scrollPrefetchMemoryLimit;
+        return self();
+    }
+
+    /**
+     * Build a new request for a slice of this request. The slice runs as a child of the slicing task and gets its share of the
+     * throttle.
+     *
+     * @param slicingTask the task that runs all of the slices
+     * @param slice the search request for the slice, a copy of this request's search request restricted to a single slice
+     */
+    abstract Self forSlice(TaskId slicingTask, SearchRequest slice);
+
+    /**
+     * Setup a clone of this request with the information needed to process a slice of it.
+     */
+    protected Self doForSlice(Self request, TaskId slicingTask) {
+        request.setAbortOnVersionConflict(abortOnVersionConflict).setRefresh(refresh).setTimeout(timeout)
+                .setConsistency(consistency).setRetryBackoffInitialTime(retryBackoffInitialTime).setMaxRetries(maxRetries)
+                // Parent task will store result
+                .setShouldPersistResult(false)
+                // Split requests per second and the prefetch memory between all slices
+                .setRequestsPerSecond(requestsPerSecond / slices)
+                .setScrollPrefetch(scrollPrefetch)
+                .setScrollPrefetchMemoryLimit(new ByteSizeValue(max(1, scrollPrefetchMemoryLimit.bytes() / slices)))
+                // Slices aren't sliced any further
+                .setSlices(1);
+        // Set the parent task so this task is cancelled if we cancel the parent
+        request.setParentTask(slicingTask);
+        return request;
+    }
+
     @Override
     public Task createTask(long id, String type, String action, TaskId parentTaskId) {
+        if (slices > 1) {
+            return new ParentBulkByScrollTask(id, type, action, getDescription(), parentTaskId, requestsPerSecond, slices);
+        }
         return new BulkByScrollTask(id, type, action, getDescription(), parentTaskId, requestsPerSecond);
     }
 
@@ -322,6 +449,9 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         retryBackoffInitialTime = new TimeValue(in);
         maxRetries = in.readVInt();
         requestsPerSecond = in.readFloat();
+        slices = in.readVInt();
+        scrollPrefetch = in.readVInt();
+        scrollPrefetchMemoryLimit = ByteSizeValue.readBytesSizeValue(in);
     }
 
     @Override
@@ -336,6 +466,9 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         retryBackoffInitialTime.writeTo(out);
         out.writeVInt(maxRetries);
         out.writeFloat(requestsPerSecond);
+        out.writeVInt(slices);
+        out.writeVInt(scrollPrefetch);
+        scrollPrefetchMemoryLimit.writeTo(out);
     }
 
     /**
@@ -351,5 +484,8 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         if (searchRequest.types() != null && searchRequest.types().length != 0) {
             b.append(Arrays.toString(searchRequest.types()));
         }
+        if (slices > 1) {
+            b.append(" in ").append(slices).append(" slices");
+        }
     }
 }
@@ -24,6 +24,7 @@ import org.elasticsearch.action.ActionRequestBuilder;
 import org.elasticsearch.action.WriteConsistencyLevel;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.client.ElasticsearchClient;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
 
@@ -132,6 +133,31 @@ public abstract class AbstractBulkByScrollRequestBuilder<
         return self();
     }
 
+    /**
+     * The number of slices this task should be divided into. Defaults to 1 meaning the task isn't sliced into subtasks.
+     */
+    public Self setSlices(int slices) {
+        request.setSlices(slices);
+        return self();
+    }
+
+    /**
+     * How many pages of the scroll to fetch ahead of the batch that is currently being processed. Defaults to 0 meaning the next page is
+     * only fetched once the current batch has been processed.
+     */
+    public Self setScrollPrefetch(int scrollPrefetch) {
+        request.setScrollPrefetch(scrollPrefetch);
+        return self();
+    }
+
+    /**
+     * Upper bound for the size of the documents in the pages fetched ahead. No more pages are fetched ahead once it is reached.
+     */
+    public Self setScrollPrefetchMemoryLimit(ByteSizeValue scrollPrefetchMemoryLimit) {
+        request.setScrollPrefetchMemoryLimit(scrollPrefetchMemoryLimit);
+        return self();
+    }
+
     /**
      * Should this task persist its result after it has finished?
      */
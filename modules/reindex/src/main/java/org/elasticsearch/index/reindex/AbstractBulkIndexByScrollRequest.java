@@ -24,6 +24,7 @@ import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.script.Script;
+import org.elasticsearch.tasks.TaskId;
 
 import java.io.IOException;
 
@@ -38,7 +39,11 @@ public abstract class AbstractBulkIndexByScrollRequest<Self extends AbstractBulk
     }
 
     public AbstractBulkIndexByScrollRequest(SearchRequest source) {
-        super(source);
+        this(source, true);
+    }
+
+    protected AbstractBulkIndexByScrollRequest(SearchRequest source, boolean setDefaults) {
+        super(source, setDefaults);
     }
 
     /**
@@ -56,6 +61,12 @@ public abstract class AbstractBulkIndexByScrollRequest<Self extends AbstractBulk
         return self();
     }
 
+    @Override
+    protected Self doForSlice(Self request, TaskId slicingTask) {
+        request.setScript(script);
+        return super.doForSlice(request, slicingTask);
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
@@ -34,6 +34,7 @@ import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -42,6 +43,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.round;
 import static org.elasticsearch.common.unit.TimeValue.timeValueNanos;
 
@@ -158,6 +160,52 @@ public class BulkByScrollTask extends CancellableTask {
             this.throttledUntil = throttledUntil;
         }
 
+        /**
+         * Build the status of a sliced request from the statuses of its slices. Counts are summed up and the request is throttled until
+         * the first of its sleeping slices wakes up.
+         */
+        public Status(List<Status> sliceStatuses, float requestsPerSecond, @Nullable String reasonCancelled) {
+            long total = 0;
+            long updated = 0;
+            long created = 0;
+            long deleted = 0;
+            int batches = 0;
+            long versionConflicts = 0;
+            long noops = 0;
+            long bulkRetries = 0;
+            long searchRetries = 0;
+            long throttledNanos = 0;
+            long throttledUntilNanos = Long.MAX_VALUE;
+            for (Status slice : sliceStatuses) {
+                total += slice.getTotal();
+                updated += slice.getUpdated();
+                created += slice.getCreated();
+                deleted += slice.getDeleted();
+                batches += slice.getBatches();
+                versionConflicts += slice.getVersionConflicts();
+                noops += slice.getNoops();
+                bulkRetries += slice.getBulkRetries();
+                searchRetries += slice.getSearchRetries();
+                throttledNanos += slice.getThrottled().nanos();
+                if (slice.getThrottledUntil().nanos() > 0) {
+                    throttledUntilNanos = min(throttledUntilNanos, slice.getThrottledUntil().nanos());
+                }
+            }
+            this.total = total;
+            this.updated = updated;
+            this.created = created;
+            this.deleted = deleted;
+            this.batches = batches;
+            this.versionConflicts = versionConflicts;
+            this.noops = noops;
+            this.bulkRetries = bulkRetries;
+            this.searchRetries = searchRetries;
+            this.throttled = timeValueNanos(throttledNanos);
+            this.requestsPerSecond = requestsPerSecond;
+            this.reasonCancelled = reasonCancelled;
+            this.throttledUntil = timeValueNanos(throttledUntilNanos == Long.MAX_VALUE ? 0 : throttledUntilNanos);
+        }
+
         public Status(StreamInput in) throws IOException {
             total = in.readVLong();
             updated = in.readVLong();
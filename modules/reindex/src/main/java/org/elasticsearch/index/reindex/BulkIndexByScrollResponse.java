@@ -22,6 +22,7 @@ package org.elasticsearch.index.reindex;
 import org.elasticsearch.action.ActionResponse;
 import org.elasticsearch.action.bulk.BulkItemResponse.Failure;
 import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.unit.TimeValue;
@@ -32,10 +33,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 import static org.elasticsearch.action.search.ShardSearchFailure.readShardSearchFailure;
+import static org.elasticsearch.common.unit.TimeValue.timeValueNanos;
 
 /**
  * Response used for actions that index many documents using a scroll request.
@@ -59,6 +62,26 @@ public class BulkIndexByScrollResponse extends ActionResponse implements ToXCont
         this.timedOut = timedOut;
     }
 
+    /**
+     * Merge the responses of the slices of a sliced request into a single response.
+     */
+    public BulkIndexByScrollResponse(Iterable<BulkIndexByScrollResponse> toMerge, float requestsPerSecond,
+                                     @Nullable String reasonCancelled) {
+        long tookNanos = 0;
+        List<BulkByScrollTask.Status> statuses = new ArrayList<>();
+        indexingFailures = new ArrayList<>();
+        searchFailures = new ArrayList<>();
+        for (BulkIndexByScrollResponse response : toMerge) {
+            tookNanos = max(tookNanos, response.getTook().nanos());
+            statuses.add(response.getStatus());
+            indexingFailures.addAll(response.getIndexingFailures());
+            searchFailures.addAll(response.getSearchFailures());
+            timedOut |= response.isTimedOut();
+        }
+        took = timeValueNanos(tookNanos);
+        status = new BulkByScrollTask.Status(statuses, requestsPerSecond, reasonCancelled);
+    }
+
     public TimeValue getTook() {
         return took;
     }
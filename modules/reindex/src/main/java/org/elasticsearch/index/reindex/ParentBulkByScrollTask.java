@@ -0,0 +1,165 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.reindex;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.tasks.TaskId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Task for a bulk by scroll request that is sliced into sub-requests. Each slice runs as its own {@link BulkByScrollTask}, a child of this
+ * task, and this task aggregates their status, splits rethrottle requests between them and combines their responses once they have all
+ * finished. Cancelling this task cancels the slices because the task manager bans and cancels all of the children of a cancelled task.
+ */
+class ParentBulkByScrollTask extends BulkByScrollTask {
+    /**
+     * Slices that have been started and haven't yet finished. Used to fetch their status and to rethrottle them.
+     */
+    private final AtomicReferenceArray<BulkByScrollTask> runningSlices;
+    /**
+     * Results of the slices that have finished.
+     */
+    private final AtomicReferenceArray<SliceResult> results;
+    private final AtomicInteger remaining;
+
+    ParentBulkByScrollTask(long id, String type, String action, String description, TaskId parentTaskId, float requestsPerSecond,
+            int slices) {
+        super(id, type, action, description, parentTaskId, requestsPerSecond);
+        this.runningSlices = new AtomicReferenceArray<>(slices);
+        this.results = new AtomicReferenceArray<>(slices);
+        this.remaining = new AtomicInteger(slices);
+    }
+
+    @Override
+    protected void onCancelled() {
+        // The slices are cancelled by the task manager because they are our children, there is nothing to reschedule on this task.
+    }
+
+    @Override
+    public Status getStatus() {
+        List<Status> sliceStatuses = new ArrayList<>(results.length());
+        for (int slice = 0; slice < results.length(); slice++) {
+            SliceResult result = results.get(slice);
+            if (result != null) {
+                if (result.response != null) {
+                    sliceStatuses.add(result.response.getStatus());
+                }
+                continue;
+            }
+            BulkByScrollTask running = runningSlices.get(slice);
+            if (running != null) {
+                sliceStatuses.add(running.getStatus());
+            }
+        }
+        return new Status(sliceStatuses, getRequestsPerSecond(), getReasonCancelled());
+    }
+
+    @Override
+    void rethrottle(float newRequestsPerSecond) {
+        // Record the new throttle so it shows up in our status. There is never a delayed request to reschedule on this task.
+        super.rethrottle(newRequestsPerSecond);
+        List<BulkByScrollTask> running = new ArrayList<>(runningSlices.length());
+        for (int slice = 0; slice < runningSlices.length(); slice++) {
+            BulkByScrollTask task = runningSlices.get(slice);
+            if (task != null) {
+                running.add(task);
+            }
+        }
+        if (running.isEmpty()) {
+            return;
+        }
+        // Split the new throttle between the slices that are still running
+        float sliceRequestsPerSecond = newRequestsPerSecond / running.size();
+        for (BulkByScrollTask task : running) {
+            task.rethrottle(sliceRequestsPerSecond);
+        }
+    }
+
+    /**
+     * Record a slice's task once it has been started so we can fetch its status and rethrottle it.
+     */
+    void setSlice(int sliceId, BulkByScrollTask slice) {
+        runningSlices.set(sliceId, slice);
+        // Pick up any rethrottle that arrived while the slices were starting
+        float sliceRequestsPerSecond = getRequestsPerSecond() / runningSlices.length();
+        if (slice.getRequestsPerSecond() != sliceRequestsPerSecond) {
+            slice.rethrottle(sliceRequestsPerSecond);
+        }
+        if (results.get(sliceId) != null) {
+            // The slice finished before we could record it
+            runningSlices.set(sliceId, null);
+        }
+    }
+
+    /**
+     * Record a successful response from a slice and respond to the listener if this was the last slice to finish.
+     */
+    void onSliceResponse(ActionListener<BulkIndexByScrollResponse> listener, int sliceId, BulkIndexByScrollResponse response) {
+        results.set(sliceId, new SliceResult(response, null));
+        runningSlices.set(sliceId, null);
+        respondIfAllSlicesFinished(listener);
+    }
+
+    /**
+     * Record a failure from a slice and respond to the listener if this was the last slice to finish.
+     */
+    void onSliceFailure(ActionListener<BulkIndexByScrollResponse> listener, int sliceId, Throwable t) {
+        results.set(sliceId, new SliceResult(null, t));
+        runningSlices.set(sliceId, null);
+        respondIfAllSlicesFinished(listener);
+    }
+
+    private void respondIfAllSlicesFinished(ActionListener<BulkIndexByScrollResponse> listener) {
+        if (remaining.decrementAndGet() != 0) {
+            return;
+        }
+        List<BulkIndexByScrollResponse> responses = new ArrayList<>(results.length());
+        Throwable failure = null;
+        for (int slice = 0; slice < results.length(); slice++) {
+            SliceResult result = results.get(slice);
+            if (result.failure == null) {
+                responses.add(result.response);
+            } else if (failure == null) {
+                failure = result.failure;
+            } else {
+                failure.addSuppressed(result.failure);
+            }
+        }
+        if (failure == null) {
+            listener.onResponse(new BulkIndexByScrollResponse(responses, getRequestsPerSecond(), getReasonCancelled()));
+        } else {
+            listener.onFailure(failure);
+        }
+    }
+
+    private static final class SliceResult {
+        final BulkIndexByScrollResponse response;
+        final Throwable failure;
+
+        SliceResult(BulkIndexByScrollResponse response, Throwable failure) {
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+}
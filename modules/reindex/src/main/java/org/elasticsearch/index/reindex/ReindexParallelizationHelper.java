@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.reindex;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.support.TransportAction;
+import org.elasticsearch.index.mapper.internal.UidFieldMapper;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskManager;
+
+/**
+ * Helps parallelize reindex requests using sliced scrolls.
+ */
+class ReindexParallelizationHelper {
+    private ReindexParallelizationHelper() {}
+
+    /**
+     * Start one sub-request per slice of the request, each running as a child of the slicing task, and respond to the listener once
+     * all of them have finished.
+     */
+    static <Request extends AbstractBulkByScrollRequest<Request>> void startSlices(
+            TransportAction<Request, BulkIndexByScrollResponse> action, TaskManager taskManager, String localNodeId,
+            ParentBulkByScrollTask task, Request request, ActionListener<BulkIndexByScrollResponse> listener) {
+        TaskId parentTaskId = new TaskId(localNodeId, task.getId());
+        // The slices run on this node. Registering it lets cancelling the parent ban and cancel them.
+        taskManager.registerChildTask(task, localNodeId);
+        SearchRequest[] slices = sliceIntoSubRequests(request.getSearchRequest(), UidFieldMapper.NAME, request.getSlices());
+        for (int slice = 0; slice < slices.length; slice++) {
+            final int sliceId = slice;
+            Request sliceRequest = request.forSlice(parentTaskId, slices[slice]);
+            ActionListener<BulkIndexByScrollResponse> sliceListener = new ActionListener<BulkIndexByScrollResponse>() {
+                @Override
+                public void onResponse(BulkIndexByScrollResponse response) {
+                    task.onSliceResponse(listener, sliceId, response);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    task.onSliceFailure(listener, sliceId, e);
+                }
+            };
+            Task sliceTask;
+            try {
+                sliceTask = action.execute(sliceRequest, sliceListener);
+            } catch (Throwable t) {
+                // Registering the slice fails if the parent was cancelled in the mean time
+                sliceListener.onFailure(t);
+                continue;
+            }
+            task.setSlice(sliceId, (BulkByScrollTask) sliceTask);
+        }
+    }
+
+    /**
+     * Slice a search request into {@code times} separate search requests slicing on {@code field}. Note that the slices are *shallow*
+     * copies of this request so don't change them.
+     */
+    static SearchRequest[] sliceIntoSubRequests(SearchRequest request, String field, int times) {
+        SearchRequest[] slices = new SearchRequest[times];
+        for (int slice = 0; slice < times; slice++) {
+            SliceBuilder sliceBuilder = new SliceBuilder(field, slice, times);
+            SearchSourceBuilder slicedSource;
+            if (request.source() == null) {
+                slicedSource = new SearchSourceBuilder().slice(sliceBuilder);
+            } else {
+                slicedSource = request.source().copyWithNewSlice(sliceBuilder);
+            }
+            slices[slice] = new SearchRequest()
+                    .source(slicedSource)
+                    .searchType(request.searchType())
+                    .indices(request.indices())
+                    .types(request.types())
+                    .routing(request.routing())
+                    .preference(request.preference())
+                    .requestCache(request.requestCache())
+                    .scroll(request.scroll())
+                    .indicesOptions(request.indicesOptions())
+                    .batchedReduceSize(request.batchedReduceSize());
+        }
+        return slices;
+    }
+}
@@ -30,6 +30,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.tasks.TaskInfo;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
@@ -47,11 +48,21 @@ public class TransportRethrottleAction extends TransportTasksAction<BulkByScroll
 
     @Override
     protected TaskInfo taskOperation(RethrottleRequest request, BulkByScrollTask task) {
+        if (isSliceOfLocalParent(task)) {
+            // Slices are rethrottled through their parent which splits the new throttle between them
+            return task.taskInfo(clusterService.localNode(), true);
+        }
         // Apply the new throttle and fetch status of the task. The user might not want that status but they likely do and it is cheap.
         task.rethrottle(request.getRequestsPerSecond());
         return task.taskInfo(clusterService.localNode(), true);
     }
 
+    private boolean isSliceOfLocalParent(BulkByScrollTask task) {
+        TaskId parentTaskId = task.getParentTaskId();
+        return parentTaskId.isSet() && parentTaskId.getNodeId().equals(clusterService.localNode().getId())
+                && taskManager.getTask(parentTaskId.getId()) instanceof ParentBulkByScrollTask;
+    }
+
     @Override
     protected TaskInfo readTaskResponse(StreamInput in) throws IOException {
         return new TaskInfo(in);
@@ -67,6 +67,11 @@ public class TransportUpdateByQueryAction extends HandledTransportAction<UpdateB
 
     @Override
     protected void doExecute(Task task, UpdateByQueryRequest request, ActionListener<BulkIndexByScrollResponse> listener) {
+        if (request.getSlices() > 1) {
+            ReindexParallelizationHelper.startSlices(this, taskManager, clusterService.localNode().getId(), (ParentBulkByScrollTask) task,
+                    request, listener);
+            return;
+        }
         ClusterState state = clusterService.state();
         ParentTaskAssigningClient client = new ParentTaskAssigningClient(this.client, clusterService.localNode(), task);
         new AsyncIndexBySearchAction((BulkByScrollTask) task, logger, client, threadPool, request, listener, scriptService, state).start();
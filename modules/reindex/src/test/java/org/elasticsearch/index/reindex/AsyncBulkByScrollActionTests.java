@@ -54,9 +54,11 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.client.FilterClient;
 import org.elasticsearch.client.ParentTaskAssigningClient;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.text.Text;
 import org.elasticsearch.common.transport.LocalTransportAddress;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -223,6 +225,85 @@ public class AsyncBulkByScrollActionTests extends ESTestCase {
         assertEquals(total, testTask.getStatus().getTotal());
     }
 
+    /**
+     * Tests that the pages of the scroll are fetched ahead of the batches up to the prefetch depth and are handed out in order.
+     */
+    public void testScrollPrefetch() throws Exception {
+        int depth = between(1, 5);
+        testRequest.setScrollPrefetch(depth);
+        AtomicReference<Runnable> capturedCommand = new AtomicReference<>();
+        threadPool.shutdown();
+        threadPool = new TestThreadPool(getTestName()) {
+            @Override
+            public ScheduledFuture<?> schedule(TimeValue delay, String name, Runnable command) {
+                // Don't run the batches, we just want to see what happens to the scroll
+                capturedCommand.set(command);
+                return null;
+            }
+        };
+        DummyAbstractAsyncBulkByScrollAction action = new DummyAbstractAsyncBulkByScrollAction();
+        action.setScroll(scrollId());
+        action.onScrollResponse(timeValueNanos(System.nanoTime()), 0, pageOfOneHit("first", null));
+        assertNotNull("the first batch should be scheduled", capturedCommand.get());
+
+        // Each page that comes back triggers fetching the next one until we are depth pages ahead
+        List<SearchResponse> prefetched = new ArrayList<>();
+        for (int page = 0; page < depth; page++) {
+            assertEquals(page + 1, client.scrollAttempts.get());
+            SearchResponse response = pageOfOneHit("page" + page, null);
+            prefetched.add(response);
+            client.lastScroll.get().listener.onResponse(response);
+        }
+        assertEquals("shouldn't fetch more than depth pages ahead", depth, client.scrollAttempts.get());
+
+        // Taking a page out frees up room to fetch another one
+        capturedCommand.set(null);
+        action.startNextScroll(timeValueNanos(System.nanoTime()), 0);
+        assertNotNull("the next batch should be scheduled right away", capturedCommand.get());
+        assertEquals(depth + 1, client.scrollAttempts.get());
+
+        // Once we've taken every page out the next batch waits for the page being fetched
+        for (int page = 1; page < depth; page++) {
+            action.startNextScroll(timeValueNanos(System.nanoTime()), 0);
+        }
+        capturedCommand.set(null);
+        action.startNextScroll(timeValueNanos(System.nanoTime()), 0);
+        assertNull("the next batch should wait for its page", capturedCommand.get());
+        client.lastScroll.get().listener.onResponse(pageOfOneHit("last", null));
+        assertNotNull("the next batch should be scheduled when its page arrives", capturedCommand.get());
+        assertFalse(listener.isDone());
+    }
+
+    public void testScrollPrefetchMemoryLimit() throws Exception {
+        testRequest.setScrollPrefetch(between(2, 5));
+        testRequest.setScrollPrefetchMemoryLimit(new ByteSizeValue(1));
+        threadPool.shutdown();
+        threadPool = new TestThreadPool(getTestName()) {
+            @Override
+            public ScheduledFuture<?> schedule(TimeValue delay, String name, Runnable command) {
+                return null;
+            }
+        };
+        DummyAbstractAsyncBulkByScrollAction action = new DummyAbstractAsyncBulkByScrollAction();
+        action.setScroll(scrollId());
+        action.onScrollResponse(timeValueNanos(System.nanoTime()), 0, pageOfOneHit("first", null));
+        assertEquals(1, client.scrollAttempts.get());
+        client.lastScroll.get().listener.onResponse(pageOfOneHit("second", new BytesArray("{\"foo\": \"bar\"}")));
+        assertEquals("a single page fills up the memory limit", 1, client.scrollAttempts.get());
+        action.startNextScroll(timeValueNanos(System.nanoTime()), 0);
+        assertEquals(2, client.scrollAttempts.get());
+    }
+
+    private SearchResponse pageOfOneHit(String id, BytesArray source) {
+        InternalSearchHit hit = new InternalSearchHit(0, id, new Text("type"), emptyMap());
+        if (source != null) {
+            hit.sourceRef(source);
+        }
+        InternalSearchHits hits = new InternalSearchHits(new InternalSearchHit[] { hit }, 0, 0);
+        InternalSearchResponse internalResponse = new InternalSearchResponse(hits, null, null, null, false, false);
+        return new SearchResponse(internalResponse, scrollId(), 5, 4, randomLong(), null);
+    }
+
     /**
      * Tests that each scroll response is a batch and that the batch is launched properly.
      */
@@ -691,6 +772,11 @@ public class AsyncBulkByScrollActionTests extends ESTestCase {
             super(searchRequest);
         }
 
+        @Override
+        DummyAbstractBulkByScrollRequest forSlice(TaskId slicingTask, SearchRequest slice) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         protected DummyAbstractBulkByScrollRequest self() {
             return this;
@@ -0,0 +1,149 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.reindex;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse.Failure;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.elasticsearch.common.unit.TimeValue.timeValueMillis;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.hasSize;
+
+public class ParentBulkByScrollTaskTests extends ESTestCase {
+    private int slices;
+    private ParentBulkByScrollTask task;
+    private List<BulkByScrollTask> sliceTasks;
+
+    @Before
+    public void createTasks() {
+        slices = between(2, 50);
+        task = new ParentBulkByScrollTask(1, "test_type", "test_action", "test", TaskId.EMPTY_TASK_ID, slices * 10, slices);
+        sliceTasks = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            BulkByScrollTask sliceTask = new BulkByScrollTask(slice + 2, "test_type", "test_action", "test", new TaskId("node", 1), 10);
+            sliceTasks.add(sliceTask);
+            task.setSlice(slice, sliceTask);
+        }
+    }
+
+    public void testStatusSumsSlices() {
+        for (int slice = 0; slice < slices; slice++) {
+            BulkByScrollTask sliceTask = sliceTasks.get(slice);
+            sliceTask.setTotal(10);
+            for (int i = 0; i <= slice; i++) {
+                sliceTask.countCreated();
+            }
+            sliceTask.countBatch();
+        }
+        BulkByScrollTask.Status status = task.getStatus();
+        assertEquals(slices * 10, status.getTotal());
+        assertEquals(slices * (slices + 1) / 2, status.getCreated());
+        assertEquals(slices, status.getBatches());
+        assertEquals(slices * 10, status.getRequestsPerSecond(), 0f);
+    }
+
+    public void testRethrottleSplitsBetweenRunningSlices() {
+        int finished = between(0, slices - 1);
+        AtomicReference<BulkIndexByScrollResponse> response = new AtomicReference<>();
+        for (int slice = 0; slice < finished; slice++) {
+            task.onSliceResponse(listener(response), slice, sliceResponse(sliceTasks.get(slice), emptyList()));
+        }
+        task.rethrottle(100);
+        assertEquals(100, task.getStatus().getRequestsPerSecond(), 0f);
+        for (int slice = 0; slice < slices; slice++) {
+            float expected = slice < finished ? 10 : 100f / (slices - finished);
+            assertEquals(expected, sliceTasks.get(slice).getRequestsPerSecond(), 0f);
+        }
+        assertNull(response.get());
+    }
+
+    public void testResponsesAreMerged() {
+        AtomicReference<BulkIndexByScrollResponse> response = new AtomicReference<>();
+        for (int slice = 0; slice < slices; slice++) {
+            BulkByScrollTask sliceTask = sliceTasks.get(slice);
+            sliceTask.countDeleted();
+            sliceTask.countVersionConflict();
+            List<Failure> failures = singletonList(new Failure("test", "test", Integer.toString(slice), new IllegalArgumentException()));
+            task.onSliceResponse(listener(response), slice, sliceResponse(sliceTask, failures));
+            if (slice < slices - 1) {
+                assertNull("responded before all slices were finished", response.get());
+            }
+        }
+        BulkIndexByScrollResponse merged = response.get();
+        assertNotNull(merged);
+        assertEquals(slices, merged.getDeleted());
+        assertEquals(slices, merged.getVersionConflicts());
+        assertThat(merged.getIndexingFailures(), hasSize(slices));
+        assertEquals(timeValueMillis(slices - 1), merged.getTook());
+    }
+
+    public void testFailuresAreCombined() {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ActionListener<BulkIndexByScrollResponse> listener = new ActionListener<BulkIndexByScrollResponse>() {
+            @Override
+            public void onResponse(BulkIndexByScrollResponse response) {
+                fail("expected a failure");
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                assertTrue(failure.compareAndSet(null, e));
+            }
+        };
+        int failed = between(1, slices);
+        for (int slice = 0; slice < slices; slice++) {
+            if (slice < failed) {
+                task.onSliceFailure(listener, slice, new IllegalStateException("slice " + slice));
+            } else {
+                task.onSliceResponse(listener, slice, sliceResponse(sliceTasks.get(slice), emptyList()));
+            }
+        }
+        assertEquals("slice 0", failure.get().getMessage());
+        assertThat(failure.get().getSuppressed(), arrayWithSize(failed - 1));
+    }
+
+    private BulkIndexByScrollResponse sliceResponse(BulkByScrollTask sliceTask, List<Failure> failures) {
+        return new BulkIndexByScrollResponse(timeValueMillis(sliceTask.getId() - 2), sliceTask.getStatus(), failures, emptyList(),
+                false);
+    }
+
+    private ActionListener<BulkIndexByScrollResponse> listener(AtomicReference<BulkIndexByScrollResponse> response) {
+        return new ActionListener<BulkIndexByScrollResponse>() {
+            @Override
+            public void onResponse(BulkIndexByScrollResponse r) {
+                assertTrue(response.compareAndSet(null, r));
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                throw new AssertionError(e);
+            }
+        };
+    }
+}
@@ -21,6 +21,10 @@ package org.elasticsearch.index.reindex;
 
 import org.elasticsearch.action.ListenableActionFuture;
 import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskInfo;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.Matchers.hasSize;
 
@@ -32,18 +36,30 @@ import static org.hamcrest.Matchers.hasSize;
 public class RethrottleTests extends ReindexTestCase {
 
     public void testReindex() throws Exception {
-        testCase(reindex().source("test").destination("dest"), ReindexAction.NAME);
+        testCase(reindex().source("test").destination("dest"), ReindexAction.NAME, 1);
     }
 
     public void testUpdateByQuery() throws Exception {
-        testCase(updateByQuery().source("test"), UpdateByQueryAction.NAME);
+        testCase(updateByQuery().source("test"), UpdateByQueryAction.NAME, 1);
     }
 
     public void testDeleteByQuery() throws Exception {
-        testCase(deleteByQuery().source("test"), DeleteByQueryAction.NAME);
+        testCase(deleteByQuery().source("test"), DeleteByQueryAction.NAME, 1);
+    }
+
+    public void testReindexWithSlices() throws Exception {
+        testCase(reindex().source("test").destination("dest"), ReindexAction.NAME, between(2, 5));
+    }
+
+    public void testUpdateByQueryWithSlices() throws Exception {
+        testCase(updateByQuery().source("test"), UpdateByQueryAction.NAME, between(2, 5));
+    }
+
+    public void testDeleteByQueryWithSlices() throws Exception {
+        testCase(deleteByQuery().source("test"), DeleteByQueryAction.NAME, between(2, 5));
     }
 
-    private void testCase(AbstractBulkByScrollRequestBuilder<?, ?> request, String actionName)
+    private void testCase(AbstractBulkByScrollRequestBuilder<?, ?> request, String actionName, int slices)
             throws Exception {
         // Use a single shard so the reindex has to happen in multiple batches
         client().admin().indices().prepareCreate("test").setSettings("index.number_of_shards", 1).get();
@@ -55,16 +71,38 @@ public class RethrottleTests extends ReindexTestCase {
         // Start a request that will never finish unless we rethrottle it
         request.setRequestsPerSecond(.000001f);  // Throttle "forever"
         request.source().setSize(1);             // Make sure we use multiple batches
+        request.setSlices(slices);
         ListenableActionFuture<? extends BulkIndexByScrollResponse> responseListener = request.execute();
 
-        // Now rethrottle it so it'll finish
-        ListTasksResponse rethrottleResponse = rethrottle().setActions(actionName).setRequestsPerSecond(Float.POSITIVE_INFINITY).get();
+        ListTasksResponse rethrottleResponse;
+        if (slices == 1) {
+            // Now rethrottle it so it'll finish
+            rethrottleResponse = rethrottle().setActions(actionName).setRequestsPerSecond(Float.POSITIVE_INFINITY).get();
+        } else {
+            // Rethrottle the request that started the slices so it'll finish
+            AtomicReference<TaskId> parentTaskId = new AtomicReference<>();
+            assertBusy(() -> {
+                for (TaskInfo task : client().admin().cluster().prepareListTasks().setActions(actionName).get().getTasks()) {
+                    if (task.getParentTaskId().isSet() == false) {
+                        parentTaskId.set(task.getTaskId());
+                    }
+                }
+                assertNotNull(parentTaskId.get());
+            });
+            rethrottleResponse = rethrottle().setTaskId(parentTaskId.get()).setRequestsPerSecond(Float.POSITIVE_INFINITY).get();
+        }
         assertThat(rethrottleResponse.getTasks(), hasSize(1));
         BulkByScrollTask.Status status = (BulkByScrollTask.Status) rethrottleResponse.getTasks().get(0).getStatus();
         assertEquals(Float.POSITIVE_INFINITY, status.getRequestsPerSecond(), Float.MIN_NORMAL);
 
         // Now the response should come back quickly because we've rethrottled the request
         BulkIndexByScrollResponse response = responseListener.get();
-        assertEquals("Batches didn't match, this may invalidate the test as throttling is done between batches", 3, response.getBatches());
+        if (slices == 1) {
+            assertEquals("Batches didn't match, this may invalidate the test as throttling is done between batches", 3,
+                    response.getBatches());
+        } else {
+            // The documents are spread between the slices so we can't know the number of batches up front
+            assertEquals(3, response.getCreated() + response.getUpdated() + response.getDeleted());
+        }
     }
 }
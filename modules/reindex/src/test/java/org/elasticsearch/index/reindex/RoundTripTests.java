@@ -27,6 +27,7 @@ import org.elasticsearch.action.search.ShardSearchFailure;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
 import org.elasticsearch.common.lucene.uid.Versions;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.rest.RestStatus;
@@ -81,6 +82,9 @@ public class RoundTripTests extends ESTestCase {
         request.setConsistency(randomFrom(WriteConsistencyLevel.values()));
         request.setScript(random().nextBoolean() ? null : randomScript());
         request.setRequestsPerSecond(between(0, Integer.MAX_VALUE));
+        request.setSlices(between(1, Integer.MAX_VALUE));
+        request.setScrollPrefetch(between(0, 10));
+        request.setScrollPrefetchMemoryLimit(new ByteSizeValue(between(1, Integer.MAX_VALUE)));
     }
 
     private void assertRequestEquals(AbstractBulkIndexByScrollRequest<?> request,
@@ -95,6 +99,9 @@ public class RoundTripTests extends ESTestCase {
         assertEquals(request.getRetryBackoffInitialTime(), tripped.getRetryBackoffInitialTime());
         assertEquals(request.getMaxRetries(), tripped.getMaxRetries());
         assertEquals(request.getRequestsPerSecond(), tripped.getRequestsPerSecond(), 0d);
+        assertEquals(request.getSlices(), tripped.getSlices());
+        assertEquals(request.getScrollPrefetch(), tripped.getScrollPrefetch());
+        assertEquals(request.getScrollPrefetchMemoryLimit(), tripped.getScrollPrefetchMemoryLimit());
     }
 
     public void testBulkByTaskStatus() throws IOException {
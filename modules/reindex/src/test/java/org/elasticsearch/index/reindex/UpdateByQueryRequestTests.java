@@ -21,12 +21,17 @@ package org.elasticsearch.index.reindex;
 
 import org.elasticsearch.action.IndicesRequest;
 import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.mapper.internal.UidFieldMapper;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.test.ESTestCase;
 
 import java.util.List;
 
 import static org.apache.lucene.util.TestUtil.randomSimpleString;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.sameInstance;
 
@@ -46,4 +51,57 @@ public class UpdateByQueryRequestTests extends ESTestCase {
         }
         assertThat(subRequests.get(numIndices), sameInstance(request.getSearchRequest()));
     }
+
+    public void testForSlice() {
+        UpdateByQueryRequest request = new UpdateByQueryRequest(new SearchRequest("test"));
+        request.setAbortOnVersionConflict(randomBoolean());
+        request.setRefresh(randomBoolean());
+        request.setTimeout(TimeValue.timeValueSeconds(between(1, 100)));
+        request.setMaxRetries(between(0, 20));
+        request.setRequestsPerSecond(between(1, 1000));
+        request.setPipeline(randomAsciiOfLength(5));
+        request.setSlices(between(2, 10));
+        request.setShouldPersistResult(true);
+
+        SearchRequest[] slices = ReindexParallelizationHelper.sliceIntoSubRequests(request.getSearchRequest(), UidFieldMapper.NAME,
+                request.getSlices());
+        assertThat(slices, arrayWithSize(request.getSlices()));
+        for (int i = 0; i < slices.length; i++) {
+            assertArrayEquals(request.getSearchRequest().indices(), slices[i].indices());
+            assertEquals(request.getSearchRequest().scroll(), slices[i].scroll());
+            assertEquals(request.getSearchRequest().source().size(), slices[i].source().size());
+            assertEquals(i, slices[i].source().slice().getId());
+            assertEquals(request.getSlices(), slices[i].source().slice().getMax());
+        }
+        assertNull("the original request isn't sliced", request.getSearchRequest().source().slice());
+
+        TaskId slicingTask = new TaskId(randomAsciiOfLength(5), between(0, Integer.MAX_VALUE));
+        UpdateByQueryRequest slice = request.forSlice(slicingTask, slices[0]);
+        assertSame(slices[0], slice.getSearchRequest());
+        assertEquals(slicingTask, slice.getParentTask());
+        assertEquals(1, slice.getSlices());
+        assertEquals(request.getRequestsPerSecond() / request.getSlices(), slice.getRequestsPerSecond(), 0f);
+        assertEquals(request.isAbortOnVersionConflict(), slice.isAbortOnVersionConflict());
+        assertEquals(request.isRefresh(), slice.isRefresh());
+        assertEquals(request.getTimeout(), slice.getTimeout());
+        assertEquals(request.getMaxRetries(), slice.getMaxRetries());
+        assertEquals(request.getPipeline(), slice.getPipeline());
+        assertFalse(slice.getShouldPersistResult());
+    }
+
+    public void testValidateSlices() {
+        UpdateByQueryRequest request = new UpdateByQueryRequest(new SearchRequest("test"));
+        request.setSlices(between(2, 10));
+        assertNull(request.validate());
+
+        request.setSize(between(1, 100));
+        assertThat(request.validate().getMessage(), containsString("can't limit the number of processed documents"));
+        request.setSize(AbstractBulkByScrollRequest.SIZE_ALL_MATCHES);
+
+        request.getSearchRequest().source().slice(new SliceBuilder(0, 2));
+        assertThat(request.validate().getMessage(), containsString("can't specify both slice in the query and [slices]"));
+
+        request.setSlices(0);
+        assertThat(request.validate().getMessage(), containsString("slices must be greater than 0"));
+    }
 }
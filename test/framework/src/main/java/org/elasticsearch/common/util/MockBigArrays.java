@@ -73,15 +73,18 @@ public class MockBigArrays extends BigArrays {
     private final Random random;
     private final PageCacheRecycler recycler;
     private final CircuitBreakerService breakerService;
+    private final Storage searchStorage;
 
     public MockBigArrays(Settings settings, CircuitBreakerService breakerService) {
-        this(new MockPageCacheRecycler(settings), breakerService, false);
+        this(new MockPageCacheRecycler(settings), breakerService, false, SEARCH_STORAGE_SETTING.get(settings));
     }
 
-    private MockBigArrays(PageCacheRecycler recycler, CircuitBreakerService breakerService, boolean checkBreaker) {
-        super(recycler, breakerService, checkBreaker);
+    private MockBigArrays(PageCacheRecycler recycler, CircuitBreakerService breakerService, boolean checkBreaker,
+                          Storage searchStorage) {
+        super(recycler, breakerService, checkBreaker, searchStorage);
         this.recycler = recycler;
         this.breakerService = breakerService;
+        this.searchStorage = searchStorage;
         long seed;
         try {
             seed = SeedUtils.parseSeed(RandomizedContext.current().getRunnerSeedAsString());
@@ -95,7 +98,7 @@ public class MockBigArrays extends BigArrays {
 
     @Override
     public BigArrays withCircuitBreaking() {
-        return new MockBigArrays(this.recycler, this.breakerService, true);
+        return new MockBigArrays(this.recycler, this.breakerService, true, this.searchStorage);
     }
 
     @Override